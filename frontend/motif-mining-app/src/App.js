@@ -4,6 +4,8 @@ import {
   datasets,
   getDefaultParamsForQuery,
   queryTypes,
+  resultSorts,
+  RESULTS_PAGE_SIZE,
 } from "./constants";
 import Alert from "./components/ui/Alert";
 import DataForm from "./components/form/DataForm";
@@ -15,6 +17,9 @@ import {
   getTaskStatus,
   cancelTask,
   acknowledgeTask,
+  getTaskResults,
+  subscribeTaskEvents,
+  TERMINAL_STATUSES,
 } from "./services/ApiService";
 import ErrorBoundary from "./components/ui/ErrorBoundary";
 import { useContentHeight } from "./hooks/useContentHeight";
@@ -31,6 +36,14 @@ const App = () => {
     getDefaultParamsForQuery(queryTypes[0].id)
   );
   const [results, setResults] = useState([]);
+  // The results are fetched by pages: the task they belong to, their total
+  // number and the order in which they are listed
+  const [resultTaskId, setResultTaskId] = useState(null);
+  const [resultTotal, setResultTotal] = useState(0);
+  const [resultSort, setResultSort] = useState(resultSorts[0].id);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
+  // The last progress event of the task being mined
+  const [progress, setProgress] = useState(null);
   const [isLoading, setIsLoading] = useState(false);
   const [alertMessage, setAlertMessage] = useState(null);
   // Track if form has been modified since last submission
@@ -43,6 +56,9 @@ const App = () => {
   // Refs
   const appHeaderRef = useRef(null);
   const alertTimeoutRef = useRef(null);
+  const eventSourceRef = useRef(null);
+  // The sort of the results, read when a task completes
+  const resultSortRef = useRef(resultSorts[0].id);
 
   // Custom hooks
   const { validation, validateForm, clearValidationError, setValidation } =
@@ -75,6 +91,139 @@ const App = () => {
     return () => clearAlertTimeout();
   }, []);
 
+  // Fetch a page of results, replacing the results listed if it is the first
+  const loadResults = useCallback(async (taskId, sortId, offset) => {
+    const [sort, order] = sortId.split(":");
+    const response = await getTaskResults(
+      taskId,
+      offset,
+      RESULTS_PAGE_SIZE,
+      sort,
+      order
+    );
+    if (response.success && response.data) {
+      const page = response.data;
+      setResultTaskId(taskId);
+      setResultTotal(page.total);
+      setResults((prev) =>
+        offset === 0 ? page.results : [...prev, ...page.results]
+      );
+    } else {
+      setAlertMessage({
+        type: "error",
+        message: response.message || "Could not fetch the results.",
+      });
+    }
+  }, []);
+
+  const handleLoadMore = async () => {
+    if (!resultTaskId) return;
+    setIsLoadingMore(true);
+    await loadResults(resultTaskId, resultSort, results.length);
+    setIsLoadingMore(false);
+  };
+
+  const handleResultSortChange = async (sortId) => {
+    setResultSort(sortId);
+    resultSortRef.current = sortId;
+    if (!resultTaskId) return;
+    setIsLoadingMore(true);
+    await loadResults(resultTaskId, sortId, 0);
+    setIsLoadingMore(false);
+  };
+
+  // Apply a status of the current task, received by polling or as an event
+  const applyTaskStatus = useCallback(
+    async (newTaskStatus) => {
+      // Batch state updates to reduce re-renders
+      const updates = {};
+      updates.currentTask = newTaskStatus;
+
+      if (
+        newTaskStatus.status === "PROCESSING" ||
+        newTaskStatus.status === "PENDING"
+      ) {
+        updates.isLoading = true;
+      } else {
+        // COMPLETED, FAILED, CANCELLED, or other terminal states
+        updates.isLoading = false;
+        updates.isPolling = false;
+
+        // Acknowledge terminal state to backend; the results of the task
+        // stay available by pages until the next task is submitted
+        await acknowledgeTask();
+
+        if (newTaskStatus.status === "COMPLETED") {
+          updates.resultTaskId = newTaskStatus.id;
+          // Don't change the alertMessage if it was already set by submitTask
+        }
+        if (newTaskStatus.status === "FAILED") {
+          updates.alertMessage = {
+            type: "error",
+            message: newTaskStatus.error || "Task failed.",
+          };
+        }
+        // Handle CANCELLED if needed
+        if (newTaskStatus.status === "CANCELLED") {
+          updates.alertMessage = {
+            type: "info",
+            message: "Task was cancelled.",
+          };
+        }
+      }
+
+      // When backend reports terminal state, reset isCancelling
+      if (
+        newTaskStatus.status === "COMPLETED" ||
+        newTaskStatus.status === "FAILED" ||
+        newTaskStatus.status === "CANCELLED"
+      ) {
+        updates.isCancelling = false;
+      }
+
+      // Apply all updates at once
+      setCurrentTask(updates.currentTask);
+      if (updates.isLoading !== undefined) setIsLoading(updates.isLoading);
+      if (updates.isPolling !== undefined) setIsPolling(updates.isPolling);
+      if (updates.resultTaskId)
+        await loadResults(updates.resultTaskId, resultSortRef.current, 0);
+      if (updates.alertMessage) setAlertMessage(updates.alertMessage);
+      if (updates.isCancelling !== undefined)
+        setIsCancelling(updates.isCancelling);
+    },
+    [loadResults]
+  );
+
+  // Subscribe to the events of a task instead of polling its status; fall
+  // back to polling if the event stream fails
+  const followTask = useCallback(
+    (taskId) => {
+      if (eventSourceRef.current) eventSourceRef.current.close();
+      eventSourceRef.current = subscribeTaskEvents(taskId, {
+        onStatus: (task) => {
+          if (TERMINAL_STATUSES.includes(task.status)) {
+            eventSourceRef.current = null;
+            setProgress(null);
+          }
+          applyTaskStatus(task);
+        },
+        onProgress: setProgress,
+        onError: () => {
+          eventSourceRef.current = null;
+          setIsPolling(true);
+        },
+      });
+    },
+    [applyTaskStatus]
+  );
+
+  // Close the event stream on unmount
+  useEffect(() => {
+    return () => {
+      if (eventSourceRef.current) eventSourceRef.current.close();
+    };
+  }, []);
+
   // Fetch task status periodically
   useEffect(() => {
     let isMounted = true; // To prevent state updates on unmounted component
@@ -88,61 +237,7 @@ const App = () => {
       if (!isMounted) return; // Check if component is still mounted
 
       if (statusResponse.success && statusResponse.data) {
-        const newTaskStatus = statusResponse.data;
-
-        // Batch state updates to reduce re-renders
-        const updates = {};
-        updates.currentTask = newTaskStatus;
-
-        if (
-          newTaskStatus.status === "PROCESSING" ||
-          newTaskStatus.status === "PENDING"
-        ) {
-          updates.isLoading = true;
-        } else {
-          // COMPLETED, FAILED, CANCELLED, or other terminal states
-          updates.isLoading = false;
-          updates.isPolling = false;
-
-          // Acknowledge terminal state to backend
-          await acknowledgeTask();
-
-          if (newTaskStatus.status === "COMPLETED") {
-            updates.results = newTaskStatus.result || [];
-            // Don't change the alertMessage if it was already set by submitTask
-          }
-          if (newTaskStatus.status === "FAILED") {
-            updates.alertMessage = {
-              type: "error",
-              message: newTaskStatus.error || "Task failed.",
-            };
-          }
-          // Handle CANCELLED if needed
-          if (newTaskStatus.status === "CANCELLED") {
-            updates.alertMessage = {
-              type: "info",
-              message: "Task was cancelled.",
-            };
-          }
-        }
-
-        // When backend reports terminal state, reset isCancelling
-        if (
-          newTaskStatus.status === "COMPLETED" ||
-          newTaskStatus.status === "FAILED" ||
-          newTaskStatus.status === "CANCELLED"
-        ) {
-          updates.isCancelling = false;
-        }
-
-        // Apply all updates at once
-        setCurrentTask(updates.currentTask);
-        if (updates.isLoading !== undefined) setIsLoading(updates.isLoading);
-        if (updates.isPolling !== undefined) setIsPolling(updates.isPolling);
-        if (updates.results) setResults(updates.results);
-        if (updates.alertMessage) setAlertMessage(updates.alertMessage);
-        if (updates.isCancelling !== undefined)
-          setIsCancelling(updates.isCancelling);
+        await applyTaskStatus(statusResponse.data);
       } else if (statusResponse.success && !statusResponse.data) {
         // No active task
         setCurrentTask(null);
@@ -160,7 +255,7 @@ const App = () => {
       isMounted = false; // Set flag on unmount
       if (intervalId) clearInterval(intervalId);
     };
-  }, [isPolling]);
+  }, [isPolling, applyTaskStatus]);
 
   // Restore state from localStorage on mount
   useEffect(() => {
@@ -224,6 +319,8 @@ const App = () => {
     setIsLoading(true);
     setAlertMessage(null);
     setResults([]);
+    setResultTaskId(null);
+    setResultTotal(0);
     setHasRun(true);
 
     const response = await submitTask(engine, dataset, query, params);
@@ -236,7 +333,7 @@ const App = () => {
           type: "success",
           message: response.message, // "Task submitted successfully."
         });
-        setResults(response.data.result || []);
+        await loadResults(response.data.id, resultSort, 0);
         setIsLoading(false); // Task completed immediately
         setIsPolling(false); // Stop polling
       } else if (response.data.status === "FAILED") {
@@ -248,7 +345,7 @@ const App = () => {
         setIsPolling(false); // Stop polling
       }
       setIsFormModified(false); // Mark form as "submitted"
-      setIsPolling(true); // Start polling for updates
+      followTask(response.data.id); // Follow the task through its events
     } else {
       // Submission itself failed (e.g., network error, API conflict, validation error from backend)
       setAlertMessage({
@@ -273,6 +370,8 @@ const App = () => {
   // Clear results and success/info alerts
   const clearResultsAndAlert = useCallback(() => {
     setResults([]);
+    setResultTaskId(null);
+    setResultTotal(0);
     setHasRun(false);
     localStorage.removeItem("motifMiningState");
     // Only clear alert if it is a success (not info)
@@ -372,6 +471,12 @@ const App = () => {
             <ErrorBoundary>
               <ResultsTable
                 results={results}
+                totalCount={resultTotal}
+                sort={resultSort}
+                onSortChange={handleResultSortChange}
+                onLoadMore={handleLoadMore}
+                isLoadingMore={isLoadingMore}
+                progress={progress}
                 isLoading={isLoading}
                 clearResultsAndAlert={clearResultsAndAlert}
                 hasRun={hasRun}
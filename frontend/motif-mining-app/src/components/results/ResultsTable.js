@@ -1,23 +1,23 @@
 import React from "react";
 import { FileTextIcon, LoaderIcon } from "../icons/Icons";
 import ErrorBoundary from "../ui/ErrorBoundary";
-import { TABLE_COLUMN_WIDTHS } from "../../constants";
+import { TABLE_COLUMN_WIDTHS, resultSorts } from "../../constants";
 
-const ResultsTable = ({ results, isLoading, clearResultsAndAlert, hasRun }) => {
+// The results are sorted and paginated by the backend: the table lists the
+// pages fetched so far, out of totalCount results
+const ResultsTable = ({
+  results,
+  totalCount,
+  sort,
+  onSortChange,
+  onLoadMore,
+  isLoadingMore,
+  progress,
+  isLoading,
+  clearResultsAndAlert,
+  hasRun,
+}) => {
   const maxFreq = Math.max(...results.map((item) => item.freq));
-  const sortedResults = [...results].sort((a, b) => {
-    // First, sort by pattern length
-    if (a.pattern.length !== b.pattern.length) {
-      return a.pattern.length - b.pattern.length;
-    }
-    // If same length, sort lexicographically by pattern values
-    for (let i = 0; i < a.pattern.length; i++) {
-      if (a.pattern[i] !== b.pattern[i]) {
-        return a.pattern[i] - b.pattern[i];
-      }
-    }
-    return 0;
-  });
 
   return (
     <div className="card">
@@ -29,19 +29,37 @@ const ResultsTable = ({ results, isLoading, clearResultsAndAlert, hasRun }) => {
           Résultats
           {!isLoading && results.length > 0 && (
             <span className="results-count">
-              ({results.length} motif{results.length > 1 ? "s" : ""} trouvé
-              {results.length > 1 ? "s" : ""})
+              ({totalCount} motif{totalCount > 1 ? "s" : ""} trouvé
+              {totalCount > 1 ? "s" : ""}
+              {results.length < totalCount &&
+                `, ${results.length} affiché${results.length > 1 ? "s" : ""}`}
+              )
             </span>
           )}
         </h2>
         {!isLoading && results.length > 0 && (
-          <button
-            onClick={clearResultsAndAlert}
-            className="clear-button"
-            aria-label="Effacer les résultats"
-          >
-            Effacer
-          </button>
+          <div className="results-actions">
+            <select
+              className="results-sort"
+              value={sort}
+              onChange={(e) => onSortChange(e.target.value)}
+              disabled={isLoadingMore}
+              aria-label="Trier les résultats"
+            >
+              {resultSorts.map((s) => (
+                <option key={s.id} value={s.id}>
+                  {s.label}
+                </option>
+              ))}
+            </select>
+            <button
+              onClick={clearResultsAndAlert}
+              className="clear-button"
+              aria-label="Effacer les résultats"
+            >
+              Effacer
+            </button>
+          </div>
         )}
       </div>
 
@@ -50,6 +68,15 @@ const ResultsTable = ({ results, isLoading, clearResultsAndAlert, hasRun }) => {
           <div className="status-container">
             <LoaderIcon style={{ color: "#2563EB" }} className="status-icon" />
             <p className="status-text">Traitement en cours...</p>
+            {progress && (
+              <p className="status-progress">
+                {progress.patternsFound} motif
+                {progress.patternsFound > 1 ? "s" : ""} trouvé
+                {progress.patternsFound > 1 ? "s" : ""} en{" "}
+                {(progress.elapsedMillis / 1000).toFixed(1)} s (
+                {Math.round(progress.patternsPerSecond)} motifs/s)
+              </p>
+            )}
           </div>
         ) : results.length > 0 ? (
           <div className="table-container">
@@ -93,7 +120,7 @@ const ResultsTable = ({ results, isLoading, clearResultsAndAlert, hasRun }) => {
                 </tr>
               </thead>
               <tbody>
-                {sortedResults.map((r, i) => (
+                {results.map((r, i) => (
                   <tr key={i} className={i % 2 !== 0 ? "alternate-row" : ""}>
                     <td className="table-cell">{i + 1}</td>
                     <td className="table-cell pattern-cell">
@@ -122,6 +149,17 @@ const ResultsTable = ({ results, isLoading, clearResultsAndAlert, hasRun }) => {
                 ))}
               </tbody>
             </table>
+            {results.length < totalCount && (
+              <div className="load-more-container">
+                <button
+                  onClick={onLoadMore}
+                  className="secondary-button"
+                  disabled={isLoadingMore}
+                >
+                  {isLoadingMore ? "Chargement..." : "Afficher plus"}
+                </button>
+              </div>
+            )}
           </div>
         ) : hasRun ? (
           <div className="status-container no-results-after-run">
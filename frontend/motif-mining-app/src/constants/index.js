@@ -1,4 +1,4 @@
-export const engines = ["Auto", "Choco-mining", "SPMF"];
+export const engines = ["Auto", "Choco-mining", "SPMF", "Eclat"];
 
 export const datasets = [
   { label: "anneal", path: "/data/anneal.dat" },
@@ -76,6 +76,18 @@ export const TABLE_COLUMN_WIDTHS = {
   size: "15%",
 };
 
+// Number of results fetched per page from the backend
+export const RESULTS_PAGE_SIZE = 500;
+
+// Orders in which the results can be listed
+export const resultSorts = [
+  { id: "size:asc", label: "Taille croissante" },
+  { id: "size:desc", label: "Taille décroissante" },
+  { id: "support:desc", label: "Support décroissant" },
+  { id: "support:asc", label: "Support croissant" },
+  { id: "found:asc", label: "Ordre de découverte" },
+];
+
 // Common form elements
 export const FORM_FIELD_IDS = {
   minSupport: "minSupport-input",
@@ -19,7 +19,8 @@ export const submitTask = async (engine, dataset, queryType, params) => {
       queryType,
       params: apiParams,
     });
-    // The backend returns the entire task object. The results are in task.result
+    // The backend returns the task object; its results are fetched by pages
+    // with getTaskResults once it is completed
     return {
       success: true,
       data: response.data,
@@ -93,3 +94,69 @@ export const acknowledgeTask = async () => {
     return { success: false, message: errorMessage };
   }
 };
+
+
+export const getTaskResults = async (
+  taskId,
+  offset = 0,
+  limit = 100,
+  sort = "found",
+  order = "asc"
+) => {
+  try {
+    const response = await axios.get(
+      `${API_BASE_URL}/api/tasks/${taskId}/results`,
+      { params: { offset, limit, sort, order } }
+    );
+    // The backend returns a page: { total, offset, limit, sort, order, results }
+    return { success: true, data: response.data };
+  } catch (error) {
+    console.error("API Error (getTaskResults):", error);
+    let errorMessage = "Failed to fetch task results.";
+    if (error.response) {
+      errorMessage = `Error: ${error.response.status} - ${
+        error.response.data || error.response.statusText
+      }`;
+    } else if (error.request) {
+      errorMessage = "No response from server.";
+    }
+    return { success: false, data: null, message: errorMessage };
+  }
+};
+
+
+export const TERMINAL_STATUSES = ["COMPLETED", "FAILED", "CANCELLED"];
+
+// Opens the event stream of a task: its status transitions ({ id, status,
+// error, resultCount }), its progress ({ patternsFound, elapsedMillis,
+// patternsPerSecond }) and the batches of patterns found. The stream is closed
+// after the terminal status; onError is called if it fails before.
+export const subscribeTaskEvents = (
+  taskId,
+  { onStatus, onProgress, onPatterns, onError }
+) => {
+  const source = new EventSource(`${API_BASE_URL}/api/tasks/${taskId}/events`);
+  let terminal = false;
+
+  source.addEventListener("status", (event) => {
+    const task = JSON.parse(event.data);
+    if (TERMINAL_STATUSES.includes(task.status)) {
+      terminal = true;
+      source.close();
+    }
+    if (onStatus) onStatus(task);
+  });
+  source.addEventListener("progress", (event) => {
+    if (onProgress) onProgress(JSON.parse(event.data));
+  });
+  source.addEventListener("patterns", (event) => {
+    if (onPatterns) onPatterns(JSON.parse(event.data));
+  });
+  source.onerror = (error) => {
+    if (terminal) return;
+    console.error("API Error (subscribeTaskEvents):", error);
+    source.close();
+    if (onError) onError(error);
+  };
+  return source;
+};
@@ -4,23 +4,64 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.BooleanSupplier;
 
+/**
+ * A mining engine. Each extraction pushes the patterns it finds to a
+ * {@link ResultSink} as they are found; the list form of each extraction
+ * collects them with {@link MiningEngine#collect}.
+ */
 public interface Miner {
 
-    List<MiningResult> extractFrequent(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractFrequent(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractClosed(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractClosed(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractMaximal(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractMaximal(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractRare(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractRare(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractGenerators(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractGenerators(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractMinimal(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractMinimal(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractSizeBetween(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractSizeBetween(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractPresence(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractPresence(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
 
-    List<MiningResult> extractAbsence(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception;
+    void extractAbsence(String datasetPath, Map<String, String> params, ResultSink sink, BooleanSupplier cancellationChecker) throws Exception;
+
+    default List<MiningResult> extractFrequent(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractFrequent(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractClosed(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractClosed(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractMaximal(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractMaximal(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractRare(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractRare(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractGenerators(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractGenerators(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractMinimal(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractMinimal(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractSizeBetween(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractSizeBetween(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractPresence(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractPresence(datasetPath, params, sink, cancellationChecker));
+    }
+
+    default List<MiningResult> extractAbsence(String datasetPath, Map<String, String> params, BooleanSupplier cancellationChecker) throws Exception {
+        return MiningEngine.collect(sink -> extractAbsence(datasetPath, params, sink, cancellationChecker));
+    }
 }
@@ -6,10 +6,16 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -18,11 +24,16 @@ import java.util.concurrent.CompletableFuture;
 @CrossOrigin // Autorise les appels depuis React
 public class MiningController {
 
+    // The maximum number of patterns of a page of results
+    static final int MAX_PAGE_SIZE = 10000;
+
     private final TaskManagementService taskManagementService;
+    private final TaskEventService taskEventService;
 
     @Autowired
-    public MiningController(TaskManagementService taskManagementService) {
+    public MiningController(TaskManagementService taskManagementService, TaskEventService taskEventService) {
         this.taskManagementService = taskManagementService;
+        this.taskEventService = taskEventService;
     }
 
     @PostMapping
@@ -80,4 +91,67 @@ public class MiningController {
                     .body("No terminal task to acknowledge.");
         }
     }
+
+    @GetMapping("/{id}/results")
+    public ResponseEntity<?> getTaskResults(@PathVariable String id,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "asc") String order) {
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body("offset must be at least 0 and limit between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        ResultIndex.Sort resultSort;
+        try {
+            resultSort = ResultIndex.Sort.fromName(sort);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        boolean descending = "desc".equalsIgnoreCase(order);
+        if (!descending && !"asc".equalsIgnoreCase(order)) {
+            return ResponseEntity.badRequest().body("Unknown order '" + order + "': expected asc or desc.");
+        }
+
+        Optional<Task> task = taskManagementService.getTask(id);
+        if (!task.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No task with id " + id + ".");
+        }
+        ResultIndex index = task.get().getResultIndex();
+        if (index == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("The task has no results: its status is " + task.get().getStatus() + ".");
+        }
+        return ResponseEntity.ok(new ResultPage(id, offset, limit, index.size(),
+                resultSort.name().toLowerCase(Locale.ROOT), descending ? "desc" : "asc",
+                index.page(offset, limit, resultSort, descending)));
+    }
+
+    @GetMapping("/{id}/results/export")
+    public ResponseEntity<?> exportTaskResults(@PathVariable String id) {
+        // Writes all the patterns of the task at once, straight from its result store
+        Optional<Task> task = taskManagementService.getTask(id);
+        if (!task.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No task with id " + id + ".");
+        }
+        ResultStore results = task.get().getResult();
+        if (results == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("The task has no results: its status is " + task.get().getStatus() + ".");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + "-results.json\"")
+                .body(results);
+    }
+
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getTaskEvents(@PathVariable String id) {
+        // Pushes the status, progress and patterns of the task instead of polling its status
+        Optional<Task> task = taskManagementService.getTask(id);
+        if (!task.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(taskEventService.subscribe(task.get()));
+    }
 }
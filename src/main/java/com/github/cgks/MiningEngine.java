@@ -1,12 +1,35 @@
 package com.github.cgks;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BooleanSupplier;
 
 public class MiningEngine {
 
-    public List<MiningResult> runMining(MiningRequest request, BooleanSupplier cancellationChecker) throws Exception {
+    /**
+     * An extraction pushing its patterns to a sink.
+     */
+    @FunctionalInterface
+    public interface Extraction {
+        void run(ResultSink sink) throws Exception;
+    }
+
+    /**
+     * Runs an extraction and collects its patterns, in the order they are found.
+     *
+     * @param extraction The extraction
+     * @return The patterns found, as mining results
+     * @throws Exception If the extraction fails
+     */
+    public static List<MiningResult> collect(Extraction extraction) throws Exception {
+        List<MiningResult> results = new ArrayList<>();
+        extraction.run((pattern, support) -> results.add(new MiningResult(pattern, support)));
+        return results;
+    }
+
+    public void runMining(MiningRequest request, ResultSink sink, BooleanSupplier cancellationChecker)
+            throws Exception {
         String queryType = request.getQueryType();
         String datasetPath = request.getDataset();
         Map<String, String> params = request.getParams();
@@ -16,44 +39,57 @@ public class MiningEngine {
             case "frequent":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractFrequent(datasetPath, params, cancellationChecker);
+                miner.extractFrequent(datasetPath, params, sink, cancellationChecker);
+                break;
             case "closed":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractClosed(datasetPath, params, cancellationChecker);
+                miner.extractClosed(datasetPath, params, sink, cancellationChecker);
+                break;
             case "maximal":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractMaximal(datasetPath, params, cancellationChecker);
+                miner.extractMaximal(datasetPath, params, sink, cancellationChecker);
+                break;
             case "rare":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractRare(datasetPath, params, cancellationChecker);
+                miner.extractRare(datasetPath, params, sink, cancellationChecker);
+                break;
             case "generators":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractGenerators(datasetPath, params, cancellationChecker);
+                miner.extractGenerators(datasetPath, params, sink, cancellationChecker);
+                break;
             case "minimal":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractMinimal(datasetPath, params, cancellationChecker);
+                miner.extractMinimal(datasetPath, params, sink, cancellationChecker);
+                break;
             case "size_between":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractSizeBetween(datasetPath, params, cancellationChecker);
+                miner.extractSizeBetween(datasetPath, params, sink, cancellationChecker);
+                break;
             case "presence":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractPresence(datasetPath, params, cancellationChecker);
+                miner.extractPresence(datasetPath, params, sink, cancellationChecker);
+                break;
             case "absence":
                 if (cancellationChecker.getAsBoolean())
                     throw new InterruptedException("Mining cancelled");
-                return miner.extractAbsence(datasetPath, params, cancellationChecker);
+                miner.extractAbsence(datasetPath, params, sink, cancellationChecker);
+                break;
             default:
                 throw new IllegalArgumentException("Unknown query type: " + queryType);
         }
     }
 
+    public List<MiningResult> runMining(MiningRequest request, BooleanSupplier cancellationChecker) throws Exception {
+        return collect(sink -> runMining(request, sink, cancellationChecker));
+    }
+
     public List<MiningResult> runMining(MiningRequest request) throws Exception {
         return runMining(request, () -> false);
     }
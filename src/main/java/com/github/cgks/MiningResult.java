@@ -1,27 +1,55 @@
 package com.github.cgks;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
-@JsonInclude(JsonInclude.Include.ALWAYS)
+/**
+ * A pattern found by a miner, with its frequency. The items are kept in an
+ * {@code int[]}; they are written to JSON as {"pattern": [1, 4], "freq": 3} by
+ * {@link MiningResultSerializer}.
+ */
+@JsonSerialize(using = MiningResultSerializer.class)
 public class MiningResult {
-    @JsonProperty("pattern")
-    private List<Integer> pattern; // une liste de motifs, ex: [1, 4]
-    @JsonProperty("freq")
+    private int[] pattern; // les items du motif, ex: [1, 4]
     private int freq; // fréquence du motif
 
-    public MiningResult(List<Integer> pattern, int freq) {
+    /**
+     * @param pattern The items of the pattern, kept without being copied
+     * @param freq    The frequency of the pattern
+     */
+    public MiningResult(int[] pattern, int freq) {
         this.pattern = pattern;
         this.freq = freq;
     }
 
+    /**
+     * @return The items of the pattern, as a read-only list view
+     */
     public List<Integer> getPattern() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return pattern[index];
+            }
+
+            @Override
+            public int size() {
+                return pattern.length;
+            }
+        };
+    }
+
+    /**
+     * @return The items of the pattern
+     */
+    public int[] getItems() {
         return pattern;
     }
 
-    public void setPattern(List<Integer> pattern) {
+    public void setPattern(int[] pattern) {
         this.pattern = pattern;
     }
 
@@ -32,4 +60,9 @@ public class MiningResult {
     public void setFreq(int freq) {
         this.freq = freq;
     }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(pattern) + " #SUP: " + freq;
+    }
 }
@@ -0,0 +1,46 @@
+package com.github.cgks;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link MiningResult} as {"pattern": [1, 4], "freq": 3}, the items
+ * being written straight from its {@code int[]}, without boxing them or
+ * introspecting the class.
+ */
+public class MiningResultSerializer extends StdSerializer<MiningResult> {
+
+    private static final long serialVersionUID = 1L;
+
+    public MiningResultSerializer() {
+        super(MiningResult.class);
+    }
+
+    @Override
+    public void serialize(MiningResult result, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        int[] items = result.getItems();
+        write(generator, items, 0, items.length, result.getFreq());
+    }
+
+    /**
+     * Writes a pattern as {"pattern": [...], "freq": n}.
+     *
+     * @param generator The generator
+     * @param items     An array holding the items of the pattern
+     * @param offset    The position of the first item
+     * @param length    The number of items
+     * @param freq      The frequency of the pattern
+     * @throws IOException If the JSON cannot be written
+     */
+    static void write(JsonGenerator generator, int[] items, int offset, int length, int freq) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("pattern");
+        generator.writeArray(items, offset, length);
+        generator.writeNumberField("freq", freq);
+        generator.writeEndObject();
+    }
+}
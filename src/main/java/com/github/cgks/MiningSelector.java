@@ -9,6 +9,7 @@ import java.util.Scanner;
 import java.io.IOException;
 
 import com.github.cgks.choco.ChocoMiner;
+import com.github.cgks.eclat.EclatMiner;
 import com.github.cgks.spmf.SpmfMiner;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
@@ -27,6 +28,7 @@ public class MiningSelector {
     private static final String ENGINE_AUTO = "auto";
     private static final String ENGINE_SPMF = "spmf";
     private static final String ENGINE_CHOCO = "choco-mining";
+    private static final String ENGINE_ECLAT = "eclat";
     
     // Prediction result values
     private static final int PREDICTION_SPMF = 1;
@@ -64,6 +66,8 @@ public class MiningSelector {
             return new SpmfMiner();
         } else if (ENGINE_CHOCO.equalsIgnoreCase(engineType)) {
             return new ChocoMiner();
+        } else if (ENGINE_ECLAT.equalsIgnoreCase(engineType)) {
+            return new EclatMiner();
         } else {
             throw new IllegalArgumentException("Unknown engine type: " + engineType);
         }
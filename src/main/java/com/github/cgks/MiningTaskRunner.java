@@ -3,7 +3,7 @@ package com.github.cgks;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Component
@@ -20,25 +20,45 @@ public class MiningTaskRunner {
         MiningEngine engine = new MiningEngine();
         
         try {
-            // Execute the mining operation
-            List<MiningResult> results = engine.runMining(task.getParameters(), task::isCancellationRequested);
+            // Execute the mining operation, storing the patterns in the requested result store
+            // and publishing them to the subscribers of the task
+            ResultStore results = newResultStore(task.getParameters());
+            engine.runMining(task.getParameters(), task.getEvents().publishing(results),
+                    task::isCancellationRequested);
             
             if (task.isCancellationRequested()) {
                 task.setStatus(TaskStatus.CANCELLED);
             } else {
+                results.trimToSize();
                 task.setResult(results);
                 task.setStatus(TaskStatus.COMPLETED);
             }
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt(); // Preserve interrupt status
-            task.setStatus(TaskStatus.CANCELLED);
             task.setError("Task was cancelled by user.");
+            task.setStatus(TaskStatus.CANCELLED);
         } catch (Exception e) {
-            task.setStatus(TaskStatus.FAILED);
             task.setError(e.getMessage());
+            // the engines stop mining with an exception once the cancellation is requested
+            task.setStatus(task.isCancellationRequested() ? TaskStatus.CANCELLED : TaskStatus.FAILED);
         }
         
         return CompletableFuture.completedFuture(task);
     }
+
+    /**
+     * Creates the store of the patterns of a task: a prefix trie if the
+     * "resultStore" parameter is "trie", for results sharing long prefixes
+     * (frequent and closed itemsets of dense datasets), a result arena otherwise.
+     * @param request The mining request of the task
+     * @return An empty result store
+     */
+    private static ResultStore newResultStore(MiningRequest request) {
+        Map<String, String> params = request.getParams();
+        if (params != null && "trie".equalsIgnoreCase(params.get("resultStore"))) {
+            return new ResultTrie();
+        }
+        return new ResultArena();
+    }
 }
@@ -0,0 +1,122 @@
+package com.github.cgks;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+
+/**
+ * The patterns found by a task, stored column-wise in three primitive arrays
+ * instead of one object per pattern: the pattern {@code i} has the items
+ * {@code items[offsets[i]]} to {@code items[offsets[i + 1] - 1]} and the
+ * support {@code supports[i]}. A pattern costs 4 bytes per item and 8 bytes.
+ * <p>
+ * The arena is the {@link ResultStore} of a task: it is filled by the miner,
+ * one pattern at a time, then only read. The arrays grow by chunks of at least
+ * {@link #CHUNK} entries, and are handed as they are to the serializers, the
+ * filters and the sorters, which read the first {@link #size()} patterns. The
+ * export of the results of a task writes it to JSON as a list of
+ * {"pattern": [...], "freq": n} with {@link ResultArenaSerializer}, as a list
+ * of {@link MiningResult}.
+ */
+@JsonSerialize(using = ResultArenaSerializer.class)
+public final class ResultArena implements ResultStore {
+
+    /** The minimum number of entries by which an array grows. */
+    static final int CHUNK = 4096;
+
+    private int[] offsets;
+    private int[] items;
+    private int[] supports;
+    private int size;
+
+    public ResultArena() {
+        offsets = new int[CHUNK + 1];
+        items = new int[CHUNK];
+        supports = new int[CHUNK];
+    }
+
+    @Override
+    public void accept(int[] pattern, int support) {
+        if (size == supports.length) {
+            int capacity = grow(size);
+            offsets = Arrays.copyOf(offsets, capacity + 1);
+            supports = Arrays.copyOf(supports, capacity);
+        }
+        int offset = offsets[size];
+        if (offset + pattern.length > items.length) {
+            items = Arrays.copyOf(items, Math.max(grow(items.length), offset + pattern.length));
+        }
+        System.arraycopy(pattern, 0, items, offset, pattern.length);
+        supports[size] = support;
+        offsets[++size] = offset + pattern.length;
+    }
+
+    /**
+     * @return The capacity of an array after the capacity given, by half of it
+     *         and at least by a chunk
+     */
+    private static int grow(int capacity) {
+        return capacity + Math.max(capacity >> 1, CHUNK);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of items of all the patterns
+     */
+    public int itemCount() {
+        return offsets[size];
+    }
+
+    @Override
+    public int getLength(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    @Override
+    public int getSupport(int index) {
+        return supports[index];
+    }
+
+    @Override
+    public int[] getPattern(int index) {
+        return Arrays.copyOfRange(items, offsets[index], offsets[index + 1]);
+    }
+
+    /**
+     * @return The offsets of the patterns in the items, the first
+     *         {@code size() + 1} being used; not copied
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return The items of the patterns, the first {@code itemCount()} being
+     *         used; not copied
+     */
+    public int[] getItems() {
+        return items;
+    }
+
+    /**
+     * @return The supports of the patterns, the first {@code size()} being
+     *         used; not copied
+     */
+    public int[] getSupports() {
+        return supports;
+    }
+
+    /**
+     * Shrinks the arrays to the patterns they hold, once the arena is filled.
+     */
+    @Override
+    public void trimToSize() {
+        offsets = Arrays.copyOf(offsets, size + 1);
+        items = Arrays.copyOf(items, offsets[size]);
+        supports = Arrays.copyOf(supports, size);
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.cgks;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link ResultArena} as a list of {"pattern": [1, 4], "freq": 3},
+ * the JSON of a list of {@link MiningResult}, straight from the arrays of the
+ * arena.
+ */
+public class ResultArenaSerializer extends StdSerializer<ResultArena> {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResultArenaSerializer() {
+        super(ResultArena.class);
+    }
+
+    @Override
+    public void serialize(ResultArena arena, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        int[] offsets = arena.getOffsets();
+        int[] items = arena.getItems();
+        int[] supports = arena.getSupports();
+        int size = arena.size();
+        generator.writeStartArray(arena, size);
+        for (int i = 0; i < size; i++) {
+            MiningResultSerializer.write(generator, items, offsets[i], offsets[i + 1] - offsets[i], supports[i]);
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.cgks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads the patterns of a filled {@link ResultStore} by pages, in the order
+ * they were found or sorted by support or by size.
+ * <p>
+ * A sorted order is computed once, on the first page asking for it, as the
+ * array of the pattern indices in that order, and kept for the next pages: a
+ * page then costs its own patterns only, whatever the number of patterns of
+ * the store. The patterns of equal support or size keep the order in which
+ * they were found, so that the pages of an order do not overlap.
+ */
+public final class ResultIndex {
+
+    /** The keys by which the patterns can be sorted. */
+    public enum Sort {
+        /** The order in which the patterns were found. */
+        FOUND,
+        /** The support of the patterns. */
+        SUPPORT,
+        /** The number of items of the patterns. */
+        SIZE;
+
+        /**
+         * @param name The name of a sort key, in any case; FOUND if null or empty
+         * @return The sort key
+         * @throws IllegalArgumentException If the name is not a sort key
+         */
+        public static Sort fromName(String name) {
+            if (name == null || name.isEmpty()) {
+                return FOUND;
+            }
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Unknown sort '" + name + "': expected one of found, support, size");
+            }
+        }
+    }
+
+    private final ResultStore store;
+    // the pattern indices of each sorted order, keyed by sort key and direction
+    private final Map<String, int[]> orders = new ConcurrentHashMap<>();
+
+    /**
+     * @param store The patterns, which must not change anymore
+     */
+    public ResultIndex(ResultStore store) {
+        this.store = store;
+    }
+
+    /**
+     * @return The number of patterns
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Materializes a page of patterns.
+     *
+     * @param offset     The rank of the first pattern of the page
+     * @param limit      The maximum number of patterns of the page
+     * @param sort       The key by which the patterns are sorted
+     * @param descending Whether the patterns are sorted in decreasing order
+     * @return The patterns of ranks offset to offset + limit - 1, fewer at the
+     *         end of the results
+     */
+    public List<MiningResult> page(int offset, int limit, Sort sort, boolean descending) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Negative offset or limit: " + offset + ", " + limit);
+        }
+        int size = store.size();
+        int end = (int) Math.min(size, (long) offset + limit);
+        List<MiningResult> page = new ArrayList<>(Math.max(end - offset, 0));
+        if (offset >= end) {
+            return page;
+        }
+        int[] order = sort == Sort.FOUND ? null : order(sort, descending);
+        for (int rank = offset; rank < end; rank++) {
+            int index;
+            if (order != null) {
+                index = order[rank];
+            } else {
+                index = descending ? size - 1 - rank : rank;
+            }
+            page.add(store.get(index));
+        }
+        return page;
+    }
+
+    private int[] order(Sort sort, boolean descending) {
+        return orders.computeIfAbsent(sort.name() + (descending ? ":desc" : ":asc"),
+                key -> sortIndices(sort, descending));
+    }
+
+    /**
+     * Sorts the pattern indices by a key, each index being packed with its key
+     * in a long so that a single primitive sort orders them, the ties by index.
+     */
+    private int[] sortIndices(Sort sort, boolean descending) {
+        int size = store.size();
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            int value = sort == Sort.SUPPORT ? store.getSupport(i) : store.getLength(i);
+            if (descending) {
+                value = Integer.MAX_VALUE - value;
+            }
+            keys[i] = ((long) value << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+}
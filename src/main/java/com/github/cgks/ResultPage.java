@@ -0,0 +1,65 @@
+package com.github.cgks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A page of the patterns found by a task, as returned by
+ * {@code GET /api/tasks/{id}/results}.
+ */
+public class ResultPage {
+    @JsonProperty("taskId")
+    private final String taskId;
+    @JsonProperty("offset")
+    private final int offset;
+    @JsonProperty("limit")
+    private final int limit;
+    @JsonProperty("total")
+    private final int total;
+    @JsonProperty("sort")
+    private final String sort;
+    @JsonProperty("order")
+    private final String order;
+    @JsonProperty("results")
+    private final List<MiningResult> results;
+
+    public ResultPage(String taskId, int offset, int limit, int total, String sort, String order,
+            List<MiningResult> results) {
+        this.taskId = taskId;
+        this.offset = offset;
+        this.limit = limit;
+        this.total = total;
+        this.sort = sort;
+        this.order = order;
+        this.results = results;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public List<MiningResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.cgks;
+
+/**
+ * Receives the patterns found by a {@link Miner}, one at a time, as they are
+ * found.
+ * <p>
+ * The items of a pattern are passed in an array that the miner does not
+ * modify afterwards, so that a sink may keep it without copying it. A sink is
+ * called by one thread at a time.
+ */
+@FunctionalInterface
+public interface ResultSink {
+
+    /**
+     * @param pattern The items of the pattern, in increasing order
+     * @param support The number of transactions containing the pattern
+     */
+    void accept(int[] pattern, int support);
+}
@@ -0,0 +1,48 @@
+package com.github.cgks;
+
+/**
+ * The patterns found by a task: a {@link ResultSink} filled by the miner, then
+ * read by index, in the order the patterns were found.
+ * <p>
+ * {@link ResultArena} stores each pattern end to end; {@link ResultTrie}
+ * shares the prefixes of the patterns, for the results whose patterns have
+ * long common prefixes.
+ */
+public interface ResultStore extends ResultSink {
+
+    /**
+     * @return The number of patterns
+     */
+    int size();
+
+    /**
+     * @param index The index of a pattern
+     * @return The number of items of the pattern
+     */
+    int getLength(int index);
+
+    /**
+     * @param index The index of a pattern
+     * @return The support of the pattern
+     */
+    int getSupport(int index);
+
+    /**
+     * @param index The index of a pattern
+     * @return A copy of the items of the pattern
+     */
+    int[] getPattern(int index);
+
+    /**
+     * @param index The index of a pattern
+     * @return The pattern, materialized as a mining result
+     */
+    default MiningResult get(int index) {
+        return new MiningResult(getPattern(index), getSupport(index));
+    }
+
+    /**
+     * Releases the memory kept for adding patterns, once the store is filled.
+     */
+    void trimToSize();
+}
@@ -0,0 +1,312 @@
+package com.github.cgks;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The patterns found by a task, stored in a prefix trie: a node per (prefix,
+ * item), with the support of the pattern ending at it. The patterns sharing a
+ * prefix share its nodes, so that the frequent itemsets, whose prefixes are
+ * frequent itemsets too, cost one node each whatever their size: 12 bytes,
+ * and 4 bytes for their index. The items of a pattern are stored in the order
+ * in which the miner gives them, in increasing order.
+ * <p>
+ * A node is an index in the parents, items and supports arrays, the root (the
+ * empty pattern) being node 0. While the trie is filled, the edges are also
+ * kept in an open-addressing hash table keyed by (parent node, item), released
+ * by {@link #trimToSize()}. A pattern is read back by following the parents of
+ * its node, so that the patterns are enumerated lazily, in the order they
+ * were found; the export of the results of a task writes them with
+ * {@link ResultTrieSerializer}, as the list of {"pattern": [...], "freq": n}
+ * of a {@link ResultArena}.
+ * <p>
+ * {@link #writePrefixDeltas} writes the patterns as a compact stream, each
+ * pattern as the number of items it shares with the previous one and its
+ * other items, which {@link #readPrefixDeltas} reads back.
+ */
+@JsonSerialize(using = ResultTrieSerializer.class)
+public final class ResultTrie implements ResultStore {
+
+    /** The root node, for the empty pattern. */
+    static final int ROOT = 0;
+    /** Marks the absence of a node. */
+    private static final int NONE = -1;
+
+    // the parent, the last item and the support of each node
+    // (NONE for the nodes that are only prefixes)
+    private int[] parents;
+    private int[] items;
+    private int[] supports;
+    private int nodeCount;
+
+    // the node of each pattern, in the order the patterns were found
+    private int[] patterns;
+    private int size;
+    private int maxLength;
+
+    // the edges: (parent node, item) keys, and the child nodes (NONE for a free
+    // slot); null once the trie is trimmed
+    private long[] keys;
+    private int[] children;
+    private int mask;
+
+    public ResultTrie() {
+        parents = new int[ResultArena.CHUNK];
+        items = new int[ResultArena.CHUNK];
+        supports = new int[ResultArena.CHUNK];
+        parents[ROOT] = NONE;
+        supports[ROOT] = NONE;
+        nodeCount = 1;
+        patterns = new int[ResultArena.CHUNK];
+        initEdges(2 * ResultArena.CHUNK);
+    }
+
+    @Override
+    public void accept(int[] pattern, int support) {
+        if (keys == null) {
+            initEdges(Integer.highestOneBit(Math.max(nodeCount, ResultArena.CHUNK)) * 4);
+            for (int node = ROOT + 1; node < nodeCount; node++) {
+                insertEdge(key(parents[node], items[node]), node);
+            }
+        }
+        int node = ROOT;
+        for (int item : pattern) {
+            node = childOrAdd(node, item);
+        }
+        supports[node] = support;
+        if (size == patterns.length) {
+            patterns = Arrays.copyOf(patterns, grow(size));
+        }
+        patterns[size++] = node;
+        maxLength = Math.max(maxLength, pattern.length);
+    }
+
+    /**
+     * @return The child of a node for an item, added if it is not in the trie yet
+     */
+    private int childOrAdd(int node, int item) {
+        long key = key(node, item);
+        int slot = slot(key);
+        while (children[slot] != NONE) {
+            if (keys[slot] == key) {
+                return children[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (nodeCount == parents.length) {
+            int capacity = grow(nodeCount);
+            parents = Arrays.copyOf(parents, capacity);
+            items = Arrays.copyOf(items, capacity);
+            supports = Arrays.copyOf(supports, capacity);
+        }
+        int child = nodeCount++;
+        parents[child] = node;
+        items[child] = item;
+        supports[child] = NONE;
+        keys[slot] = key;
+        children[slot] = child;
+        // keep the table at most half full
+        if (nodeCount * 2 > keys.length) {
+            long[] oldKeys = keys;
+            int[] oldChildren = children;
+            initEdges(keys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldChildren[i] != NONE) {
+                    insertEdge(oldKeys[i], oldChildren[i]);
+                }
+            }
+        }
+        return child;
+    }
+
+    private void initEdges(int capacity) {
+        keys = new long[capacity];
+        children = new int[capacity];
+        Arrays.fill(children, NONE);
+        mask = capacity - 1;
+    }
+
+    private void insertEdge(long key, int child) {
+        int slot = slot(key);
+        while (children[slot] != NONE) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        children[slot] = child;
+    }
+
+    private static long key(int node, int item) {
+        return ((long) node << 32) | (item & 0xFFFFFFFFL);
+    }
+
+    private int slot(long key) {
+        // spread the bits of both halves of the key (Murmur3 finalizer)
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * @return The capacity of an array after the capacity given, by half of it
+     *         and at least by a chunk
+     */
+    private static int grow(int capacity) {
+        return capacity + Math.max(capacity >> 1, ResultArena.CHUNK);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of nodes of the trie, including the root
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return The number of items of the longest pattern
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public int getLength(int index) {
+        int length = 0;
+        for (int node = patterns[index]; node != ROOT; node = parents[node]) {
+            length++;
+        }
+        return length;
+    }
+
+    @Override
+    public int getSupport(int index) {
+        return supports[patterns[index]];
+    }
+
+    @Override
+    public int[] getPattern(int index) {
+        int[] pattern = new int[getLength(index)];
+        fill(index, pattern);
+        return pattern;
+    }
+
+    /**
+     * Copies the items of a pattern at the start of a buffer.
+     *
+     * @param index  The index of a pattern
+     * @param buffer A buffer of at least {@link #getMaxLength()} items
+     * @return The number of items of the pattern
+     */
+    public int fill(int index, int[] buffer) {
+        int length = getLength(index);
+        int k = length;
+        for (int node = patterns[index]; node != ROOT; node = parents[node]) {
+            buffer[--k] = items[node];
+        }
+        return length;
+    }
+
+    /**
+     * Shrinks the arrays to the nodes and patterns they hold and releases the
+     * edges, once the trie is filled. Adding a pattern afterwards rebuilds them.
+     */
+    @Override
+    public void trimToSize() {
+        parents = Arrays.copyOf(parents, nodeCount);
+        items = Arrays.copyOf(items, nodeCount);
+        supports = Arrays.copyOf(supports, nodeCount);
+        patterns = Arrays.copyOf(patterns, size);
+        keys = null;
+        children = null;
+    }
+
+    /**
+     * Writes the patterns as a prefix-delta stream: their number, then for each
+     * pattern, in order, the number of items it shares with the start of the
+     * previous pattern, the number of its other items, these items and its
+     * support, each as a variable-length integer.
+     *
+     * @param out The stream
+     * @throws IOException If the stream cannot be written
+     */
+    public void writePrefixDeltas(OutputStream out) throws IOException {
+        writeVarint(out, size);
+        int[] previous = new int[maxLength];
+        int[] current = new int[maxLength];
+        int previousLength = 0;
+        for (int i = 0; i < size; i++) {
+            int length = fill(i, current);
+            int shared = 0;
+            while (shared < length && shared < previousLength && current[shared] == previous[shared]) {
+                shared++;
+            }
+            writeVarint(out, shared);
+            writeVarint(out, length - shared);
+            for (int k = shared; k < length; k++) {
+                writeVarint(out, current[k]);
+            }
+            writeVarint(out, getSupport(i));
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+            previousLength = length;
+        }
+    }
+
+    /**
+     * Reads the patterns of a prefix-delta stream written by
+     * {@link #writePrefixDeltas}, in order.
+     *
+     * @param in   The stream
+     * @param sink The sink receiving the patterns
+     * @throws IOException If the stream cannot be read or ends too early
+     */
+    public static void readPrefixDeltas(InputStream in, ResultSink sink) throws IOException {
+        int count = readVarint(in);
+        int[] pattern = new int[0];
+        for (int i = 0; i < count; i++) {
+            int shared = readVarint(in);
+            int length = shared + readVarint(in);
+            int[] next = Arrays.copyOf(pattern, length);
+            for (int k = shared; k < length; k++) {
+                next[k] = readVarint(in);
+            }
+            sink.accept(next, readVarint(in));
+            pattern = next;
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(InputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated prefix-delta stream");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.cgks;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link ResultTrie} as a list of {"pattern": [1, 4], "freq": 3},
+ * the JSON of a list of {@link MiningResult}, reading each pattern back from
+ * the trie into a single buffer.
+ */
+public class ResultTrieSerializer extends StdSerializer<ResultTrie> {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResultTrieSerializer() {
+        super(ResultTrie.class);
+    }
+
+    @Override
+    public void serialize(ResultTrie trie, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        int[] buffer = new int[trie.getMaxLength()];
+        int size = trie.size();
+        generator.writeStartArray(trie, size);
+        for (int i = 0; i < size; i++) {
+            int length = trie.fill(i, buffer);
+            MiningResultSerializer.write(generator, buffer, 0, length, trie.getSupport(i));
+        }
+        generator.writeEndArray();
+    }
+}
@@ -1,9 +1,9 @@
 package com.github.cgks;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.util.List;
 import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.ALWAYS)
@@ -14,18 +14,28 @@ public class Task {
     private TaskStatus status;
     @JsonProperty("parameters")
     private MiningRequest parameters;
-    @JsonProperty("result")
-    private List<MiningResult> result;
+    // the patterns are read by pages from GET /api/tasks/{id}/results, or all
+    // at once from GET /api/tasks/{id}/results/export, the status only giving
+    // their number
+    @JsonIgnore
+    private ResultStore result;
+    @JsonIgnore
+    private ResultIndex resultIndex;
     @JsonProperty("error")
     private String error;
+    // polled by the worker threads of the mining engines
     @JsonProperty("cancellationRequested")
-    private boolean cancellationRequested;
+    private volatile boolean cancellationRequested;
+    // the state transitions, progress and patterns pushed to the subscribers
+    @JsonIgnore
+    private final TaskEvents events;
 
     public Task(MiningRequest parameters) {
         this.id = UUID.randomUUID().toString();
         this.parameters = parameters;
         this.status = TaskStatus.PENDING;
         this.cancellationRequested = false;
+        this.events = new TaskEvents(id);
     }
 
     // Getters and Setters
@@ -37,20 +47,42 @@ public class Task {
         return status;
     }
 
+    // Publishes the transition to the subscribers, with the error and the
+    // results set before it
     public void setStatus(TaskStatus status) {
         this.status = status;
+        events.publishStatus(status, error, getResultCount());
     }
 
     public MiningRequest getParameters() {
         return parameters;
     }
 
-    public List<MiningResult> getResult() {
+    public ResultStore getResult() {
         return result;
     }
 
-    public void setResult(List<MiningResult> result) {
+    public synchronized void setResult(ResultStore result) {
         this.result = result;
+        this.resultIndex = null;
+    }
+
+    @JsonProperty("resultCount")
+    public int getResultCount() {
+        ResultStore store = result;
+        return store == null ? 0 : store.size();
+    }
+
+    /**
+     * @return The index reading the results by pages, created on first use;
+     *         null while the task has no results
+     */
+    @JsonIgnore
+    public synchronized ResultIndex getResultIndex() {
+        if (resultIndex == null && result != null) {
+            resultIndex = new ResultIndex(result);
+        }
+        return resultIndex;
     }
 
     public String getError() {
@@ -61,6 +93,11 @@ public class Task {
         this.error = error;
     }
 
+    @JsonIgnore
+    public TaskEvents getEvents() {
+        return events;
+    }
+
     public boolean isCancellationRequested() {
         return cancellationRequested;
     }
@@ -0,0 +1,151 @@
+package com.github.cgks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * An event of a task, sent to its subscribers as a server-sent event: a name
+ * ("status", "progress", "patterns" or "dropped") and a payload written to JSON.
+ * The events are immutable once queued, but for the "dropped" events, which
+ * their {@link TaskEventSubscriber} coalesces while it holds them.
+ */
+public final class TaskEvent {
+
+    public static final String STATUS = "status";
+    public static final String PROGRESS = "progress";
+    public static final String PATTERNS = "patterns";
+    public static final String DROPPED = "dropped";
+
+    private final String name;
+    private final Object data;
+
+    private TaskEvent(String name, Object data) {
+        this.name = name;
+        this.data = data;
+    }
+
+    static TaskEvent status(String taskId, TaskStatus status, String error, int resultCount) {
+        return new TaskEvent(STATUS, new Status(taskId, status, error, resultCount));
+    }
+
+    static TaskEvent progress(int patternsFound, long elapsedMillis) {
+        return new TaskEvent(PROGRESS, new Progress(patternsFound, elapsedMillis));
+    }
+
+    static TaskEvent patterns(int from, List<MiningResult> results) {
+        return new TaskEvent(PATTERNS, new Patterns(from, results));
+    }
+
+    static TaskEvent dropped() {
+        return new TaskEvent(DROPPED, new Dropped());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    /**
+     * @return Whether the event is the last one of a task, its terminal status
+     */
+    public boolean isTerminal() {
+        return data instanceof Status && ((Status) data).isTerminal();
+    }
+
+    /** A state transition of the task. */
+    public static final class Status {
+        @JsonProperty("id")
+        private final String id;
+        @JsonProperty("status")
+        private final TaskStatus status;
+        @JsonProperty("error")
+        private final String error;
+        @JsonProperty("resultCount")
+        private final int resultCount;
+
+        Status(String id, TaskStatus status, String error, int resultCount) {
+            this.id = id;
+            this.status = status;
+            this.error = error;
+            this.resultCount = resultCount;
+        }
+
+        public TaskStatus getStatus() {
+            return status;
+        }
+
+        boolean isTerminal() {
+            return status == TaskStatus.COMPLETED || status == TaskStatus.FAILED
+                    || status == TaskStatus.CANCELLED;
+        }
+    }
+
+    /** The number of patterns found so far, and the rate at which they are found. */
+    public static final class Progress {
+        @JsonProperty("patternsFound")
+        private final int patternsFound;
+        @JsonProperty("elapsedMillis")
+        private final long elapsedMillis;
+        @JsonProperty("patternsPerSecond")
+        private final double patternsPerSecond;
+
+        Progress(int patternsFound, long elapsedMillis) {
+            this.patternsFound = patternsFound;
+            this.elapsedMillis = elapsedMillis;
+            this.patternsPerSecond = elapsedMillis == 0 ? 0 : patternsFound * 1000.0 / elapsedMillis;
+        }
+
+        public int getPatternsFound() {
+            return patternsFound;
+        }
+    }
+
+    /** A batch of patterns, the first being the one of rank {@code from}. */
+    public static final class Patterns {
+        @JsonProperty("from")
+        private final int from;
+        @JsonProperty("results")
+        private final List<MiningResult> results;
+
+        Patterns(int from, List<MiningResult> results) {
+            this.from = from;
+            this.results = results;
+        }
+
+        public int getFrom() {
+            return from;
+        }
+
+        public List<MiningResult> getResults() {
+            return results;
+        }
+    }
+
+    /**
+     * The batches of patterns dropped because the subscriber's buffer was
+     * full; they can be read from the results of the task once it completes.
+     */
+    public static final class Dropped {
+        @JsonProperty("batches")
+        private int batches;
+        @JsonProperty("patterns")
+        private int patterns;
+
+        void add(int patternCount) {
+            batches++;
+            patterns += patternCount;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public int getPatterns() {
+            return patterns;
+        }
+    }
+}
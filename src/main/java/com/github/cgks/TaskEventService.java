@@ -0,0 +1,150 @@
+package com.github.cgks;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the events of the tasks to their subscribers as server-sent events.
+ * <p>
+ * Every {@link #TICK_MILLIS} ms, the tasks with subscribers publish their
+ * progress and their last patterns, and the events buffered for each
+ * subscriber are sent by a sender thread, one at a time per subscriber: a
+ * slow client only fills its own buffer, never the mining thread nor the
+ * other clients.
+ */
+@Service
+public class TaskEventService implements DisposableBean {
+
+    // The maximum number of batches of patterns buffered for a subscriber
+    static final int BUFFER_CAPACITY = 64;
+    // The period of the progress events and of the sending of the buffers
+    static final long TICK_MILLIS = 500;
+    // The time after which an event stream is closed
+    static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("TaskEventTick-"));
+    private final ExecutorService senders = Executors.newCachedThreadPool(daemonThreads("TaskEventSender-"));
+
+    public TaskEventService() {
+        scheduler.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens an event stream on a task; it starts with the current status of
+     * the task, and ends after its terminal status.
+     *
+     * @param task The task
+     * @return The emitter of the stream
+     */
+    public SseEmitter subscribe(Task task) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+        Connection connection = new Connection(task.getEvents(),
+                task.getEvents().subscribe(BUFFER_CAPACITY), emitter);
+        connections.add(connection);
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(e -> connection.close());
+        connection.schedule();
+        return emitter;
+    }
+
+    private void tick() {
+        Set<TaskEvents> ticked = new HashSet<>();
+        for (Connection connection : connections) {
+            if (ticked.add(connection.events)) {
+                connection.events.tick();
+            }
+        }
+        for (Connection connection : connections) {
+            connection.schedule();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        for (Connection connection : connections) {
+            connection.emitter.complete();
+        }
+        connections.clear();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // A subscriber of a task and the stream its events are sent to
+    private final class Connection {
+        private final TaskEvents events;
+        private final TaskEventSubscriber subscriber;
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Connection(TaskEvents events, TaskEventSubscriber subscriber, SseEmitter emitter) {
+            this.events = events;
+            this.subscriber = subscriber;
+            this.emitter = emitter;
+        }
+
+        // Sends the buffered events on a sender thread, unless one is already sending them
+        void schedule() {
+            if (subscriber.size() == 0 || !sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::send);
+            } catch (RejectedExecutionException e) {
+                sending.set(false);
+            }
+        }
+
+        private void send() {
+            try {
+                TaskEvent event;
+                while ((event = subscriber.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(event.getName())
+                            .data(event.getData(), MediaType.APPLICATION_JSON));
+                    if (event.isTerminal()) {
+                        close();
+                        emitter.complete();
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client is gone: the container completes the emitter
+                close();
+            } finally {
+                sending.set(false);
+            }
+        }
+
+        void close() {
+            connections.remove(this);
+            events.unsubscribe(subscriber);
+        }
+    }
+}
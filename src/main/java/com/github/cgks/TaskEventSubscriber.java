@@ -0,0 +1,100 @@
+package com.github.cgks;
+
+import java.util.ArrayDeque;
+
+/**
+ * The events of a task waiting to be sent to one subscriber, in a bounded
+ * buffer: the miner offers them without ever waiting for the subscriber.
+ * <p>
+ * At most {@code capacity} batches of patterns are held; a batch offered to a
+ * full buffer is dropped, and counted in a "dropped" event queued in its place
+ * (coalesced with the previous one if nothing was queued in between). A
+ * progress event replaces the previous one if it is still the last queued.
+ * The status events are always queued, the terminal one closing the buffer.
+ */
+public final class TaskEventSubscriber {
+
+    private final int capacity;
+    private final ArrayDeque<TaskEvent> events = new ArrayDeque<>();
+    private int batches;
+    private boolean closed;
+
+    /**
+     * @param capacity The maximum number of batches of patterns held
+     */
+    public TaskEventSubscriber(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues a batch of patterns, or counts it as dropped if the buffer is full.
+     *
+     * @param event        A "patterns" event
+     * @param patternCount The number of patterns of the batch
+     * @return Whether the batch was queued
+     */
+    synchronized boolean offerBatch(TaskEvent event, int patternCount) {
+        if (closed) {
+            return false;
+        }
+        if (batches == capacity) {
+            TaskEvent last = events.peekLast();
+            if (last == null || !TaskEvent.DROPPED.equals(last.getName())) {
+                last = TaskEvent.dropped();
+                events.addLast(last);
+            }
+            ((TaskEvent.Dropped) last.getData()).add(patternCount);
+            return false;
+        }
+        events.addLast(event);
+        batches++;
+        return true;
+    }
+
+    synchronized void offerProgress(TaskEvent event) {
+        if (closed) {
+            return;
+        }
+        TaskEvent last = events.peekLast();
+        if (last != null && TaskEvent.PROGRESS.equals(last.getName())) {
+            events.pollLast();
+        }
+        events.addLast(event);
+    }
+
+    synchronized void offerStatus(TaskEvent event) {
+        if (closed) {
+            return;
+        }
+        events.addLast(event);
+        closed = event.isTerminal();
+    }
+
+    /**
+     * @return The next event to send, or null if there is none for now
+     */
+    public synchronized TaskEvent poll() {
+        TaskEvent event = events.pollFirst();
+        if (event != null && TaskEvent.PATTERNS.equals(event.getName())) {
+            batches--;
+        }
+        return event;
+    }
+
+    /**
+     * @return Whether the terminal status was queued: no event is queued after it
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return The number of events queued
+     */
+    public synchronized int size() {
+        return events.size();
+    }
+}
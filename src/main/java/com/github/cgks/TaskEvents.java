@@ -0,0 +1,185 @@
+package com.github.cgks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the events of a task to its subscribers: its state transitions,
+ * its progress and the patterns found, by batches of {@link #BATCH_SIZE}.
+ * <p>
+ * The mining thread counts the patterns through the sink returned by
+ * {@link #publishing}, and only builds batches while the task has
+ * subscribers. A batch is offered to the bounded buffer of each subscriber
+ * when it is full, or by {@link #tick()}, called periodically with the
+ * progress; the offers never wait, so that a slow subscriber loses batches
+ * rather than slowing the miner down. The terminal status flushes the last
+ * batch and the final progress, and closes the buffers.
+ */
+public final class TaskEvents {
+
+    /** The number of patterns of a full batch. */
+    static final int BATCH_SIZE = 256;
+
+    private final String taskId;
+    private final List<TaskEventSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    // the number of patterns found, written by the mining thread only
+    private final AtomicInteger found = new AtomicInteger();
+
+    // guarded by this
+    private TaskStatus status = TaskStatus.PENDING;
+    private String error;
+    private int resultCount;
+    private boolean started;
+    private long startNanos;
+    private long endNanos;
+    // the patterns found since the last batch, the first of rank pendingFrom
+    private List<MiningResult> pending = new ArrayList<>();
+    private int pendingFrom;
+
+    public TaskEvents(String taskId) {
+        this.taskId = taskId;
+    }
+
+    /**
+     * @param sink The sink storing the patterns of the task
+     * @return A sink passing the patterns to the given one, then counting and
+     *         publishing them
+     */
+    public ResultSink publishing(ResultSink sink) {
+        return new ResultSink() {
+            private int count;
+
+            @Override
+            public void accept(int[] pattern, int support) {
+                sink.accept(pattern, support);
+                int rank = count++;
+                found.lazySet(count);
+                if (!subscribers.isEmpty()) {
+                    addPending(rank, new MiningResult(pattern, support));
+                }
+            }
+        };
+    }
+
+    private synchronized void addPending(int rank, MiningResult result) {
+        // the patterns found while the task had no subscribers are skipped,
+        // and a batch only holds consecutive patterns
+        if (rank != pendingFrom + pending.size()) {
+            flushBatch();
+        }
+        if (pending.isEmpty()) {
+            pendingFrom = rank;
+        }
+        pending.add(result);
+        if (pending.size() == BATCH_SIZE) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        TaskEvent event = TaskEvent.patterns(pendingFrom, pending);
+        for (TaskEventSubscriber subscriber : subscribers) {
+            subscriber.offerBatch(event, pending.size());
+        }
+        pending = new ArrayList<>();
+    }
+
+    /**
+     * Publishes a state transition; the terminal ones are the last events.
+     *
+     * @param status      The new status of the task
+     * @param error       The error of the task, if it failed or was cancelled
+     * @param resultCount The number of patterns stored for the task
+     */
+    public synchronized void publishStatus(TaskStatus status, String error, int resultCount) {
+        if (isTerminal()) {
+            return;
+        }
+        this.status = status;
+        this.error = error;
+        this.resultCount = resultCount;
+        if (status == TaskStatus.PROCESSING) {
+            started = true;
+            startNanos = System.nanoTime();
+        }
+        TaskEvent event = TaskEvent.status(taskId, status, error, resultCount);
+        if (isTerminal()) {
+            endNanos = System.nanoTime();
+            flushBatch();
+            publishProgress();
+        }
+        for (TaskEventSubscriber subscriber : subscribers) {
+            subscriber.offerStatus(event);
+        }
+        if (isTerminal()) {
+            subscribers.clear();
+        }
+    }
+
+    /**
+     * Publishes the progress of the task and the patterns found since the
+     * last batch, while it is processing.
+     */
+    public synchronized void tick() {
+        if (status == TaskStatus.PROCESSING) {
+            flushBatch();
+            publishProgress();
+        }
+    }
+
+    private void publishProgress() {
+        if (!started) {
+            return;
+        }
+        TaskEvent event = progressEvent();
+        for (TaskEventSubscriber subscriber : subscribers) {
+            subscriber.offerProgress(event);
+        }
+    }
+
+    private TaskEvent progressEvent() {
+        long end = isTerminal() ? endNanos : System.nanoTime();
+        return TaskEvent.progress(found.get(), TimeUnit.NANOSECONDS.toMillis(end - startNanos));
+    }
+
+    private boolean isTerminal() {
+        return status == TaskStatus.COMPLETED || status == TaskStatus.FAILED || status == TaskStatus.CANCELLED;
+    }
+
+    /**
+     * Adds a subscriber, whose buffer starts with the progress of the task, if
+     * it is processing or done, and its current status. The subscriber of a
+     * terminal task receives no other event.
+     *
+     * @param capacity The maximum number of batches of patterns held for it
+     * @return The subscriber
+     */
+    public synchronized TaskEventSubscriber subscribe(int capacity) {
+        TaskEventSubscriber subscriber = new TaskEventSubscriber(capacity);
+        if (started) {
+            subscriber.offerProgress(progressEvent());
+        }
+        subscriber.offerStatus(TaskEvent.status(taskId, status, error, resultCount));
+        if (!isTerminal()) {
+            subscribers.add(subscriber);
+        }
+        return subscriber;
+    }
+
+    public void unsubscribe(TaskEventSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * @return Whether the task has subscribers
+     */
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+}
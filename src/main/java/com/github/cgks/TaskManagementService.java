@@ -12,6 +12,9 @@ import java.util.concurrent.CompletableFuture;
 public class TaskManagementService {
 
     private final AtomicReference<Task> currentTask = new AtomicReference<>();
+    // The last acknowledged task, whose results can still be read by pages
+    // until the next task is submitted
+    private final AtomicReference<Task> acknowledgedTask = new AtomicReference<>();
     private final MiningTaskRunner miningTaskRunner;
 
     @Autowired
@@ -22,6 +25,7 @@ public class TaskManagementService {
     public Optional<Task> submitTask(MiningRequest request) {
         Task newTask = new Task(request);
         if (currentTask.compareAndSet(null, newTask)) {
+            acknowledgedTask.set(null);
             newTask.setStatus(TaskStatus.PENDING);
             // This will run in a separate thread immediately
             miningTaskRunner.runMiningTask(newTask);
@@ -42,6 +46,19 @@ public class TaskManagementService {
         return currentTask.get();
     }
 
+    // The current task or the last acknowledged one, if it has this id
+    public Optional<Task> getTask(String id) {
+        Task task = currentTask.get();
+        if (task != null && task.getId().equals(id)) {
+            return Optional.of(task);
+        }
+        task = acknowledgedTask.get();
+        if (task != null && task.getId().equals(id)) {
+            return Optional.of(task);
+        }
+        return Optional.empty();
+    }
+
     public boolean cancelCurrentTask() {
         Task task = currentTask.get();
         if (task != null && (task.getStatus() == TaskStatus.PENDING || task.getStatus() == TaskStatus.PROCESSING)) {
@@ -56,7 +73,10 @@ public class TaskManagementService {
     public boolean acknowledgeAndClearTask() {
         Task task = currentTask.get();
         if (task != null && (task.getStatus() == TaskStatus.COMPLETED || task.getStatus() == TaskStatus.FAILED || task.getStatus() == TaskStatus.CANCELLED)) {
-            return currentTask.compareAndSet(task, null);
+            if (currentTask.compareAndSet(task, null)) {
+                acknowledgedTask.set(task);
+                return true;
+            }
         }
         return false;
     }
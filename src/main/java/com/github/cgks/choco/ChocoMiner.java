@@ -1,15 +1,8 @@
 package com.github.cgks.choco;
 
-import java.io.File;
-import java.net.URL;
-import java.net.URLDecoder;
-import java.io.UnsupportedEncodingException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 import java.util.function.BooleanSupplier;
-import java.util.stream.IntStream;
 
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
@@ -18,13 +11,15 @@ import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 
 import com.github.cgks.Miner;
-import com.github.cgks.MiningResult;
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.dataset.VerticalIndex;
 import com.github.cgks.exceptions.DatabaseException;
 import com.github.cgks.exceptions.ParameterException;
 import com.github.cgks.exceptions.MiningException;
 
 import io.gitlab.chaver.mining.patterns.constraints.factory.ConstraintFactory;
-import io.gitlab.chaver.mining.patterns.io.DatReader;
 import io.gitlab.chaver.mining.patterns.io.TransactionalDatabase;
 
 /**
@@ -109,14 +104,14 @@ public class ChocoMiner implements Miner {
      *
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "minSupport" 
+     * @param sink The sink receiving the discovered frequent itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered frequent itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractFrequent(String datasetPath, Map<String, String> params,
+    public void extractFrequent(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -152,7 +147,7 @@ public class ChocoMiner implements Miner {
             // Configure the solver
             Solver solver = model.getSolver();
             solver.setSearch(Search.inputOrderLBSearch(itemSelectionVars));
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all solutions (itemsets) that satisfy the constraints
@@ -160,20 +155,16 @@ public class ChocoMiner implements Miner {
                     // Check for cancellation after each solution
                     checkCancellation(cancellationChecker);
                     
-                    // Extract the current solution as a mining result
-                    MiningResult result = getMiningResult(database, itemSelectionVars, supportCountVar);
-                    results.add(result);
+                    // Push the current solution to the sink
+                    if (pushSolution(database, itemSelectionVars, supportCountVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Frequent itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove any empty itemsets from the results
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Frequent itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Frequent itemset mining cancelled.");
@@ -199,14 +190,14 @@ public class ChocoMiner implements Miner {
      *
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param sink The sink receiving the discovered closed itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered closed itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractClosed(String datasetPath, Map<String, String> params,
+    public void extractClosed(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -246,7 +237,7 @@ public class ChocoMiner implements Miner {
             // Configure the solver with an appropriate search strategy
             Solver solver = model.getSolver();
             solver.setSearch(Search.minDomUBSearch(itemSelectionVars));
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all solutions (closed itemsets) that satisfy the constraints
@@ -254,20 +245,16 @@ public class ChocoMiner implements Miner {
                     // Check for cancellation after each solution
                     checkCancellation(cancellationChecker);
                     
-                    // Extract the current solution as a mining result
-                    MiningResult result = getMiningResult(database, itemSelectionVars, supportCountVar);
-                    results.add(result);
+                    // Push the current solution to the sink
+                    if (pushSolution(database, itemSelectionVars, supportCountVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Closed itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove any empty itemsets from the results
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Closed itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Closed itemset mining cancelled.");
@@ -293,14 +280,14 @@ public class ChocoMiner implements Miner {
      *
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param sink The sink receiving the discovered maximal itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered maximal itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractMaximal(String datasetPath, Map<String, String> params,
+    public void extractMaximal(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -341,7 +328,7 @@ public class ChocoMiner implements Miner {
             // Using upper bound search helps find larger itemsets first
             Solver solver = model.getSolver();
             solver.setSearch(Search.inputOrderUBSearch(itemSelectionVars));
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all solutions (maximal itemsets) that satisfy the constraints
@@ -349,20 +336,16 @@ public class ChocoMiner implements Miner {
                     // Check for cancellation after each solution
                     checkCancellation(cancellationChecker);
                     
-                    // Extract the current solution as a mining result
-                    MiningResult result = getMiningResult(database, itemSelectionVars, supportCountVar);
-                    results.add(result);
+                    // Push the current solution to the sink
+                    if (pushSolution(database, itemSelectionVars, supportCountVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Maximal itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove any empty itemsets from the results
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Maximal itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Maximal itemset mining cancelled.");
@@ -387,14 +370,14 @@ public class ChocoMiner implements Miner {
      *
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "maxSupport"
+     * @param sink The sink receiving the discovered rare itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered rare itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractRare(String datasetPath, Map<String, String> params,
+    public void extractRare(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException {
         try {
             checkCancellation(cancellationChecker);
@@ -413,44 +396,18 @@ public class ChocoMiner implements Miner {
             LOGGER.info("Starting rare itemset mining with maxSupport: " + maxSupportCount);
 
             // PHASE 1: Identify rare singleton items (items that appear in fewer than maxSupport transactions)
-            Model identificationModel = new Model("Rare Item Identification");
-            BoolVar[] candidateVars = identificationModel.boolVarArray("x", database.getNbItems());
-            IntVar supportVar = identificationModel.intVar("freq", 1, database.getNbTransactions());
-
-            // Setup solver for identification phase
-            Solver identificationSolver = identificationModel.getSolver();
-            identificationSolver.setSearch(Search.minDomLBSearch(candidateVars));
-            
-            // Add constraints for rare item identification
-            identificationModel.arithm(supportVar, "<", maxSupportCount).post();
-            ConstraintFactory.coverSize(database, supportVar, candidateVars).post();
-
-            // Track which items are rare singletons
+            // Singleton supports are point lookups in the vertical index
+            VerticalIndex verticalIndex = DatasetCache.getInstance().getVerticalIndex(datasetPath);
+            int[] items = database.getItems();
             boolean[] rareItems = new boolean[database.getNbItems()];
-            
-            // Find all rare singleton items
-            while (identificationSolver.solve()) {
-                checkCancellation(cancellationChecker);
-                int[] itemset = IntStream.range(0, candidateVars.length)
-                        .filter(i -> candidateVars[i].getValue() == 1)
-                        .map(i -> database.getItems()[i])
-                        .toArray();
-                        
-                // If this is a singleton set, mark the item as rare
-                if (itemset.length == 1) {
-                    rareItems[itemset[0] - 1] = true;
-                }
-            }
-            
-            // Log rare singleton items for debugging
-            int index = 0;
-            for (boolean isRare : rareItems) {
-                if (isRare) {
-                    LOGGER.fine("Identified rare singleton item: " + (index + 1));
+            for (int i = 0; i < items.length; i++) {
+                int support = verticalIndex.getSupport(items[i]);
+                if (support >= 1 && support < maxSupportCount) {
+                    rareItems[i] = true;
+                    LOGGER.fine("Identified rare singleton item: " + items[i]);
                 }
-                checkCancellation(cancellationChecker);
-                index++;
             }
+            checkCancellation(cancellationChecker);
 
             // PHASE 2: Extract all rare itemsets that contain at least one rare singleton item
             Model extractionModel = new Model("Rare Itemset Mining");
@@ -477,25 +434,21 @@ public class ChocoMiner implements Miner {
             Solver extractionSolver = extractionModel.getSolver();
             extractionSolver.setSearch(Search.minDomLBSearch(itemVars));
             
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all rare itemsets that satisfy our constraints
                 while (extractionSolver.solve()) {
                     checkCancellation(cancellationChecker);
-                    MiningResult result = getMiningResult(database, itemVars, freqVar);
-                    results.add(result);
+                    if (pushSolution(database, itemVars, freqVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Rare itemset mining completed. Found " + results.size() + " results.");
-
-            // Empty itemsets are not allowed
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Rare itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Rare itemset mining cancelled.");
@@ -519,14 +472,14 @@ public class ChocoMiner implements Miner {
      * 
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param sink The sink receiving the discovered generator itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered generator itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractGenerators(String datasetPath, Map<String, String> params,
+    public void extractGenerators(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException {
         try {
             // Check if operation has been cancelled before starting
@@ -566,25 +519,21 @@ public class ChocoMiner implements Miner {
             Solver solver = model.getSolver();
             solver.setSearch(Search.inputOrderLBSearch(itemSelectionVars));
             
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all generator itemsets
                 while (solver.solve()) {
                     checkCancellation(cancellationChecker);
-                    MiningResult result = getMiningResult(database, itemSelectionVars, supportCountVar);
-                    results.add(result);
+                    if (pushSolution(database, itemSelectionVars, supportCountVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Generator itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove empty itemsets as they are not considered valid generators
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Generator itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Generator itemset mining cancelled.");
@@ -608,14 +557,14 @@ public class ChocoMiner implements Miner {
      *
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "maxSupport"
+     * @param sink The sink receiving the discovered minimal rare itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered minimal rare itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractMinimal(String datasetPath, Map<String, String> params,
+    public void extractMinimal(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException {
         try {
             // Check if operation has been cancelled before starting
@@ -662,25 +611,21 @@ public class ChocoMiner implements Miner {
             Solver solver = model.getSolver();
             // Note: Default search strategy is used as it works well for this problem
             
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all minimal rare itemsets
                 while (solver.solve()) {
                     checkCancellation(cancellationChecker);
-                    MiningResult result = getMiningResult(database, itemVars, supportVar);
-                    results.add(result);
+                    if (pushSolution(database, itemVars, supportVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Minimal rare itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove empty itemsets as they are not considered valid minimal rare itemsets
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Minimal rare itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Minimal rare itemset mining cancelled.");
@@ -704,14 +649,14 @@ public class ChocoMiner implements Miner {
      *
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "minSize", "maxSize", and "minSupport"
+     * @param sink The sink receiving the discovered closed itemsets within the specified size range
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered closed itemsets within the specified size range
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractSizeBetween(String datasetPath, Map<String, String> params,
+    public void extractSizeBetween(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException {
         try {
             // Check if operation has been cancelled before starting
@@ -784,25 +729,21 @@ public class ChocoMiner implements Miner {
             // and assigns it to its lower bound first - good for finding itemsets efficiently
             solver.setSearch(Search.minDomLBSearch(itemVars));
             
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all closed itemsets within the size constraints
                 while (solver.solve()) {
                     checkCancellation(cancellationChecker);
-                    MiningResult result = getMiningResult(database, itemVars, supportVar);
-                    results.add(result);
+                    if (pushSolution(database, itemVars, supportVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Size-constrained closed itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove any empty itemsets that might have been generated
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Size-constrained closed itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Size-constrained itemset mining cancelled.");
@@ -828,14 +769,14 @@ public class ChocoMiner implements Miner {
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "items" and "minSupport"
      *               The "items" parameter should be a comma-separated list of item indices that must be present
+     * @param sink The sink receiving the discovered closed itemsets that include the specified items
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered closed itemsets that include the specified items
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractPresence(String datasetPath, Map<String, String> params,
+    public void extractPresence(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException {
         try {
             // Check if operation has been cancelled before starting
@@ -885,25 +826,21 @@ public class ChocoMiner implements Miner {
 
             // Setup the solver
             Solver solver = model.getSolver();
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all closed itemsets that satisfy the presence constraints
                 while (solver.solve()) {
                     checkCancellation(cancellationChecker);
-                    MiningResult result = getMiningResult(database, itemVars, supportVar);
-                    results.add(result);
+                    if (pushSolution(database, itemVars, supportVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Presence-constrained closed itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove any empty itemsets that might have been generated
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Presence-constrained closed itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Presence-constrained mining cancelled.");
@@ -929,14 +866,14 @@ public class ChocoMiner implements Miner {
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "items" and "minSupport"
      *               The "items" parameter should be a comma-separated list of item indices that must be absent
+     * @param sink The sink receiving the discovered closed itemsets that exclude the specified items
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered closed itemsets that exclude the specified items
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractAbsence(String datasetPath, Map<String, String> params,
+    public void extractAbsence(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException {
         try {
             // Check if operation has been cancelled before starting
@@ -945,34 +882,46 @@ public class ChocoMiner implements Miner {
             // Validate that all required parameters are present
             validateParams(params, "items", "minSupport");
 
-            // Load the dataset as a transactional database
-            TransactionalDatabase database = readTransactionalDatabase(datasetPath);
-            int minSupportCount = parseMinSupport(params, database);
+            // Load the dataset (parsed once, shared through the cache)
+            TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
+            int[] allItems = dataset.getItems();
 
             // Parse the list of items that must be absent from the discovered patterns
-            int[] forbiddenItems = parseArrayParameter(params.get("items"), database.getNbItems());
+            int[] forbiddenItems = parseArrayParameter(params.get("items"), allItems.length);
+
+            // Remove the forbidden item columns up front: the model only has a
+            // variable for the items that may appear in a pattern
+            int nbKeptItems = 0;
+            for (int forbidden : forbiddenItems) {
+                nbKeptItems += 1 - forbidden;
+            }
+            int[] keptItems = new int[nbKeptItems];
+            for (int i = 0, k = 0; i < allItems.length; i++) {
+                if (forbiddenItems[i] == 0) {
+                    keptItems[k++] = allItems[i];
+                }
+            }
+            int[] allTransactions = new int[dataset.getNbTransactions()];
+            for (int t = 0; t < allTransactions.length; t++) {
+                allTransactions[t] = t;
+            }
+            TransactionalDatabase database = ConvertToTransactionalDatabase
+                    .convertDatasetToTransactionalDatabase(dataset, keptItems, allTransactions);
+            int minSupportCount = parseMinSupport(params, database);
 
-            LOGGER.info("Starting closed itemset mining with item absence constraints and minSupport: " + minSupportCount);
+            LOGGER.info("Starting closed itemset mining with item absence constraints and minSupport: " + minSupportCount
+                    + " (" + (allItems.length - keptItems.length) + " items removed)");
 
             // Create a constraint programming model
             Model model = new Model("Closed Itemset Mining with Absence Constraints");
             
             // Define decision variables:
-            // - itemVars[i] is true if item i is in the itemset
-            BoolVar[] itemVars = model.boolVarArray("x", database.getNbItems());
+            // - itemVars[i] is true if the kept item i is in the itemset
+            BoolVar[] itemVars = model.boolVarArray("x", keptItems.length);
             
             // - supportVar represents the support count (number of transactions covering the itemset)
             IntVar supportVar = model.intVar("freq", 1, database.getNbTransactions());
 
-            // Post item absence constraints
-            // For each forbidden item (marked with 1 in the absence array), force it NOT to be in the pattern
-            for (int i = 0; i < forbiddenItems.length; i++) {
-                if (forbiddenItems[i] == 1) {
-                    // Force this item to be excluded in all solutions
-                    itemVars[i].eq(0).post();
-                }
-            }
-
             // Post minimum support constraint
             model.arithm(supportVar, ">=", minSupportCount).post();
             
@@ -980,35 +929,51 @@ public class ChocoMiner implements Miner {
             // 1. Coverage constraint: compute the support of the itemset
             ConstraintFactory.coverSize(database, supportVar, itemVars).post();
             
-            // 2. Closure constraint: ensure the itemset is closed
+            // 2. Closure constraint: ensure the itemset is closed among the kept items
             // (i.e., there's no proper superset with the same support)
             ConstraintFactory.coverClosure(database, itemVars).post();
 
+            // 3. Closedness in the whole dataset: the itemset must not be covered only by
+            // transactions containing a forbidden item, otherwise adding that item would
+            // keep its support. Only forbidden items that are frequent can do this.
+            for (int i = 0; i < allItems.length; i++) {
+                int forbiddenItem = allItems[i];
+                if (forbiddenItems[i] == 0 || dataset.getItemSupport(forbiddenItem) < minSupportCount) {
+                    continue;
+                }
+                int[] outside = transactionsWithout(dataset, forbiddenItem);
+                if (outside.length == 0) {
+                    // the forbidden item is in the closure of every itemset
+                    LOGGER.info("Item " + forbiddenItem + " occurs in every transaction: no closed itemset without it.");
+                    return;
+                }
+                TransactionalDatabase outsideDatabase = ConvertToTransactionalDatabase
+                        .convertDatasetToTransactionalDatabase(dataset, keptItems, outside);
+                IntVar outsideSupport = model.intVar("freq_not_" + forbiddenItem, 1, outside.length);
+                ConstraintFactory.coverSize(outsideDatabase, outsideSupport, itemVars).post();
+            }
+
             // Setup the solver with a specific search strategy
             Solver solver = model.getSolver();
             
             // Use input order strategy which processes variables in their natural order
             solver.setSearch(Search.inputOrderLBSearch(itemVars));
             
-            List<MiningResult> results = new ArrayList<>();
+            int found = 0;
 
             try {
                 // Find all closed itemsets that satisfy the absence constraints
                 while (solver.solve()) {
                     checkCancellation(cancellationChecker);
-                    MiningResult result = getMiningResult(database, itemVars, supportVar);
-                    results.add(result);
+                    if (pushSolution(database, itemVars, supportVar, sink)) {
+                        found++;
+                    }
                 }
             } catch (Exception e) {
                 throw new MiningException("Error during solving process: " + e.getMessage(), e);
             }
 
-            LOGGER.info("Absence-constrained closed itemset mining completed. Found " + results.size() + " results.");
-
-            // Remove any empty itemsets that might have been generated
-            filterOutEmptyItemsets(results);
-
-            return results;
+            LOGGER.info("Absence-constrained closed itemset mining completed. Found " + found + " results.");
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.info("Absence-constrained mining cancelled.");
@@ -1026,48 +991,39 @@ public class ChocoMiner implements Miner {
     }
 
 
+    /**
+     * Lists the transactions that do not contain an item.
+     *
+     * @param dataset The parsed dataset
+     * @param item    The item
+     * @return The indices of the transactions without the item, in increasing order
+     */
+    private static int[] transactionsWithout(TransactionDataset dataset, int item) {
+        int[] tids = dataset.getTids();
+        int from = dataset.getTidOffsets()[item];
+        int to = dataset.getTidOffsets()[item + 1];
+        int[] outside = new int[dataset.getNbTransactions() - (to - from)];
+        for (int t = 0, k = 0, i = from; t < dataset.getNbTransactions(); t++) {
+            if (i < to && tids[i] == t) {
+                i++;
+            } else {
+                outside[k++] = t;
+            }
+        }
+        return outside;
+    }
+
     /**
      * Reads the transactional database from the given path.
+     * The dataset is parsed once and shared through the {@link DatasetCache}.
      *
      * @param datasetPath The path to the dataset file
      * @return The transactional database
      * @throws DatabaseException If there is an error reading the database
      */
     private TransactionalDatabase readTransactionalDatabase(String datasetPath) throws DatabaseException {
-        try {
-            if (datasetPath == null || datasetPath.trim().isEmpty()) {
-                throw new DatabaseException("Dataset path cannot be null or empty");
-            }
-
-            // First try as a file system path
-            File file = new File(datasetPath);
-            if (file.exists() && file.isFile()) {
-                LOGGER.info("Reading transactional database from file system: " + file.getAbsolutePath());
-                try {
-                    return new DatReader(file.getAbsolutePath()).read();
-                } catch (Exception e) {
-                    throw new DatabaseException("Error reading database from file: " + e.getMessage(), e);
-                }
-            }
-
-            // If not found as a file, try as a resource
-            URL url = ChocoMiner.class.getResource(datasetPath);
-            if (url == null) {
-                throw new DatabaseException("Dataset file not found: " + datasetPath);
-            }
-
-            String path = URLDecoder.decode(url.getPath(), "UTF-8");
-            LOGGER.info("Reading transactional database from resource: " + path);
-
-            try {
-                return new DatReader(path).read();
-            } catch (Exception e) {
-                throw new DatabaseException("Error reading database from resource: " + e.getMessage(), e);
-            }
-        } catch (UnsupportedEncodingException e) {
-            // This should never happen with UTF-8
-            throw new DatabaseException("Unsupported encoding: " + e.getMessage(), e);
-        }
+        TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
+        return ConvertToTransactionalDatabase.convertDatasetToTransactionalDatabase(dataset);
     }
 
     /**
@@ -1098,30 +1054,30 @@ public class ChocoMiner implements Miner {
     }
 
     /**
-     * Creates a MiningResult from the current solution.
+     * Pushes the current solution to a sink, unless it is the empty itemset.
      *
      * @param database The transactional database
      * @param x        The boolean variables representing the items
      * @param freq     The frequency variable
-     * @return The mining result
+     * @param sink     The sink receiving the itemset
+     * @return true if the itemset was pushed, false if it is empty
      */
-    private MiningResult getMiningResult(TransactionalDatabase database, BoolVar[] x, IntVar freq) {
-        List<Integer> itemset = new ArrayList<>();
+    private boolean pushSolution(TransactionalDatabase database, BoolVar[] x, IntVar freq, ResultSink sink) {
+        int size = 0;
         for (int i = 0; i < x.length; i++) {
+            size += x[i].getValue();
+        }
+        // Empty itemsets are not results
+        if (size == 0) {
+            return false;
+        }
+        int[] itemset = new int[size];
+        for (int i = 0, k = 0; i < x.length; i++) {
             if (x[i].getValue() == 1) {
-                itemset.add(database.getItems()[i]);
+                itemset[k++] = database.getItems()[i];
             }
         }
-        return new MiningResult(itemset, freq.getValue());
-    }
-
-    /**
-     * Filters out empty itemsets from the results.
-     *
-     * @param results The list of mining results
-     * @return The filtered list of mining results
-     */
-    private void filterOutEmptyItemsets(List<MiningResult> results) {
-        results.removeIf(result -> result.getPattern().isEmpty());
+        sink.accept(itemset, freq.getValue());
+        return true;
     }
-}
\ No newline at end of file
+}
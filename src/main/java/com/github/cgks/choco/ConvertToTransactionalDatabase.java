@@ -0,0 +1,61 @@
+package com.github.cgks.choco;
+
+import java.util.Arrays;
+
+import com.github.cgks.dataset.TransactionDataset;
+
+import io.gitlab.chaver.mining.patterns.io.TransactionalDatabase;
+
+public class ConvertToTransactionalDatabase {
+
+    /**
+     * Builds a choco-mining transactional database from a cached dataset, the
+     * same way DatReader does: the items are the distinct items of the dataset
+     * in increasing order and the values are a 0/1 matrix (transactions x items).
+     *
+     * @param dataset The parsed dataset
+     * @return A new TransactionalDatabase containing the same transactions
+     */
+    public static TransactionalDatabase convertDatasetToTransactionalDatabase(TransactionDataset dataset) {
+        int[] transactions = new int[dataset.getNbTransactions()];
+        for (int t = 0; t < transactions.length; t++) {
+            transactions[t] = t;
+        }
+        return convertDatasetToTransactionalDatabase(dataset, dataset.getItems(), transactions);
+    }
+
+    /**
+     * Builds a choco-mining transactional database restricted to some columns
+     * and rows of a cached dataset: the other items are left out of the 0/1
+     * matrix, so the solver does not need a variable for them.
+     *
+     * @param dataset The parsed dataset
+     * @param items The items to keep, in increasing order (the columns)
+     * @param transactions The indices of the transactions to keep (the rows)
+     * @return A new TransactionalDatabase over the given items and transactions
+     */
+    public static TransactionalDatabase convertDatasetToTransactionalDatabase(TransactionDataset dataset,
+            int[] items, int[] transactions) {
+        // Position of each kept item in the items array, indexed by item value (-1 if left out)
+        int[] itemIndex = new int[dataset.getMaxItem() + 1];
+        Arrays.fill(itemIndex, -1);
+        for (int i = 0; i < items.length; i++) {
+            itemIndex[items[i]] = i;
+        }
+
+        int[] transactionItems = dataset.getTransactionItems();
+        int[][] values = new int[transactions.length][items.length];
+        for (int t = 0; t < values.length; t++) {
+            int transaction = transactions[t];
+            for (int i = dataset.getTransactionStart(transaction); i < dataset.getTransactionEnd(transaction); i++) {
+                int index = itemIndex[transactionItems[i]];
+                if (index >= 0) {
+                    values[t][index] = 1;
+                }
+            }
+        }
+
+        return new TransactionalDatabase(items.clone(), values, 0);
+    }
+
+}
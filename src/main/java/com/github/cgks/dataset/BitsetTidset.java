@@ -0,0 +1,177 @@
+package com.github.cgks.dataset;
+
+import java.util.Arrays;
+
+/**
+ * Uncompressed tidset: one bit per transaction of the dataset. Used for dense
+ * datasets, where most items cover a large share of the transactions.
+ */
+public final class BitsetTidset implements Tidset {
+
+    private final long[] words;
+    private final int cardinality;
+
+    private BitsetTidset(long[] words, int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Builds a tidset from a sorted list of transactions.
+     *
+     * @param tids           An array holding the transactions
+     * @param from           The position of the first transaction in tids
+     * @param to             The position after the last transaction in tids
+     * @param nbTransactions The number of transactions of the dataset
+     * @return The tidset
+     */
+    public static BitsetTidset of(int[] tids, int from, int to, int nbTransactions) {
+        long[] words = new long[wordsFor(nbTransactions)];
+        for (int i = from; i < to; i++) {
+            words[tids[i] >>> 6] |= 1L << tids[i];
+        }
+        return new BitsetTidset(words, cardinality(words));
+    }
+
+    /**
+     * @param nbTransactions The number of transactions of the dataset
+     * @return A tidset holding all the transactions of the dataset
+     */
+    public static BitsetTidset range(int nbTransactions) {
+        long[] words = new long[wordsFor(nbTransactions)];
+        Arrays.fill(words, -1L);
+        int remainder = nbTransactions & 63;
+        if (remainder != 0) {
+            words[words.length - 1] = (1L << remainder) - 1;
+        }
+        return new BitsetTidset(words, nbTransactions);
+    }
+
+    /**
+     * @param nbTransactions The number of transactions of the dataset
+     * @return An empty tidset
+     */
+    public static BitsetTidset empty(int nbTransactions) {
+        return new BitsetTidset(new long[wordsFor(nbTransactions)], 0);
+    }
+
+    /**
+     * @return The words of the bitset (must not be modified)
+     */
+    public long[] getWords() {
+        return words;
+    }
+
+    @Override
+    public int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    public boolean contains(int tid) {
+        int word = tid >>> 6;
+        return tid >= 0 && word < words.length && (words[word] & (1L << tid)) != 0;
+    }
+
+    @Override
+    public Tidset and(Tidset other) {
+        if (!(other instanceof BitsetTidset)) {
+            int[] tids = toArray();
+            int size = 0;
+            for (int tid : tids) {
+                if (other.contains(tid)) {
+                    tids[size++] = tid;
+                }
+            }
+            return of(tids, 0, size, words.length << 6);
+        }
+        long[] otherWords = ((BitsetTidset) other).words;
+        long[] result = new long[words.length];
+        int count = 0;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & otherWords[i];
+            count += Long.bitCount(result[i]);
+        }
+        return new BitsetTidset(result, count);
+    }
+
+    @Override
+    public int andCardinality(Tidset other) {
+        if (!(other instanceof BitsetTidset)) {
+            return other.andCardinality(this);
+        }
+        long[] otherWords = ((BitsetTidset) other).words;
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] & otherWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public Tidset andNot(Tidset other) {
+        if (!(other instanceof BitsetTidset)) {
+            int[] tids = toArray();
+            int size = 0;
+            for (int tid : tids) {
+                if (!other.contains(tid)) {
+                    tids[size++] = tid;
+                }
+            }
+            return of(tids, 0, size, words.length << 6);
+        }
+        long[] otherWords = ((BitsetTidset) other).words;
+        long[] result = new long[words.length];
+        int count = 0;
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & ~otherWords[i];
+            count += Long.bitCount(result[i]);
+        }
+        return new BitsetTidset(result, count);
+    }
+
+    @Override
+    public boolean isSubsetOf(Tidset other) {
+        if (!(other instanceof BitsetTidset)) {
+            return Tidset.super.isSubsetOf(other);
+        }
+        long[] otherWords = ((BitsetTidset) other).words;
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & ~otherWords[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] tids = new int[cardinality];
+        int size = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                tids[size++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return tids;
+    }
+
+    @Override
+    public long estimateBytes() {
+        return 32L + 8L * words.length;
+    }
+
+    private static int wordsFor(int nbBits) {
+        return (nbBits + 63) >>> 6;
+    }
+
+    private static int cardinality(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.cgks.dataset;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+/**
+ * Parser for transactional (.dat) files: one transaction per line, items
+ * (non-negative integers) separated by spaces or tabulations.
+ * <p>
+ * Empty lines and lines whose first non blank character is '#', '%' or '@'
+ * (comments and metadata) are ignored, like the SPMF readers do.
+ * <p>
+ * The file is memory-mapped and its bytes are scanned directly into the CSR
+ * arrays of a {@link TransactionDataset}: no String is created per line or per
+ * item. This is the single ingestion path of the application, every engine
+ * builds its own structures from the resulting dataset.
+ */
+public final class DatParser {
+
+    private static final Logger LOGGER = Logger.getLogger(DatParser.class.getName());
+
+    /** Maximum size of a single mapped region. */
+    private static final long MAX_MAPPING_SIZE = Integer.MAX_VALUE;
+
+    private DatParser() {
+    }
+
+    /**
+     * Parses a .dat file.
+     *
+     * @param file The file to read
+     * @return The parsed dataset
+     * @throws DatabaseException If the file cannot be read or contains an invalid item
+     */
+    public static TransactionDataset parse(File file) throws DatabaseException {
+        LOGGER.info("Reading dataset from file system: " + file.getAbsolutePath());
+        Parser parser = new Parser(file);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            // The parser state is carried over from one region to the next,
+            // so a number may span two regions
+            for (long position = 0; position < size; position += MAX_MAPPING_SIZE) {
+                long length = Math.min(MAX_MAPPING_SIZE, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                parser.scan(buffer);
+            }
+        } catch (IOException e) {
+            throw new DatabaseException("Error reading dataset: " + file + " " + e.getMessage(), e);
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Byte level state machine filling the CSR arrays.
+     */
+    private static final class Parser {
+        private final File file;
+
+        private int[] offsets = new int[1024];
+        private int nbTransactions;
+        private int[] items = new int[16384];
+        private int nbOccurrences;
+
+        /** True until the first non blank character of the current line. */
+        private boolean lineStart = true;
+        /** True while skipping a comment or metadata line. */
+        private boolean skipLine;
+        /** True while reading the digits of an item. */
+        private boolean inNumber;
+        private int value;
+        private long line = 1;
+
+        private Parser(File file) {
+            this.file = file;
+        }
+
+        private void scan(MappedByteBuffer buffer) throws DatabaseException {
+            int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    endLine();
+                    line++;
+                } else if (b == '\r') {
+                    endLine();
+                } else if (skipLine) {
+                    continue;
+                } else if (b >= '0' && b <= '9') {
+                    int digit = b - '0';
+                    if (value > (Integer.MAX_VALUE - digit) / 10) {
+                        throw invalid("item too large");
+                    }
+                    value = value * 10 + digit;
+                    inNumber = true;
+                    lineStart = false;
+                } else if (b == ' ' || b == '\t') {
+                    endNumber();
+                } else if (lineStart && (b == '#' || b == '%' || b == '@')) {
+                    skipLine = true;
+                } else {
+                    throw invalid("unexpected character '" + (char) b + "'");
+                }
+            }
+        }
+
+        private void endNumber() {
+            if (!inNumber) {
+                return;
+            }
+            if (nbOccurrences == items.length) {
+                items = Arrays.copyOf(items, items.length * 2);
+            }
+            items[nbOccurrences++] = value;
+            value = 0;
+            inNumber = false;
+        }
+
+        private void endLine() {
+            endNumber();
+            // Only lines holding at least one item are transactions
+            if (nbOccurrences > offsets[nbTransactions]) {
+                if (nbTransactions + 2 > offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                nbTransactions++;
+                offsets[nbTransactions] = nbOccurrences;
+            }
+            lineStart = true;
+            skipLine = false;
+        }
+
+        private TransactionDataset finish() {
+            endLine();
+            return new TransactionDataset(file.getAbsolutePath(),
+                    Arrays.copyOf(offsets, nbTransactions + 1),
+                    Arrays.copyOf(items, nbOccurrences));
+        }
+
+        private DatabaseException invalid(String reason) {
+            return new DatabaseException("Invalid item in dataset: " + file + " line " + line + ": " + reason);
+        }
+    }
+}
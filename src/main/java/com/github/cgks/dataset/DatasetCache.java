@@ -0,0 +1,286 @@
+package com.github.cgks.dataset;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+/**
+ * Process-wide cache of parsed datasets shared by every mining engine.
+ * <p>
+ * Datasets are keyed by their resolved file path and validated against the
+ * file's last-modified time and size, so an edited file is transparently
+ * re-read. Entries are weighted by their estimated heap footprint and evicted
+ * in least-recently-used order once the byte budget is exceeded.
+ * <p>
+ * Derived structures, such as the {@link VerticalIndex}, are built on first
+ * use and cached alongside their dataset (their size is added to the weight
+ * of the entry).
+ * <p>
+ * The budget can be configured with the {@value #MAX_BYTES_PROPERTY} system
+ * property (in bytes); it defaults to a quarter of the maximum heap size.
+ */
+public final class DatasetCache {
+
+    /** System property holding the cache budget, in bytes. */
+    public static final String MAX_BYTES_PROPERTY = "cgks.dataset.cache.maxBytes";
+
+    private static final Logger LOGGER = Logger.getLogger(DatasetCache.class.getName());
+
+    private static final DatasetCache INSTANCE = new DatasetCache(defaultMaxBytes());
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes;
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a cache with the given budget. Most callers should use
+     * {@link #getInstance()} instead.
+     *
+     * @param maxBytes The maximum estimated size of the retained datasets, in bytes
+     */
+    public DatasetCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return The cache shared by all miners of the application
+     */
+    public static DatasetCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the parsed dataset for the given path, reading it only if it is
+     * not cached yet or if the file changed since it was cached.
+     *
+     * @param datasetPath A file system path or a class path resource (e.g. "/data/iris.dat")
+     * @return The parsed dataset
+     * @throws DatabaseException If the dataset cannot be found or read
+     */
+    public TransactionDataset get(String datasetPath) throws DatabaseException {
+        File file = resolve(datasetPath);
+        String key = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.lastModified == lastModified && entry.length == length) {
+                hits.incrementAndGet();
+                return entry.dataset;
+            }
+        }
+
+        // Parse outside of the lock so that other datasets stay available meanwhile
+        misses.incrementAndGet();
+        TransactionDataset dataset = DatasetIndexFile.load(file);
+        long weight = dataset.estimateBytes();
+
+        synchronized (this) {
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                currentBytes -= previous.weight;
+            }
+            if (weight > maxBytes) {
+                LOGGER.info("Dataset " + key + " (" + weight + " bytes) exceeds the cache budget, not cached");
+                return dataset;
+            }
+            entries.put(key, new Entry(dataset, lastModified, length, weight));
+            currentBytes += weight;
+            evictIfNeeded();
+        }
+        return dataset;
+    }
+
+    /**
+     * Returns the vertical index of a dataset, building it on first use.
+     *
+     * @param datasetPath A file system path or a class path resource (e.g. "/data/iris.dat")
+     * @return The vertical index of the dataset
+     * @throws DatabaseException If the dataset cannot be found or read
+     */
+    public VerticalIndex getVerticalIndex(String datasetPath) throws DatabaseException {
+        TransactionDataset dataset = get(datasetPath);
+        String key = dataset.getSource();
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.dataset == dataset && entry.verticalIndex != null) {
+                return entry.verticalIndex;
+            }
+        }
+
+        VerticalIndex verticalIndex = VerticalIndex.build(dataset);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.dataset == dataset) {
+                if (entry.verticalIndex != null) {
+                    // Built concurrently by another thread
+                    return entry.verticalIndex;
+                }
+                long weight = verticalIndex.estimateBytes();
+                entry.verticalIndex = verticalIndex;
+                entry.weight += weight;
+                currentBytes += weight;
+                evictIfNeeded();
+            }
+        }
+        return verticalIndex;
+    }
+
+    /**
+     * Changes the cache budget, evicting entries if the new budget is smaller.
+     *
+     * @param maxBytes The maximum estimated size of the retained datasets, in bytes
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evictIfNeeded();
+    }
+
+    /**
+     * Removes every dataset from the cache. Statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * @return A snapshot of the cache statistics
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), entries.size(), currentBytes, maxBytes);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            currentBytes -= eldest.getValue().weight;
+            iterator.remove();
+            evictions.incrementAndGet();
+            LOGGER.fine("Evicted dataset " + eldest.getKey() + " from the cache");
+        }
+    }
+
+    /**
+     * Resolves a dataset path, first on the file system and then as a class
+     * path resource.
+     *
+     * @param datasetPath The path given by the caller
+     * @return The dataset file
+     * @throws DatabaseException If the path is empty or the dataset does not exist
+     */
+    public static File resolve(String datasetPath) throws DatabaseException {
+        if (datasetPath == null || datasetPath.trim().isEmpty()) {
+            throw new DatabaseException("Dataset path cannot be null or empty");
+        }
+
+        File file = new File(datasetPath);
+        if (file.exists() && file.isFile()) {
+            return file;
+        }
+
+        URL url = DatasetCache.class.getResource(datasetPath);
+        if (url == null) {
+            throw new DatabaseException("Dataset file not found: " + datasetPath);
+        }
+        File resource = new File(URLDecoder.decode(url.getPath(), StandardCharsets.UTF_8));
+        if (!resource.isFile()) {
+            throw new DatabaseException("Dataset file not found: " + datasetPath);
+        }
+        return resource;
+    }
+
+    private static long defaultMaxBytes() {
+        String property = System.getProperty(MAX_BYTES_PROPERTY);
+        if (property != null) {
+            try {
+                return Long.parseLong(property.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + MAX_BYTES_PROPERTY + ": " + property);
+            }
+        }
+        return Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    private static final class Entry {
+        private final TransactionDataset dataset;
+        private final long lastModified;
+        private final long length;
+        private long weight;
+        private VerticalIndex verticalIndex;
+
+        private Entry(TransactionDataset dataset, long lastModified, long length, long weight) {
+            this.dataset = dataset;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the cache counters.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final long bytes;
+        private final long maxBytes;
+
+        Stats(long hits, long misses, long evictions, int size, long bytes, long maxBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.bytes = bytes;
+            this.maxBytes = maxBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                    + ", size=" + size + ", bytes=" + bytes + "/" + maxBytes;
+        }
+    }
+}
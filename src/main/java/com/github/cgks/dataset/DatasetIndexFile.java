@@ -0,0 +1,244 @@
+package com.github.cgks.dataset;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+/**
+ * Binary, pre-indexed version of a .dat file, stored next to it as a sidecar
+ * file ({@code <name>.dat.idx}) and memory-mapped when loaded.
+ * <p>
+ * Layout (little endian):
+ * <pre>
+ * header (48 bytes):
+ *   int    magic ("CGKS")
+ *   int    version
+ *   int    flags (bit 0: the tid lists section is present)
+ *   int    nbItems (distinct items)
+ *   int    nbTransactions
+ *   int    nbOccurrences (sum of the transaction lengths)
+ *   int    maxItem
+ *   int    reserved
+ *   double density
+ *   long   length of the source .dat file
+ * int[nbTransactions + 1]  CSR offsets
+ * int[nbOccurrences]       CSR items
+ * int[nbItems]             distinct items, in increasing order
+ * int[nbItems]             support of each distinct item
+ * optional tid lists:
+ *   int[maxItem + 2]       tid lists offsets, indexed by item value
+ *   int[nbOccurrences]     tid lists
+ * </pre>
+ * A sidecar is only used when it is at least as recent as its .dat file and
+ * was built from a file of the same length; otherwise the text is parsed.
+ */
+public final class DatasetIndexFile {
+
+    /** Extension appended to the .dat file name. */
+    public static final String EXTENSION = ".idx";
+
+    private static final Logger LOGGER = Logger.getLogger(DatasetIndexFile.class.getName());
+
+    private static final int MAGIC = 0x43474B53;
+    private static final int VERSION = 1;
+    private static final int FLAG_TID_LISTS = 1;
+    private static final int HEADER_SIZE = 48;
+
+    private DatasetIndexFile() {
+    }
+
+    /**
+     * @param datFile The .dat file
+     * @return The sidecar index file of the .dat file (which may not exist)
+     */
+    public static File sidecarOf(File datFile) {
+        return new File(datFile.getPath() + EXTENSION);
+    }
+
+    /**
+     * Loads a dataset, from its sidecar index file when it is up to date and
+     * by parsing the .dat file otherwise.
+     *
+     * @param datFile The .dat file
+     * @return The dataset
+     * @throws DatabaseException If the dataset cannot be read
+     */
+    public static TransactionDataset load(File datFile) throws DatabaseException {
+        File sidecar = sidecarOf(datFile);
+        if (sidecar.isFile() && sidecar.lastModified() >= datFile.lastModified()) {
+            try {
+                TransactionDataset dataset = read(sidecar, datFile);
+                if (dataset != null) {
+                    return dataset;
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warning("Ignoring unreadable index file " + sidecar + ": " + e.getMessage());
+            }
+        }
+        return DatParser.parse(datFile);
+    }
+
+    /**
+     * Reads a sidecar index file.
+     *
+     * @param sidecar The index file
+     * @param datFile The .dat file it was built from
+     * @return The dataset, or null if the index does not match the .dat file
+     * @throws IOException If the index file cannot be read or is corrupted
+     */
+    static TransactionDataset read(File sidecar, File datFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(sidecar.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a dataset index file");
+            }
+            if (buffer.getInt() != VERSION) {
+                throw new IOException("unsupported index version");
+            }
+            int flags = buffer.getInt();
+            int nbItems = buffer.getInt();
+            int nbTransactions = buffer.getInt();
+            int nbOccurrences = buffer.getInt();
+            int maxItem = buffer.getInt();
+            buffer.getInt();
+            buffer.getDouble();
+            long sourceLength = buffer.getLong();
+            if (sourceLength != datFile.length()) {
+                LOGGER.info("Index file " + sidecar + " is out of date, parsing " + datFile);
+                return null;
+            }
+
+            LOGGER.info("Reading dataset from index file: " + sidecar.getAbsolutePath());
+            IntBuffer ints = buffer.asIntBuffer();
+            int[] offsets = readInts(ints, nbTransactions + 1);
+            int[] transactionItems = readInts(ints, nbOccurrences);
+            int[] items = readInts(ints, nbItems);
+            int[] supports = readInts(ints, nbItems);
+            int[] itemSupports = new int[maxItem + 1];
+            for (int i = 0; i < nbItems; i++) {
+                itemSupports[items[i]] = supports[i];
+            }
+
+            int[] tidOffsets = null;
+            int[] tids = null;
+            if ((flags & FLAG_TID_LISTS) != 0) {
+                tidOffsets = readInts(ints, maxItem + 2);
+                tids = readInts(ints, nbOccurrences);
+            }
+
+            return new TransactionDataset(datFile.getAbsolutePath(), offsets, transactionItems, items,
+                    itemSupports, tidOffsets, tids);
+        }
+    }
+
+    private static int[] readInts(IntBuffer ints, int length) {
+        int[] values = new int[length];
+        ints.get(values);
+        return values;
+    }
+
+    /**
+     * Writes the sidecar index file of a .dat file. The file is written to a
+     * temporary file first and then moved, so readers never see a partial index.
+     *
+     * @param datFile      The .dat file
+     * @param withTidLists Whether to include the vertical tid lists
+     * @return The written index file
+     * @throws DatabaseException If the .dat file cannot be parsed or the index cannot be written
+     */
+    public static File write(File datFile, boolean withTidLists) throws DatabaseException {
+        TransactionDataset dataset = DatParser.parse(datFile);
+        File sidecar = sidecarOf(datFile);
+        File temporary = new File(sidecar.getPath() + ".tmp");
+
+        int nbItems = dataset.getNbItems();
+        int nbOccurrences = dataset.getNbItemOccurrences();
+        int maxItem = dataset.getMaxItem();
+        long size = HEADER_SIZE + 4L * (dataset.getNbTransactions() + 1) + 4L * nbOccurrences + 8L * nbItems;
+        if (withTidLists) {
+            size += 4L * (maxItem + 2) + 4L * nbOccurrences;
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(withTidLists ? FLAG_TID_LISTS : 0);
+            buffer.putInt(nbItems);
+            buffer.putInt(dataset.getNbTransactions());
+            buffer.putInt(nbOccurrences);
+            buffer.putInt(maxItem);
+            buffer.putInt(0);
+            buffer.putDouble(dataset.getDensity());
+            buffer.putLong(datFile.length());
+
+            IntBuffer ints = buffer.asIntBuffer();
+            ints.put(dataset.getOffsets());
+            ints.put(dataset.getTransactionItems(), 0, nbOccurrences);
+            int[] items = dataset.getItems();
+            ints.put(items);
+            for (int item : items) {
+                ints.put(dataset.getItemSupport(item));
+            }
+            if (withTidLists) {
+                ints.put(dataset.getTidOffsets());
+                ints.put(dataset.getTids());
+            }
+            buffer.force();
+        } catch (IOException e) {
+            throw new DatabaseException("Error writing index file: " + sidecar + " " + e.getMessage(), e);
+        }
+
+        try {
+            Files.move(temporary.toPath(), sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DatabaseException("Error writing index file: " + sidecar + " " + e.getMessage(), e);
+        }
+        return sidecar;
+    }
+
+    /**
+     * Builds the index files of the given .dat files or directories.
+     * Usage: {@code DatasetIndexFile [--tidsets] <file.dat|directory>...}
+     *
+     * @param args The command line arguments
+     * @throws DatabaseException If a dataset cannot be indexed
+     */
+    public static void main(String[] args) throws DatabaseException {
+        boolean withTidLists = false;
+        for (String arg : args) {
+            if ("--tidsets".equals(arg)) {
+                withTidLists = true;
+            }
+        }
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                continue;
+            }
+            File path = new File(arg);
+            File[] files = path.isDirectory() ? path.listFiles((dir, name) -> name.endsWith(".dat"))
+                    : new File[] { path };
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                File sidecar = write(file, withTidLists);
+                System.out.println(file + " -> " + sidecar + " (" + sidecar.length() + " bytes)");
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.cgks.dataset;
+
+import java.util.Arrays;
+
+/**
+ * View of a dataset whose items are recoded by descending frequency: item
+ * {@code 0} is the most frequent item, ties being broken by increasing
+ * original value, and the items of every transaction are sorted in that order.
+ * <p>
+ * This is the order in which FP-tree style algorithms (FP-Growth, RP-Growth,
+ * FPMax, ...) insert transactions in their trees. With recoded items, sorting
+ * a transaction is a plain int sort (or nothing at all when iterating over
+ * the recoded transactions), and per-item tables are dense arrays indexed by
+ * rank. Items whose support is below a threshold form a suffix of each
+ * recoded transaction.
+ * <p>
+ * The view is built once per dataset and shared through
+ * {@link TransactionDataset#getFrequencyRecoded()}. It is immutable.
+ */
+public final class FrequencyRecodedDataset {
+
+    private final TransactionDataset original;
+    private final TransactionDataset recoded;
+    private final int[] rankToItem;
+    private final int[] itemToRank;
+
+    private FrequencyRecodedDataset(TransactionDataset original, TransactionDataset recoded, int[] rankToItem,
+            int[] itemToRank) {
+        this.original = original;
+        this.recoded = recoded;
+        this.rankToItem = rankToItem;
+        this.itemToRank = itemToRank;
+    }
+
+    /**
+     * Recodes a dataset by descending frequency.
+     *
+     * @param dataset The dataset
+     * @return The recoded view of the dataset
+     */
+    static FrequencyRecodedDataset of(TransactionDataset dataset) {
+        int[] items = dataset.getItems();
+        int[] itemSupports = dataset.getItemSupports();
+
+        // Sort keys packing (inverted support, item): a single primitive sort
+        long[] keys = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            keys[i] = ((long) (Integer.MAX_VALUE - itemSupports[items[i]]) << 32) | items[i];
+        }
+        Arrays.sort(keys);
+
+        int[] rankToItem = new int[items.length];
+        int[] rankSupports = new int[items.length];
+        int[] ranks = new int[items.length];
+        int[] itemToRank = new int[itemSupports.length];
+        Arrays.fill(itemToRank, -1);
+        for (int rank = 0; rank < keys.length; rank++) {
+            int item = (int) keys[rank];
+            rankToItem[rank] = item;
+            rankSupports[rank] = itemSupports[item];
+            ranks[rank] = rank;
+            itemToRank[item] = rank;
+        }
+
+        int[] offsets = dataset.getOffsets();
+        int[] transactionItems = dataset.getTransactionItems();
+        int[] recodedItems = new int[transactionItems.length];
+        for (int i = 0; i < recodedItems.length; i++) {
+            recodedItems[i] = itemToRank[transactionItems[i]];
+        }
+        for (int t = 0; t < dataset.getNbTransactions(); t++) {
+            Arrays.sort(recodedItems, offsets[t], offsets[t + 1]);
+        }
+
+        TransactionDataset recoded = new TransactionDataset(dataset.getSource(), offsets, recodedItems, ranks,
+                rankSupports, null, null);
+        return new FrequencyRecodedDataset(dataset, recoded, rankToItem, itemToRank);
+    }
+
+    /**
+     * @return The dataset this view was built from
+     */
+    public TransactionDataset getOriginal() {
+        return original;
+    }
+
+    /**
+     * Returns the recoded dataset: its items are ranks, its item supports are
+     * indexed by rank (in non-increasing order), and the items of each
+     * transaction are in increasing rank order. The transactions are in the
+     * same order as in the original dataset.
+     *
+     * @return The recoded dataset
+     */
+    public TransactionDataset getDataset() {
+        return recoded;
+    }
+
+    /**
+     * @return The original item of each rank
+     */
+    public int[] getRankToItem() {
+        return rankToItem;
+    }
+
+    /**
+     * @return The rank of each original item, indexed by item value (-1 for the values absent from the dataset)
+     */
+    public int[] getItemToRank() {
+        return itemToRank;
+    }
+
+    /**
+     * @param rank A rank
+     * @return The original item of the rank
+     */
+    public int getItem(int rank) {
+        return rankToItem[rank];
+    }
+
+    /**
+     * @param item An original item value
+     * @return The rank of the item, -1 if it does not appear in the dataset
+     */
+    public int getRank(int item) {
+        return (item >= 0 && item < itemToRank.length) ? itemToRank[item] : -1;
+    }
+
+    /**
+     * Translates recoded items back to original items.
+     *
+     * @param ranks  An array holding ranks
+     * @param length The number of ranks to translate, from the start of the array
+     * @return A new array holding the original items, in increasing order
+     */
+    public int[] decode(int[] ranks, int length) {
+        int[] itemset = new int[length];
+        for (int i = 0; i < length; i++) {
+            itemset[i] = rankToItem[ranks[i]];
+        }
+        Arrays.sort(itemset);
+        return itemset;
+    }
+
+    /**
+     * Estimates the heap footprint of this view, used to weight cache entries.
+     *
+     * @return An approximation of the retained size in bytes
+     */
+    public long estimateBytes() {
+        // The recoded transactions share the CSR offsets of the original dataset
+        long bytes = 16L + 4L * recoded.getNbItemOccurrences();
+        bytes += 3 * (16L + 4L * rankToItem.length);
+        bytes += 16L + 4L * itemToRank.length;
+        return bytes;
+    }
+}
@@ -0,0 +1,639 @@
+package com.github.cgks.dataset;
+
+import java.util.Arrays;
+
+/**
+ * Compressed tidset in the style of Roaring bitmaps, used for sparse datasets
+ * where one bit per transaction and per item would mostly store zeros.
+ * <p>
+ * Transaction identifiers are split into chunks of 65536 values (the 16 high
+ * bits are the chunk key). Each chunk is stored in the most compact of three
+ * containers:
+ * <ul>
+ * <li>an array container: the sorted 16 low bits of each tid, for chunks of
+ * at most {@value #ARRAY_MAX_SIZE} tids;</li>
+ * <li>a bitmap container: 1024 words of 64 bits, for fuller chunks;</li>
+ * <li>a run container: sorted (start, length) pairs, for chunks made of long
+ * consecutive ranges of tids.</li>
+ * </ul>
+ * Intersections and their cardinalities are computed container by container
+ * with a specialised routine for each pair of container types.
+ */
+public final class RoaringTidset implements Tidset {
+
+    /** Maximum number of values of an array container. */
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    private static final int BITMAP_WORDS = 1024;
+
+    private static final RoaringTidset EMPTY = new RoaringTidset(new char[0], new Container[0], 0);
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+    private RoaringTidset(char[] keys, Container[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Builds a tidset from a sorted list of transactions, choosing the most
+     * compact container for each chunk.
+     *
+     * @param tids An array holding the transactions, in increasing order
+     * @param from The position of the first transaction in tids
+     * @param to   The position after the last transaction in tids
+     * @return The tidset
+     */
+    public static RoaringTidset of(int[] tids, int from, int to) {
+        if (from >= to) {
+            return EMPTY;
+        }
+        int nbChunks = 0;
+        for (int i = from, previous = -1; i < to; i++) {
+            int key = tids[i] >>> 16;
+            if (key != previous) {
+                nbChunks++;
+                previous = key;
+            }
+        }
+
+        char[] keys = new char[nbChunks];
+        Container[] containers = new Container[nbChunks];
+        int chunk = 0;
+        int start = from;
+        while (start < to) {
+            int key = tids[start] >>> 16;
+            int end = start;
+            while (end < to && (tids[end] >>> 16) == key) {
+                end++;
+            }
+            keys[chunk] = (char) key;
+            containers[chunk] = Container.of(tids, start, end);
+            chunk++;
+            start = end;
+        }
+        return new RoaringTidset(keys, containers, to - from);
+    }
+
+    /**
+     * @param nbTransactions The number of transactions of the dataset
+     * @return A tidset holding all the transactions of the dataset
+     */
+    public static RoaringTidset range(int nbTransactions) {
+        if (nbTransactions == 0) {
+            return EMPTY;
+        }
+        int nbChunks = ((nbTransactions - 1) >>> 16) + 1;
+        char[] keys = new char[nbChunks];
+        Container[] containers = new Container[nbChunks];
+        for (int chunk = 0; chunk < nbChunks; chunk++) {
+            int last = Math.min(nbTransactions - (chunk << 16), 1 << 16) - 1;
+            keys[chunk] = (char) chunk;
+            containers[chunk] = new RunContainer(new char[] { 0 }, new char[] { (char) last }, last + 1);
+        }
+        return new RoaringTidset(keys, containers, nbTransactions);
+    }
+
+    /**
+     * @return An empty tidset
+     */
+    public static RoaringTidset empty() {
+        return EMPTY;
+    }
+
+    @Override
+    public int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    public boolean contains(int tid) {
+        if (tid < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, (char) (tid >>> 16));
+        return index >= 0 && containers[index].contains((char) tid);
+    }
+
+    @Override
+    public Tidset and(Tidset other) {
+        if (!(other instanceof RoaringTidset)) {
+            int[] tids = toArray();
+            int size = 0;
+            for (int tid : tids) {
+                if (other.contains(tid)) {
+                    tids[size++] = tid;
+                }
+            }
+            return of(tids, 0, size);
+        }
+        RoaringTidset that = (RoaringTidset) other;
+        int capacity = Math.min(keys.length, that.keys.length);
+        char[] resultKeys = new char[capacity];
+        Container[] resultContainers = new Container[capacity];
+        int size = 0;
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < that.keys.length) {
+            if (keys[i] < that.keys[j]) {
+                i++;
+            } else if (keys[i] > that.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(that.containers[j]);
+                if (container.cardinality() > 0) {
+                    resultKeys[size] = keys[i];
+                    resultContainers[size] = container;
+                    total += container.cardinality();
+                    size++;
+                }
+                i++;
+                j++;
+            }
+        }
+        if (size == 0) {
+            return EMPTY;
+        }
+        return new RoaringTidset(Arrays.copyOf(resultKeys, size), Arrays.copyOf(resultContainers, size), total);
+    }
+
+    @Override
+    public int andCardinality(Tidset other) {
+        if (!(other instanceof RoaringTidset)) {
+            int count = 0;
+            for (int tid : toArray()) {
+                if (other.contains(tid)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        RoaringTidset that = (RoaringTidset) other;
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < that.keys.length) {
+            if (keys[i] < that.keys[j]) {
+                i++;
+            } else if (keys[i] > that.keys[j]) {
+                j++;
+            } else {
+                count += containers[i].andCardinality(that.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Differences are only needed on small tidsets (sparse datasets), and are
+     * computed from the array of transactions rather than container by container.
+     */
+    @Override
+    public Tidset andNot(Tidset other) {
+        int[] tids = toArray();
+        int size = 0;
+        for (int tid : tids) {
+            if (!other.contains(tid)) {
+                tids[size++] = tid;
+            }
+        }
+        return of(tids, 0, size);
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] tids = new int[cardinality];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            size = containers[i].fill(tids, size, keys[i] << 16);
+        }
+        return tids;
+    }
+
+    @Override
+    public long estimateBytes() {
+        long bytes = 48L + 2L * keys.length + 8L * containers.length;
+        for (Container container : containers) {
+            bytes += container.estimateBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Set of the 16 low bits of the tids of one chunk.
+     */
+    abstract static class Container {
+
+        /**
+         * Builds the most compact container for the tids of one chunk.
+         */
+        static Container of(int[] tids, int from, int to) {
+            int cardinality = to - from;
+            int nbRuns = 1;
+            for (int i = from + 1; i < to; i++) {
+                if (tids[i] != tids[i - 1] + 1) {
+                    nbRuns++;
+                }
+            }
+            long arrayBytes = 2L * cardinality;
+            long runBytes = 4L * nbRuns;
+            long bitmapBytes = 8L * BITMAP_WORDS;
+
+            if (runBytes < arrayBytes && runBytes < bitmapBytes) {
+                char[] starts = new char[nbRuns];
+                char[] lengths = new char[nbRuns];
+                int run = 0;
+                int runStart = tids[from];
+                starts[0] = (char) runStart;
+                for (int i = from + 1; i < to; i++) {
+                    if (tids[i] != tids[i - 1] + 1) {
+                        lengths[run] = (char) (tids[i - 1] - runStart);
+                        run++;
+                        runStart = tids[i];
+                        starts[run] = (char) runStart;
+                    }
+                }
+                lengths[run] = (char) (tids[to - 1] - runStart);
+                return new RunContainer(starts, lengths, cardinality);
+            }
+            if (cardinality <= ARRAY_MAX_SIZE) {
+                char[] values = new char[cardinality];
+                for (int i = from; i < to; i++) {
+                    values[i - from] = (char) tids[i];
+                }
+                return new ArrayContainer(values);
+            }
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = from; i < to; i++) {
+                int value = tids[i] & 0xFFFF;
+                words[value >>> 6] |= 1L << value;
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        /**
+         * Converts bitmap words to an array container when it is small enough.
+         */
+        static Container ofWords(long[] words, int cardinality) {
+            if (cardinality > ARRAY_MAX_SIZE) {
+                return new BitmapContainer(words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container and(Container other);
+
+        abstract int andCardinality(Container other);
+
+        /** Writes the values (with the given high bits) at position {@code size}, returns the new size. */
+        abstract int fill(int[] tids, int size, int high);
+
+        abstract long[] toWords();
+
+        abstract long estimateBytes();
+    }
+
+    /**
+     * Sorted array of values, for sparse chunks.
+     */
+    static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(values.length, other.cardinality())];
+            int size = 0;
+            if (other instanceof ArrayContainer) {
+                char[] otherValues = ((ArrayContainer) other).values;
+                int i = 0;
+                int j = 0;
+                while (i < values.length && j < otherValues.length) {
+                    if (values[i] < otherValues[j]) {
+                        i++;
+                    } else if (values[i] > otherValues[j]) {
+                        j++;
+                    } else {
+                        result[size++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        result[size++] = value;
+                    }
+                }
+            }
+            return new ArrayContainer(size == result.length ? result : Arrays.copyOf(result, size));
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                char[] otherValues = ((ArrayContainer) other).values;
+                int i = 0;
+                int j = 0;
+                while (i < values.length && j < otherValues.length) {
+                    if (values[i] < otherValues[j]) {
+                        i++;
+                    } else if (values[i] > otherValues[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (char value : values) {
+                    if (other.contains(value)) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        int fill(int[] tids, int size, int high) {
+            for (char value : values) {
+                tids[size++] = high | value;
+            }
+            return size;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (char value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+            return words;
+        }
+
+        @Override
+        long estimateBytes() {
+            return 32L + 2L * values.length;
+        }
+    }
+
+    /**
+     * Bitmap of the 65536 values of a chunk, for dense chunks.
+     */
+    static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = other instanceof BitmapContainer ? ((BitmapContainer) other).words : other.toWords();
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            return ofWords(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            if (other instanceof RunContainer) {
+                return other.andCardinality(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & otherWords[i]);
+            }
+            return count;
+        }
+
+        /** Counts the values in [start, end]. */
+        int cardinalityInRange(int start, int end) {
+            int firstWord = start >>> 6;
+            int lastWord = end >>> 6;
+            long firstMask = -1L << start;
+            long lastMask = -1L >>> (63 - (end & 63));
+            if (firstWord == lastWord) {
+                return Long.bitCount(words[firstWord] & firstMask & lastMask);
+            }
+            int count = Long.bitCount(words[firstWord] & firstMask);
+            for (int i = firstWord + 1; i < lastWord; i++) {
+                count += Long.bitCount(words[i]);
+            }
+            return count + Long.bitCount(words[lastWord] & lastMask);
+        }
+
+        @Override
+        int fill(int[] tids, int size, int high) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    tids[size++] = high | ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        long[] toWords() {
+            return words;
+        }
+
+        @Override
+        long estimateBytes() {
+            return 32L + 8L * BITMAP_WORDS;
+        }
+    }
+
+    /**
+     * Sorted runs of consecutive values, each run being stored as its first
+     * value and its length minus one.
+     */
+    static final class RunContainer extends Container {
+        private final char[] starts;
+        private final char[] lengths;
+        private final int cardinality;
+
+        RunContainer(char[] starts, char[] lengths, int cardinality) {
+            this.starts = starts;
+            this.lengths = lengths;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            int index = Arrays.binarySearch(starts, value);
+            if (index >= 0) {
+                return true;
+            }
+            int run = -index - 2;
+            return run >= 0 && value <= starts[run] + lengths[run];
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            if (other instanceof RunContainer) {
+                return andRuns((RunContainer) other);
+            }
+            return other.and(this);
+        }
+
+        private Container andRuns(RunContainer other) {
+            int capacity = starts.length + other.starts.length;
+            char[] resultStarts = new char[capacity];
+            char[] resultLengths = new char[capacity];
+            int size = 0;
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < starts.length && j < other.starts.length) {
+                int end = starts[i] + lengths[i];
+                int otherEnd = other.starts[j] + other.lengths[j];
+                int start = Math.max(starts[i], other.starts[j]);
+                int last = Math.min(end, otherEnd);
+                if (start <= last) {
+                    resultStarts[size] = (char) start;
+                    resultLengths[size] = (char) (last - start);
+                    count += last - start + 1;
+                    size++;
+                }
+                if (end < otherEnd) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return new RunContainer(Arrays.copyOf(resultStarts, size), Arrays.copyOf(resultLengths, size), count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            int count = 0;
+            if (other instanceof BitmapContainer) {
+                BitmapContainer bitmap = (BitmapContainer) other;
+                for (int i = 0; i < starts.length; i++) {
+                    count += bitmap.cardinalityInRange(starts[i], starts[i] + lengths[i]);
+                }
+                return count;
+            }
+            RunContainer that = (RunContainer) other;
+            int i = 0;
+            int j = 0;
+            while (i < starts.length && j < that.starts.length) {
+                int end = starts[i] + lengths[i];
+                int otherEnd = that.starts[j] + that.lengths[j];
+                int start = Math.max(starts[i], that.starts[j]);
+                int last = Math.min(end, otherEnd);
+                if (start <= last) {
+                    count += last - start + 1;
+                }
+                if (end < otherEnd) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        int fill(int[] tids, int size, int high) {
+            for (int i = 0; i < starts.length; i++) {
+                int end = starts[i] + lengths[i];
+                for (int value = starts[i]; value <= end; value++) {
+                    tids[size++] = high | value;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < starts.length; i++) {
+                int end = starts[i] + lengths[i];
+                for (int value = starts[i]; value <= end; value++) {
+                    words[value >>> 6] |= 1L << value;
+                }
+            }
+            return words;
+        }
+
+        @Override
+        long estimateBytes() {
+            return 48L + 4L * starts.length;
+        }
+    }
+}
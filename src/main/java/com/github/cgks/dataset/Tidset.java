@@ -0,0 +1,63 @@
+package com.github.cgks.dataset;
+
+/**
+ * A set of transaction identifiers (tids), as stored in the {@link VerticalIndex}.
+ * <p>
+ * Implementations are immutable. Operations between two tidsets are meant to
+ * be used with tidsets of the same implementation (the one chosen by the
+ * vertical index); mixing implementations works but is slower.
+ */
+public interface Tidset {
+
+    /**
+     * @return The number of transactions in the set
+     */
+    int cardinality();
+
+    /**
+     * @param tid A transaction identifier
+     * @return True if the transaction is in the set
+     */
+    boolean contains(int tid);
+
+    /**
+     * @param other Another tidset
+     * @return A new tidset holding the transactions of both sets
+     */
+    Tidset and(Tidset other);
+
+    /**
+     * Counts the transactions of both sets without building their intersection.
+     *
+     * @param other Another tidset
+     * @return The cardinality of the intersection
+     */
+    int andCardinality(Tidset other);
+
+    /**
+     * @param other Another tidset
+     * @return A new tidset holding the transactions of this set that are not in {@code other}
+     */
+    Tidset andNot(Tidset other);
+
+    /**
+     * @param other Another tidset
+     * @return True if every transaction of this set is also in {@code other}
+     */
+    default boolean isSubsetOf(Tidset other) {
+        int cardinality = cardinality();
+        return cardinality <= other.cardinality() && andCardinality(other) == cardinality;
+    }
+
+    /**
+     * @return The transactions of the set, in increasing order
+     */
+    int[] toArray();
+
+    /**
+     * Estimates the heap footprint of this tidset, used to weight cache entries.
+     *
+     * @return An approximation of the retained size in bytes
+     */
+    long estimateBytes();
+}
@@ -0,0 +1,297 @@
+package com.github.cgks.dataset;
+
+import java.util.Arrays;
+
+/**
+ * Canonical in-memory representation of a transactional (.dat) dataset.
+ * <p>
+ * A dataset is parsed once and then shared (read-only) by every mining engine
+ * through the {@link DatasetCache}. Engine specific structures (SPMF
+ * {@code TransactionDatabase}, choco-mining {@code TransactionalDatabase}, ...)
+ * are built from this representation instead of re-reading the file.
+ * <p>
+ * Transactions are stored in a compressed sparse row (CSR) layout: the items
+ * of transaction {@code t} are {@code transactionItems[offsets[t]]} to
+ * {@code transactionItems[offsets[t + 1] - 1]}, in file order. This keeps the
+ * whole dataset in two flat arrays instead of one array per transaction.
+ * <p>
+ * Instances are immutable: the arrays returned by the getters must not be
+ * modified by callers.
+ */
+public final class TransactionDataset {
+
+    private final String source;
+    private final int[] offsets;
+    private final int[] transactionItems;
+    private final int[] items;
+    private final int[] itemSupports;
+
+    // Vertical representation (tid lists in CSR layout, indexed by item value), built lazily
+    private int[] tidOffsets;
+    private int[] tids;
+
+    // View recoded by descending frequency, built lazily
+    private FrequencyRecodedDataset frequencyRecoded;
+
+    /**
+     * Builds a dataset from already parsed transactions in CSR layout.
+     *
+     * @param source           The resolved path of the file the dataset was read from
+     * @param offsets          The start of each transaction in transactionItems, followed by
+     *                         the total number of item occurrences (length: nbTransactions + 1)
+     * @param transactionItems The items of all the transactions, concatenated
+     */
+    public TransactionDataset(String source, int[] offsets, int[] transactionItems) {
+        this.source = source;
+        this.offsets = offsets;
+        this.transactionItems = transactionItems;
+
+        int nbOccurrences = offsets[offsets.length - 1];
+        int maxItem = 0;
+        for (int i = 0; i < nbOccurrences; i++) {
+            if (transactionItems[i] > maxItem) {
+                maxItem = transactionItems[i];
+            }
+        }
+
+        // Support of each item, indexed by item value
+        this.itemSupports = new int[maxItem + 1];
+        for (int i = 0; i < nbOccurrences; i++) {
+            itemSupports[transactionItems[i]]++;
+        }
+
+        // Sorted list of the distinct items of the dataset
+        int nbItems = 0;
+        for (int support : itemSupports) {
+            if (support > 0) {
+                nbItems++;
+            }
+        }
+        this.items = new int[nbItems];
+        int index = 0;
+        for (int item = 0; item < itemSupports.length; item++) {
+            if (itemSupports[item] > 0) {
+                items[index++] = item;
+            }
+        }
+    }
+
+    /**
+     * Builds a dataset whose statistics were already computed, e.g. read from
+     * a binary index file.
+     *
+     * @param source           The resolved path of the file the dataset was read from
+     * @param offsets          The CSR offsets array
+     * @param transactionItems The CSR items array
+     * @param items            The distinct items, in increasing order
+     * @param itemSupports     The support of each item, indexed by item value
+     * @param tidOffsets       The tid lists offsets, indexed by item value (null to build them lazily)
+     * @param tids             The tid lists, concatenated (null to build them lazily)
+     */
+    TransactionDataset(String source, int[] offsets, int[] transactionItems, int[] items, int[] itemSupports,
+            int[] tidOffsets, int[] tids) {
+        this.source = source;
+        this.offsets = offsets;
+        this.transactionItems = transactionItems;
+        this.items = items;
+        this.itemSupports = itemSupports;
+        this.tidOffsets = tidOffsets;
+        this.tids = tids;
+    }
+
+    /**
+     * @return The resolved path of the file this dataset was read from
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return The number of transactions in the dataset
+     */
+    public int getNbTransactions() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return The number of distinct items in the dataset
+     */
+    public int getNbItems() {
+        return items.length;
+    }
+
+    /**
+     * @return The largest item value of the dataset (0 if the dataset is empty)
+     */
+    public int getMaxItem() {
+        return itemSupports.length - 1;
+    }
+
+    /**
+     * @return The distinct items of the dataset, in increasing order
+     */
+    public int[] getItems() {
+        return items;
+    }
+
+    /**
+     * @return The CSR offsets array (length: number of transactions + 1)
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return The CSR items array, the items of every transaction concatenated
+     */
+    public int[] getTransactionItems() {
+        return transactionItems;
+    }
+
+    /**
+     * @param transaction The index of the transaction
+     * @return The position of the first item of the transaction in {@link #getTransactionItems()}
+     */
+    public int getTransactionStart(int transaction) {
+        return offsets[transaction];
+    }
+
+    /**
+     * @param transaction The index of the transaction
+     * @return The position after the last item of the transaction in {@link #getTransactionItems()}
+     */
+    public int getTransactionEnd(int transaction) {
+        return offsets[transaction + 1];
+    }
+
+    /**
+     * @param transaction The index of the transaction
+     * @return The number of items of the transaction
+     */
+    public int getTransactionLength(int transaction) {
+        return offsets[transaction + 1] - offsets[transaction];
+    }
+
+    /**
+     * Returns a copy of the items of a transaction, in file order.
+     * Hot loops should rather iterate over {@link #getTransactionItems()}.
+     *
+     * @param transaction The index of the transaction
+     * @return The items of the transaction
+     */
+    public int[] getTransaction(int transaction) {
+        return Arrays.copyOfRange(transactionItems, offsets[transaction], offsets[transaction + 1]);
+    }
+
+    /**
+     * Returns the tid lists offsets: the transactions containing {@code item}
+     * are {@code getTids()[getTidOffsets()[item]]} to
+     * {@code getTids()[getTidOffsets()[item + 1] - 1]}, in increasing order.
+     *
+     * @return The tid lists offsets, indexed by item value (length: maxItem + 2)
+     */
+    public int[] getTidOffsets() {
+        buildTidLists();
+        return tidOffsets;
+    }
+
+    /**
+     * @return The tid lists of all the items, concatenated (see {@link #getTidOffsets()})
+     */
+    public int[] getTids() {
+        buildTidLists();
+        return tids;
+    }
+
+    private synchronized void buildTidLists() {
+        if (tids != null) {
+            return;
+        }
+        int[] starts = new int[itemSupports.length + 1];
+        for (int item = 0; item < itemSupports.length; item++) {
+            starts[item + 1] = starts[item] + itemSupports[item];
+        }
+        int[] positions = Arrays.copyOf(starts, itemSupports.length);
+        int[] lists = new int[getNbItemOccurrences()];
+        for (int t = 0; t < getNbTransactions(); t++) {
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                lists[positions[transactionItems[i]]++] = t;
+            }
+        }
+        tidOffsets = starts;
+        tids = lists;
+    }
+
+    /**
+     * Returns the view of this dataset recoded by descending frequency, for
+     * the miners that process items in that order. It is built on the first
+     * call and then shared.
+     *
+     * @return The recoded view
+     */
+    public synchronized FrequencyRecodedDataset getFrequencyRecoded() {
+        if (frequencyRecoded == null) {
+            frequencyRecoded = FrequencyRecodedDataset.of(this);
+        }
+        return frequencyRecoded;
+    }
+
+    /**
+     * @return The support of each item, indexed by item value (length: maxItem + 1)
+     */
+    public int[] getItemSupports() {
+        return itemSupports;
+    }
+
+    /**
+     * @return The total number of item occurrences (sum of the transaction lengths)
+     */
+    public int getNbItemOccurrences() {
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * Returns the support (number of transactions containing it) of an item.
+     *
+     * @param item The item value
+     * @return The absolute support of the item, 0 if it does not appear in the dataset
+     */
+    public int getItemSupport(int item) {
+        return (item >= 0 && item < itemSupports.length) ? itemSupports[item] : 0;
+    }
+
+    /**
+     * @return The density of the dataset (average transaction length divided by the number of items)
+     */
+    public double getDensity() {
+        if (getNbTransactions() == 0 || items.length == 0) {
+            return 0.0;
+        }
+        return (double) getNbItemOccurrences() / ((double) getNbTransactions() * items.length);
+    }
+
+    /**
+     * Estimates the heap footprint of this dataset, used to weight cache entries.
+     *
+     * @return An approximation of the retained size in bytes
+     */
+    public long estimateBytes() {
+        // 16 bytes per array header, 4 bytes per int
+        long bytes = 16L + 4L * offsets.length;
+        bytes += 16L + 4L * transactionItems.length;
+        bytes += 16L + 4L * items.length;
+        bytes += 16L + 4L * itemSupports.length;
+        // Tid lists, once built, are as large as the CSR arrays
+        bytes += 32L + 4L * (itemSupports.length + 1) + 4L * transactionItems.length;
+        // So is the view recoded by frequency
+        bytes += 16L + 4L * transactionItems.length + 16L * 4 + 4L * (3 * items.length + itemSupports.length);
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionDataset[" + source + ", transactions=" + getNbTransactions()
+                + ", items=" + items.length + ", maxItem=" + getMaxItem() + "]";
+    }
+
+}
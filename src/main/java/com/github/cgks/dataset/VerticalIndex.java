@@ -0,0 +1,215 @@
+package com.github.cgks.dataset;
+
+import java.util.Arrays;
+
+/**
+ * Vertical representation of a dataset: for each item, the {@link Tidset} of
+ * the transactions containing it.
+ * <p>
+ * Supports of itemsets, presence/absence checks and closures all reduce to
+ * tidset intersections and cardinalities, which are much faster than
+ * horizontal scans.
+ * <p>
+ * The tidset representation is picked from the density of the dataset when
+ * the index is built: plain bitsets ({@link BitsetTidset}) for dense datasets
+ * such as chess or mushroom, and compressed Roaring-style tidsets
+ * ({@link RoaringTidset}) for sparse datasets such as eisen, where a bitset per
+ * item would mostly store zeros.
+ * <p>
+ * The index is built once per dataset and shared through
+ * {@link DatasetCache#getVerticalIndex(String)}. It is immutable.
+ */
+public final class VerticalIndex {
+
+    /**
+     * Datasets less dense than this use compressed tidsets. Below 1/16, the
+     * 16 bits per occurrence of an array container take less room than the
+     * bit per transaction of a bitset.
+     */
+    public static final double SPARSE_DENSITY = 1.0 / 16;
+
+    private final int nbTransactions;
+    private final boolean compressed;
+    private final int[] items;
+    private final int[] supports;
+    private final Tidset[] tidsets;
+    private final Tidset emptyTidset;
+
+    private VerticalIndex(int nbTransactions, boolean compressed, int[] items, int[] supports, Tidset[] tidsets) {
+        this.nbTransactions = nbTransactions;
+        this.compressed = compressed;
+        this.items = items;
+        this.supports = supports;
+        this.tidsets = tidsets;
+        this.emptyTidset = compressed ? RoaringTidset.empty() : BitsetTidset.empty(nbTransactions);
+    }
+
+    /**
+     * Builds the vertical index of a dataset, choosing the tidset
+     * representation from the density of the dataset.
+     *
+     * @param dataset The dataset
+     * @return The vertical index
+     */
+    public static VerticalIndex build(TransactionDataset dataset) {
+        return build(dataset, dataset.getDensity() < SPARSE_DENSITY);
+    }
+
+    /**
+     * Builds the vertical index of a dataset with the given tidset representation.
+     *
+     * @param dataset    The dataset
+     * @param compressed True to use compressed tidsets, false to use bitsets
+     * @return The vertical index
+     */
+    public static VerticalIndex build(TransactionDataset dataset, boolean compressed) {
+        int nbTransactions = dataset.getNbTransactions();
+        int[] supports = dataset.getItemSupports();
+        int[] tidOffsets = dataset.getTidOffsets();
+        int[] tids = dataset.getTids();
+
+        Tidset[] tidsets = new Tidset[supports.length];
+        for (int item : dataset.getItems()) {
+            int from = tidOffsets[item];
+            int to = tidOffsets[item + 1];
+            tidsets[item] = compressed ? RoaringTidset.of(tids, from, to)
+                    : BitsetTidset.of(tids, from, to, nbTransactions);
+        }
+        return new VerticalIndex(nbTransactions, compressed, dataset.getItems(), supports, tidsets);
+    }
+
+    /**
+     * @return The number of transactions of the indexed dataset
+     */
+    public int getNbTransactions() {
+        return nbTransactions;
+    }
+
+    /**
+     * @return True if the index uses compressed tidsets, false if it uses bitsets
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * @return The distinct items of the dataset, in increasing order
+     */
+    public int[] getItems() {
+        return items;
+    }
+
+    /**
+     * @param item The item value
+     * @return The number of transactions containing the item (0 if it does not appear in the dataset)
+     */
+    public int getSupport(int item) {
+        return (item >= 0 && item < supports.length) ? supports[item] : 0;
+    }
+
+    /**
+     * @param item The item value
+     * @return True if the item appears in at least one transaction
+     */
+    public boolean contains(int item) {
+        return getSupport(item) > 0;
+    }
+
+    /**
+     * Returns the transactions containing an item.
+     *
+     * @param item The item value
+     * @return The tidset of the item (empty if it does not appear in the dataset)
+     */
+    public Tidset getTidset(int item) {
+        if (item < 0 || item >= tidsets.length || tidsets[item] == null) {
+            return emptyTidset;
+        }
+        return tidsets[item];
+    }
+
+    /**
+     * Returns the transactions containing all the given items. Tidsets are
+     * intersected from the least frequent item so intermediate results stay small.
+     *
+     * @param itemset The items
+     * @return The tidset of the itemset (all the transactions if the itemset is empty)
+     */
+    public Tidset tidsetOf(int... itemset) {
+        if (itemset.length == 0) {
+            return allTransactions();
+        }
+        int[] sorted = itemset.clone();
+        for (int i = 1; i < sorted.length; i++) {
+            int item = sorted[i];
+            int j = i - 1;
+            while (j >= 0 && getSupport(sorted[j]) > getSupport(item)) {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = item;
+        }
+        Tidset result = getTidset(sorted[0]);
+        for (int i = 1; i < sorted.length && result.cardinality() > 0; i++) {
+            result = result.and(getTidset(sorted[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the support of an itemset by intersecting the tidsets of its items.
+     *
+     * @param itemset The items
+     * @return The number of transactions containing all the items
+     */
+    public int support(int... itemset) {
+        if (itemset.length == 0) {
+            return nbTransactions;
+        }
+        if (itemset.length == 1) {
+            return getSupport(itemset[0]);
+        }
+        if (itemset.length == 2) {
+            return getTidset(itemset[0]).andCardinality(getTidset(itemset[1]));
+        }
+        return tidsetOf(itemset).cardinality();
+    }
+
+    /**
+     * Returns the closure of a set of transactions: the items contained in all of them.
+     *
+     * @param tidset A set of transactions
+     * @return The items covering the whole tidset, in increasing order
+     */
+    public int[] closure(Tidset tidset) {
+        int cardinality = tidset.cardinality();
+        int[] closure = new int[items.length];
+        int size = 0;
+        for (int item : items) {
+            if (supports[item] >= cardinality && tidset.isSubsetOf(tidsets[item])) {
+                closure[size++] = item;
+            }
+        }
+        return Arrays.copyOf(closure, size);
+    }
+
+    /**
+     * @return A tidset holding all the transactions of the dataset
+     */
+    public Tidset allTransactions() {
+        return compressed ? RoaringTidset.range(nbTransactions) : BitsetTidset.range(nbTransactions);
+    }
+
+    /**
+     * Estimates the heap footprint of this index, used to weight cache entries.
+     *
+     * @return An approximation of the retained size in bytes
+     */
+    public long estimateBytes() {
+        long bytes = 48L + 8L * tidsets.length;
+        for (int item : items) {
+            bytes += tidsets[item].estimateBytes();
+        }
+        return bytes;
+    }
+}
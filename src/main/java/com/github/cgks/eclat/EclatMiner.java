@@ -0,0 +1,425 @@
+package com.github.cgks.eclat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import com.github.cgks.Miner;
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.VerticalIndex;
+import com.github.cgks.exceptions.DatabaseException;
+import com.github.cgks.exceptions.MiningException;
+import com.github.cgks.exceptions.ParameterException;
+import com.github.cgks.spmf.ParallelDefMe;
+import com.github.cgks.spmf.WalkyG;
+
+/**
+ * The {@code EclatMiner} class implements the {@link Miner} interface with
+ * vertical algorithms working on the tidsets of the cached
+ * {@link VerticalIndex} of a dataset, suited to dense datasets.
+ * <p>
+ * Frequent, closed, maximal and rare itemsets, and closed itemsets under size,
+ * presence or absence constraints, are mined by {@link ParallelEclat}, which
+ * pushes the constraints into its search. Generators and minimal rare
+ * itemsets are mined by {@link ParallelDefMe} and {@link WalkyG}, which also
+ * search the vertical index depth-first.
+ * <p>
+ * Each mining method expects a dataset path and a map of parameters, with the
+ * same names and meaning as for the other miners, and an optional
+ * "parallelism" parameter (the number of threads, all the processors by default).
+ */
+public class EclatMiner implements Miner {
+
+    private static final Logger LOGGER = Logger.getLogger(EclatMiner.class.getName());
+
+    /**
+     * Checks if mining operation should be cancelled.
+     * @param cancellationChecker Supplier function that returns true if cancellation requested
+     * @throws InterruptedException if cancellation detected
+     */
+    private void checkCancellation(BooleanSupplier cancellationChecker) throws InterruptedException {
+        if (cancellationChecker.getAsBoolean()) {
+            LOGGER.info("Eclat Mining task cancelled");
+            throw new InterruptedException("Mining task was cancelled by user.");
+        }
+    }
+
+    /**
+     * A mining operation on the vertical index of a dataset, pushing its itemsets to a sink.
+     */
+    @FunctionalInterface
+    private interface Mining {
+        void mine(VerticalIndex index) throws Exception;
+    }
+
+    /**
+     * Runs a mining operation on the vertical index of a dataset.
+     *
+     * @param method              The name of the extraction method, for error messages
+     * @param datasetPath         The file path to the dataset to be analyzed
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @param mining              The mining operation
+     * @throws MiningException   If any error occurs during the mining process
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    private void run(String method, String datasetPath, BooleanSupplier cancellationChecker,
+            Mining mining) throws MiningException, DatabaseException {
+        try {
+            // Check if operation has been cancelled before starting
+            checkCancellation(cancellationChecker);
+
+            // Load the vertical index of the dataset (built once, shared through the cache)
+            VerticalIndex index = DatasetCache.getInstance().getVerticalIndex(datasetPath);
+
+            // Check if operation has been cancelled before running algorithm
+            checkCancellation(cancellationChecker);
+
+            mining.mine(index);
+        } catch (InterruptedException e) {
+            // Restore the interrupted status
+            Thread.currentThread().interrupt();
+            throw new MiningException("Mining task was cancelled by user.", e);
+        } catch (DatabaseException e) {
+            // Re-throw specific exceptions without wrapping
+            throw e;
+        } catch (Exception e) {
+            // Check if the operation was cancelled during execution
+            if (cancellationChecker.getAsBoolean()) {
+                throw new MiningException("Mining task was cancelled during operation.", e);
+            }
+            // Handle unexpected errors
+            throw new MiningException("Unexpected error in " + method + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Extracts frequent itemsets from a dataset using Eclat, with diffsets on dense classes.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param sink The sink receiving the discovered frequent itemsets
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractFrequent(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "minSupport");
+        double minSupportThreshold = parseMinSupport(params);
+        ParallelEclat algorithm = new ParallelEclat(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        run("extractFrequent", datasetPath, cancellationChecker,
+                index -> algorithm.mineFrequent(index, minSupportThreshold, sink));
+    }
+
+    /**
+     * Extracts closed itemsets from a dataset using the DCI-Closed enumeration of {@link ParallelEclat}.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param sink The sink receiving the discovered closed itemsets
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractClosed(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "minSupport");
+        double minSupportThreshold = parseMinSupport(params);
+        ParallelEclat algorithm = new ParallelEclat(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        run("extractClosed", datasetPath, cancellationChecker,
+                index -> algorithm.mineClosed(index, minSupportThreshold, sink));
+    }
+
+    /**
+     * Extracts maximal itemsets from a dataset, among the closed itemsets
+     * enumerated by {@link ParallelEclat}.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param sink The sink receiving the discovered maximal itemsets
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractMaximal(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "minSupport");
+        double minSupportThreshold = parseMinSupport(params);
+        ParallelEclat algorithm = new ParallelEclat(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        run("extractMaximal", datasetPath, cancellationChecker,
+                index -> algorithm.mineMaximal(index, minSupportThreshold, sink));
+    }
+
+    /**
+     * Extracts rare itemsets from a dataset using Eclat: the itemsets containing
+     * at least one item whose support is below the maximum threshold, as
+     * RP-Growth finds them.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "maxSupport"
+     * @param sink The sink receiving the discovered rare itemsets
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractRare(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "maxSupport");
+        double maxSupportThreshold = parseMaxSupport(params);
+        ParallelEclat algorithm = new ParallelEclat(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        run("extractRare", datasetPath, cancellationChecker,
+                index -> algorithm.mineRare(index, maxSupportThreshold, sink));
+    }
+
+    /**
+     * Extracts the frequent generators of a dataset using the DefMe algorithm.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param sink The sink receiving the discovered generators
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractGenerators(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "minSupport");
+        double minSupportThreshold = parseMinSupport(params);
+        ParallelDefMe algorithm = new ParallelDefMe(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        run("extractGenerators", datasetPath, cancellationChecker,
+                index -> algorithm.mineGenerators(index, minSupportThreshold, sink));
+    }
+
+    /**
+     * Extracts the minimal rare itemsets of a dataset using the Walky-G algorithm.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "maxSupport"
+     * @param sink The sink receiving the discovered minimal rare itemsets
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractMinimal(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "maxSupport");
+        double maxSupportThreshold = parseMaxSupport(params);
+        WalkyG algorithm = new WalkyG();
+        algorithm.setCancellationChecker(cancellationChecker);
+        run("extractMinimal", datasetPath, cancellationChecker,
+                index -> algorithm.mineMinimalRare(index, maxSupportThreshold, sink));
+    }
+
+    /**
+     * Extracts the closed itemsets whose size falls within a range: the search
+     * prunes the closed itemsets larger than the maximum size with their subtree.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "minSize", "maxSize", and "minSupport"
+     * @param sink The sink receiving the discovered itemsets within the size range
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractSizeBetween(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "minSize", "maxSize", "minSupport");
+        double minSupportThreshold = parseMinSupport(params);
+
+        // Parse and validate the size range parameters
+        int minimumItemsetSize, maximumItemsetSize;
+        try {
+            minimumItemsetSize = Integer.parseInt(params.get("minSize"));
+            maximumItemsetSize = Integer.parseInt(params.get("maxSize"));
+        } catch (NumberFormatException e) {
+            throw new ParameterException("Invalid minSize or maxSize parameters: " + e.getMessage());
+        }
+        if (minimumItemsetSize < 1) {
+            throw new ParameterException("minSize must be at least 1");
+        }
+        if (maximumItemsetSize < minimumItemsetSize) {
+            throw new ParameterException("maxSize must be greater than or equal to minSize");
+        }
+
+        ParallelEclat algorithm = new ParallelEclat(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        algorithm.setSizeBounds(minimumItemsetSize, maximumItemsetSize);
+        run("extractSizeBetween", datasetPath, cancellationChecker,
+                index -> algorithm.mineClosed(index, minSupportThreshold, sink));
+    }
+
+    /**
+     * Extracts the closed itemsets containing specific items: the search starts
+     * from these items, in the transactions containing them all.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "minSupport" and "items"
+     * @param sink The sink receiving the discovered itemsets that contain all required items
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractPresence(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "minSupport", "items");
+        double minSupportThreshold = parseMinSupport(params);
+        List<Integer> requiredItems = parseItems(params.get("items"));
+        ParallelEclat algorithm = new ParallelEclat(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        run("extractPresence", datasetPath, cancellationChecker, index -> {
+            // Only the required items present in the dataset constrain the search
+            // (if none remain, all closed itemsets are returned)
+            algorithm.setRequiredItems(requiredItems.stream()
+                    .mapToInt(Integer::intValue)
+                    .filter(index::contains)
+                    .toArray());
+            algorithm.mineClosed(index, minSupportThreshold, sink);
+        });
+    }
+
+    /**
+     * Extracts the closed itemsets containing none of the specified items: the
+     * items are never tried as extensions, and the closed itemsets whose closure
+     * in the whole dataset contains one of them are pruned with their subtree.
+     *
+     * @param datasetPath The file path to the dataset to be analyzed
+     * @param params A map containing algorithm parameters, must include "minSupport" and "items" (to exclude)
+     * @param sink The sink receiving the discovered itemsets that exclude all specified items
+     * @param cancellationChecker A supplier that returns true if the operation should be cancelled
+     * @throws MiningException If any error occurs during the mining process
+     * @throws ParameterException If required parameters are missing or invalid
+     * @throws DatabaseException If there is an issue with the dataset
+     */
+    @Override
+    public void extractAbsence(String datasetPath, Map<String, String> params, ResultSink sink,
+            BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
+        validateParams(params, "minSupport", "items");
+        double minSupportThreshold = parseMinSupport(params);
+        List<Integer> excludedItems = parseItems(params.get("items"));
+        ParallelEclat algorithm = new ParallelEclat(parseParallelism(params));
+        algorithm.setCancellationChecker(cancellationChecker);
+        algorithm.setExcludedItems(excludedItems.stream().mapToInt(Integer::intValue).toArray());
+        run("extractAbsence", datasetPath, cancellationChecker,
+                index -> algorithm.mineClosed(index, minSupportThreshold, sink));
+    }
+
+    /**
+     * Validates that required parameters are present.
+     *
+     * @param params         The parameters map
+     * @param requiredParams The required parameter names
+     * @throws ParameterException If a required parameter is missing
+     */
+    private void validateParams(Map<String, String> params, String... requiredParams) throws ParameterException {
+        for (String param : requiredParams) {
+            if (!params.containsKey(param) || params.get(param) == null || params.get(param).trim().isEmpty()) {
+                throw new ParameterException("Required parameter '" + param + "' is missing or empty");
+            }
+        }
+    }
+
+    /**
+     * Validates and parses the minimum support parameter.
+     *
+     * @param params The parameters map
+     * @return The minimum support, as a fraction of the number of transactions
+     * @throws ParameterException If the minSupport parameter is invalid
+     */
+    private double parseMinSupport(Map<String, String> params) throws ParameterException {
+        try {
+            double minSupportRatio = Double.parseDouble(params.get("minSupport"));
+            if (minSupportRatio <= 0.0 || minSupportRatio > 1.0) {
+                throw new ParameterException("minSupport must be between 0.0 (exclusive) and 1.0 (inclusive)");
+            }
+            return minSupportRatio;
+        } catch (NumberFormatException e) {
+            throw new ParameterException("Invalid minSupport value: " + params.get("minSupport"));
+        }
+    }
+
+    /**
+     * Validates and parses the maximum support parameter.
+     *
+     * @param params The parameters map
+     * @return The maximum support, as a fraction of the number of transactions
+     * @throws ParameterException If the maxSupport parameter is invalid
+     */
+    private double parseMaxSupport(Map<String, String> params) throws ParameterException {
+        try {
+            double maxSupportRatio = Double.parseDouble(params.get("maxSupport"));
+            if (maxSupportRatio <= 0.0 || maxSupportRatio > 1.0) {
+                throw new ParameterException("maxSupport must be between 0.0 (exclusive) and 1.0 (inclusive)");
+            }
+            return maxSupportRatio;
+        } catch (NumberFormatException e) {
+            throw new ParameterException("Invalid maxSupport value: " + params.get("maxSupport"));
+        }
+    }
+
+    /**
+     * Validates and parses the optional parallelism parameter: the number of
+     * threads of the engines.
+     *
+     * @param params The parameters map
+     * @return The number of threads, the number of available processors if absent
+     * @throws ParameterException If the parallelism parameter is invalid
+     */
+    private int parseParallelism(Map<String, String> params) throws ParameterException {
+        String parallelism = params.get("parallelism");
+        if (parallelism == null || parallelism.trim().isEmpty()) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            int threads = Integer.parseInt(parallelism.trim());
+            if (threads < 1) {
+                throw new ParameterException("parallelism must be at least 1");
+            }
+            return threads;
+        } catch (NumberFormatException e) {
+            throw new ParameterException("Invalid parallelism value: " + parallelism);
+        }
+    }
+
+    /**
+     * Parses the required/excluded items, skipping invalid ones.
+     *
+     * @param param The items parameter, a comma-separated list of items
+     * @return The items
+     */
+    private List<Integer> parseItems(String param) {
+        List<Integer> result = new ArrayList<>();
+        for (String item : param.split(",")) {
+            String trimmed = item.trim();
+            try {
+                result.add(Integer.parseInt(trimmed));
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Skipping invalid item: " + trimmed);
+            }
+        }
+        return result;
+    }
+}
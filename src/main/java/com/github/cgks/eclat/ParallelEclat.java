@@ -0,0 +1,724 @@
+package com.github.cgks.eclat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.Tidset;
+import com.github.cgks.dataset.VerticalIndex;
+import com.github.cgks.spmf.ItemsetsSink;
+import com.github.cgks.spmf.PatternBuffer;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Multi-threaded vertical itemset miner working on the tidsets of a
+ * {@link VerticalIndex}, mining the frequent, closed, maximal or rare itemsets
+ * of a dataset.
+ * <p>
+ * Frequent and rare itemsets are enumerated by Eclat (Zaki): the itemsets
+ * sharing a prefix form an equivalence class, and the class of the children of
+ * an itemset is computed by intersecting its tidset with the tidsets of its
+ * siblings. As in dEclat, a class switches to diffsets (the transactions of the
+ * parent that the child loses) as soon as they are smaller than the tidsets,
+ * which is the case on dense datasets: the support of a child is then the
+ * support of its parent minus the size of its diffset, and its descendants
+ * keep diffsets.
+ * <p>
+ * Closed and maximal itemsets are enumerated as in DCI-Closed (Lucchese,
+ * Orlando and Perego): the closure of a generator is computed from the items
+ * that follow it, and a generator whose tidset is included in the tidset of an
+ * item that precedes it is a duplicate, skipped with its subtree. Every closed
+ * itemset is found once, without storing the itemsets found. A closed itemset
+ * is maximal if no item extends it frequently; a subtree whose union is
+ * frequent holds a single maximal candidate, checked without exploring it.
+ * <p>
+ * Items are ordered by increasing support. The equivalence classes of the
+ * first-level items are mined in parallel, one {@link RecursiveTask} per item
+ * on a {@link ForkJoinPool} dedicated to the run. The itemsets of a task are
+ * held, as arrays of items, until the tasks before it are delivered to the
+ * sink, and only a few tasks per thread are run ahead of the one delivered
+ * next; with one thread, the classes are mined on the calling thread, which
+ * pushes each itemset to the sink as it is found. The itemsets are delivered
+ * in the same order whatever the parallelism.
+ */
+public final class ParallelEclat {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelEclat.class.getName());
+
+    /**
+     * Number of first-level tasks run per thread ahead of the one whose
+     * itemsets are delivered next, bounding the itemsets held by the tasks
+     * done before their turn.
+     */
+    private static final int TASKS_AHEAD = 4;
+
+    private final int parallelism;
+    private int[] requiredItems = new int[0];
+    private int[] excludedItems = new int[0];
+    private int minSize = 1;
+    private int maxSize = Integer.MAX_VALUE;
+    private BooleanSupplier cancellationChecker = () -> false;
+
+    private int patternCount;
+    private long runtime;
+
+    /**
+     * The kinds of itemsets an engine mines.
+     */
+    private enum Mode {
+        FREQUENT, CLOSED, MAXIMAL, RARE
+    }
+
+    /**
+     * Creates an Eclat engine using one thread per available processor.
+     */
+    public ParallelEclat() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an Eclat engine.
+     *
+     * @param parallelism The number of worker threads
+     * @throws IllegalArgumentException If parallelism is not positive
+     */
+    public ParallelEclat(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Restricts the search to the itemsets containing all the given items
+     * (presence constraint). The search starts from these items, in the
+     * transactions containing them all: the other transactions are never
+     * intersected. The minimum support stays relative to the whole dataset.
+     * Not supported by {@link #mineMaximal}.
+     *
+     * @param requiredItems The items every itemset must contain, none by default
+     */
+    public void setRequiredItems(int[] requiredItems) {
+        this.requiredItems = requiredItems.clone();
+    }
+
+    /**
+     * Restricts the search to the itemsets containing none of the given items
+     * (absence constraint). The items are never tried as extensions. Closed
+     * itemsets are still closed with respect to the whole dataset: a closed
+     * itemset whose transactions all contain an excluded item is pruned with
+     * its whole subtree, as the closures of its supersets contain the item too.
+     * Not supported by {@link #mineMaximal}.
+     *
+     * @param excludedItems The items no itemset may contain, none by default
+     */
+    public void setExcludedItems(int[] excludedItems) {
+        this.excludedItems = excludedItems.clone();
+    }
+
+    /**
+     * Restricts the search to the itemsets whose size is between two bounds.
+     * An itemset is not extended once it has reached the maximum size (in
+     * closed mode, a closed itemset larger than the maximum size is pruned with
+     * its subtree), and the itemsets smaller than the minimum size are explored
+     * but not returned. Not supported by {@link #mineMaximal}.
+     *
+     * @param minSize The minimum size of an itemset, at least 1 (1 by default)
+     * @param maxSize The maximum size of an itemset, at least minSize (unbounded by default)
+     * @throws IllegalArgumentException If minSize is not positive or maxSize is below minSize
+     */
+    public void setSizeBounds(int minSize, int maxSize) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("invalid size bounds: [" + minSize + ", " + maxSize + "]");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Sets the check polled by the tasks, at each itemset they explore: once
+     * it returns true, the tasks stop, the pool of the run is shut down and
+     * the mining method throws a {@link CancellationException}. The itemsets
+     * delivered until then stay in the sink.
+     *
+     * @param cancellationChecker Returns true if the run must stop (never, by default)
+     */
+    public void setCancellationChecker(BooleanSupplier cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+    }
+
+    /**
+     * @return The number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Mines the frequent itemsets of a dataset.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @return The frequent itemsets, with their absolute support
+     */
+    public Itemsets mineFrequent(VerticalIndex index, double minimumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("FREQUENT ITEMSETS");
+        mineFrequent(index, minimumSupport, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the frequent itemsets of a dataset, pushing them to a sink.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @param sink           The sink receiving the frequent itemsets, with their absolute support
+     */
+    public void mineFrequent(VerticalIndex index, double minimumSupport, ResultSink sink) {
+        run(index, minimumSupport, Mode.FREQUENT, sink);
+    }
+
+    /**
+     * Mines the frequent closed itemsets of a dataset.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @return The frequent closed itemsets, with their absolute support
+     */
+    public Itemsets mineClosed(VerticalIndex index, double minimumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("FREQUENT CLOSED ITEMSETS");
+        mineClosed(index, minimumSupport, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the frequent closed itemsets of a dataset, pushing them to a sink.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @param sink           The sink receiving the frequent closed itemsets, with their absolute support
+     */
+    public void mineClosed(VerticalIndex index, double minimumSupport, ResultSink sink) {
+        run(index, minimumSupport, Mode.CLOSED, sink);
+    }
+
+    /**
+     * Mines the maximal frequent itemsets of a dataset.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @return The maximal frequent itemsets, with their absolute support
+     * @throws IllegalStateException If an item or size constraint is set
+     */
+    public Itemsets mineMaximal(VerticalIndex index, double minimumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("MAXIMAL ITEMSETS");
+        mineMaximal(index, minimumSupport, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the maximal frequent itemsets of a dataset, pushing them to a sink.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @param sink           The sink receiving the maximal frequent itemsets, with their absolute support
+     * @throws IllegalStateException If an item or size constraint is set
+     */
+    public void mineMaximal(VerticalIndex index, double minimumSupport, ResultSink sink) {
+        if (requiredItems.length > 0 || excludedItems.length > 0 || minSize > 1 || maxSize < Integer.MAX_VALUE) {
+            throw new IllegalStateException("maximal itemsets are mined without constraints");
+        }
+        run(index, minimumSupport, Mode.MAXIMAL, sink);
+    }
+
+    /**
+     * Mines the rare itemsets of a dataset, as RP-Growth does: the itemsets
+     * occurring in the dataset that contain at least one rare item. Rare items
+     * come first in the order of the search, so that these are the itemsets
+     * whose first item is rare.
+     *
+     * @param index          The vertical index of the dataset
+     * @param maximumSupport The support below which an item is rare, as a
+     *                       fraction of the number of transactions
+     * @return The rare itemsets, with their absolute support
+     */
+    public Itemsets mineRare(VerticalIndex index, double maximumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("RARE ITEMSETS");
+        mineRare(index, maximumSupport, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the rare itemsets of a dataset, as {@link #mineRare(VerticalIndex, double)},
+     * pushing them to a sink.
+     *
+     * @param index          The vertical index of the dataset
+     * @param maximumSupport The support below which an item is rare, as a
+     *                       fraction of the number of transactions
+     * @param sink           The sink receiving the rare itemsets, with their absolute support
+     */
+    public void mineRare(VerticalIndex index, double maximumSupport, ResultSink sink) {
+        run(index, maximumSupport, Mode.RARE, sink);
+    }
+
+    /**
+     * @return The number of itemsets found by the last run
+     */
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * @return The duration of the last run, in milliseconds
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    private void run(VerticalIndex index, double threshold, Mode mode, ResultSink sink) {
+        long start = System.currentTimeMillis();
+        int nbTransactions = index.getNbTransactions();
+        int support = (int) Math.ceil(threshold * nbTransactions);
+        // rare itemsets only have to occur in the dataset
+        int minSupport = mode == Mode.RARE ? 1 : Math.max(support, 1);
+
+        // The search starts from the required items, in the transactions containing them all
+        int[] required = Arrays.stream(requiredItems).distinct().toArray();
+        int[] excluded = Arrays.stream(excludedItems).distinct().toArray();
+        boolean requiredExcluded = Arrays.stream(required)
+                .anyMatch(item -> Arrays.stream(excluded).anyMatch(excludedItem -> excludedItem == item));
+        Tidset rootTidset = required.length > 0 ? index.tidsetOf(required) : index.allTransactions();
+
+        int[] delivered = { 0 };
+        ResultSink counted = (pattern, patternSupport) -> {
+            delivered[0]++;
+            sink.accept(pattern, patternSupport);
+        };
+        if (rootTidset.cardinality() >= minSupport && !requiredExcluded) {
+            Search search = new Search(index, mode, minSupport, support, required, excluded, rootTidset);
+            search.run(counted);
+        }
+
+        patternCount = delivered[0];
+        runtime = System.currentTimeMillis() - start;
+        LOGGER.fine(() -> String.format("Eclat (%s, %d threads) found %d itemsets in %d ms", mode, parallelism,
+                patternCount, runtime));
+    }
+
+    /**
+     * The state of a run shared by all its tasks, read-only during the run:
+     * the root itemset and the first-level items with their tidsets, restricted
+     * to the transactions of the root.
+     */
+    private final class Search {
+        final Mode mode;
+        final int minSupport;
+        // the root itemset: the required items, and their closure in closed modes
+        final int[] root;
+        final Tidset rootTidset;
+        // the first-level items by increasing support (rare items first in rare mode)
+        final int count;
+        final int[] items;
+        final Tidset[] tidsets;
+        final int[] supports;
+        // the number of first-level items an itemset may start with, and
+        // whether the root itemset itself is one of the itemsets searched
+        final int starts;
+        final boolean rootIncluded;
+        // in closed mode, the tidsets of the frequent excluded items
+        final Tidset[] excludedTidsets;
+        // false if no itemset can be found (an excluded item is in the closure of the root)
+        final boolean feasible;
+
+        /**
+         * @param rareSupport The support below which an item is rare, in rare mode
+         */
+        Search(VerticalIndex index, Mode mode, int minSupport, int rareSupport, int[] required, int[] excluded,
+                Tidset rootTidset) {
+            this.mode = mode;
+            this.minSupport = minSupport;
+            this.rootTidset = rootTidset;
+            boolean closed = mode == Mode.CLOSED || mode == Mode.MAXIMAL;
+            int rootSupport = rootTidset.cardinality();
+
+            boolean rareRoot = false;
+            for (int item : required) {
+                rareRoot |= index.getSupport(item) < rareSupport;
+            }
+            int[] rootItems = Arrays.copyOf(required, required.length + index.getItems().length);
+            int rootSize = required.length;
+            List<Tidset> excludedList = new ArrayList<>();
+            boolean excludedClosure = false;
+
+            long[] keys = new long[index.getItems().length];
+            int[] candidateItems = new int[keys.length];
+            Tidset[] candidates = new Tidset[keys.length];
+            int candidateCount = 0;
+            int rare = 0;
+            for (int item : index.getItems()) {
+                if (contains(required, item)) {
+                    continue;
+                }
+                Tidset tidset = required.length > 0 ? rootTidset.and(index.getTidset(item))
+                        : index.getTidset(item);
+                int support = tidset.cardinality();
+                if (support < minSupport) {
+                    continue;
+                }
+                if (contains(excluded, item)) {
+                    // in closed modes, an excluded item may still be in the closure of an itemset
+                    if (closed) {
+                        excludedList.add(tidset);
+                        excludedClosure |= support == rootSupport;
+                    }
+                } else if (closed && support == rootSupport) {
+                    rootItems[rootSize++] = item;
+                } else {
+                    boolean rareItem = mode == Mode.RARE && index.getSupport(item) < rareSupport;
+                    rare += rareItem ? 1 : 0;
+                    // the candidate number keeps track of the item once the keys are sorted
+                    keys[candidateCount] = ((rareItem ? 0L : 1L) << 62) | ((long) support << 32)
+                            | candidateCount;
+                    candidateItems[candidateCount] = item;
+                    candidates[candidateCount++] = tidset;
+                }
+            }
+            Arrays.sort(keys, 0, candidateCount);
+
+            this.root = Arrays.copyOf(rootItems, rootSize);
+            this.count = candidateCount;
+            this.items = new int[count];
+            this.tidsets = new Tidset[count];
+            this.supports = new int[count];
+            for (int i = 0; i < count; i++) {
+                int candidate = (int) (keys[i] & 0xFFFFFFFFL);
+                items[i] = candidateItems[candidate];
+                tidsets[i] = candidates[candidate];
+                supports[i] = tidsets[i].cardinality();
+            }
+            this.starts = mode == Mode.RARE && !rareRoot ? rare : count;
+            this.rootIncluded = mode != Mode.RARE || rareRoot;
+            this.excludedTidsets = excludedList.toArray(new Tidset[0]);
+            this.feasible = !excludedClosure;
+        }
+
+        /**
+         * @throws CancellationException If the run was cancelled
+         */
+        void checkCancelled() {
+            if (cancellationChecker.getAsBoolean()) {
+                throw new CancellationException("The run was cancelled");
+            }
+        }
+
+        /**
+         * Mines the itemsets of the run: the root itemset, then the subtree of
+         * each first-level item. With one thread, the subtrees are mined in
+         * order on the calling thread; otherwise each of them is a task, whose
+         * itemsets are delivered once the tasks before it are.
+         *
+         * @param sink The sink receiving the itemsets, in the order of the first-level items
+         */
+        void run(ResultSink sink) {
+            if (!feasible || root.length > maxSize) {
+                return;
+            }
+            int[] itemset = Arrays.copyOf(root, root.length + count);
+            int rootSupport = rootTidset.cardinality();
+            if (mode == Mode.MAXIMAL) {
+                // the root is maximal if no item extends it frequently
+                if (maximal(itemset, root.length, rootTidset, allPositions(), count, new int[0], 0, sink)) {
+                    return;
+                }
+            } else if (root.length >= minSize && rootIncluded) {
+                sink.accept(pattern(itemset, root.length), rootSupport);
+            }
+            if (root.length == maxSize) {
+                return;
+            }
+            if (parallelism == 1) {
+                for (int i = 0; i < starts; i++) {
+                    mine(i, sink);
+                }
+                return;
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<Task> tasks = new ArrayList<>();
+                for (int i = 0; i < starts; i++) {
+                    tasks.add(new Task(i));
+                }
+                int started = Math.min(tasks.size(), parallelism * TASKS_AHEAD);
+                for (int i = 0; i < started; i++) {
+                    pool.execute(tasks.get(i));
+                }
+                // the itemsets of a task are delivered once the tasks before it
+                // are, and the next task is started in its place
+                for (int i = 0; i < tasks.size(); i++) {
+                    PatternBuffer found = tasks.set(i, null).join();
+                    if (started < tasks.size()) {
+                        pool.execute(tasks.get(started++));
+                    }
+                    found.deliverTo(sink);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        /**
+         * Mines the subtree of a first-level item: the itemsets whose first
+         * item, in the order of the search, is the item.
+         *
+         * @param first The position of the item among the first-level items
+         * @param found The sink receiving the itemsets
+         */
+        void mine(int first, ResultSink found) {
+            int[] itemset = Arrays.copyOf(root, root.length + count);
+            if (mode == Mode.FREQUENT || mode == Mode.RARE) {
+                eclat(itemset, root.length, items, tidsets, supports, false, first, count, found);
+            } else {
+                closed(itemset, root.length, rootTidset, allPositions(), first, count, new int[0], 0, found);
+            }
+        }
+
+        /**
+         * Mines the subtree of a first-level item into a buffer.
+         */
+        final class Task extends RecursiveTask<PatternBuffer> {
+            private static final long serialVersionUID = 1L;
+
+            private final int first;
+
+            Task(int first) {
+                this.first = first;
+            }
+
+            @Override
+            protected PatternBuffer compute() {
+                PatternBuffer found = new PatternBuffer();
+                mine(first, found);
+                return found;
+            }
+        }
+
+        /**
+         * Mines the itemsets of the subtree of a member PX of an equivalence
+         * class, made of the children of a prefix P.
+         *
+         * @param itemset  A buffer holding the items of P
+         * @param size     The number of items of P
+         * @param items    The last item of each member of the class
+         * @param sets     The tidset of each member, or its diffset from P
+         * @param supports The support of each member
+         * @param diff     true if the class holds diffsets
+         * @param i        The member PX to mine
+         * @param count    The number of members of the class
+         * @param found    The sink receiving the itemsets found
+         */
+        void eclat(int[] itemset, int size, int[] items, Tidset[] sets, int[] supports, boolean diff, int i,
+                int count, ResultSink found) {
+            checkCancelled();
+            itemset[size] = items[i];
+            int support = supports[i];
+            if (size + 1 >= minSize) {
+                found.accept(pattern(itemset, size + 1), support);
+            }
+            if (size + 1 >= maxSize || i == count - 1) {
+                return;
+            }
+
+            // The class of the children of PX: PXY for the members PY after PX
+            int[] childItems = new int[count - i - 1];
+            int[] childSupports = new int[count - i - 1];
+            int[] members = new int[count - i - 1];
+            int children = 0;
+            long tidsetSizes = 0;
+            long diffsetSizes = 0;
+            for (int j = i + 1; j < count; j++) {
+                // with diffsets, d(PXY) = d(PY) - d(PX)
+                int childSupport = diff ? support - (sets[j].cardinality() - sets[j].andCardinality(sets[i]))
+                        : sets[i].andCardinality(sets[j]);
+                if (childSupport >= minSupport) {
+                    childItems[children] = items[j];
+                    childSupports[children] = childSupport;
+                    members[children] = j;
+                    children++;
+                    tidsetSizes += childSupport;
+                    diffsetSizes += support - childSupport;
+                }
+            }
+            if (children == 0) {
+                return;
+            }
+            // A class of tidsets switches to diffsets, d(PXY) = t(PX) - t(PY), when they are smaller
+            boolean childDiff = diff || diffsetSizes < tidsetSizes;
+            Tidset[] childSets = new Tidset[children];
+            for (int c = 0; c < children; c++) {
+                int j = members[c];
+                childSets[c] = diff ? sets[j].andNot(sets[i]) : childDiff ? sets[i].andNot(sets[j])
+                        : sets[i].and(sets[j]);
+            }
+            for (int c = 0; c < children; c++) {
+                eclat(itemset, size + 1, childItems, childSets, childSupports, childDiff, c, children, found);
+            }
+        }
+
+        /**
+         * Mines the closed itemsets generated by a closed itemset C and an item
+         * of its post-set: the closure of the generator, if it is not a
+         * duplicate, and its subtree.
+         *
+         * @param itemset A buffer holding the items of C
+         * @param size    The number of items of C
+         * @param tidset  The transactions containing C
+         * @param post    The first-level positions of the items that may extend C, in order
+         * @param k       The position in the post-set of the item to add to C
+         * @param count   The number of items of the post-set
+         * @param pre     The first-level positions of items before the post-set, not in C
+         * @param preSize The number of items of the pre-set
+         * @param found   The sink receiving the itemsets found
+         */
+        void closed(int[] itemset, int size, Tidset tidset, int[] post, int k, int count, int[] pre, int preSize,
+                ResultSink found) {
+            checkCancelled();
+            Tidset generator = tidset.and(tidsets[post[k]]);
+            int support = generator.cardinality();
+
+            // The generator is a duplicate if an item before it is in its closure,
+            // and pruned if an excluded item is
+            if (inClosure(generator, pre, preSize) || inClosure(generator, post, k)) {
+                return;
+            }
+            for (Tidset excludedTidset : excludedTidsets) {
+                if (generator.isSubsetOf(excludedTidset)) {
+                    return;
+                }
+            }
+
+            // The closure, made of the items after the generator in all its
+            // transactions; the other frequent ones form the post-set of the closure
+            itemset[size] = items[post[k]];
+            int closedSize = size + 1;
+            int[] childPost = new int[count - k - 1];
+            int children = 0;
+            for (int m = k + 1; m < count; m++) {
+                int childSupport = generator.andCardinality(tidsets[post[m]]);
+                if (childSupport == support) {
+                    itemset[closedSize++] = items[post[m]];
+                } else if (childSupport >= minSupport) {
+                    childPost[children++] = post[m];
+                }
+            }
+            if (closedSize > maxSize) {
+                return;
+            }
+
+            // The pre-set of the children: the items of the pre-set and of the post-set
+            // before the generator, but those infrequent with it, which no frequent
+            // itemset of the subtree can have in its closure
+            int[] childPre = new int[preSize + k];
+            int childPreSize = 0;
+            for (int p = 0; p < preSize + k; p++) {
+                int position = p < preSize ? pre[p] : post[p - preSize];
+                if (generator.andCardinality(tidsets[position]) >= minSupport) {
+                    childPre[childPreSize++] = position;
+                }
+            }
+            if (mode == Mode.MAXIMAL) {
+                if (maximal(itemset, closedSize, generator, childPost, children, childPre, childPreSize, found)) {
+                    return;
+                }
+            } else if (closedSize >= minSize) {
+                found.accept(pattern(itemset, closedSize), support);
+            }
+            for (int c = 0; c < children; c++) {
+                closed(itemset, closedSize, generator, childPost, c, children, childPre, childPreSize, found);
+            }
+        }
+
+        /**
+         * Checks whether the union of a closed itemset C and of its post-set is
+         * frequent: it is then the only candidate maximal itemset of the subtree
+         * of C, and is returned if no item of the pre-set extends it frequently.
+         *
+         * @param itemset A buffer holding the items of C
+         * @param size    The number of items of C
+         * @param tidset  The transactions containing C
+         * @param post    The first-level positions of the frequent extensions of C
+         * @param count   The number of items of the post-set
+         * @param pre     The first-level positions of items before the post-set, not in C
+         * @param preSize The number of items of the pre-set
+         * @param found   The sink receiving the itemsets found
+         * @return true if the subtree of C needs no exploration
+         */
+        boolean maximal(int[] itemset, int size, Tidset tidset, int[] post, int count, int[] pre, int preSize,
+                ResultSink found) {
+            Tidset union = tidset;
+            for (int c = 0; c < count; c++) {
+                if (union.andCardinality(tidsets[post[c]]) < minSupport) {
+                    return false;
+                }
+                union = union.and(tidsets[post[c]]);
+            }
+            for (int p = 0; p < preSize; p++) {
+                if (union.andCardinality(tidsets[pre[p]]) >= minSupport) {
+                    return true;
+                }
+            }
+            for (int c = 0; c < count; c++) {
+                itemset[size + c] = items[post[c]];
+            }
+            if (size + count > 0) {
+                found.accept(pattern(itemset, size + count), union.cardinality());
+            }
+            return true;
+        }
+
+        /**
+         * @return true if the tidset of one of the given first-level items includes the tidset
+         */
+        private boolean inClosure(Tidset tidset, int[] positions, int length) {
+            for (int p = 0; p < length; p++) {
+                if (tidset.isSubsetOf(tidsets[positions[p]])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int[] allPositions() {
+            int[] positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = i;
+            }
+            return positions;
+        }
+    }
+
+    private static boolean contains(int[] items, int item) {
+        for (int value : items) {
+            if (value == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The first items of an array, sorted
+     */
+    private static int[] pattern(int[] items, int length) {
+        int[] sorted = Arrays.copyOf(items, length);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.cgks.spmf;
+
+import ca.pfv.spmf.input.transaction_database_list_integers.TransactionDatabase;
+import com.github.cgks.dataset.TransactionDataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConvertToTransactionDatabase {
+
+    /**
+     * Builds an SPMF transaction database from a cached dataset, without
+     * reading the dataset file again.
+     *
+     * @param dataset The parsed dataset
+     * @return A new TransactionDatabase containing the same transactions
+     */
+    public static TransactionDatabase convertDatasetToTransactionDatabase(TransactionDataset dataset) {
+        TransactionDatabase database = new TransactionDatabase();
+
+        int[] transactionItems = dataset.getTransactionItems();
+        for (int t = 0; t < dataset.getNbTransactions(); t++) {
+            List<Integer> items = new ArrayList<>(dataset.getTransactionLength(t));
+            for (int i = dataset.getTransactionStart(t); i < dataset.getTransactionEnd(t); i++) {
+                items.add(transactionItems[i]);
+            }
+            database.addTransaction(items);
+        }
+
+        return database;
+    }
+
+}
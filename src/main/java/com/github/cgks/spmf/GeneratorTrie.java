@@ -0,0 +1,149 @@
+package com.github.cgks.spmf;
+
+import java.util.Arrays;
+
+/**
+ * A prefix trie of itemsets with their supports, used by {@link WalkyG} to
+ * store the frequent generators found so far.
+ * <p>
+ * A node is an index in the supports array, the root (the empty itemset)
+ * being node 0. The edges are kept in a single open-addressing hash table
+ * keyed by (parent node, item), so that finding the child of a node costs a
+ * hash lookup whatever its number of children. Items are stored along a path
+ * in the order in which they were inserted: an itemset must be looked up with
+ * its items in the same order.
+ */
+final class GeneratorTrie {
+
+    /** The root node, for the empty itemset. */
+    static final int ROOT = 0;
+    /** Marks the absence of a node. */
+    static final int NONE = -1;
+
+    // the support of each node
+    private int[] supports;
+    private int size;
+
+    // the edges: (parent node, item) keys, and the child nodes (NONE for a free slot)
+    private long[] keys;
+    private int[] children;
+    private int mask;
+
+    /**
+     * @param rootSupport The support of the empty itemset
+     */
+    GeneratorTrie(int rootSupport) {
+        supports = new int[64];
+        supports[ROOT] = rootSupport;
+        size = 1;
+        keys = new long[128];
+        children = new int[128];
+        Arrays.fill(children, NONE);
+        mask = keys.length - 1;
+    }
+
+    /**
+     * @return The number of itemsets in the trie, including the empty itemset
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param node A node
+     * @return The support of the itemset of the node
+     */
+    int support(int node) {
+        return supports[node];
+    }
+
+    /**
+     * @param node A node
+     * @param item An item
+     * @return The node of the itemset of the node followed by the item, or NONE
+     */
+    int child(int node, int item) {
+        long key = key(node, item);
+        for (int slot = slot(key);; slot = (slot + 1) & mask) {
+            if (children[slot] == NONE || keys[slot] == key) {
+                return children[slot];
+            }
+        }
+    }
+
+    /**
+     * Adds the itemset of a node followed by an item, if it is not in the trie yet.
+     *
+     * @param node    A node
+     * @param item    An item
+     * @param support The support of the new itemset
+     * @return The node of the new itemset
+     */
+    int add(int node, int item, int support) {
+        long key = key(node, item);
+        int slot = slot(key);
+        while (children[slot] != NONE) {
+            if (keys[slot] == key) {
+                return children[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == supports.length) {
+            supports = Arrays.copyOf(supports, size * 2);
+        }
+        int child = size++;
+        supports[child] = support;
+        keys[slot] = key;
+        children[slot] = child;
+        // keep the table at most half full
+        if (size * 2 > keys.length) {
+            grow();
+        }
+        return child;
+    }
+
+    /**
+     * @param node  A node
+     * @param items An array holding the items to follow, in insertion order
+     * @param from  The position of the first item
+     * @param to    The position after the last item
+     * @return The node reached by following the items from the node, or NONE
+     */
+    int find(int node, int[] items, int from, int to) {
+        for (int i = from; i < to && node != NONE; i++) {
+            node = child(node, items[i]);
+        }
+        return node;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldChildren = children;
+        keys = new long[oldKeys.length * 2];
+        children = new int[oldChildren.length * 2];
+        Arrays.fill(children, NONE);
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldChildren[i] != NONE) {
+                int slot = slot(oldKeys[i]);
+                while (children[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                children[slot] = oldChildren[i];
+            }
+        }
+    }
+
+    private static long key(int node, int item) {
+        return ((long) node << 32) | (item & 0xFFFFFFFFL);
+    }
+
+    private int slot(long key) {
+        // spread the bits of both halves of the key (Murmur3 finalizer)
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.cgks.spmf;
+
+import com.github.cgks.ResultSink;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * A {@link ResultSink} collecting the patterns in SPMF's {@link Itemsets}, for
+ * the callers of the engines that use SPMF's format.
+ */
+public final class ItemsetsSink implements ResultSink {
+
+    private final Itemsets itemsets;
+
+    /**
+     * @param name The name of the itemsets
+     */
+    public ItemsetsSink(String name) {
+        this.itemsets = new Itemsets(name);
+    }
+
+    @Override
+    public void accept(int[] pattern, int support) {
+        Itemset itemset = new Itemset(pattern);
+        itemset.setAbsoluteSupport(support);
+        itemsets.addItemset(itemset, pattern.length);
+    }
+
+    /**
+     * @return The itemsets collected so far, by size
+     */
+    public Itemsets getItemsets() {
+        return itemsets;
+    }
+}
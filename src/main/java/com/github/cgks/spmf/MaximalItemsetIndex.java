@@ -0,0 +1,154 @@
+package com.github.cgks.spmf;
+
+import java.util.Arrays;
+
+/**
+ * A concurrent index of frequent itemsets answering superset queries, used by
+ * {@link ParallelFPMax} to check the maximality of its candidate itemsets.
+ * <p>
+ * Items are ranks. Each itemset is stored as a bitset, and listed under each
+ * of its items. Lists are append-only, so that readers need no lock: a reader
+ * reads the number of itemsets of a list, then its array, and sees every
+ * itemset counted. Readers may keep their own projections of a list, and
+ * update them with the itemsets appended since they last read it.
+ */
+final class MaximalItemsetIndex {
+
+    // the itemsets containing each item
+    private final ItemList[] lists;
+    // the number of words of the bitsets
+    final int words;
+
+    /**
+     * @param nbItems An upper bound on the ranks stored in the index
+     */
+    MaximalItemsetIndex(int nbItems) {
+        lists = new ItemList[nbItems];
+        for (int i = 0; i < nbItems; i++) {
+            lists[i] = new ItemList();
+        }
+        words = (nbItems + 63) >>> 6;
+    }
+
+    /**
+     * Adds an itemset to the index.
+     *
+     * @param itemset An array holding distinct ranks
+     * @param length  The number of ranks of the itemset
+     */
+    void add(int[] itemset, int length) {
+        long[] bits = new long[words];
+        for (int i = 0; i < length; i++) {
+            bits[itemset[i] >>> 6] |= 1L << itemset[i];
+        }
+        Entry entry = new Entry(bits, length);
+        for (int i = 0; i < length; i++) {
+            lists[itemset[i]].add(entry);
+        }
+    }
+
+    /**
+     * @param item A rank
+     * @return The number of itemsets containing the item, to be read before {@link #entries(int)}
+     */
+    int count(int item) {
+        return lists[item].count;
+    }
+
+    /**
+     * @param item A rank
+     * @return The itemsets containing the item, in the order they were added,
+     *         in at least the first {@link #count(int)} positions
+     */
+    Entry[] entries(int item) {
+        return lists[item].entries;
+    }
+
+    /**
+     * @param itemset An array holding distinct ranks
+     * @param from    The number of itemsets containing the first rank that need not be checked
+     * @return true if the index holds a proper superset of the itemset, among
+     *         the itemsets containing its first rank from the given position
+     */
+    boolean containsProperSuperset(int[] itemset, int from) {
+        int count = count(itemset[0]);
+        Entry[] entries = entries(itemset[0]);
+        for (int e = from; e < count; e++) {
+            Entry entry = entries[e];
+            if (entry.length > itemset.length && entry.containsAll(itemset, 1, itemset.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A stored itemset.
+     */
+    static final class Entry {
+        private final long[] bits;
+        final int length;
+
+        private Entry(long[] bits, int length) {
+            this.bits = bits;
+            this.length = length;
+        }
+
+        /**
+         * @param item A rank
+         * @return true if the itemset contains the item
+         */
+        boolean contains(int item) {
+            return (bits[item >>> 6] & (1L << item)) != 0;
+        }
+
+        /**
+         * @param query     A bitset of ranks
+         * @param fromWord  The first word of the bitset holding a rank
+         * @param toWord    The word after the last one holding a rank
+         * @return true if the itemset contains the ranks of the bitset
+         */
+        boolean containsAll(long[] query, int fromWord, int toWord) {
+            for (int w = fromWord; w < toWord; w++) {
+                if ((query[w] & ~bits[w]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param itemset An array holding ranks
+         * @param from    The position of the first rank to check
+         * @param to      The position after the last rank to check
+         * @return true if the itemset contains the ranks
+         */
+        boolean containsAll(int[] itemset, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (!contains(itemset[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An append-only list of itemsets, safe for one writer at a time and any
+     * number of readers.
+     */
+    private static final class ItemList {
+        volatile Entry[] entries = new Entry[4];
+        volatile int count;
+
+        synchronized void add(Entry entry) {
+            Entry[] current = entries;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, count * 2);
+            }
+            current[count] = entry;
+            entries = current;
+            count = count + 1;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.github.cgks.spmf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.BitsetTidset;
+import com.github.cgks.dataset.RoaringTidset;
+import com.github.cgks.dataset.Tidset;
+import com.github.cgks.dataset.VerticalIndex;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Multi-threaded implementation of DefMe (Soulet and Rioult), mining the
+ * frequent generators of a dataset depth-first on its {@link VerticalIndex}:
+ * the non-empty itemsets with a support lower than the support of each of
+ * their proper subsets. These are the generators that SPMF's {@code AlgoZart}
+ * associates with the frequent closed itemsets.
+ * <p>
+ * Being a generator is anti-monotone, so the search extends an itemset with
+ * items of its tail only while it stays a frequent generator. An itemset X is
+ * a generator if each of its items x has a critical transaction, one that
+ * contains X without x but not x: the search keeps the tidset of the critical
+ * transactions of each item of the current itemset, so that no generator
+ * found is stored. Items are ordered by increasing support.
+ * <p>
+ * The subtrees of the first-level items are mined in parallel, one
+ * {@link RecursiveTask} per item on a {@link ForkJoinPool} dedicated to the
+ * run. The generators of a task are held, as arrays of items, until the tasks
+ * before it are delivered to the sink, and only a few tasks per thread are run
+ * ahead of the one delivered next; with one thread, the subtrees are mined on
+ * the calling thread, which pushes each generator to the sink as it is found.
+ * The itemsets are delivered in the same order whatever the parallelism.
+ */
+public final class ParallelDefMe {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelDefMe.class.getName());
+
+    /**
+     * Number of first-level tasks run per thread ahead of the one whose
+     * generators are delivered next, bounding the generators held by the
+     * tasks done before their turn.
+     */
+    private static final int TASKS_AHEAD = 4;
+
+    private final int parallelism;
+    private BooleanSupplier cancellationChecker = () -> false;
+
+    private int patternCount;
+    private long runtime;
+
+    /**
+     * Creates a DefMe engine using one thread per available processor.
+     */
+    public ParallelDefMe() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a DefMe engine.
+     *
+     * @param parallelism The number of worker threads
+     * @throws IllegalArgumentException If parallelism is not positive
+     */
+    public ParallelDefMe(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the check polled by the tasks, at each generator they extend: once
+     * it returns true, the tasks stop, the pool of the run is shut down and
+     * the mining method throws a {@link CancellationException}. The generators
+     * delivered until then stay in the sink.
+     *
+     * @param cancellationChecker Returns true if the run must stop (never, by default)
+     */
+    public void setCancellationChecker(BooleanSupplier cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+    }
+
+    /**
+     * @return The number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Mines the frequent generators of a dataset.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @return The frequent non-empty generators, with their absolute support
+     */
+    public Itemsets mineGenerators(VerticalIndex index, double minimumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("FREQUENT GENERATORS");
+        mineGenerators(index, minimumSupport, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the frequent generators of a dataset, pushing them to a sink: the
+     * generators of a first-level item are delivered once those of the items
+     * before it are.
+     *
+     * @param index          The vertical index of the dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @param sink           The sink receiving the frequent non-empty generators, with their absolute support
+     */
+    public void mineGenerators(VerticalIndex index, double minimumSupport, ResultSink sink) {
+        long start = System.currentTimeMillis();
+        int nbTransactions = index.getNbTransactions();
+        int minSupport = Math.max((int) Math.ceil(minimumSupport * nbTransactions), 1);
+
+        // The first level: the frequent items missing from some transaction, by increasing support
+        long[] keys = new long[index.getItems().length];
+        int count = 0;
+        for (int item : index.getItems()) {
+            int support = index.getSupport(item);
+            if (support >= minSupport && support < nbTransactions) {
+                keys[count++] = ((long) support << 32) | item;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        Search search = new Search(index, minSupport, count, cancellationChecker);
+        for (int i = 0; i < count; i++) {
+            search.items[i] = (int) keys[i];
+            search.tidsets[i] = index.getTidset(search.items[i]);
+        }
+
+        int[] found = { count };
+        ResultSink counted = (pattern, support) -> {
+            found[0]++;
+            sink.accept(pattern, support);
+        };
+        for (int i = 0; i < count; i++) {
+            sink.accept(new int[] { search.items[i] }, search.tidsets[i].cardinality());
+        }
+        if (count > 1 && parallelism == 1) {
+            for (int i = 0; i < count - 1; i++) {
+                search.mine(i, counted);
+            }
+        } else if (count > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<Search.Task> tasks = new ArrayList<>();
+                for (int i = 0; i < count - 1; i++) {
+                    tasks.add(search.new Task(i));
+                }
+                int started = Math.min(tasks.size(), parallelism * TASKS_AHEAD);
+                for (int i = 0; i < started; i++) {
+                    pool.execute(tasks.get(i));
+                }
+                // the generators of a task are delivered once the tasks before
+                // it are, and the next task is started in its place
+                for (int i = 0; i < tasks.size(); i++) {
+                    PatternBuffer generators = tasks.set(i, null).join();
+                    if (started < tasks.size()) {
+                        pool.execute(tasks.get(started++));
+                    }
+                    generators.deliverTo(counted);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        patternCount = found[0];
+        runtime = System.currentTimeMillis() - start;
+        LOGGER.fine(() -> String.format("DefMe (%d threads) found %d itemsets in %d ms", parallelism,
+                patternCount, runtime));
+    }
+
+    /**
+     * @return The number of itemsets found by the last run
+     */
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * @return The duration of the last run, in milliseconds
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * The state of a run shared by all its tasks, read-only during the run:
+     * the first-level items and their tidsets.
+     */
+    private static final class Search {
+        final VerticalIndex index;
+        final int minSupport;
+        final int[] items;
+        final Tidset[] tidsets;
+        final BooleanSupplier cancellationChecker;
+
+        Search(VerticalIndex index, int minSupport, int count, BooleanSupplier cancellationChecker) {
+            this.index = index;
+            this.minSupport = minSupport;
+            this.items = new int[count];
+            this.tidsets = new Tidset[count];
+            this.cancellationChecker = cancellationChecker;
+        }
+
+        /**
+         * @throws CancellationException If the run was cancelled
+         */
+        void checkCancelled() {
+            if (cancellationChecker.getAsBoolean()) {
+                throw new CancellationException("The run was cancelled");
+            }
+        }
+
+        /**
+         * Mines the generators whose first item, in the order of the search,
+         * is a given first-level item, besides the item itself.
+         *
+         * @param first The position of the item among the first-level items
+         * @param found The sink receiving the generators
+         */
+        void mine(int first, ResultSink found) {
+            Tidset all = index.isCompressed() ? RoaringTidset.range(index.getNbTransactions())
+                    : BitsetTidset.range(index.getNbTransactions());
+            extend(new int[items.length], 0, all, new Tidset[0], items, tidsets, first, items.length, found);
+        }
+
+        /**
+         * Mines the generators of a first-level item into a buffer.
+         */
+        final class Task extends RecursiveTask<PatternBuffer> {
+            private static final long serialVersionUID = 1L;
+
+            private final int first;
+
+            Task(int first) {
+                this.first = first;
+            }
+
+            @Override
+            protected PatternBuffer compute() {
+                PatternBuffer found = new PatternBuffer();
+                mine(first, found);
+                return found;
+            }
+        }
+
+        /**
+         * Mines the generators extending a child of a generator X: the child
+         * X + items[i], and the children X + items[j] for j > i, are all
+         * frequent generators.
+         *
+         * @param itemset  A buffer holding the items of X
+         * @param size     The number of items of X
+         * @param tidset   The transactions containing X
+         * @param critical The critical transactions of each item of X
+         * @param items    The items of the children of X
+         * @param tidsets  The transactions containing each child of X
+         * @param i        The child to extend
+         * @param count    The number of children of X
+         * @param found    The sink receiving the generators found
+         */
+        void extend(int[] itemset, int size, Tidset tidset, Tidset[] critical, int[] items, Tidset[] tidsets,
+                int i, int count, ResultSink found) {
+            checkCancelled();
+            int item = items[i];
+            Tidset itemTidset = index.getTidset(item);
+            Tidset childTidset = tidsets[i];
+            int childSupport = childTidset.cardinality();
+            itemset[size] = item;
+
+            // The critical transactions of the items of X in the child, computed
+            // once the child has an extension to check
+            Tidset[] childCritical = null;
+            int[] extensionItems = null;
+            Tidset[] extensionTidsets = null;
+            int extensions = 0;
+            for (int j = i + 1; j < count; j++) {
+                int support = childTidset.andCardinality(tidsets[j]);
+                // Y = X + items[i] + items[j] must be frequent, and each of items[i]
+                // and items[j] must have a critical transaction in Y
+                if (support < minSupport || support == childSupport || support == tidsets[j].cardinality()) {
+                    continue;
+                }
+                if (childCritical == null) {
+                    childCritical = new Tidset[size + 1];
+                    for (int x = 0; x < size; x++) {
+                        childCritical[x] = critical[x].and(itemTidset);
+                    }
+                    extensionItems = new int[count - j];
+                    extensionTidsets = new Tidset[count - j];
+                }
+                // so must each item of X
+                Tidset extensionItemTidset = index.getTidset(items[j]);
+                boolean generator = true;
+                for (int x = 0; x < size && generator; x++) {
+                    generator = childCritical[x].andCardinality(extensionItemTidset) > 0;
+                }
+                if (generator) {
+                    extensionItems[extensions] = items[j];
+                    extensionTidsets[extensions] = childTidset.and(tidsets[j]);
+                    extensions++;
+                    itemset[size + 1] = items[j];
+                    found.accept(pattern(itemset, size + 2), support);
+                }
+            }
+
+            if (extensions > 1) {
+                childCritical[size] = tidset.andNot(itemTidset);
+                for (int e = 0; e < extensions - 1; e++) {
+                    extend(itemset, size + 1, childTidset, childCritical, extensionItems, extensionTidsets, e,
+                            extensions, found);
+                }
+            }
+        }
+
+        /**
+         * @return The first items of an array, sorted
+         */
+        static int[] pattern(int[] items, int length) {
+            int[] sorted = Arrays.copyOf(items, length);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
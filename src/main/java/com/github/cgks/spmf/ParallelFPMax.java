@@ -0,0 +1,617 @@
+package com.github.cgks.spmf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.FrequencyRecodedDataset;
+import com.github.cgks.dataset.TransactionDataset;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Multi-threaded implementation of FPMax (Grahne and Zhu), mining the maximal
+ * frequent itemsets of a dataset, as SPMF's {@code AlgoFPMax}.
+ * <p>
+ * Items are the ranks of the {@link FrequencyRecodedDataset} view, and the
+ * FP-tree is built once from the shared in-memory dataset. Its header items
+ * are then mined in parallel, one task per item: the task of an item explores
+ * the conditional FP-trees of the itemsets whose least frequent item it is,
+ * with trees owned by its worker thread and reused from one task to the next.
+ * <p>
+ * Maximality is checked against a {@link MaximalItemsetIndex} shared by all
+ * the tasks. As FPMax does with its conditional MFI-trees, a task only checks
+ * the itemsets of the index containing its current head, which it projects
+ * from the list of its item, one head item at a time, and keeps up to date
+ * with the itemsets appended since. During the search, a subtree is skipped as
+ * soon as the index holds a superset of the head and tail of its root: this is
+ * sound whichever task added that superset, as it is frequent. A candidate
+ * itemset is added to the index unless it holds a superset already. As a task
+ * may find a superset of a candidate of another task after that candidate was
+ * checked, the candidates with a proper superset among the itemsets added
+ * since their check are removed once all the tasks are done. The itemsets are
+ * returned in the same order whatever the parallelism.
+ */
+public final class ParallelFPMax {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelFPMax.class.getName());
+
+    private final int parallelism;
+    private BooleanSupplier cancellationChecker = () -> false;
+
+    private int patternCount;
+    private long runtime;
+
+    /**
+     * Creates an FPMax engine using one thread per available processor.
+     */
+    public ParallelFPMax() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an FPMax engine.
+     *
+     * @param parallelism The number of worker threads
+     * @throws IllegalArgumentException If parallelism is not positive
+     */
+    public ParallelFPMax(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the check polled by the tasks, at each item they mine: once it
+     * returns true, the worker threads stop, the pool of the run is shut down
+     * and the mining method throws a {@link CancellationException}, before any
+     * itemset is delivered.
+     *
+     * @param cancellationChecker Returns true if the run must stop (never, by default)
+     */
+    public void setCancellationChecker(BooleanSupplier cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+    }
+
+    /**
+     * @return The number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Mines the maximal frequent itemsets of a dataset.
+     *
+     * @param dataset        The dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @return The maximal frequent itemsets, with their absolute support
+     */
+    public Itemsets mineMaximal(TransactionDataset dataset, double minimumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("FREQUENT MAXIMAL ITEMSETS");
+        mineMaximal(dataset, minimumSupport, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the maximal frequent itemsets of a dataset, pushing them to a sink
+     * once all the tasks are done.
+     *
+     * @param dataset        The dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @param sink           The sink receiving the maximal frequent itemsets, with their absolute support
+     */
+    public void mineMaximal(TransactionDataset dataset, double minimumSupport, ResultSink sink) {
+        long start = System.currentTimeMillis();
+        // Same rounding as SPMF's FPMax
+        int minSupport = Math.max((int) Math.ceil(minimumSupport * dataset.getNbTransactions()), 1);
+
+        FrequencyRecodedDataset recoded = dataset.getFrequencyRecoded();
+        Search search = new Search(recoded, minSupport);
+
+        // One task per header item, from the least frequent one as FPMax does
+        List<Candidates> found = new ArrayList<>();
+        if (search.nbItems > 0) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism, workerPool -> new Worker(workerPool, search), null,
+                    false);
+            try {
+                List<Search.Task> tasks = new ArrayList<>();
+                for (int item = search.nbItems - 1; item >= 0; item--) {
+                    Search.Task task = search.new Task(item);
+                    pool.execute(task);
+                    tasks.add(task);
+                }
+                for (Search.Task task : tasks) {
+                    found.add(task.join());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        // Deliver the candidates that no other itemset found contains
+        int count = 0;
+        for (int k = 0; k < found.size(); k++) {
+            Candidates candidates = found.set(k, null);
+            for (int c = 0; c < candidates.size(); c++) {
+                int[] itemset = candidates.itemsets.get(c);
+                if (!search.index.containsProperSuperset(itemset, candidates.checked[c])) {
+                    sink.accept(recoded.decode(itemset, itemset.length), candidates.supports[c]);
+                    count++;
+                }
+            }
+        }
+        patternCount = count;
+        runtime = System.currentTimeMillis() - start;
+        LOGGER.fine(() -> String.format("FPMax (%d threads) found %d itemsets in %d ms", parallelism,
+                patternCount, runtime));
+    }
+
+    /**
+     * @return The number of itemsets found by the last run
+     */
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * @return The duration of the last run, in milliseconds
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * The state of a run shared by all its tasks: the FP-tree of the dataset,
+     * which is read-only during the run, and the index of the itemsets found.
+     */
+    private final class Search {
+        final int minSupport;
+        // the frequent items are the ranks 0 to nbItems - 1
+        final int nbItems;
+        final FPTree tree;
+        final MaximalItemsetIndex index;
+
+        Search(FrequencyRecodedDataset recoded, int minSupport) {
+            this.minSupport = minSupport;
+
+            TransactionDataset ranks = recoded.getDataset();
+            int[] supports = ranks.getItemSupports();
+            int frequent = 0;
+            while (frequent < supports.length && supports[frequent] >= minSupport) {
+                frequent++;
+            }
+            nbItems = frequent;
+            index = new MaximalItemsetIndex(frequent);
+
+            // Ranks are sorted in each transaction: the frequent ones are a prefix,
+            // inserted from the most frequent one
+            tree = new FPTree(frequent, ranks.getNbTransactions() + 1);
+            int[] offsets = ranks.getOffsets();
+            int[] items = ranks.getTransactionItems();
+            for (int t = 0; t < ranks.getNbTransactions(); t++) {
+                int end = offsets[t];
+                while (end < offsets[t + 1] && items[end] < frequent) {
+                    end++;
+                }
+                tree.addPath(items, offsets[t], end, 1);
+            }
+        }
+
+        /**
+         * @throws CancellationException If the run was cancelled
+         */
+        void checkCancelled() {
+            if (cancellationChecker.getAsBoolean()) {
+                throw new CancellationException("The run was cancelled");
+            }
+        }
+
+        /**
+         * Mines the itemsets whose least frequent item is the given item.
+         */
+        final class Task extends RecursiveTask<Candidates> {
+            private static final long serialVersionUID = 1L;
+
+            private final int item;
+
+            Task(int item) {
+                this.item = item;
+            }
+
+            @Override
+            protected Candidates compute() {
+                Workspace workspace = ((Worker) Thread.currentThread()).workspace;
+                Candidates candidates = new Candidates();
+                workspace.mineItem(tree, item, 0, candidates);
+                return candidates;
+            }
+        }
+    }
+
+    /**
+     * The candidate maximal itemsets found by a task, as ranks, with their
+     * supports and the number of itemsets of the index containing their first
+     * rank they were checked against.
+     */
+    private static final class Candidates {
+        final List<int[]> itemsets = new ArrayList<>();
+        int[] supports = new int[16];
+        int[] checked = new int[16];
+
+        void add(int[] itemset, int support, int checkedCount) {
+            if (itemsets.size() == supports.length) {
+                supports = Arrays.copyOf(supports, supports.length * 2);
+                checked = Arrays.copyOf(checked, checked.length * 2);
+            }
+            supports[itemsets.size()] = support;
+            checked[itemsets.size()] = checkedCount;
+            itemsets.add(itemset);
+        }
+
+        int size() {
+            return itemsets.size();
+        }
+    }
+
+    /**
+     * A worker thread of the pool of a run, with its own buffers.
+     */
+    private static final class Worker extends ForkJoinWorkerThread {
+        final Workspace workspace;
+
+        Worker(ForkJoinPool pool, Search search) {
+            super(pool);
+            this.workspace = new Workspace(search);
+        }
+    }
+
+    /**
+     * The buffers used by a worker thread to mine the itemsets of a header
+     * item: the current head itemset, one conditional FP-tree per depth and one
+     * projection of the index per head item. They are reused by all the tasks
+     * run by the worker.
+     */
+    private static final class Workspace {
+        private final Search search;
+        private final MaximalItemsetIndex index;
+
+        // the current head itemset (ranks), followed by the tail when it is checked
+        private final int[] itemset;
+        private int size;
+
+        // the conditional FP-trees, by depth
+        private final FPTree[] trees;
+
+        // per item counters for the conditional pattern bases, and the items they were used for
+        private final int[] counts;
+        private final int[] touched;
+        // a prefix path of the FP-tree
+        private final int[] path;
+
+        // the itemsets of the index containing the head items 0 to k, for k >= 1,
+        // projected from the ones of level k - 1 (level 0 is the list of the
+        // index of the first head item)
+        private final MaximalItemsetIndex.Entry[][] projections;
+        private final int[] projectionSizes;
+        // the number of itemsets of level k - 1 already projected to level k
+        private final int[] projected;
+        // the number of itemsets of level 0 read by the last projection
+        private int checkedCount;
+        // the tail of the itemset checked, as a bitset
+        private final long[] tail;
+        private final int words;
+
+        Workspace(Search search) {
+            this.search = search;
+            this.index = search.index;
+            int nbItems = search.nbItems;
+            itemset = new int[nbItems];
+            trees = new FPTree[nbItems + 1];
+            counts = new int[nbItems];
+            touched = new int[nbItems];
+            path = new int[nbItems];
+            projections = new MaximalItemsetIndex.Entry[nbItems][];
+            projectionSizes = new int[nbItems];
+            projected = new int[nbItems];
+            words = index.words;
+            tail = new long[words];
+        }
+
+        /**
+         * Mines the conditional FP-tree of the current head itemset: if it is a
+         * single path, the head and the path form the only candidate maximal
+         * itemset, otherwise each of its items is mined, from the least
+         * frequent one.
+         */
+        private void mine(FPTree tree, int depth, Candidates candidates) {
+            int last = tree.singlePathEnd();
+            if (last != FPTree.NONE) {
+                int length = size;
+                for (int node = last; node != FPTree.ROOT; node = tree.parent[node]) {
+                    itemset[length++] = tree.item[node];
+                }
+                addCandidate(length, tree.count[last], candidates);
+                return;
+            }
+            int itemCount = tree.itemCount;
+            int[] items = tree.sortItems();
+            for (int i = itemCount - 1; i >= 0; i--) {
+                mineItem(tree, items[i], depth, candidates);
+            }
+        }
+
+        /**
+         * Mines the itemsets made of the current head itemset, an item of its
+         * conditional FP-tree and items of the prefix paths of that item.
+         */
+        void mineItem(FPTree tree, int item, int depth, Candidates candidates) {
+            search.checkCancelled();
+            itemset[size++] = item;
+            projectionSizes[size - 1] = 0;
+            projected[size - 1] = 0;
+            int support = tree.supports[item];
+
+            // count the items of the conditional pattern base of the new head
+            int touchedCount = 0;
+            for (int node = tree.itemNodes[item]; node != FPTree.NONE; node = tree.nodeLink[node]) {
+                int count = tree.count[node];
+                for (int p = tree.parent[node]; p != FPTree.ROOT; p = tree.parent[p]) {
+                    if (counts[tree.item[p]] == 0) {
+                        touched[touchedCount++] = tree.item[p];
+                    }
+                    counts[tree.item[p]] += count;
+                }
+            }
+            // the tail: the frequent items of the conditional pattern base
+            int length = size;
+            for (int i = 0; i < touchedCount; i++) {
+                if (counts[touched[i]] >= search.minSupport) {
+                    itemset[length++] = touched[i];
+                }
+            }
+
+            if (length == size) {
+                clearCounts(touchedCount);
+                addCandidate(size, support, candidates);
+            } else if (containsSuperset(length)) {
+                // no itemset of the subtree can be maximal
+                clearCounts(touchedCount);
+            } else {
+                // build the conditional FP-tree of the new head, from its frequent items
+                if (trees[depth + 1] == null) {
+                    trees[depth + 1] = new FPTree(search.nbItems, 64);
+                }
+                FPTree conditional = trees[depth + 1];
+                conditional.reset();
+                for (int node = tree.itemNodes[item]; node != FPTree.NONE; node = tree.nodeLink[node]) {
+                    int pathLength = 0;
+                    for (int p = tree.parent[node]; p != FPTree.ROOT; p = tree.parent[p]) {
+                        if (counts[tree.item[p]] >= search.minSupport) {
+                            path[pathLength++] = tree.item[p];
+                        }
+                    }
+                    // prefix paths are read from the leaf: insert them from the root
+                    for (int i = 0, j = pathLength - 1; i < j; i++, j--) {
+                        int swap = path[i];
+                        path[i] = path[j];
+                        path[j] = swap;
+                    }
+                    conditional.addPath(path, 0, pathLength, tree.count[node]);
+                }
+                clearCounts(touchedCount);
+                mine(conditional, depth + 1, candidates);
+            }
+            size--;
+        }
+
+        private void clearCounts(int touchedCount) {
+            for (int i = 0; i < touchedCount; i++) {
+                counts[touched[i]] = 0;
+            }
+        }
+
+        /**
+         * Adds the itemset in the first length positions of the itemset buffer
+         * to the index and to the candidates, unless the index holds a superset.
+         */
+        private void addCandidate(int length, int support, Candidates candidates) {
+            if (!containsSuperset(length)) {
+                index.add(itemset, length);
+                candidates.add(Arrays.copyOf(itemset, length), support, checkedCount);
+            }
+        }
+
+        /**
+         * @return true if the index holds a superset of the itemset in the first
+         *         length positions of the itemset buffer, made of the current
+         *         head itemset and a tail
+         */
+        private boolean containsSuperset(int length) {
+            // bring the projections of the head items up to date
+            int count = index.count(itemset[0]);
+            MaximalItemsetIndex.Entry[] entries = index.entries(itemset[0]);
+            checkedCount = count;
+            for (int level = 1; level < size; level++) {
+                int item = itemset[level];
+                MaximalItemsetIndex.Entry[] projection = projections[level];
+                int projectionSize = projectionSizes[level];
+                for (int e = projected[level]; e < count; e++) {
+                    if (entries[e].contains(item)) {
+                        if (projection == null) {
+                            projection = new MaximalItemsetIndex.Entry[16];
+                        } else if (projectionSize == projection.length) {
+                            projection = Arrays.copyOf(projection, projectionSize * 2);
+                        }
+                        projection[projectionSize++] = entries[e];
+                    }
+                }
+                projections[level] = projection;
+                projectionSizes[level] = projectionSize;
+                projected[level] = count;
+                entries = projection;
+                count = projectionSize;
+            }
+            // the itemsets of the last projection hold the head: check the tail
+            int fromWord = words;
+            int toWord = 0;
+            for (int i = size; i < length; i++) {
+                int word = itemset[i] >>> 6;
+                tail[word] |= 1L << itemset[i];
+                fromWord = Math.min(fromWord, word);
+                toWord = Math.max(toWord, word + 1);
+            }
+            boolean found = false;
+            for (int e = 0; e < count && !found; e++) {
+                found = entries[e].length >= length && entries[e].containsAll(tail, fromWord, toWord);
+            }
+            Arrays.fill(tail, fromWord, Math.max(fromWord, toWord), 0L);
+            return found;
+        }
+    }
+
+    /**
+     * An FP-tree stored as a struct of arrays: a node is an index in parallel
+     * int arrays (item, count, parent, first child, next sibling, node link),
+     * and the header table is made of arrays indexed by item. A tree is meant
+     * to be reused: reset() empties it but keeps its arrays.
+     */
+    private static final class FPTree {
+        // the index of the root node
+        static final int ROOT = 0;
+        // marks the absence of a node
+        static final int NONE = -1;
+
+        int[] item;
+        int[] count;
+        int[] parent;
+        int[] firstChild;
+        int[] nextSibling;
+        int[] nodeLink;
+        int size;
+
+        // the first node of each item following the node links, and its support in the tree
+        final int[] itemNodes;
+        final int[] supports;
+        // the items that have at least one node in the tree
+        int[] items;
+        int itemCount;
+
+        FPTree(int nbItems, int nbNodes) {
+            nbNodes = Math.max(nbNodes, 16);
+            item = new int[nbNodes];
+            count = new int[nbNodes];
+            parent = new int[nbNodes];
+            firstChild = new int[nbNodes];
+            nextSibling = new int[nbNodes];
+            nodeLink = new int[nbNodes];
+            itemNodes = new int[nbItems];
+            Arrays.fill(itemNodes, NONE);
+            supports = new int[nbItems];
+            items = new int[16];
+            reset();
+        }
+
+        /**
+         * Empties the tree, keeping its arrays.
+         */
+        void reset() {
+            for (int i = 0; i < itemCount; i++) {
+                itemNodes[items[i]] = NONE;
+                supports[items[i]] = 0;
+            }
+            itemCount = 0;
+            item[ROOT] = NONE;
+            count[ROOT] = 0;
+            parent[ROOT] = NONE;
+            firstChild[ROOT] = NONE;
+            nextSibling[ROOT] = NONE;
+            nodeLink[ROOT] = NONE;
+            size = 1;
+        }
+
+        /**
+         * Adds a path of items from the root, adding a count to each node of the path.
+         *
+         * @param path      An array holding the items of the path, in increasing order
+         * @param from      The position of the first item of the path
+         * @param to        The position after the last item of the path
+         * @param pathCount The support of the path
+         */
+        void addPath(int[] path, int from, int to, int pathCount) {
+            int current = ROOT;
+            for (int i = from; i < to; i++) {
+                int pathItem = path[i];
+                int child = firstChild[current];
+                while (child != NONE && item[child] != pathItem) {
+                    child = nextSibling[child];
+                }
+                if (child == NONE) {
+                    child = newNode(current, pathItem);
+                }
+                count[child] += pathCount;
+                supports[pathItem] += pathCount;
+                current = child;
+            }
+        }
+
+        private int newNode(int parentNode, int nodeItem) {
+            if (size == item.length) {
+                int capacity = size * 2;
+                item = Arrays.copyOf(item, capacity);
+                count = Arrays.copyOf(count, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                nodeLink = Arrays.copyOf(nodeLink, capacity);
+            }
+            int node = size++;
+            item[node] = nodeItem;
+            count[node] = 0;
+            parent[node] = parentNode;
+            firstChild[node] = NONE;
+            nextSibling[node] = firstChild[parentNode];
+            firstChild[parentNode] = node;
+            if (itemNodes[nodeItem] == NONE) {
+                if (itemCount == items.length) {
+                    items = Arrays.copyOf(items, itemCount * 2);
+                }
+                items[itemCount++] = nodeItem;
+            }
+            nodeLink[node] = itemNodes[nodeItem];
+            itemNodes[nodeItem] = node;
+            return node;
+        }
+
+        /**
+         * @return The last node of the tree if it is a single path (the root if
+         *         the tree is empty), NONE otherwise
+         */
+        int singlePathEnd() {
+            int node = ROOT;
+            while (firstChild[node] != NONE) {
+                if (nextSibling[firstChild[node]] != NONE) {
+                    return NONE;
+                }
+                node = firstChild[node];
+            }
+            return node;
+        }
+
+        /**
+         * @return The items of the tree in increasing order, in the first itemCount positions
+         */
+        int[] sortItems() {
+            Arrays.sort(items, 0, itemCount);
+            return items;
+        }
+    }
+}
@@ -0,0 +1,968 @@
+package com.github.cgks.spmf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.FrequencyRecodedDataset;
+import com.github.cgks.dataset.TransactionDataset;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Multi-threaded implementation of LCM (Linear time Closed itemset Miner, Uno
+ * et al.), mining either all the frequent itemsets (as SPMF's
+ * {@code AlgoLCMFreq}) or the frequent closed itemsets (as SPMF's
+ * {@code AlgoLCM}).
+ * <p>
+ * Items are the ranks of the {@link FrequencyRecodedDataset} view, so that
+ * infrequent items form a suffix of each transaction and per-item tables are
+ * dense arrays. An itemset is extended with items of larger rank only. In
+ * closed mode, the closure of each extension is computed and kept only if it
+ * is a prefix-preserving closure extension (PPC-extension): this enumerates
+ * every closed itemset exactly once, without storing the itemsets found so far.
+ * <p>
+ * The occurrences of the extensions of an itemset are computed by occurrence
+ * deliver: a single scan of the transactions of the itemset fills the
+ * transaction lists of all its extensions at once.
+ * <p>
+ * The search tree is split into {@link RecursiveTask}s down to the split depth
+ * (one task per first-level item, then per second-level item by default) and
+ * the tasks are run on a {@link ForkJoinPool} dedicated to the run. Below the
+ * split depth, a task explores its subtree sequentially, with occurrence
+ * deliver buffers owned by its worker thread, so that the exploration
+ * allocates nothing but the itemsets it finds. The itemsets of a first-level
+ * task are held, as arrays of items, until the tasks before it are delivered
+ * to the sink, and only a few first-level tasks per thread are run ahead of
+ * the one delivered next; with one thread, the search runs on the calling thread and
+ * pushes each itemset to the sink as it is found. The itemsets are delivered
+ * in the same order whatever the parallelism.
+ */
+public final class ParallelLCM {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelLCM.class.getName());
+
+    /** Depth down to which the search tree is split into tasks, by default. */
+    public static final int DEFAULT_SPLIT_DEPTH = 2;
+
+    /**
+     * Maximum size, in longs, of the bitset rows of the transactions used to
+     * check prefix-preserving extensions (32 MB). Above, typically for large
+     * sparse datasets, the check intersects the sorted transactions instead.
+     */
+    private static final long MAX_ROW_WORDS = 1L << 22;
+
+    /**
+     * Number of first-level tasks run per thread ahead of the one whose
+     * itemsets are delivered next, bounding the itemsets held by the tasks
+     * done before their turn.
+     */
+    private static final int TASKS_AHEAD = 4;
+
+    private final int parallelism;
+    private int splitDepth = DEFAULT_SPLIT_DEPTH;
+    private int[] requiredItems = new int[0];
+    private int[] excludedItems = new int[0];
+    private int minSize = 1;
+    private int maxSize = Integer.MAX_VALUE;
+    private BooleanSupplier cancellationChecker = () -> false;
+
+    private int patternCount;
+    private long runtime;
+
+    /**
+     * Creates an LCM engine using one thread per available processor.
+     */
+    public ParallelLCM() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an LCM engine.
+     *
+     * @param parallelism The number of worker threads
+     * @throws IllegalArgumentException If parallelism is not positive
+     */
+    public ParallelLCM(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the depth down to which the search tree is split into tasks: 1 for
+     * one task per frequent item, 2 to also split the subtree of each item.
+     *
+     * @param splitDepth The split depth, at least 1
+     * @throws IllegalArgumentException If splitDepth is not positive
+     */
+    public void setSplitDepth(int splitDepth) {
+        if (splitDepth < 1) {
+            throw new IllegalArgumentException("splitDepth must be at least 1: " + splitDepth);
+        }
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Restricts the search to the itemsets containing all the given items
+     * (presence constraint). The database is first projected on the
+     * transactions containing all of them, and the search explores only that
+     * conditional database: the result is the same as filtering the itemsets of
+     * the whole database, for a cost that depends on the size of the
+     * projection only. The minimum support stays relative to the whole database.
+     *
+     * @param requiredItems The items (original values) every itemset must contain,
+     *                      none by default
+     */
+    public void setRequiredItems(int[] requiredItems) {
+        this.requiredItems = requiredItems.clone();
+    }
+
+    /**
+     * Restricts the search to the itemsets containing none of the given items
+     * (absence constraint). The items are removed from the transactions before
+     * the search, so that they are never tried as extensions.
+     * <p>
+     * Closed itemsets are still closed with respect to the whole database: an
+     * itemset is not closed if an excluded item occurs in all its transactions.
+     * As this then also holds for all the itemsets of its subtree, the whole
+     * subtree is pruned. The result is the same as filtering the closed
+     * itemsets of the whole database.
+     *
+     * @param excludedItems The items (original values) no itemset may contain,
+     *                      none by default
+     */
+    public void setExcludedItems(int[] excludedItems) {
+        this.excludedItems = excludedItems.clone();
+    }
+
+    /**
+     * Restricts the search to the itemsets whose size is between two bounds.
+     * The bounds are used during the search, not as a filter on its result:
+     * an itemset is not extended once it has reached the maximum size (and in
+     * closed mode, an itemset whose closure is larger is pruned with its whole
+     * subtree, as the closures of its supersets are larger still), and the
+     * itemsets smaller than the minimum size are explored but not returned.
+     * The cost of the search then depends on the size band, not on the size of
+     * the largest itemsets.
+     *
+     * @param minSize The minimum size of an itemset, at least 1 (1 by default)
+     * @param maxSize The maximum size of an itemset, at least minSize (unbounded by default)
+     * @throws IllegalArgumentException If minSize is not positive or maxSize is below minSize
+     */
+    public void setSizeBounds(int minSize, int maxSize) {
+        if (minSize < 1) {
+            throw new IllegalArgumentException("minSize must be at least 1: " + minSize);
+        }
+        if (maxSize < minSize) {
+            throw new IllegalArgumentException("maxSize must be at least minSize: " + maxSize + " < " + minSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Sets the check polled by the search, at each itemset it explores: once
+     * it returns true, the worker threads stop, the pool of the run is shut
+     * down and the mining method throws a {@link CancellationException}. The
+     * itemsets delivered until then stay in the sink.
+     *
+     * @param cancellationChecker Returns true if the run must stop (never, by default)
+     */
+    public void setCancellationChecker(BooleanSupplier cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+    }
+
+    /**
+     * @return The number of worker threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Mines all the frequent itemsets of a dataset.
+     *
+     * @param dataset        The dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @return The frequent itemsets, with their absolute support
+     */
+    public Itemsets mineFrequent(TransactionDataset dataset, double minimumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("FREQUENT ITEMSETS");
+        run(dataset, minimumSupport, false, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines all the frequent itemsets of a dataset, pushing them to a sink.
+     *
+     * @param dataset        The dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @param sink           The sink receiving the frequent itemsets, with their absolute support
+     */
+    public void mineFrequent(TransactionDataset dataset, double minimumSupport, ResultSink sink) {
+        run(dataset, minimumSupport, false, sink);
+    }
+
+    /**
+     * Mines the frequent closed itemsets of a dataset.
+     *
+     * @param dataset        The dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @return The frequent closed itemsets, with their absolute support
+     */
+    public Itemsets mineClosed(TransactionDataset dataset, double minimumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("FREQUENT CLOSED ITEMSETS");
+        run(dataset, minimumSupport, true, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the frequent closed itemsets of a dataset, pushing them to a sink.
+     *
+     * @param dataset        The dataset
+     * @param minimumSupport The minimum support, as a fraction of the number of transactions
+     * @param sink           The sink receiving the frequent closed itemsets, with their absolute support
+     */
+    public void mineClosed(TransactionDataset dataset, double minimumSupport, ResultSink sink) {
+        run(dataset, minimumSupport, true, sink);
+    }
+
+    /**
+     * @return The number of itemsets found by the last run
+     */
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * @return The duration of the last run, in milliseconds
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    private void run(TransactionDataset dataset, double minimumSupport, boolean closed, ResultSink sink) {
+        long start = System.currentTimeMillis();
+        // Same rounding as SPMF's LCM
+        int minSupport = Math.max((int) Math.ceil(minimumSupport * dataset.getNbTransactions()), 1);
+
+        // The search starts from the required items, in the transactions containing them all
+        // (the empty itemset occurs in all the transactions, even the empty ones)
+        int[] transactions = null;
+        int rootSupport = dataset.getNbTransactions();
+        int[] required = Arrays.stream(requiredItems).distinct().toArray();
+        if (required.length > 0) {
+            transactions = project(dataset, required);
+            rootSupport = transactions.length;
+        }
+
+        // The excluded items, by rank (items absent from the dataset are ignored)
+        FrequencyRecodedDataset recoded = dataset.getFrequencyRecoded();
+        boolean[] excluded = null;
+        boolean requiredExcluded = false;
+        for (int item : excludedItems) {
+            int rank = recoded.getRank(item);
+            if (rank >= 0) {
+                if (excluded == null) {
+                    excluded = new boolean[recoded.getRankToItem().length];
+                }
+                excluded[rank] = true;
+                requiredExcluded |= Arrays.stream(required).anyMatch(requiredItem -> requiredItem == item);
+            }
+        }
+
+        int[] delivered = { 0 };
+        ResultSink counted = (pattern, support) -> {
+            delivered[0]++;
+            sink.accept(pattern, support);
+        };
+        if (rootSupport >= minSupport && !requiredExcluded) {
+            Search search = new Search(recoded, minSupport, closed, transactions, excluded, minSize, maxSize);
+            int[] root = new int[required.length];
+            for (int i = 0; i < required.length; i++) {
+                root[i] = recoded.getRank(required[i]);
+            }
+            int[] allTransactions = new int[search.nbTransactions];
+            for (int t = 0; t < allTransactions.length; t++) {
+                allTransactions[t] = t;
+            }
+            search.run(root, allTransactions, rootSupport, counted);
+        }
+
+        patternCount = delivered[0];
+        runtime = System.currentTimeMillis() - start;
+        LOGGER.fine(() -> String.format("LCM (%d threads) found %d itemsets in %d ms", parallelism,
+                patternCount, runtime));
+    }
+
+    /**
+     * Computes the transactions containing all the given items, by
+     * intersecting their tid lists, from the least frequent item.
+     *
+     * @param dataset The dataset
+     * @param items   Distinct item values
+     * @return The transactions containing all the items, in increasing order
+     */
+    private static int[] project(TransactionDataset dataset, int[] items) {
+        int[] sorted = new int[items.length];
+        long[] keys = new long[items.length];
+        for (int i = 0; i < items.length; i++) {
+            if (dataset.getItemSupport(items[i]) == 0) {
+                return new int[0];
+            }
+            keys[i] = ((long) dataset.getItemSupport(items[i]) << 32) | items[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = (int) keys[i];
+        }
+
+        int[] tidOffsets = dataset.getTidOffsets();
+        int[] tids = dataset.getTids();
+        int[] result = Arrays.copyOfRange(tids, tidOffsets[sorted[0]], tidOffsets[sorted[0] + 1]);
+        int length = result.length;
+        for (int i = 1; i < sorted.length && length > 0; i++) {
+            int k = tidOffsets[sorted[i]];
+            int end = tidOffsets[sorted[i] + 1];
+            int kept = 0;
+            for (int j = 0; j < length && k < end; j++) {
+                while (k < end && tids[k] < result[j]) {
+                    k++;
+                }
+                if (k < end && tids[k] == result[j]) {
+                    result[kept++] = result[j];
+                }
+            }
+            length = kept;
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * The state of a run shared by all its tasks: the transactions restricted to
+     * the frequent items, and the parameters. It is read-only during the run.
+     */
+    private final class Search {
+        final FrequencyRecodedDataset recoded;
+        final int minSupport;
+        final boolean closed;
+        // the sizes of the itemsets returned
+        final int minSize;
+        final int maxSize;
+        // the frequent items are the ranks 0 to nbItems - 1
+        final int nbItems;
+        // the non-empty searched transactions restricted to the frequent items, in CSR layout
+        final int nbTransactions;
+        final int[] offsets;
+        final int[] items;
+        // the same transactions as bitsets of words longs each (null if too large)
+        final int words;
+        final long[] rows;
+        // in closed mode, the frequent excluded items of each transaction, as bitsets of
+        // excludedWords longs each (null if no frequent item is excluded)
+        final int excludedWords;
+        final long[] excludedRows;
+
+        /**
+         * @param transactions The transactions to search, null for all the transactions
+         * @param excluded     The excluded items, indexed by rank (null if none)
+         */
+        Search(FrequencyRecodedDataset recoded, int minSupport, boolean closed, int[] transactions,
+                boolean[] excluded, int minSize, int maxSize) {
+            this.recoded = recoded;
+            this.minSupport = minSupport;
+            this.closed = closed;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+
+            TransactionDataset ranks = recoded.getDataset();
+            int[] supports = ranks.getItemSupports();
+            int frequent = 0;
+            while (frequent < supports.length && supports[frequent] >= minSupport) {
+                frequent++;
+            }
+            nbItems = frequent;
+
+            // The frequent excluded items: the others cannot occur in all the
+            // transactions of a frequent itemset
+            int[] excludedIndex = new int[frequent];
+            int nbExcluded = 0;
+            for (int rank = 0; rank < frequent; rank++) {
+                excludedIndex[rank] = (excluded != null && excluded[rank]) ? nbExcluded++ : -1;
+            }
+            excludedWords = (nbExcluded + 63) >>> 6;
+
+            // Ranks are sorted in each transaction: the frequent ones are a prefix
+            int[] rankOffsets = ranks.getOffsets();
+            int[] rankItems = ranks.getTransactionItems();
+            int nbSearched = transactions == null ? ranks.getNbTransactions() : transactions.length;
+            int occurrences = 0;
+            for (int i = 0; i < nbSearched; i++) {
+                int t = transactions == null ? i : transactions[i];
+                occurrences += rankOffsets[t + 1] - rankOffsets[t];
+            }
+            int[] newOffsets = new int[nbSearched + 1];
+            long[] newExcludedRows = closed && nbExcluded > 0 ? new long[nbSearched * excludedWords] : null;
+            int[] newItems = new int[occurrences];
+            int count = 0;
+            int size = 0;
+            for (int i = 0; i < nbSearched; i++) {
+                int t = transactions == null ? i : transactions[i];
+                int start = size;
+                for (int k = rankOffsets[t]; k < rankOffsets[t + 1] && rankItems[k] < frequent; k++) {
+                    int rank = rankItems[k];
+                    int index = excludedIndex[rank];
+                    if (index < 0) {
+                        newItems[size++] = rank;
+                    } else if (newExcludedRows != null) {
+                        newExcludedRows[count * excludedWords + (index >>> 6)] |= 1L << index;
+                    }
+                }
+                // transactions left empty are dropped: they contain no searched itemset
+                if (size > start) {
+                    newOffsets[++count] = size;
+                } else if (newExcludedRows != null) {
+                    Arrays.fill(newExcludedRows, count * excludedWords, (count + 1) * excludedWords, 0L);
+                }
+            }
+            nbTransactions = count;
+            offsets = Arrays.copyOf(newOffsets, count + 1);
+            items = Arrays.copyOf(newItems, size);
+            excludedRows = newExcludedRows;
+
+            words = (frequent + 63) >>> 6;
+            if (closed && (long) count * words <= MAX_ROW_WORDS) {
+                rows = new long[count * words];
+                for (int t = 0; t < count; t++) {
+                    for (int k = offsets[t]; k < offsets[t + 1]; k++) {
+                        rows[t * words + (items[k] >>> 6)] |= 1L << items[k];
+                    }
+                }
+            } else {
+                rows = null;
+            }
+        }
+
+        /**
+         * @throws CancellationException If the run was cancelled
+         */
+        void checkCancelled() {
+            if (cancellationChecker.getAsBoolean()) {
+                throw new CancellationException("The run was cancelled");
+            }
+        }
+
+        /**
+         * Explores the search tree from the root itemset, pushing the itemsets
+         * found to a sink. With one thread, the tree is explored sequentially on
+         * the calling thread. Otherwise the root itemset is delivered first, then
+         * the subtree of each of its extensions is a task run on a pool
+         * dedicated to the run, whose itemsets are delivered once the tasks
+         * before it are.
+         *
+         * @param root        The root itemset, as ranks
+         * @param occurrences The non-empty transactions containing the root itemset
+         * @param support     The support of the root itemset
+         * @param sink        The sink receiving the itemsets
+         */
+        void run(int[] root, int[] occurrences, int support, ResultSink sink) {
+            Workspace workspace = new Workspace(this);
+            workspace.push(root, root.length);
+            if (parallelism == 1) {
+                workspace.expand(occurrences, 0, occurrences.length, support, -1, 0, sink);
+                return;
+            }
+
+            List<Task> tasks = split(workspace, occurrences, support, -1, 0, sink);
+            ForkJoinPool pool = new ForkJoinPool(parallelism, workerPool -> new Worker(workerPool, this), null,
+                    false);
+            try {
+                int started = Math.min(tasks.size(), parallelism * TASKS_AHEAD);
+                for (int i = 0; i < started; i++) {
+                    pool.execute(tasks.get(i));
+                }
+                // the itemsets of a task are delivered once the tasks before it
+                // are, and the next task is started in its place
+                for (int i = 0; i < tasks.size(); i++) {
+                    PatternBuffer found = tasks.set(i, null).join();
+                    if (started < tasks.size()) {
+                        pool.execute(tasks.get(started++));
+                    }
+                    found.deliverTo(sink);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        /**
+         * Adds the current itemset of a workspace (with, in closed mode, its
+         * closure) to the itemsets found, and creates a task for each of its
+         * extensions. The current itemset is left unchanged.
+         *
+         * @param workspace   The workspace holding the itemset
+         * @param occurrences The non-empty transactions containing the itemset
+         * @param support     The support of the itemset
+         * @param core        The last item added to the itemset (-1 for the empty itemset)
+         * @param depth       The depth of the itemset in the search tree
+         * @param found       The sink the itemset is added to
+         * @return The tasks exploring the extensions, in the order of their items
+         */
+        List<Task> split(Workspace workspace, int[] occurrences, int support, int core, int depth,
+                ResultSink found) {
+            List<Task> tasks = new ArrayList<>();
+            if (workspace.hasExcludedClosure(occurrences, 0, occurrences.length)) {
+                return tasks;
+            }
+
+            // Compute the extensions, and hand each of them to a new task
+            int candidates = workspace.deliver(occurrences, 0, occurrences.length, support, core, depth);
+            int closureSize = workspace.closureSize;
+            if (workspace.size > maxSize) {
+                workspace.pop(closureSize);
+                return tasks;
+            }
+            if (workspace.size >= minSize) {
+                found.accept(workspace.pattern(), support);
+            }
+            int[] buffer = workspace.buffers[depth];
+            int[] candidateItems = workspace.candidateItems[depth];
+            int[] candidateStarts = workspace.candidateStarts[depth];
+            for (int c = 0; c < candidates; c++) {
+                int from = candidateStarts[c];
+                int to = candidateStarts[c + 1];
+                int item = candidateItems[c];
+                if (closed && !workspace.isPrefixPreserving(buffer, from, to, item)) {
+                    continue;
+                }
+                int[] extension = Arrays.copyOf(workspace.itemset, workspace.size + 1);
+                extension[workspace.size] = item;
+                tasks.add(new Task(extension, Arrays.copyOfRange(buffer, from, to), to - from, item, depth + 1));
+            }
+            workspace.pop(closureSize);
+            return tasks;
+        }
+
+        /**
+         * Explores the subtree of an itemset. Its subtree is split into tasks
+         * if it is above the split depth, explored sequentially otherwise.
+         */
+        final class Task extends RecursiveTask<PatternBuffer> {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] prefix;
+            private final int[] occurrences;
+            private final int support;
+            private final int core;
+            private final int depth;
+
+            /**
+             * @param prefix      The itemset, as ranks, without the items of its closure after the core item
+             * @param occurrences The non-empty transactions containing the itemset
+             * @param support     The support of the itemset
+             * @param core        The last item added to the itemset (-1 for the empty itemset)
+             * @param depth       The depth of the itemset in the search tree
+             */
+            Task(int[] prefix, int[] occurrences, int support, int core, int depth) {
+                this.prefix = prefix;
+                this.occurrences = occurrences;
+                this.support = support;
+                this.core = core;
+                this.depth = depth;
+            }
+
+            @Override
+            protected PatternBuffer compute() {
+                checkCancelled();
+                Workspace workspace = ((Worker) Thread.currentThread()).workspace;
+                workspace.push(prefix, prefix.length);
+                PatternBuffer found = new PatternBuffer();
+                if (depth >= splitDepth) {
+                    workspace.expand(occurrences, 0, occurrences.length, support, core, depth, found);
+                    workspace.pop(prefix.length);
+                    return found;
+                }
+
+                List<Task> tasks = split(workspace, occurrences, support, core, depth, found);
+                // The workspace must be left clean before the worker runs other tasks
+                workspace.pop(prefix.length);
+
+                invokeAll(tasks);
+                for (Task task : tasks) {
+                    found.addAll(task.join());
+                }
+                return found;
+            }
+        }
+    }
+
+    /**
+     * A worker thread of the pool of a run, with its own buffers.
+     */
+    private static final class Worker extends ForkJoinWorkerThread {
+        final Workspace workspace;
+
+        Worker(ForkJoinPool pool, Search search) {
+            super(pool);
+            this.workspace = new Workspace(search);
+        }
+    }
+
+    /**
+     * The buffers used by a worker thread to explore a subtree: the current
+     * itemset and, for each depth, the occurrences delivered to the extensions
+     * of the itemset at that depth. Buffers grow on demand and are reused by
+     * all the tasks run by the worker.
+     */
+    private static final class Workspace {
+        private final Search search;
+        private final int[] offsets;
+        private final int[] items;
+
+        // the current itemset (ranks), and the items it contains as a bitset
+        final int[] itemset;
+        int size;
+        private final long[] inItemset;
+
+        // per depth: the transactions delivered to each candidate extension, the
+        // candidate items, and where the transactions of each of them start
+        final int[][] buffers;
+        final int[][] candidateItems;
+        final int[][] candidateStarts;
+
+        // the number of closure items added by the last occurrence deliver
+        int closureSize;
+
+        // per item counters for occurrence deliver, and the items they were used for
+        private final int[] counts;
+        private final int[] positions;
+        private final int[] touched;
+        // the candidate closure items in isPrefixPreserving()
+        private final int[] closure;
+        private final long[] closureBits;
+        // the excluded items in all the transactions, in hasExcludedClosure()
+        private final long[] excludedBits;
+
+        Workspace(Search search) {
+            this.search = search;
+            this.offsets = search.offsets;
+            this.items = search.items;
+            int nbItems = search.nbItems;
+            itemset = new int[nbItems];
+            inItemset = new long[search.words];
+            buffers = new int[nbItems + 1][];
+            candidateItems = new int[nbItems + 1][];
+            candidateStarts = new int[nbItems + 1][];
+            counts = new int[nbItems];
+            positions = new int[nbItems];
+            Arrays.fill(positions, -1);
+            touched = new int[nbItems];
+            closure = new int[nbItems];
+            closureBits = new long[search.words];
+            excludedBits = new long[search.excludedWords];
+        }
+
+        /**
+         * Explores the subtree of the current itemset sequentially: adds the
+         * current itemset (with, in closed mode, its closure) to the itemsets
+         * found, then explores its extensions.
+         *
+         * @param occurrences An array holding the non-empty transactions of the current itemset
+         * @param from        The position of the first transaction
+         * @param to          The position after the last transaction
+         * @param support     The support of the current itemset
+         * @param core        The last item added to the current itemset
+         * @param depth       The depth of the current itemset
+         * @param found       The sink the itemsets found are pushed to
+         */
+        void expand(int[] occurrences, int from, int to, int support, int core, int depth, ResultSink found) {
+            search.checkCancelled();
+            if (hasExcludedClosure(occurrences, from, to)) {
+                return;
+            }
+            int candidates = deliver(occurrences, from, to, support, core, depth);
+            int added = closureSize;
+            if (size > search.maxSize) {
+                // the closure is too large, and so are the closures of the supersets
+                pop(added);
+                return;
+            }
+            if (size >= search.minSize) {
+                found.accept(pattern(), support);
+            }
+            int[] buffer = buffers[depth];
+            int[] depthItems = candidateItems[depth];
+            int[] depthStarts = candidateStarts[depth];
+            for (int c = 0; c < candidates; c++) {
+                int start = depthStarts[c];
+                int end = depthStarts[c + 1];
+                int item = depthItems[c];
+                if (search.closed && !isPrefixPreserving(buffer, start, end, item)) {
+                    continue;
+                }
+                add(item);
+                expand(buffer, start, end, end - start, item, depth + 1, found);
+                pop(1);
+            }
+            pop(added);
+        }
+
+        /**
+         * Occurrence deliver: computes the transactions of the frequent
+         * extensions of the current itemset with an item greater than its core
+         * item, in one scan of its transactions.
+         * <p>
+         * In closed mode, the items after the core item that are in all the
+         * transactions belong to the closure of the current itemset: they are
+         * added to it instead of being candidate extensions, and their number is
+         * left in {@link #closureSize}.
+         * <p>
+         * No candidate is returned once the itemset (with its closure) has
+         * reached the maximum size; in frequent mode, the transactions are then
+         * not even scanned.
+         *
+         * @return The number of candidate extensions, whose items and
+         *         transactions are in the buffers of the depth
+         */
+        int deliver(int[] occurrences, int from, int to, int support, int core, int depth) {
+            if (!search.closed && size >= search.maxSize) {
+                closureSize = 0;
+                return 0;
+            }
+            // count the supports of the items after the core item (transactions are sorted)
+            int touchedCount = 0;
+            for (int p = from; p < to; p++) {
+                int t = occurrences[p];
+                for (int k = offsets[t + 1] - 1; k >= offsets[t] && items[k] > core; k--) {
+                    if (counts[items[k]]++ == 0) {
+                        touched[touchedCount++] = items[k];
+                    }
+                }
+            }
+            Arrays.sort(touched, 0, touchedCount);
+
+            if (candidateItems[depth] == null) {
+                candidateItems[depth] = new int[search.nbItems];
+                candidateStarts[depth] = new int[search.nbItems + 1];
+                buffers[depth] = new int[16];
+            }
+            int[] depthItems = candidateItems[depth];
+            int[] depthStarts = candidateStarts[depth];
+            int candidates = 0;
+            int total = 0;
+            closureSize = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int item = touched[i];
+                int count = counts[item];
+                counts[item] = 0;
+                if (count < search.minSupport || contains(item)) {
+                    continue;
+                }
+                if (search.closed && count == support) {
+                    add(item);
+                    closureSize++;
+                } else {
+                    depthItems[candidates] = item;
+                    depthStarts[candidates++] = total;
+                    positions[item] = total;
+                    total += count;
+                }
+            }
+            depthStarts[candidates] = total;
+            if (size >= search.maxSize) {
+                for (int c = 0; c < candidates; c++) {
+                    positions[depthItems[c]] = -1;
+                }
+                candidates = 0;
+            }
+            if (candidates == 0) {
+                return 0;
+            }
+
+            // deliver each transaction to the candidates it contains
+            if (buffers[depth].length < total) {
+                buffers[depth] = new int[Math.max(total, buffers[depth].length * 2)];
+            }
+            int[] buffer = buffers[depth];
+            for (int p = from; p < to; p++) {
+                int t = occurrences[p];
+                for (int k = offsets[t + 1] - 1; k >= offsets[t] && items[k] > core; k--) {
+                    int position = positions[items[k]];
+                    if (position >= 0) {
+                        buffer[position] = t;
+                        positions[items[k]] = position + 1;
+                    }
+                }
+            }
+            for (int c = 0; c < candidates; c++) {
+                positions[depthItems[c]] = -1;
+            }
+            return candidates;
+        }
+
+        /**
+         * In closed mode with excluded items, checks whether an excluded item
+         * occurs in all the transactions of the current itemset: then the
+         * itemset and all its supersets are not closed in the whole database.
+         *
+         * @return true if the subtree of the current itemset must be pruned
+         */
+        boolean hasExcludedClosure(int[] occurrences, int from, int to) {
+            long[] excludedRows = search.excludedRows;
+            if (excludedRows == null || from == to) {
+                return false;
+            }
+            int words = search.excludedWords;
+            System.arraycopy(excludedRows, occurrences[from] * words, excludedBits, 0, words);
+            for (int p = from + 1; p < to; p++) {
+                int row = occurrences[p] * words;
+                long remaining = 0;
+                for (int w = 0; w < words; w++) {
+                    excludedBits[w] &= excludedRows[row + w];
+                    remaining |= excludedBits[w];
+                }
+                if (remaining == 0) {
+                    return false;
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                if (excludedBits[w] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Checks that adding an item to the current itemset gives a
+         * prefix-preserving closure extension: no item before the added item is
+         * in all the transactions of the extension, except the items of the
+         * current itemset. The closure items after the added item are computed
+         * by the occurrence deliver of the extension.
+         *
+         * @param occurrences An array holding the transactions of the extension
+         * @param from        The position of the first transaction
+         * @param to          The position after the last transaction
+         * @param item        The added item
+         * @return true if the extension is a PPC-extension
+         */
+        boolean isPrefixPreserving(int[] occurrences, int from, int to, int item) {
+            if (item == 0) {
+                return true;
+            }
+            if (search.rows != null) {
+                return isPrefixPreservingBitset(occurrences, from, to, item);
+            }
+            // intersect the items before the added item, starting from the first transaction
+            int first = occurrences[from];
+            int candidates = 0;
+            for (int k = offsets[first]; k < offsets[first + 1] && items[k] < item; k++) {
+                if (!contains(items[k])) {
+                    closure[candidates++] = items[k];
+                }
+            }
+            for (int p = from + 1; p < to && candidates > 0; p++) {
+                candidates = intersect(occurrences[p], candidates);
+            }
+            return candidates == 0;
+        }
+
+        /**
+         * Same as {@link #isPrefixPreserving}, intersecting the bitset rows of
+         * the transactions, on the words holding the items before the added item.
+         */
+        private boolean isPrefixPreservingBitset(int[] occurrences, int from, int to, int item) {
+            long[] rows = search.rows;
+            int words = search.words;
+            int lastWord = (item - 1) >>> 6;
+            // the items before the added item and not in the current itemset
+            for (int w = 0; w < lastWord; w++) {
+                closureBits[w] = ~inItemset[w];
+            }
+            closureBits[lastWord] = ~inItemset[lastWord] & (-1L >>> (63 - ((item - 1) & 63)));
+            for (int p = from; p < to; p++) {
+                int row = occurrences[p] * words;
+                long remaining = 0;
+                for (int w = 0; w <= lastWord; w++) {
+                    closureBits[w] &= rows[row + w];
+                    remaining |= closureBits[w];
+                }
+                if (remaining == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Keeps the candidate closure items that are in a transaction.
+         *
+         * @return The new number of candidate closure items
+         */
+        private int intersect(int transaction, int candidates) {
+            int kept = 0;
+            int k = offsets[transaction];
+            int end = offsets[transaction + 1];
+            for (int i = 0; i < candidates && k < end; i++) {
+                int candidate = closure[i];
+                while (k < end && items[k] < candidate) {
+                    k++;
+                }
+                if (k < end && items[k] == candidate) {
+                    closure[kept++] = candidate;
+                }
+            }
+            return kept;
+        }
+
+        /**
+         * @return true if the current itemset contains the item
+         */
+        private boolean contains(int item) {
+            return (inItemset[item >>> 6] & (1L << item)) != 0;
+        }
+
+        /**
+         * Adds an item to the current itemset.
+         */
+        private void add(int item) {
+            itemset[size++] = item;
+            inItemset[item >>> 6] |= 1L << item;
+        }
+
+        /**
+         * Adds items to the current itemset.
+         */
+        void push(int[] added, int length) {
+            for (int i = 0; i < length; i++) {
+                add(added[i]);
+            }
+        }
+
+        /**
+         * Removes the last items added to the current itemset.
+         */
+        void pop(int length) {
+            for (int i = 0; i < length; i++) {
+                int item = itemset[--size];
+                inItemset[item >>> 6] &= ~(1L << item);
+            }
+        }
+
+        /**
+         * @return The items of the current itemset, original values in increasing order
+         */
+        int[] pattern() {
+            return search.recoded.decode(itemset, size);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.cgks.spmf;
+
+import java.util.Arrays;
+
+import com.github.cgks.ResultSink;
+
+/**
+ * A {@link ResultSink} holding the patterns found by a task of a parallel
+ * engine until the tasks before it are delivered: the items of each pattern
+ * as an int[], and its support, in the order they were found.
+ */
+public final class PatternBuffer implements ResultSink {
+
+    private int[][] patterns = new int[8][];
+    private int[] supports = new int[8];
+    private int size;
+
+    @Override
+    public void accept(int[] pattern, int support) {
+        if (size == patterns.length) {
+            patterns = Arrays.copyOf(patterns, size * 2);
+            supports = Arrays.copyOf(supports, size * 2);
+        }
+        patterns[size] = pattern;
+        supports[size++] = support;
+    }
+
+    /**
+     * Appends the patterns of another buffer, which is left empty.
+     *
+     * @param other The buffer
+     */
+    public void addAll(PatternBuffer other) {
+        if (size + other.size > patterns.length) {
+            int capacity = Math.max(size + other.size, patterns.length * 2);
+            patterns = Arrays.copyOf(patterns, capacity);
+            supports = Arrays.copyOf(supports, capacity);
+        }
+        System.arraycopy(other.patterns, 0, patterns, size, other.size);
+        System.arraycopy(other.supports, 0, supports, size, other.size);
+        size += other.size;
+        other.clear();
+    }
+
+    /**
+     * Passes the patterns to a sink, in order, releasing each of them as it is
+     * delivered; the buffer is left empty.
+     *
+     * @param sink The sink
+     * @return The number of patterns delivered
+     */
+    public int deliverTo(ResultSink sink) {
+        int delivered = size;
+        for (int i = 0; i < delivered; i++) {
+            int[] pattern = patterns[i];
+            patterns[i] = null;
+            sink.accept(pattern, supports[i]);
+        }
+        clear();
+        return delivered;
+    }
+
+    /**
+     * @param index The rank of a pattern
+     * @return The items of the pattern
+     */
+    public int[] getPattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * @param index The rank of a pattern
+     * @return The support of the pattern
+     */
+    public int getSupport(int index) {
+        return supports[index];
+    }
+
+    /**
+     * @return The number of patterns held
+     */
+    public int size() {
+        return size;
+    }
+
+    private void clear() {
+        patterns = new int[8][];
+        supports = new int[8];
+        size = 0;
+    }
+}
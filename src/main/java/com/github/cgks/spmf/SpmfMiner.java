@@ -1,59 +1,46 @@
 package com.github.cgks.spmf;
 
-import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.function.BooleanSupplier;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import com.github.cgks.Miner;
-import com.github.cgks.MiningResult;
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.dataset.VerticalIndex;
 import com.github.cgks.exceptions.DatabaseException;
 import com.github.cgks.exceptions.MiningException;
 import com.github.cgks.exceptions.ParameterException;
-import com.github.cgks.spmf.rpgrowth.AlgoRPGrowth;
-
-import ca.pfv.spmf.algorithms.frequentpatterns.apriori_rare.AlgoAprioriRare;
-import ca.pfv.spmf.algorithms.frequentpatterns.fpgrowth.AlgoFPMax;
-import ca.pfv.spmf.algorithms.frequentpatterns.lcm.AlgoLCM;
-import ca.pfv.spmf.algorithms.frequentpatterns.lcm.AlgoLCMFreq;
-import ca.pfv.spmf.algorithms.frequentpatterns.lcm.Dataset;
-import ca.pfv.spmf.algorithms.frequentpatterns.zart.AlgoZart;
-import ca.pfv.spmf.algorithms.frequentpatterns.zart.TZTableClosed;
-import ca.pfv.spmf.input.transaction_database_list_integers.TransactionDatabase;
-import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
-import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+import com.github.cgks.spmf.rpgrowth.AlgoRPGrowthArena;
 
 /**
- * The {@code SpmfMiner} class implements the {@link Miner} interface and
- * provides
- * various methods for mining itemsets from datasets using algorithms from the
- * SPMF library.
+ * The {@code SpmfMiner} class implements the {@link Miner} interface with
+ * in-house engines working on the cached in-memory {@link TransactionDataset}
+ * of a dataset (or on its {@link VerticalIndex}), which find the same itemsets
+ * as the SPMF algorithms they are named after and return them in SPMF's formats
+ * where a caller needs them.
  * <p>
  * Supported mining tasks include:
  * <ul>
- * <li>Frequent itemset mining</li>
- * <li>Closed itemset mining</li>
- * <li>Maximal itemset mining</li>
- * <li>Rare itemset mining</li>
- * <li>Generator itemset mining</li>
- * <li>Minimal itemset mining</li>
- * <li>Mining itemsets of specific size ranges</li>
- * <li>Mining itemsets containing or excluding specific items</li>
+ * <li>Frequent and closed itemset mining, by {@link ParallelLCM}</li>
+ * <li>Maximal itemset mining, by {@link ParallelFPMax}</li>
+ * <li>Rare itemset mining, by {@link AlgoRPGrowthArena}</li>
+ * <li>Generator itemset mining, by {@link ParallelDefMe}</li>
+ * <li>Minimal rare itemset mining, by {@link WalkyG}</li>
+ * <li>Mining closed itemsets of specific size ranges, or containing or
+ * excluding specific items, by {@link ParallelLCM}, which pushes the
+ * constraints into its search</li>
  * </ul>
  * <p>
- * The class provides utility methods for converting file paths to datasets and
- * for filtering itemsets based on presence or absence of items.
- * <p>
  * Each mining method expects a dataset path and a map of parameters, typically
- * including
- * minimum support and, for some methods, item constraints or size constraints.
+ * including minimum support and, for some methods, item constraints or size
+ * constraints, and an optional "parallelism" parameter (the number of threads,
+ * all the processors by default; Walky-G always runs on the calling thread).
+ * The itemsets are pushed to a {@link ResultSink} as the engines deliver them,
+ * and the cancellation checker is polled by the engines during the search.
  * <p>
  * Example usage:
  * 
@@ -62,6 +49,8 @@ import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
  * Map<String, String> params = new HashMap<>();
  * params.put("minSupport", "0.5");
  * List<MiningResult> results = miner.extractFrequent("dataset.txt", params, () -> false);
+ * // or, to handle each itemset as it is found:
+ * miner.extractFrequent("dataset.txt", params, (items, support) -> ..., () -> false);
  * </pre>
  *
  * @author CGKS team
@@ -92,15 +81,16 @@ public class SpmfMiner implements Miner {
      * the specified minimum support threshold.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param params A map containing algorithm parameters, must include "minSupport",
+     *               may include "parallelism" (number of threads, all the processors by default)
+     * @param sink The sink receiving the discovered frequent itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered frequent itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractFrequent(String datasetPath, Map<String, String> params,
+    public void extractFrequent(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws  MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -109,26 +99,21 @@ public class SpmfMiner implements Miner {
             // Validate that required parameters are present
             validateParams(params, "minSupport");
             
-            // Load dataset from the provided path
-            Dataset dataset = pathToDataset(datasetPath);
+            // Load dataset from the provided path (parsed once, shared through the cache)
+            TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
             
             // Parse the minimum support threshold parameter
             double minSupportThreshold = parseMinSupport(params);
             
-            // Initialize the LCM Frequent Itemsets algorithm
-            AlgoLCMFreq algorithm = new AlgoLCMFreq();
+            // Initialize the parallel LCM engine with the requested number of threads
+            ParallelLCM algorithm = new ParallelLCM(parseParallelism(params));
+            algorithm.setCancellationChecker(cancellationChecker);
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Execute the algorithm with the specified parameters
-            Itemsets discoveredItemsets = algorithm.runAlgorithm(minSupportThreshold, dataset, null);
-            
-            // Check if operation has been cancelled before processing results
-            checkCancellation(cancellationChecker);
-            
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(discoveredItemsets);
+            // Execute the algorithm with the specified parameters, pushing the itemsets to the sink
+            algorithm.mineFrequent(dataset, minSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -152,15 +137,16 @@ public class SpmfMiner implements Miner {
      * making them a concise representation of frequent patterns.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param params A map containing algorithm parameters, must include "minSupport",
+     *               may include "parallelism" (number of threads, all the processors by default)
+     * @param sink The sink receiving the discovered closed itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered closed itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractClosed(String datasetPath, Map<String, String> params,
+    public void extractClosed(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws  MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -169,26 +155,21 @@ public class SpmfMiner implements Miner {
             // Validate that required parameters are present
             validateParams(params, "minSupport");
             
-            // Load dataset from the provided path
-            Dataset dataset = pathToDataset(datasetPath);
+            // Load dataset from the provided path (parsed once, shared through the cache)
+            TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
             
             // Parse the minimum support threshold parameter
             double minSupportThreshold = parseMinSupport(params);
             
-            // Initialize the LCM Closed Itemsets algorithm
-            AlgoLCM algorithm = new AlgoLCM();
+            // Initialize the parallel LCM engine with the requested number of threads
+            ParallelLCM algorithm = new ParallelLCM(parseParallelism(params));
+            algorithm.setCancellationChecker(cancellationChecker);
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Execute the algorithm with the specified parameters
-            Itemsets closedItemsets = algorithm.runAlgorithm(minSupportThreshold, dataset, null);
-            
-            // Check if operation has been cancelled before processing results
-            checkCancellation(cancellationChecker);
-            
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(closedItemsets);
+            // Execute the algorithm with the specified parameters, pushing the itemsets to the sink
+            algorithm.mineClosed(dataset, minSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -213,15 +194,16 @@ public class SpmfMiner implements Miner {
      * providing a compact representation of the frequent pattern space.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param params A map containing algorithm parameters, must include "minSupport",
+     *               may include "parallelism" (number of threads, all the processors by default)
+     * @param sink The sink receiving the discovered maximal itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered maximal itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractMaximal(String datasetPath, Map<String, String> params,
+    public void extractMaximal(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws  MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -233,23 +215,18 @@ public class SpmfMiner implements Miner {
             // Parse the minimum support threshold parameter
             double minSupportThreshold = parseMinSupport(params);
             
-            // Resolve the path to the dataset file
-            String resolvedFilePath = fileToPath(datasetPath);
+            // Load dataset from the provided path (parsed once, shared through the cache)
+            TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
             
-            // Initialize the FPMax algorithm for maximal itemset mining
-            AlgoFPMax algorithm = new AlgoFPMax();
+            // Initialize the parallel FPMax engine with the requested number of threads
+            ParallelFPMax algorithm = new ParallelFPMax(parseParallelism(params));
+            algorithm.setCancellationChecker(cancellationChecker);
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Execute the algorithm with the specified parameters
-            Itemsets maximalItemsets = algorithm.runAlgorithm(resolvedFilePath, null, minSupportThreshold);
-            
-            // Check if operation has been cancelled before processing results
-            checkCancellation(cancellationChecker);
-            
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(maximalItemsets);
+            // Execute the algorithm with the specified parameters, pushing the itemsets to the sink
+            algorithm.mineMaximal(dataset, minSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -274,15 +251,16 @@ public class SpmfMiner implements Miner {
      * representing patterns that occur infrequently in the dataset.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "maxSupport"
+     * @param params A map containing algorithm parameters, must include "maxSupport",
+     *               may include "parallelism" (number of threads, all the processors by default)
+     * @param sink The sink receiving the discovered rare itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered rare itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractRare(String datasetPath, Map<String, String> params,
+    public void extractRare(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws  MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -295,25 +273,23 @@ public class SpmfMiner implements Miner {
             double maxSupportThreshold = parseMaxSupport(params);
             
             // Initialize the RPGrowth algorithm for rare itemset mining
-            AlgoRPGrowth algorithm = new AlgoRPGrowth();
+            // (on arena-based RP-Trees, which do not allocate tree nodes),
+            // with the requested number of threads
+            AlgoRPGrowthArena algorithm = new AlgoRPGrowthArena();
+            algorithm.setCancellationChecker(cancellationChecker);
+            algorithm.setParallelism(parseParallelism(params));
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
             // Execute the algorithm with the specified parameters
-            // Last parameter 0 represents minimum support (0 to get all rare itemsets)
-            Itemsets rareItemsets = algorithm.runAlgorithm(
-                fileToPath(datasetPath), 
-                null, 
+            // The minimum rare support of 0 gets all rare itemsets, pushed to the sink
+            algorithm.runAlgorithm(
+                DatasetCache.getInstance().get(datasetPath), 
                 maxSupportThreshold, 
-                0 // Minimum rare support threshold of 0
+                0, // Minimum rare support threshold of 0
+                sink
             );
-            
-            // Check if operation has been cancelled before processing results
-            checkCancellation(cancellationChecker);
-            
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(rareItemsets);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -333,20 +309,21 @@ public class SpmfMiner implements Miner {
 
 
         /**
-     * Extracts minimal generators from a dataset using the ZART algorithm.
+     * Extracts minimal generators from a dataset using the DefMe algorithm.
      * Minimal generators are minimal itemsets that determine a closed itemset,
      * providing a non-redundant representation of association rules.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "minSupport"
+     * @param params A map containing algorithm parameters, must include "minSupport",
+     *               may include "parallelism" (number of threads, all the processors by default)
+     * @param sink The sink receiving the discovered minimal generators
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered minimal generators
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractGenerators(String datasetPath, Map<String, String> params,
+    public void extractGenerators(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws  MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -355,51 +332,21 @@ public class SpmfMiner implements Miner {
             // Validate that required parameters are present
             validateParams(params, "minSupport");
             
-            // Load and prepare transaction database from the provided path
-            TransactionDatabase transactionDatabase = readTransactionDatabase(datasetPath);
+            // Load the vertical index of the dataset (built once, shared through the cache)
+            VerticalIndex verticalIndex = DatasetCache.getInstance().getVerticalIndex(datasetPath);
             
             // Parse the minimum support threshold parameter
             double minSupportThreshold = parseMinSupport(params);
             
-            // Initialize the ZART algorithm for mining closed itemsets and their generators
-            AlgoZart algorithm = new AlgoZart();
+            // Initialize the depth-first generator miner with the requested number of threads
+            ParallelDefMe algorithm = new ParallelDefMe(parseParallelism(params));
+            algorithm.setCancellationChecker(cancellationChecker);
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Execute the algorithm with the specified parameters
-            TZTableClosed algorithmResults = algorithm.runAlgorithm(transactionDatabase, minSupportThreshold);
-            
-            // Check if operation has been cancelled before processing results
-            checkCancellation(cancellationChecker);
-            
-            // Create container for generator itemsets
-            Itemsets generatorItemsets = new Itemsets("Generator itemset");
-            
-            // Process the results, extracting generators for each level except empty set level 0
-            for (int level = 1; level < algorithmResults.levels.size(); level++) {
-                // Check if operation has been cancelled during processing
-                checkCancellation(cancellationChecker);
-                
-                // Process each closed itemset at current level
-                for (Itemset closedItemset : algorithmResults.levels.get(level)) {
-                    // Get the generators associated with this closed itemset
-                    List<Itemset> generators = algorithmResults.mapGenerators.get(closedItemset);
-                    
-                    // If generators exist for this closed itemset, add them all
-                    if (!generators.isEmpty()) {
-                        for (Itemset generator : generators) {
-                            generatorItemsets.addItemset(generator, level);
-                        }
-                    } else {
-                        // If no generators, the closed itemset itself is a generator
-                        generatorItemsets.addItemset(closedItemset, level);
-                    }
-                }
-            }
-            
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(generatorItemsets);
+            // Execute the algorithm with the specified parameters, pushing the itemsets to the sink
+            algorithm.mineGenerators(verticalIndex, minSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -419,21 +366,22 @@ public class SpmfMiner implements Miner {
 
 
         /**
-     * Extracts minimal rare itemsets from a dataset using the Apriori-Rare algorithm.
+     * Extracts minimal rare itemsets from a dataset using the Walky-G algorithm.
      * Minimal rare itemsets are those that are rare (with support below the maximum threshold)
      * but all their proper subsets are frequent, providing the most concise representation
-     * of rare patterns.
+     * of rare patterns. The search runs depth-first on the vertical index of the dataset,
+     * through the frequent generators.
      *
      * @param datasetPath The file path to the dataset to be analyzed
      * @param params A map containing algorithm parameters, must include "maxSupport"
+     * @param sink The sink receiving the discovered minimal rare itemsets
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered minimal rare itemsets
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractMinimal(String datasetPath, Map<String, String> params,
+    public void extractMinimal(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -445,24 +393,18 @@ public class SpmfMiner implements Miner {
             // Parse the maximum support threshold parameter
             double maxSupportThreshold = parseMaxSupport(params);
             
-            // Initialize the Apriori-Rare algorithm for minimal rare itemset mining
-            AlgoAprioriRare algorithm = new AlgoAprioriRare();
-            
-            // Check if operation has been cancelled before running algorithm
-            checkCancellation(cancellationChecker);
+            // Load the vertical index of the dataset (built once, shared through the cache)
+            VerticalIndex index = DatasetCache.getInstance().getVerticalIndex(datasetPath);
             
-            // Execute the algorithm with the specified parameters
-            Itemsets minimalRareItemsets = algorithm.runAlgorithm(
-                maxSupportThreshold, 
-                fileToPath(datasetPath), 
-                null // No output file specified, results kept in memory
-            );
+            // Initialize the Walky-G algorithm for minimal rare itemset mining
+            WalkyG algorithm = new WalkyG();
+            algorithm.setCancellationChecker(cancellationChecker);
             
-            // Check if operation has been cancelled before processing results
+            // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(minimalRareItemsets);
+            // Execute the algorithm with the specified parameters, pushing the itemsets to the sink
+            algorithm.mineMinimalRare(index, maxSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -483,19 +425,20 @@ public class SpmfMiner implements Miner {
 
         /**
      * Extracts itemsets with sizes falling within a specified range using the LCM algorithm.
-     * This method first mines closed itemsets, then filters them based on their size,
-     * keeping only those within the specified size range.
+     * This method mines the closed itemsets within the specified size range: the search does
+     * not extend itemsets past the maximum size, and skips those below the minimum size.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "minSize", "maxSize", and "minSupport"
+     * @param params A map containing algorithm parameters, must include "minSize", "maxSize", and "minSupport",
+     *               may include "parallelism"
+     * @param sink The sink receiving the discovered itemsets within the size range
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered itemsets within the size range
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractSizeBetween(String datasetPath, Map<String, String> params,
+    public void extractSizeBetween(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws  MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -504,9 +447,9 @@ public class SpmfMiner implements Miner {
             // Validate that all required parameters are present
             validateParams(params, "minSize", "maxSize", "minSupport");
             
-            // Load and prepare dataset from the provided path
-            Dataset dataset = pathToDataset(datasetPath);
-            int datasetSize = dataset.getTransactions().size();
+            // Load dataset from the provided path (parsed once, shared through the cache)
+            TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
+            int datasetSize = dataset.getItems().length;
             
             // Parse the minimum support threshold parameter
             double minSupportThreshold = parseMinSupport(params);
@@ -537,36 +480,16 @@ public class SpmfMiner implements Miner {
                 maximumItemsetSize = datasetSize;
             }
 
-            // Initialize the LCM algorithm for closed itemset mining
-            AlgoLCM algorithm = new AlgoLCM();
+            // Initialize the parallel LCM engine, which stops extending itemsets at maxSize
+            ParallelLCM algorithm = new ParallelLCM(parseParallelism(params));
+            algorithm.setCancellationChecker(cancellationChecker);
+            algorithm.setSizeBounds(minimumItemsetSize, maximumItemsetSize);
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Execute the algorithm to find all closed itemsets
-            Itemsets allClosedItemsets = algorithm.runAlgorithm(minSupportThreshold, dataset, null);
-            
-            // Check if operation has been cancelled before filtering results
-            checkCancellation(cancellationChecker);
-
-            // Create a new container for filtered itemsets
-            Itemsets filteredItemsets = new Itemsets(
-                String.format("Itemsets de taille %d à %d", minimumItemsetSize, maximumItemsetSize)
-            );
-            
-            // Filter itemsets based on size criteria
-            for (List<Itemset> level : allClosedItemsets.getLevels()) {
-                checkCancellation(cancellationChecker);
-                for (Itemset itemset : level) {
-                    int itemsetSize = itemset.size();
-                    if (itemsetSize >= minimumItemsetSize && itemsetSize <= maximumItemsetSize) {
-                        filteredItemsets.addItemset(itemset, itemsetSize);
-                    }
-                }
-            }
-            
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(filteredItemsets);
+            // Execute the algorithm to find the closed itemsets within the size range, pushing the itemsets to the sink
+            algorithm.mineClosed(dataset, minSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -587,18 +510,20 @@ public class SpmfMiner implements Miner {
 
     /**
      * Extracts itemsets that contain specific items of interest using the LCM algorithm.
-     * This method mines closed itemsets, then filters them to keep only those containing all specified items.
+     * This method mines the closed itemsets containing all specified items: the dataset is
+     * projected on the transactions containing them, and only that projection is searched.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "minSupport" and "items"
+     * @param params A map containing algorithm parameters, must include "minSupport" and "items",
+     *               may include "parallelism"
+     * @param sink The sink receiving the discovered itemsets that contain all required items
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered itemsets that contain all required items
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractPresence(String datasetPath, Map<String, String> params,
+    public void extractPresence(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -614,53 +539,27 @@ public class SpmfMiner implements Miner {
             String itemsParameter = params.get("items");
             List<Integer> requiredItems = parseItems(itemsParameter);
             
-            // Load and prepare dataset from the provided path
-            Dataset dataset = pathToDataset(datasetPath);
-            
-            // Initialize the LCM algorithm for closed itemset mining
-            AlgoLCM algorithm = new AlgoLCM();
+            // Load dataset from the provided path (parsed once, shared through the cache)
+            TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
+
+            // Filter required items to only include those present in the dataset
+            // (if none remain, no constraint applies and all closed itemsets are returned)
+            int[] filteredRequiredItems = requiredItems.stream()
+                    .mapToInt(Integer::intValue)
+                    .filter(item -> dataset.getItemSupport(item) > 0)
+                    .toArray();
+
+            // Initialize the parallel LCM engine, restricted to the transactions
+            // containing all the required items
+            ParallelLCM algorithm = new ParallelLCM(parseParallelism(params));
+            algorithm.setCancellationChecker(cancellationChecker);
+            algorithm.setRequiredItems(filteredRequiredItems);
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Execute the algorithm to find all closed itemsets
-            Itemsets allClosedItemsets = algorithm.runAlgorithm(minSupportThreshold, dataset, null);
-            
-            // Check if operation has been cancelled before filtering results
-            checkCancellation(cancellationChecker);
-
-            // Create a new container for filtered itemsets
-            Itemsets filteredItemsets = new Itemsets("Itemsets contenant tous: " + requiredItems);
-
-            // Get the set of all unique items in the dataset
-            Set<Integer> datasetItems = dataset.getUniqueItems();
-
-            // Filter required items to only include those present in the dataset
-            List<Integer> filteredRequiredItems = requiredItems.stream()
-                    .filter(datasetItems::contains)
-                    .collect(Collectors.toList());
-
-            // Special case: if no required items remain after filtering, return all itemsets
-            if (filteredRequiredItems.isEmpty()) {
-                return ConvertToMiningResult.convertItemsetsToMiningResults(allClosedItemsets);
-            }
-
-            // Sort the required items list for more efficient containment checking
-            List<Integer> sortedRequiredItems = new ArrayList<>(filteredRequiredItems);
-            Collections.sort(sortedRequiredItems);
-
-            // Filter itemsets to keep only those containing all required items
-            for (List<Itemset> level : allClosedItemsets.getLevels()) {
-                checkCancellation(cancellationChecker);
-                for (Itemset itemset : level) {
-                    if (containsAllRequired(itemset, sortedRequiredItems)) {
-                        filteredItemsets.addItemset(itemset, itemset.size());
-                    }
-                }
-            }
-
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(filteredItemsets);
+            // Execute the algorithm to find the closed itemsets containing all required items, pushing the itemsets to the sink
+            algorithm.mineClosed(dataset, minSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -681,18 +580,20 @@ public class SpmfMiner implements Miner {
 
     /**
      * Extracts itemsets that do not contain any of the specified excluded items using the LCM algorithm.
-     * This method mines closed itemsets, then filters them to keep only those containing none of the excluded items.
+     * This method mines the closed itemsets of the dataset with the excluded items removed, keeping
+     * only those that are also closed in the whole dataset.
      *
      * @param datasetPath The file path to the dataset to be analyzed
-     * @param params A map containing algorithm parameters, must include "minSupport" and "items" (to exclude)
+     * @param params A map containing algorithm parameters, must include "minSupport" and "items" (to exclude),
+     *               may include "parallelism"
+     * @param sink The sink receiving the discovered itemsets that exclude all specified items
      * @param cancellationChecker A supplier that returns true if the operation should be cancelled
-     * @return A list of mining results containing the discovered itemsets that exclude all specified items
      * @throws MiningException If any error occurs during the mining process
      * @throws ParameterException If required parameters are missing or invalid
      * @throws DatabaseException If there is an issue with the dataset
      */
     @Override
-    public List<MiningResult> extractAbsence(String datasetPath, Map<String, String> params,
+    public void extractAbsence(String datasetPath, Map<String, String> params, ResultSink sink,
             BooleanSupplier cancellationChecker) throws MiningException, ParameterException, DatabaseException {
         try {
             // Check if operation has been cancelled before starting
@@ -707,45 +608,20 @@ public class SpmfMiner implements Miner {
             // Parse the list of items that must be absent from results
             List<Integer> excludedItems = parseItems(params.get("items"));
             
-            // Load and prepare dataset from the provided path
-            Dataset dataset = pathToDataset(datasetPath);
+            // Load dataset from the provided path (parsed once, shared through the cache)
+            TransactionDataset dataset = DatasetCache.getInstance().get(datasetPath);
 
-            // Initialize the LCM algorithm for closed itemset mining
-            AlgoLCM algorithm = new AlgoLCM();
+            // Initialize the parallel LCM engine, on the dataset without the excluded items
+            // (closedness is still checked against the whole dataset)
+            ParallelLCM algorithm = new ParallelLCM(parseParallelism(params));
+            algorithm.setCancellationChecker(cancellationChecker);
+            algorithm.setExcludedItems(excludedItems.stream().mapToInt(Integer::intValue).toArray());
             
             // Check if operation has been cancelled before running algorithm
             checkCancellation(cancellationChecker);
             
-            // Execute the algorithm to find all closed itemsets
-            Itemsets allClosedItemsets = algorithm.runAlgorithm(minSupportThreshold, dataset, null);
-            
-            // Check if operation has been cancelled before filtering results
-            checkCancellation(cancellationChecker);
-
-            // Create a new container for filtered itemsets
-            Itemsets filteredItemsets = new Itemsets("Itemsets sans: " + excludedItems);
-
-            // Special case: if no excluded items, return all itemsets
-            if (excludedItems.isEmpty()) {
-                return ConvertToMiningResult.convertItemsetsToMiningResults(allClosedItemsets);
-            }
-
-            // Sort the excluded items list for more efficient containment checking
-            List<Integer> sortedExcludedItems = new ArrayList<>(excludedItems);
-            Collections.sort(sortedExcludedItems);
-
-            // Filter itemsets to keep only those not containing any excluded items
-            for (List<Itemset> level : allClosedItemsets.getLevels()) {
-                checkCancellation(cancellationChecker);
-                for (Itemset itemset : level) {
-                    if (!containsAny(itemset.getItems(), sortedExcludedItems)) {
-                        filteredItemsets.addItemset(itemset, itemset.size());
-                    }
-                }
-            }
-
-            // Convert the SPMF-specific format to the application's result format
-            return ConvertToMiningResult.convertItemsetsToMiningResults(filteredItemsets);
+            // Execute the algorithm to find the closed itemsets without excluded items, pushing the itemsets to the sink
+            algorithm.mineClosed(dataset, minSupportThreshold, sink);
         } catch (InterruptedException e) {
             // Restore the interrupted status
             Thread.currentThread().interrupt();
@@ -764,95 +640,6 @@ public class SpmfMiner implements Miner {
     }
 
 
-        /**
-     * Determines if an itemset contains all the required items.
-     * This method checks whether every item in the requiredItems list is present in the given itemset.
-     * 
-     * @param itemset The itemset to check, containing items to be verified
-     * @param requiredItems A sorted list of items that must all be present in the itemset
-     * @return true if the itemset contains all required items, false otherwise
-     */
-    private static boolean containsAllRequired(Itemset itemset, List<Integer> requiredItems) {
-        // Convert the primitive int array to a List<Integer> for easier comparison
-        List<Integer> itemsetItems = Arrays.stream(itemset.getItems())
-                .boxed()
-                .collect(Collectors.toList());
-        
-        // Check if all required items are present in the itemset
-        return itemsetItems.containsAll(requiredItems);
-    }
-
-    /**
-     * Determines if an array of items contains any of the excluded items.
-     * This method uses binary search for efficient checking, assuming the excludedItems list is sorted.
-     * 
-     * @param items The array of items to check against the excluded items
-     * @param excludedItems A sorted list of items that should be absent from the array
-     * @return true if any excluded item is found in the array, false if none are present
-     */
-    private static boolean containsAny(int[] items, List<Integer> excludedItems) {
-        // Use binary search for efficient containment checking
-        // This requires that excludedItems is already sorted
-        return Arrays.stream(items)
-                .anyMatch(item -> Collections.binarySearch(excludedItems, item) >= 0);
-    }
-
-
-    /**
-     * Converts a resource file path to an absolute file system path.
-     * This method locates the resource using the class loader and decodes its URL
-     * path.
-     *
-     * @param file The relative path to the resource file (e.g., "/data/input.txt")
-     * @return The absolute file system path to the resource
-     * @throws DatabaseException If the resource cannot be found or decoded
-     */
-    private static String fileToPath(String file) throws DatabaseException {
-        try {
-            URL url = SpmfMiner.class.getResource(file);
-            return java.net.URLDecoder.decode(url.getPath(), "UTF-8");
-        } catch (Exception e) {
-            throw new DatabaseException("Error loading dataset: " + file + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Loads a dataset from the specified path and returns a Dataset object.
-     * This method resolves the file path and initializes the Dataset.
-     *
-     * @param path The relative path to the dataset file
-     * @return The loaded Dataset object
-     * @throws DatabaseException If the dataset cannot be loaded or parsed
-     */
-    private static Dataset pathToDataset(String path) throws DatabaseException {
-        try {
-            String input = fileToPath(path);
-            Dataset dataset = new Dataset(input);
-            return dataset;
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new DatabaseException("Error loading dataset : " + path + e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Loads a transaction database from the specified dataset path.
-     * This method reads the file and initializes a TransactionDatabase object.
-     *
-     * @param datasetPath The relative path to the dataset file
-     * @return The loaded TransactionDatabase object
-     * @throws DatabaseException If the file cannot be loaded or read
-     */
-    private static TransactionDatabase readTransactionDatabase(String datasetPath) throws DatabaseException {
-        try {
-            TransactionDatabase context = new TransactionDatabase();
-            context.loadFile(fileToPath(datasetPath));
-            return context;
-        } catch (IOException e) {
-            throw new DatabaseException("Error loading dataset: " + datasetPath + e.getMessage(), e);
-        }
-    }
-
     /**
      * Validates that required parameters are present.
      * * @param params The parameters map
@@ -907,6 +694,30 @@ public class SpmfMiner implements Miner {
         }
     }
 
+    /**
+     * Validates and parses the optional parallelism parameter: the number of
+     * threads of the parallel engines.
+     *
+     * @param params The parameters map
+     * @return The number of threads, the number of available processors if absent
+     * @throws ParameterException If the parallelism parameter is invalid
+     */
+    private int parseParallelism(Map<String, String> params) throws ParameterException {
+        String parallelism = params.get("parallelism");
+        if (parallelism == null || parallelism.trim().isEmpty()) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            int threads = Integer.parseInt(parallelism.trim());
+            if (threads < 1) {
+                throw new ParameterException("parallelism must be at least 1");
+            }
+            return threads;
+        } catch (NumberFormatException e) {
+            throw new ParameterException("Invalid parallelism value: " + parallelism);
+        }
+    }
+
     /**
      * Validates and parses the required/exculded items.
      *
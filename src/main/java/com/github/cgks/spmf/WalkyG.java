@@ -0,0 +1,247 @@
+package com.github.cgks.spmf;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.Tidset;
+import com.github.cgks.dataset.VerticalIndex;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Implementation of Walky-G (Szathmary, Valtchev, Napoli and Godin), mining
+ * the minimal rare itemsets of a dataset depth-first on its
+ * {@link VerticalIndex}: the itemsets with a support below the threshold whose
+ * proper subsets all have a support above it. These are the itemsets that
+ * SPMF's {@code AlgoAprioriRare} finds, without its level-wise candidate
+ * generation.
+ * <p>
+ * A minimal rare itemset is a generator, and so are all its subsets: its proper
+ * subsets are frequent generators. The search enumerates the frequent
+ * generators in reverse pre-order, so that the proper subsets of an itemset are
+ * all visited before it, and stores them in a {@link GeneratorTrie}. A
+ * candidate joining two frequent generators of the same parent is then a
+ * frequent generator if its support is lower than the support of each of its
+ * immediate subsets, or a minimal rare itemset if it is rare and each of its
+ * immediate subsets is in the trie. Items are ordered by increasing support.
+ * <p>
+ * Rare itemsets with a support of 0 are reported too, as AprioriRare does.
+ */
+public final class WalkyG {
+
+    private static final Logger LOGGER = Logger.getLogger(WalkyG.class.getName());
+
+    private BooleanSupplier cancellationChecker = () -> false;
+
+    private int patternCount;
+    private int generatorCount;
+    private long runtime;
+
+    /**
+     * Sets the check polled by the search, at each frequent generator it
+     * visits: once it returns true, the mining method throws a
+     * {@link CancellationException}. The itemsets pushed until then stay in
+     * the sink.
+     *
+     * @param cancellationChecker Returns true if the run must stop (never, by default)
+     */
+    public void setCancellationChecker(BooleanSupplier cancellationChecker) {
+        this.cancellationChecker = cancellationChecker;
+    }
+
+    /**
+     * Mines the minimal rare itemsets of a dataset.
+     *
+     * @param index          The vertical index of the dataset
+     * @param maximumSupport The support below which an itemset is rare, as a
+     *                       fraction of the number of transactions
+     * @return The minimal rare itemsets, with their absolute support
+     */
+    public Itemsets mineMinimalRare(VerticalIndex index, double maximumSupport) {
+        ItemsetsSink sink = new ItemsetsSink("MINIMAL RARE ITEMSETS");
+        mineMinimalRare(index, maximumSupport, sink);
+        return sink.getItemsets();
+    }
+
+    /**
+     * Mines the minimal rare itemsets of a dataset, pushing them to a sink as
+     * they are found.
+     *
+     * @param index          The vertical index of the dataset
+     * @param maximumSupport The support below which an itemset is rare, as a
+     *                       fraction of the number of transactions
+     * @param sink           The sink receiving the minimal rare itemsets, with their absolute support
+     */
+    public void mineMinimalRare(VerticalIndex index, double maximumSupport, ResultSink sink) {
+        long start = System.currentTimeMillis();
+        int nbTransactions = index.getNbTransactions();
+        int minSupport = (int) Math.ceil(maximumSupport * nbTransactions);
+
+        // The first level: the frequent items missing from some transaction, by
+        // increasing support; the rare items are minimal rare itemsets
+        int rareItems = 0;
+        long[] keys = new long[index.getItems().length];
+        int count = 0;
+        for (int item : index.getItems()) {
+            int support = index.getSupport(item);
+            if (support < minSupport) {
+                sink.accept(new int[] { item }, support);
+                rareItems++;
+            } else if (support < nbTransactions) {
+                keys[count++] = ((long) support << 32) | item;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        int[] items = new int[count];
+        Tidset[] tidsets = new Tidset[count];
+        int[] supports = new int[count];
+        GeneratorTrie trie = new GeneratorTrie(nbTransactions);
+        for (int i = 0; i < count; i++) {
+            items[i] = (int) keys[i];
+            tidsets[i] = index.getTidset(items[i]);
+            supports[i] = tidsets[i].cardinality();
+            trie.add(GeneratorTrie.ROOT, items[i], supports[i]);
+        }
+
+        Search search = new Search(trie, minSupport, count, sink, cancellationChecker);
+        search.explore(0, items, tidsets, supports, count);
+
+        patternCount = rareItems + search.found;
+        generatorCount = trie.size() - 1;
+        runtime = System.currentTimeMillis() - start;
+        LOGGER.fine(() -> String.format("Walky-G found %d itemsets (%d frequent generators) in %d ms",
+                patternCount, generatorCount, runtime));
+    }
+
+    /**
+     * @return The number of itemsets found by the last run
+     */
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    /**
+     * @return The number of non-empty frequent generators visited by the last run
+     */
+    public int getGeneratorCount() {
+        return generatorCount;
+    }
+
+    /**
+     * @return The duration of the last run, in milliseconds
+     */
+    public long getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * The state of a run: the frequent generators found so far, and the current
+     * itemset with the trie node of each of its prefixes.
+     */
+    private static final class Search {
+        final GeneratorTrie trie;
+        final int minSupport;
+        final ResultSink sink;
+        final BooleanSupplier cancellationChecker;
+        // the number of minimal rare itemsets found
+        int found;
+        final int[] itemset;
+        // nodes[k] is the node of the prefix of k items of the itemset
+        final int[] nodes;
+
+        Search(GeneratorTrie trie, int minSupport, int depth, ResultSink sink,
+                BooleanSupplier cancellationChecker) {
+            this.trie = trie;
+            this.minSupport = minSupport;
+            this.sink = sink;
+            this.cancellationChecker = cancellationChecker;
+            this.itemset = new int[depth + 1];
+            this.nodes = new int[depth + 2];
+            nodes[0] = GeneratorTrie.ROOT;
+        }
+
+        /**
+         * Visits the children of a frequent generator X in reverse order, and
+         * the subtree of each child: the children X + items[i] are frequent
+         * generators, already in the trie.
+         *
+         * @param size     The number of items of X, held by the current itemset
+         * @param items    The items of the children of X
+         * @param tidsets  The transactions containing each child of X
+         * @param supports The support of each child of X
+         * @param count    The number of children of X
+         */
+        void explore(int size, int[] items, Tidset[] tidsets, int[] supports, int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (cancellationChecker.getAsBoolean()) {
+                    throw new CancellationException("The run was cancelled");
+                }
+                itemset[size] = items[i];
+                nodes[size + 1] = trie.child(nodes[size], items[i]);
+                Tidset childTidset = tidsets[i];
+
+                int[] extensionItems = null;
+                Tidset[] extensionTidsets = null;
+                int[] extensionSupports = null;
+                int extensions = 0;
+                for (int j = i + 1; j < count; j++) {
+                    // Y = X + items[i] + items[j], whose immediate subsets without
+                    // items[i] or items[j] are frequent generators
+                    int support = childTidset.andCardinality(tidsets[j]);
+                    itemset[size + 1] = items[j];
+                    if (support < minSupport) {
+                        if (subsetsAreGenerators(size, support)) {
+                            sink.accept(sorted(itemset, size + 2), support);
+                            found++;
+                        }
+                    } else if (support < supports[i] && support < supports[j]
+                            && subsetsAreGenerators(size, support)) {
+                        if (extensionItems == null) {
+                            extensionItems = new int[count - j];
+                            extensionTidsets = new Tidset[count - j];
+                            extensionSupports = new int[count - j];
+                        }
+                        extensionItems[extensions] = items[j];
+                        extensionTidsets[extensions] = childTidset.and(tidsets[j]);
+                        extensionSupports[extensions] = support;
+                        extensions++;
+                        trie.add(nodes[size + 1], items[j], support);
+                    }
+                }
+
+                if (extensions > 1) {
+                    explore(size + 1, extensionItems, extensionTidsets, extensionSupports, extensions);
+                }
+            }
+        }
+
+        /**
+         * @param size    The number of items of X, Y being the current itemset of size + 2 items
+         * @param support The support of Y
+         * @return true if each subset of Y without one item of X is a frequent
+         *         generator with a support above the support of Y
+         */
+        private boolean subsetsAreGenerators(int size, int support) {
+            for (int x = 0; x < size; x++) {
+                // the prefix before x is in the trie, follow the items after it
+                int node = trie.find(nodes[x], itemset, x + 1, size + 2);
+                if (node == GeneratorTrie.NONE || trie.support(node) <= support) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return The first items of an array, sorted
+     */
+    private static int[] sorted(int[] items, int length) {
+        int[] sorted = Arrays.copyOf(items, length);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
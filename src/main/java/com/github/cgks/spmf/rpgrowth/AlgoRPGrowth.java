@@ -24,14 +24,12 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
+import com.github.cgks.dataset.TransactionDataset;
+
 import ca.pfv.spmf.algorithms.frequentpatterns.fpgrowth.FPTree;
 import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
 import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
@@ -82,12 +80,27 @@ public class AlgoRPGrowth {
 		 private int[] itemsetBuffer = null;
 		 // another buffer for storing rpnodes in a single path of the tree
 		 private RPNode[] rpNodeTempBuffer = null;
+		 // buffer for storing the items of a prefix path
+		 private int[] pathBuffer = null;
+
+		 // The frequencies of the items of the conditional trees, reused from one
+		 // conditional tree to the next: one array per depth of the recursion
+		 // (index: item), and the items counted in each array, to clear it.
+		 private int[][] supportBuffers = null;
+		 private int[][] supportItems = null;
 
 		 // This buffer is used to store an itemset that will be written to file
 		 // so that the algorithm can sort the itemset before it is output to file
 		 // (when the user choose to output result to file).
 		 private int[] itemsetOutputBuffer = null;
 
+		 // The RP-Trees store the rank of each item by descending order of support
+		 // instead of the item itself (rank 0 is the most frequent item).
+		 // rankToItem gives back the item of a rank when an itemset is saved.
+		 private int[] rankToItem = null;
+		 // the rank of each item (index: item)
+		 private int[] itemToRank = null;
+
 		 /** maximum pattern length */
 		 private int maxPatternLength = 1000;
 		 
@@ -121,20 +134,21 @@ public class AlgoRPGrowth {
 		   MemoryLogger.getInstance().reset();
 		   MemoryLogger.getInstance().checkMemory();
 
-		   // if the user want to keep the result into memory
-		   if(output == null){
-		     writer = null;
-		     patterns =  new Itemsets("RARE ITEMSETS"); 
-		     }else{ // if the user want to save the result to a file
-		     patterns = null;
-		     writer = new BufferedWriter(new FileWriter(output));
-		     itemsetOutputBuffer = new int[BUFFERS_SIZE];
-		   }
+		   prepareOutput(output);
 
 		   // (1) PREPROCESSING: Initial database scan to determine the frequency of each item
 		   // The frequency is stored in a map:
 		   //    key: item   value: support
 		   final Map<Integer, Integer> mapSupport = scanDatabaseToDetermineFrequencyOfSingleItems(input);
+		   int[] items = new int[mapSupport.size()];
+		   int[] supports = new int[mapSupport.size()];
+		   int nbItems = 0;
+		   for(Map.Entry<Integer, Integer> entry : mapSupport.entrySet()){
+		     items[nbItems] = entry.getKey();
+		     supports[nbItems++] = entry.getValue();
+		   }
+		   // the support of each rank
+		   final int[] rankSupports = rankItems(items, supports);
 
 		   // convert the minimum support as percentage to a relative minimum support
 		   // convert the minimum rare support as percentage to a minimum rare support
@@ -145,7 +159,8 @@ public class AlgoRPGrowth {
 		   // Before inserting a transaction in the RPTree, we sort the items
 		   // by descending order of support.  We ignore items that
 		   // have over the minimum support.
-		   RPTree tree = new RPTree();
+		   RPTree tree = new RPTree(rankToItem.length);
+		   int[] transaction = new int[BUFFERS_SIZE];
 
 		   // read the file
 		   BufferedReader reader = new BufferedReader(new FileReader(input));
@@ -160,40 +175,34 @@ public class AlgoRPGrowth {
 		     }
 
 		     String[] lineSplited = line.split(" ");
-		     List<Integer> transaction = new ArrayList<Integer>();
+		     int length = 0;
 
 		     // for each item in the transaction
 		     for(String itemString : lineSplited){
-		       Integer item = Integer.parseInt(itemString);
+		       int rank = itemToRank[Integer.parseInt(itemString)];
 		// only add items that have less than or equal to the minimum support 
 	    // and more than or equal to the minimum rare support
-		       if(mapSupport.get(item) >= minRareSupportRelative){
+		       if(rankSupports[rank] >= minRareSupportRelative){
 		    	   //so the items being added are >= minRareSupportRelative
-		    	  transaction.add(item);}																
+		    	  if(length == transaction.length){
+		    	    transaction = Arrays.copyOf(transaction, length * 2);
+		    	  }
+		    	  transaction[length++] = rank;}
 		     }
 		
 		     // sort item in the transaction by descending order of support
-		     Collections.sort(transaction, new Comparator<Integer>(){ 
-		       public int compare(Integer item1, Integer item2){																	
-		         // compare the frequency
-		         int compare = mapSupport.get(item2) - mapSupport.get(item1);
-		         // if the same frequency, we check the lexical ordering!
-		         if(compare == 0){ 
-		           return (item1 - item2);}
-		         // otherwise, just use the frequency
-		         return compare;}	       
-		     });
+		     // (then lexical ordering), which is the increasing order of ranks
+		     Arrays.sort(transaction, 0, length);
 		     //Add the sorted items to the RP tree
 		     //If (last item in sorted transaction is < minRelSup, we accept the transaction)   		     
 		     //get the last item in transaction; because the last item in the transaction is the smallest count size
 		     
-		     	 if(!transaction.isEmpty()) {/* BUG FIX to account for a check against an empty transaction 01/29/2020 Blake Johns*/
-		     		 int myCheck = transaction.get(transaction.size() - 1);
+		     	 if(length > 0) {/* BUG FIX to account for a check against an empty transaction 01/29/2020 Blake Johns*/
 		     		 //take item and get its count
-		     		 int count = mapSupport.get(myCheck);
+		     		 int count = rankSupports[transaction[length - 1]];
 		     		 //if the last item is below minSupportRelative then it is Rare by our definition, so it is of interest and added to the tree
 		     		 if(count < this.minSupportRelative) {
-		     			 tree.addTransaction(transaction);
+		     			 tree.addTransaction(transaction, 0, length);
 		     		 }	    	 
 		     	 }
 		   }
@@ -201,21 +210,154 @@ public class AlgoRPGrowth {
 		   // close the input file
 		   reader.close();
 
+		   return mineTree(tree, rankSupports);
+		 }
+
+		 /**
+		  * Method to run the RPGRowth algorithm on a dataset that is already loaded in memory
+		  * (e.g. from the DatasetCache). The dataset is not read from a file and the item supports
+		  * are not recounted, so the database is scanned only once, to build the RP-Tree.
+		  * The transactions are read from the view of the dataset recoded by descending frequency,
+		  * whose items are already ranks in the order of insertion in the RP-Tree.
+		  * @param dataset the transaction database, with its precomputed item supports.
+		  * @param output the output file path for saving the result (if null, the result
+		  *        will be returned by the method instead of being saved).
+		  * @param minsupp the minimum support threshold.
+		  * @param minraresupp the minimum rare support threshold.
+		  * @return the result if no output file path is provided.
+		  * @throws IOException exception if error writing the output file
+		  */
+		 public Itemsets runAlgorithm(TransactionDataset dataset, String output, double minsupp, double minraresupp) throws IOException {
+		   // record start time
+		   startTimestamp = System.currentTimeMillis();
+		   // number of itemsets found
+		   itemsetCount = 0;
+
+		   //initialize tool to record memory usage
+		   MemoryLogger.getInstance().reset();
+		   MemoryLogger.getInstance().checkMemory();
+
+		   prepareOutput(output);
+
+		   // (1) The support of each item was computed when the dataset was loaded,
+		   // and the items were numbered by descending order of support
+		   transactionCount = dataset.getNbTransactions();
+		   TransactionDataset recoded = dataset.getFrequencyRecoded().getDataset();
+		   rankToItem = dataset.getFrequencyRecoded().getRankToItem();
+		   // the support of each rank
+		   final int[] rankSupports = recoded.getItemSupports();
+
+		   // convert the minimum support as percentage to a relative minimum support
+		   // convert the minimum rare support as percentage to a minimum rare support
+		   this.minRareSupportRelative = (int) Math.ceil(minraresupp * transactionCount);
+		   this.minSupportRelative = (int) Math.ceil(minsupp * transactionCount);
+
+		   // (2) Build the initial RP-Tree, with the same filtering and ordering
+		   // of the items as when reading the file
+		   RPTree tree = new RPTree(rankToItem.length);
+		   int[] offsets = recoded.getOffsets();
+		   int[] transactionItems = recoded.getTransactionItems();
+		   for(int t = 0; t < transactionCount; t++){
+		     // the items of the transaction are sorted by descending order of support,
+		     // then by lexical ordering: the items below the minimum rare support
+		     // are at the end of the transaction
+		     int start = offsets[t];
+		     int end = offsets[t + 1];
+		     while(end > start && rankSupports[transactionItems[end - 1]] < minRareSupportRelative){
+		       end--;
+		     }
+		     if(end == start){
+		       continue;
+		     }
+
+		     // the last item has the smallest support: the transaction is of interest
+		     // only if it is below minSupportRelative
+		     if(rankSupports[transactionItems[end - 1]] < this.minSupportRelative){
+		       tree.addTransaction(transactionItems, start, end);
+		     }
+		   }
+
+		   return mineTree(tree, rankSupports);
+		 }
+
+		 /**
+		  * Number the items by descending order of support and, if the same support, by
+		  * lexical ordering: the order in which the items of a transaction are inserted in
+		  * the RP-Tree. The trees store these ranks instead of the items, so that transactions
+		  * are sorted with a primitive sort and header tables are arrays indexed by rank.
+		  * Initializes rankToItem and itemToRank. (Datasets loaded in memory come with this
+		  * numbering, see FrequencyRecodedDataset.)
+		  * @param items the distinct items of the database
+		  * @param supports the support of each item (at the same positions as items)
+		  * @return the support of each rank
+		  */
+		 private int[] rankItems(int[] items, int[] supports) {
+		   // sort keys packing (inverted support, item)
+		   long[] keys = new long[items.length];
+		   int maxItem = -1;
+		   for(int i = 0; i < items.length; i++){
+		     keys[i] = ((long) (Integer.MAX_VALUE - supports[i]) << 32) | items[i];
+		     maxItem = Math.max(maxItem, items[i]);
+		   }
+		   Arrays.sort(keys);
+
+		   rankToItem = new int[items.length];
+		   itemToRank = new int[maxItem + 1];
+		   int[] rankSupports = new int[items.length];
+		   for(int rank = 0; rank < keys.length; rank++){
+		     int item = (int) keys[rank];
+		     rankToItem[rank] = item;
+		     itemToRank[item] = rank;
+		     rankSupports[rank] = Integer.MAX_VALUE - (int) (keys[rank] >>> 32);
+		   }
+		   return rankSupports;
+		 }
+
+		 /**
+		  * Prepare the output of the algorithm: a file if a path is given, memory otherwise.
+		  * @param output the output file path, or null
+		  * @throws IOException exception if error opening the output file
+		  */
+		 private void prepareOutput(String output) throws IOException {
+		   // if the user want to keep the result into memory
+		   if(output == null){
+		     writer = null;
+		     patterns =  new Itemsets("RARE ITEMSETS"); 
+		     }else{ // if the user want to save the result to a file
+		     patterns = null;
+		     writer = new BufferedWriter(new FileWriter(output));
+		     itemsetOutputBuffer = new int[BUFFERS_SIZE];
+		   }
+
+		 }
+
+		 /**
+		  * Mine the initial RP-Tree and close the output.
+		  * @param tree the initial RP-Tree
+		  * @param rankSupports the support of each item (rank) of the database
+		  * @return the result if no output file path is provided.
+		  * @throws IOException exception if error writing the output file
+		  */
+		 private Itemsets mineTree(RPTree tree, int[] rankSupports) throws IOException {
 		   // We create the header table for the tree using the calculated support of single items
-		   tree.createHeaderList(mapSupport);
+		   tree.createHeaderList(rankSupports);
 		  
 		   // (5) We start to mine the RP-Tree by calling the recursive method.
 		   // Initially, the prefix alpha is empty.
 		   // if at least one item is not frequent
-		   if(tree.headerList.size() > 0) {
+		   if(tree.headerList.length > 0) {
 		     // initialize the buffer for storing the current itemset
 		     itemsetBuffer = new int[BUFFERS_SIZE];
 		     // and another buffer
 		     rpNodeTempBuffer = new RPNode[BUFFERS_SIZE];
+		     // and the buffers used to build conditional trees
+		     pathBuffer = new int[rankToItem.length];
+		     supportBuffers = new int[BUFFERS_SIZE][];
+		     supportItems = new int[BUFFERS_SIZE][];
 		     // recursively generate rare itemsets using the RP-tree
 		     // Note: we assume that the initial RP-Tree has more than one path
 		     // which should generally be the case.
-		     rpgrowth(tree, itemsetBuffer, 0, transactionCount, mapSupport);
+		     rpgrowth(tree, itemsetBuffer, 0, transactionCount, rankSupports);
 		   }
 
 		   // close the output file if the result was saved to a file
@@ -238,10 +380,10 @@ public class AlgoRPGrowth {
 		  * Mine an RP-Tree having more than one path.
 		  * @param tree  the RP-tree
 		  * @param prefix  the current prefix, named "alpha"
-		  * @param mapSupport the frequency of items in the RP-Tree
+		  * @param supports the frequency of items in the RP-Tree (index: item)
 		  * @throws IOException  exception if error writing the output file
 		  */
-		 private void rpgrowth(RPTree tree, int [] prefix, int prefixLength, int prefixSupport, Map<Integer, Integer> mapSupport) throws IOException {
+		 private void rpgrowth(RPTree tree, int [] prefix, int prefixLength, int prefixSupport, int[] supports) throws IOException {
 
 		   if(prefixLength == maxPatternLength)
 			   return;
@@ -263,16 +405,16 @@ public class AlgoRPGrowth {
 		   // if there is one
 		   int position = 0;
 		   // if the root has more than one child, than it is not a single path
-		   if(tree.root.childs.size() > 1) {
+		   if(tree.root.childCount > 1) {
 		     singlePath = false;
 		   }else {
 		     // Otherwise,
 		     // if the root has exactly one child, we need to recursively check children
 		     // of the child to see if they also have one child
-		     RPNode currentNode = tree.root.childs.get(0);
+		     RPNode currentNode = tree.root.childs[0];
 		     while(true){
 		       // if the current child has more than one child, it is not a single path!
-		       if(currentNode.childs.size() > 1) {
+		       if(currentNode.childCount > 1) {
 		         singlePath = false;
 		         break;
 		       }
@@ -283,10 +425,10 @@ public class AlgoRPGrowth {
 		       position++;
 		       // if this node has no child, that means that this is the end of this path
 		       // and it is a single path, so we break
-		       if(currentNode.childs.size() == 0) {
+		       if(currentNode.childCount == 0) {
 		         break;
 		       }
-		       currentNode = currentNode.childs.get(0);
+		       currentNode = currentNode.childs[0];
 		     }
 		   }
 		   // Case 1: the RPtree contains a single path
@@ -297,12 +439,12 @@ public class AlgoRPGrowth {
 		   }
 		   else {
 		     // For each rare item in the header table list of the tree in reverse order.
-		     for(int i = tree.headerList.size()-1; i>=0; i--){
+		     for(int i = tree.headerList.length-1; i>=0; i--){
 		       // get the item
-		       Integer item = tree.headerList.get(i);
+		       int item = tree.headerList[i];
 
 		       // get the item support
-		       int support = mapSupport.get(item);
+		       int support = supports[item];
 		       if((prefixLength == 0) && (support >= minSupportRelative))
 							return;
 		       // Create Beta by concatenating prefix Alpha by adding the current item to alpha
@@ -322,61 +464,49 @@ public class AlgoRPGrowth {
 		         // === (A) Construct beta's conditional pattern base ===
 		         // It is a sub-database which consists of the set of prefix paths
 		         // in the RP-tree co-occurring with the prefix pattern.
-		         List<List<RPNode>> prefixPaths = new ArrayList<List<RPNode>>();
-		         RPNode path = tree.mapItemNodes.get(item);
-
-		         // Map to count the support of items in the conditional prefix tree
-		         // Key: item   Value: support
-		         Map<Integer, Integer> mapSupportBeta = new HashMap<Integer, Integer>();
-		         
-		         while(path != null){
-		           // if the path is not just the root node
-		           if(path.parent.itemID != -1){
-		             // create the prefixpath
-		             List<RPNode> prefixPath = new ArrayList<RPNode>();
-		             // add this node.
-		             prefixPath.add(path);   // NOTE: we add it just to keep its support,
-		             // actually it should not be part of the prefixPath
-		             int pathCount = path.counter;
-
-		             //Recursively add all the parents of this node.
-		             RPNode parent = path.parent;
-		             while(parent.itemID != -1){
-		               prefixPath.add(parent);
-
-		               // FOR EACH PATTERN WE ALSO UPDATE THE ITEM SUPPORT AT THE SAME TIME
-		               // if the first time we see that node id
-		               if(mapSupportBeta.get(parent.itemID) == null){
-		                 // just add the path count
-		                 mapSupportBeta.put(parent.itemID, pathCount);
-		               }else{
-		                 // otherwise, make the sum with the value already stored
-		                 mapSupportBeta.put(parent.itemID, mapSupportBeta.get(parent.itemID) + pathCount);
-		               }
-		               parent = parent.parent;
+		         // A first pass over the node links of the item counts the support of
+		         // the items of the prefix paths, in an array reused for each conditional
+		         // tree at this depth (index: item   value: support)
+		         int depth = prefixLength + 1;
+		         if(supportBuffers[depth] == null){
+		           supportBuffers[depth] = new int[rankToItem.length];
+		           supportItems[depth] = new int[rankToItem.length];
+		         }
+		         int[] supportBeta = supportBuffers[depth];
+		         int[] countedItems = supportItems[depth];
+		         int countedItemCount = 0;
+
+		         for(RPNode path = tree.itemNodes[item]; path != null; path = path.nodeLink){
+		           int pathCount = path.counter;
+		           // update the support of all the parents of this node
+		           // (if the path is just the root node, there is nothing to count)
+		           for(RPNode parent = path.parent; parent.itemID != -1; parent = parent.parent){
+		             if(supportBeta[parent.itemID] == 0){
+		               countedItems[countedItemCount++] = parent.itemID;
 		             }
-		             // add the path to the list of prefix paths
-		             prefixPaths.add(prefixPath);
+		             supportBeta[parent.itemID] += pathCount;
 		           }
-		           // We will look for the next prefix path
-		           path = path.nodeLink;
 		         }
 
 		         // (B) Construct beta's conditional RP-Tree
-		         // Create the tree.
-		         RPTree treeBeta = new RPTree();
-		         // Add each prefix path in the RP-tree.
-		         for(List<RPNode> prefixPath : prefixPaths){
-		           treeBeta.addPrefixPath(prefixPath, mapSupportBeta, minSupportRelative, minRareSupportRelative); 
+		         // Create the tree (the ancestors of an item always have a smaller rank).
+		         RPTree treeBeta = new RPTree(item);
+		         // A second pass over the node links adds each prefix path to the tree.
+		         for(RPNode path = tree.itemNodes[item]; path != null; path = path.nodeLink){
+		           treeBeta.addPrefixPath(path, supportBeta, minSupportRelative, minRareSupportRelative, pathBuffer); 
 		         }
 
 		         // Mine recursively the Beta tree if the root has child(s)
-		         if(treeBeta.root.childs.size() > 0){
+		         if(treeBeta.root.childCount > 0){
 		           // Create the header list.
-		           treeBeta.createHeaderList(mapSupportBeta);
+		           treeBeta.createHeaderList(supportBeta);
 		        
 		           // recursive call
-		           rpgrowth(treeBeta, prefix, prefixLength+1, betaSupport, mapSupportBeta);	         
+		           rpgrowth(treeBeta, prefix, prefixLength+1, betaSupport, supportBeta);	         
+		         }
+		         // clear the supports for the next conditional tree at this depth
+		         for(int k = 0; k < countedItemCount; k++){
+		           supportBeta[countedItems[k]] = 0;
 		         }		        
 		       }
 		     }
@@ -482,8 +612,10 @@ public class AlgoRPGrowth {
 
 		   // if the result should be saved to a file
 		   if(writer != null){
-		     // copy the item set in the output buffer and sort items
-		     System.arraycopy(itemset, 0, itemsetOutputBuffer, 0, itemsetLength);
+		     // copy the items of the item set (stored as ranks) in the output buffer and sort items
+		     for(int i=0; i< itemsetLength; i++){
+		       itemsetOutputBuffer[i] = rankToItem[itemset[i]];
+		     }
 		     Arrays.sort(itemsetOutputBuffer, 0, itemsetLength);
 
 		     // Create a string buffer
@@ -507,7 +639,9 @@ public class AlgoRPGrowth {
 		     // create an object Itemset and add it to the set of patterns
 		     // found.
 		     int[] itemsetArray = new int[itemsetLength];
-		     System.arraycopy(itemset, 0, itemsetArray, 0, itemsetLength);
+		     for(int i=0; i< itemsetLength; i++){
+		       itemsetArray[i] = rankToItem[itemset[i]];
+		     }
 
 		     // sort the itemset so that it is sorted according to lexical ordering before we show it to the user
 		     Arrays.sort(itemsetArray);
@@ -0,0 +1,706 @@
+package com.github.cgks.spmf.rpgrowth;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+import com.github.cgks.ResultSink;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.spmf.ItemsetsSink;
+import com.github.cgks.spmf.PatternBuffer;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+import ca.pfv.spmf.tools.MemoryLogger;
+
+/**
+ * RP-Growth on arena-based RP-Trees (see RPTreeArena): the same rare itemsets as
+ * AlgoRPGrowth, without allocating tree nodes.
+ *
+ * The conditional trees built by the recursion are taken from the Miner of the
+ * run (of the worker thread, in a parallel run), which holds one RPTreeArena per
+ * recursion depth and is dropped with the run; they are built in two passes over
+ * the node links of the conditioning item (count the item supports, then insert
+ * the filtered prefix paths), so mining allocates nothing once the arenas have
+ * grown to the size of the largest conditional trees, besides the itemsets
+ * that are found.
+ *
+ * With a parallelism above 1, the conditional trees of the header items of the
+ * initial tree are mined by RecursiveTasks on a ForkJoinPool dedicated to the
+ * run, and split again down to the split depth, so that idle threads steal the
+ * subtrees of the largest items. Each task has its own buffers (the ones of
+ * its worker thread) and its own PatternBuffer of itemsets: the buffers are
+ * merged in the order of the tasks, so that the itemsets are found in the same
+ * order as by a sequential run. The tasks of the initial tree are run at most
+ * TASKS_AHEAD per thread ahead of the one whose itemsets are saved next, so
+ * that the itemsets held by the tasks done before their turn are bounded.
+ *
+ * @see AlgoRPGrowth
+ * @see RPTreeArena
+ */
+public class AlgoRPGrowthArena {
+
+	/** Depth down to which the search is split into tasks, by default. */
+	public static final int DEFAULT_SPLIT_DEPTH = 2;
+
+	// The number of tasks of the initial tree run per thread ahead of the one
+	// whose itemsets are saved next
+	private static final int TASKS_AHEAD = 4;
+
+	// The longest single path whose subsets are enumerated as the bits of a long;
+	// a longer path is mined as any other tree
+	private static final int MAX_SINGLE_PATH = 62;
+
+	//for statistics
+	private long startTimestamp; // start time of the latest execution
+	private long endTime; // end time of the latest execution
+	private int transactionCount = 0; // transaction count in the database
+	private int itemsetCount; // number of rare itemsets found
+
+	// parameter
+	public int minRareSupportRelative;//the relative minimum rare support
+	public int minSupportRelative; // the relative minimum support
+
+	BufferedWriter writer = null; // object to write the output file
+
+	// The sink receiving the patterns that are found
+	// (if the user does not save them to a file)
+	protected ResultSink sink = null;
+
+	// This variable is used to determine the size of buffers to store itemsets.
+	final int BUFFERS_SIZE = 2000;
+
+	// buffer used to sort an itemset before it is written to file
+	private int[] itemsetOutputBuffer = null;
+
+	// The trees store the rank of each item by descending order of support
+	// instead of the item itself; rankToItem gives back the item of a rank
+	private int[] rankToItem = null;
+
+	/** maximum pattern length */
+	private int maxPatternLength = 1000;
+
+	/** minimum pattern length */
+	private int minPatternLength = 0;
+
+	/** the number of threads, and the depth down to which the search is split into tasks */
+	private int parallelism = 1;
+	private int splitDepth = DEFAULT_SPLIT_DEPTH;
+
+	/** the check polled during the mining, returning true if it must stop */
+	private BooleanSupplier cancellationChecker = () -> false;
+
+	// The buffers of the worker threads of a parallel run
+	private ThreadLocal<Miner> miners = null;
+
+	/**
+	 * Constructor
+	 */
+	public AlgoRPGrowthArena() {
+
+	}
+
+	/**
+	 * Method to run the RPGRowth algorithm on a dataset loaded in memory.
+	 * @param dataset the transaction database, with its precomputed item supports.
+	 * @param output the output file path for saving the result (if null, the result
+	 *        will be returned by the method instead of being saved).
+	 * @param minsupp the minimum support threshold.
+	 * @param minraresupp the minimum rare support threshold.
+	 * @return the result if no output file path is provided.
+	 * @throws IOException exception if error writing the output file
+	 */
+	public Itemsets runAlgorithm(TransactionDataset dataset, String output, double minsupp, double minraresupp) throws IOException {
+		// if the user want to keep the result into memory
+		if(output == null){
+			ItemsetsSink patterns = new ItemsetsSink("RARE ITEMSETS");
+			runAlgorithm(dataset, minsupp, minraresupp, patterns);
+			return patterns.getItemsets();
+		}
+
+		// if the user want to save the result to a file
+		writer = new BufferedWriter(new FileWriter(output));
+		itemsetOutputBuffer = new int[BUFFERS_SIZE];
+		try {
+			mine(dataset, minsupp, minraresupp);
+		} finally {
+			writer.close();
+			writer = null;
+		}
+		return null;
+	}
+
+	/**
+	 * Method to run the RPGRowth algorithm on a dataset loaded in memory, pushing
+	 * the rare itemsets to a sink as they are found. The itemsets of a parallel
+	 * run are pushed in the order of a sequential run, from the calling thread.
+	 * @param dataset the transaction database, with its precomputed item supports.
+	 * @param minsupp the minimum support threshold.
+	 * @param minraresupp the minimum rare support threshold.
+	 * @param sink the sink receiving the rare itemsets, with their items sorted.
+	 */
+	public void runAlgorithm(TransactionDataset dataset, double minsupp, double minraresupp, ResultSink sink) {
+		this.sink = sink;
+		try {
+			mine(dataset, minsupp, minraresupp);
+		} catch (IOException e) {
+			// not thrown: the itemsets are not written to a file
+			throw new UncheckedIOException(e);
+		} finally {
+			this.sink = null;
+		}
+	}
+
+	/**
+	 * Mine the rare itemsets of a dataset, saving them to the output file or to the sink.
+	 */
+	private void mine(TransactionDataset dataset, double minsupp, double minraresupp) throws IOException {
+		// record start time
+		startTimestamp = System.currentTimeMillis();
+		// number of itemsets found
+		itemsetCount = 0;
+
+		//initialize tool to record memory usage
+		MemoryLogger.getInstance().reset();
+		MemoryLogger.getInstance().checkMemory();
+
+		// (1) The items numbered by descending order of support
+		transactionCount = dataset.getNbTransactions();
+		TransactionDataset recoded = dataset.getFrequencyRecoded().getDataset();
+		rankToItem = dataset.getFrequencyRecoded().getRankToItem();
+		final int[] rankSupports = recoded.getItemSupports();
+
+		// convert the minimum support as percentage to a relative minimum support
+		// convert the minimum rare support as percentage to a minimum rare support
+		this.minRareSupportRelative = (int) Math.ceil(minraresupp * transactionCount);
+		this.minSupportRelative = (int) Math.ceil(minsupp * transactionCount);
+
+		// (2) Build the initial RP-Tree: the transactions whose least frequent item
+		// is rare, without the items below the minimum rare support
+		RPTreeArena tree = new RPTreeArena(rankToItem.length, transactionCount);
+		int[] offsets = recoded.getOffsets();
+		int[] transactionItems = recoded.getTransactionItems();
+		for(int t = 0; t < transactionCount; t++){
+			// the items are sorted by descending order of support, then lexical
+			// ordering: the items below the minimum rare support are at the end
+			int start = offsets[t];
+			int end = offsets[t + 1];
+			while(end > start && rankSupports[transactionItems[end - 1]] < minRareSupportRelative){
+				end--;
+			}
+			if(end > start && rankSupports[transactionItems[end - 1]] < this.minSupportRelative){
+				tree.addTransaction(transactionItems, start, end);
+			}
+		}
+		tree.createHeaderList(rankSupports);
+
+		// (3) Mine the RP-Tree, starting from an empty prefix
+		if(tree.headerLength > 0 && parallelism == 1) {
+			Miner miner = new Miner();
+			miner.rpgrowth(tree, miner.itemsetBuffer, 0, transactionCount, rankSupports);
+		}else if(tree.headerLength > 0) {
+			// one task per rare item of the header table, in the order of a sequential run
+			miners = ThreadLocal.withInitial(Miner::new);
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				List<Task> tasks = subtasks(tree, new int[0], transactionCount, rankSupports);
+				int started = Math.min(tasks.size(), parallelism * TASKS_AHEAD);
+				for(int i = 0; i < started; i++){
+					pool.execute(tasks.get(i));
+				}
+				for(int i = 0; i < tasks.size(); i++){
+					// release the itemsets of each task once they are saved,
+					// and start the next task in its place
+					PatternBuffer found = tasks.set(i, null).join();
+					if(started < tasks.size()){
+						pool.execute(tasks.get(started++));
+					}
+					saveItemsets(found);
+				}
+			} finally {
+				pool.shutdownNow();
+				miners = null;
+			}
+		}
+
+		// record the execution end time
+		endTime = System.currentTimeMillis();
+
+		// check the memory usage
+		MemoryLogger.getInstance().checkMemory();
+	}
+
+	/**
+	 * The buffers used to mine an RP-Tree: one per sequential run, or one per
+	 * worker thread of a parallel run, reused by all the tasks of the thread.
+	 */
+	private final class Miner {
+		// buffer for storing the current itemset that is mined when performing mining
+		final int[] itemsetBuffer = new int[BUFFERS_SIZE];
+		// buffers for storing the items and counters of the nodes of a single path of a tree
+		private final int[] singlePathItems = new int[BUFFERS_SIZE];
+		private final int[] singlePathCounts = new int[BUFFERS_SIZE];
+		// buffer for storing the items of a prefix path, from the root
+		private final int[] pathBuffer = new int[Math.max(BUFFERS_SIZE, rankToItem.length)];
+		// The arenas of the conditional trees
+		// index: depth of the recursion (length of the prefix of the conditional tree)
+		private final List<RPTreeArena> arenas = new ArrayList<>();
+
+		// The itemsets found by the current task of a parallel run
+		// (null in a sequential run: the itemsets are saved as they are found)
+		PatternBuffer found = null;
+
+		/**
+		 * Get the arena of the conditional trees of a recursion depth.
+		 * @param depth the length of the prefix of the conditional tree
+		 * @param nbItems an upper bound on the item ids of the conditional tree
+		 * @return an empty tree
+		 */
+		RPTreeArena conditionalTree(int depth, int nbItems) {
+			while(arenas.size() <= depth){
+				arenas.add(null);
+			}
+			RPTreeArena arena = arenas.get(depth);
+			if(arena == null){
+				arena = new RPTreeArena(nbItems, 64);
+				arenas.set(depth, arena);
+			}else{
+				arena.reset(nbItems);
+			}
+			return arena;
+		}
+
+		/**
+		 * Mine an RP-Tree.
+		 * @param tree  the RP-tree
+		 * @param prefix  the current prefix, named "alpha"
+		 * @param prefixLength the length of the prefix
+		 * @param prefixSupport the support of the prefix
+		 * @param supports the frequency of items in the RP-Tree (index: item)
+		 * @throws IOException  exception if error writing the output file
+		 */
+		void rpgrowth(RPTreeArena tree, int[] prefix, int prefixLength, int prefixSupport, int[] supports) throws IOException {
+
+			if(prefixLength == maxPatternLength)
+				return;
+
+			// Case 1: the RPtree contains a single path
+			//If the prefix is NOT the root and there is a single path
+			int position = singlePath(tree);
+			if ((position >= 0) && (prefixLength > 0))
+			{
+				saveAllCombinationsOfPrefixPath(position, prefix, prefixLength);
+				return;
+			}
+
+			// For each rare item in the header table list of the tree in reverse order.
+			for(int i = tree.headerLength-1; i>=0; i--){
+				checkCancelled();
+				int item = tree.headerList[i];
+
+				// get the item support
+				int support = supports[item];
+				if((prefixLength == 0) && (support >= minSupportRelative))
+					return;
+				// Create Beta by concatenating prefix Alpha by adding the current item to alpha
+				prefix[prefixLength] = item;
+
+				// calculate the support of the new prefix beta
+				int betaSupport = (prefixSupport < support) ? prefixSupport: support;
+
+				//If not the root OR support < minimum relative support; save item set
+				if ((prefixLength > 0) || (support < minSupportRelative))
+					save(prefix, prefixLength+1, betaSupport);
+
+				if(prefixLength+1 < maxPatternLength){
+					// Construct beta's conditional RP-Tree
+					// (the ancestors of an item always have a smaller rank)
+					RPTreeArena treeBeta = conditionalTree(prefixLength + 1, item);
+					buildConditionalTree(tree, item, treeBeta);
+
+					// Mine recursively the Beta tree if the root has child(s)
+					if(!treeBeta.isEmpty()){
+						treeBeta.createHeaderList(treeBeta.supports);
+						rpgrowth(treeBeta, prefix, prefixLength+1, betaSupport, treeBeta.supports);
+					}
+				}
+			}
+		}
+
+		/**
+		 * This method saves all combinations of a single path, following the prefix.
+		 * @param position the number of nodes of the path (stored in singlePathItems and
+		 *        singlePathCounts), at most MAX_SINGLE_PATH
+		 * @param prefix the current prefix
+		 * @param prefixLength the current prefix length
+		 * @throws IOException if exception while writing to output file
+		 */
+		private void saveAllCombinationsOfPrefixPath(int position,
+				int[] prefix, int prefixLength) throws IOException {
+			int support = 0;
+			// the number of items that can still be added to the prefix
+			int maxItems = maxPatternLength - prefixLength;
+			// Generate all subsets of the path except the empty set
+			// and output them
+			// We use bits to generate all subsets.
+	loop1:	for (long i = 1, max = 1L << position; i < max; i++) {
+				// skip the subsets having too many items: adding its lowest set bit to i
+				// jumps over values that only differ from i by lower bits, so that have
+				// even more items
+				while (Long.bitCount(i) > maxItems) {
+					i += i & -i;
+				}
+				if (i >= max) {
+					break;
+				}
+				// we create a new subset
+				int newPrefixLength = prefixLength;
+				// for each bit
+				for (int j = 0; j < position; j++) {
+					// check if the j bit is set to 1
+					// if yes, add the bit position as an item to the new subset
+					if ((i & (1L << j)) != 0) {
+						if(newPrefixLength == maxPatternLength){
+							continue loop1;
+						}
+						prefix[newPrefixLength++] = singlePathItems[j];
+						support = singlePathCounts[j];
+					}
+				}
+				// save the item set
+				save(prefix, newPrefixLength, support);
+			}
+		}
+
+		/**
+		 * Check if an RP-Tree is a single path, and copy its nodes in the single path buffers.
+		 * @param tree the RP-tree
+		 * @return the number of nodes of the path, or -1 if the tree is not a single path
+		 *         of at most MAX_SINGLE_PATH nodes
+		 */
+		int singlePath(RPTreeArena tree) {
+			if(!tree.hasAtMostOneChild(RPTreeArena.ROOT)) {
+				return -1;
+			}
+			// This variable is used to count the number of items in the single path
+			int position = 0;
+			int currentNode = tree.firstChild[RPTreeArena.ROOT];
+			while(currentNode != RPTreeArena.NONE){
+				// if the current child has more than one child, it is not a single path!
+				// nor is a path too long for its subsets to be enumerated
+				if(!tree.hasAtMostOneChild(currentNode) || position == MAX_SINGLE_PATH) {
+					return -1;
+				}
+				// otherwise, we copy the current node in the buffers and move to the child
+				singlePathItems[position] = tree.item[currentNode];
+				singlePathCounts[position] = tree.count[currentNode];
+				position++;
+				currentNode = tree.firstChild[currentNode];
+			}
+			return position;
+		}
+
+		/**
+		 * Build the conditional RP-Tree of an item, in two passes over its node links.
+		 * @param tree the RP-tree
+		 * @param item the item
+		 * @param treeBeta an empty tree, that receives the conditional tree
+		 */
+		void buildConditionalTree(RPTreeArena tree, int item, RPTreeArena treeBeta) {
+			// (A) First pass over the node links: the support of the items
+			// of beta's conditional pattern base
+			for(int node = tree.itemNodes[item]; node != RPTreeArena.NONE; node = tree.nodeLink[node]){
+				int pathCount = tree.count[node];
+				for(int parent = tree.parent[node]; parent != RPTreeArena.ROOT; parent = tree.parent[parent]){
+					treeBeta.addSupport(tree.item[parent], pathCount);
+				}
+			}
+			int[] supportBeta = treeBeta.supports;
+
+			// (B) Second pass: insert each prefix path, keeping only its rare items
+			for(int node = tree.itemNodes[item]; node != RPTreeArena.NONE; node = tree.nodeLink[node]){
+				// collect the path from the node to the root, then reverse it
+				int length = 0;
+				for(int parent = tree.parent[node]; parent != RPTreeArena.ROOT; parent = tree.parent[parent]){
+					int pathItem = tree.item[parent];
+					if(supportBeta[pathItem] < minSupportRelative && supportBeta[pathItem] >= minRareSupportRelative){
+						pathBuffer[length++] = pathItem;
+					}
+				}
+				for(int low = 0, high = length - 1; low < high; low++, high--){
+					int swap = pathBuffer[low];
+					pathBuffer[low] = pathBuffer[high];
+					pathBuffer[high] = swap;
+				}
+				treeBeta.addPath(pathBuffer, 0, length, tree.count[node]);
+			}
+		}
+
+		/**
+		 * Save a rare itemset that is found, or add it to the itemsets of the current task.
+		 */
+		private void save(int[] itemset, int itemsetLength, int support) throws IOException {
+			if(found == null){
+				saveItemset(itemset, itemsetLength, support);
+			}else if(itemsetLength >= minPatternLength){
+				found.accept(toItems(itemset, itemsetLength), support);
+			}
+		}
+	}
+
+	/**
+	 * Create the tasks mining the conditional trees of the rare items of the
+	 * header table of an RP-Tree, in the order of a sequential run.
+	 * @param tree the RP-tree
+	 * @param prefix the prefix of the tree
+	 * @param prefixSupport the support of the prefix
+	 * @param supports the frequency of items in the RP-Tree (index: item)
+	 * @return the tasks
+	 */
+	private List<Task> subtasks(RPTreeArena tree, int[] prefix, int prefixSupport, int[] supports) {
+		List<Task> tasks = new ArrayList<>();
+		for(int i = tree.headerLength-1; i>=0; i--){
+			int item = tree.headerList[i];
+			int support = supports[item];
+			if((prefix.length == 0) && (support >= minSupportRelative))
+				break;
+			int[] beta = Arrays.copyOf(prefix, prefix.length + 1);
+			beta[prefix.length] = item;
+			tasks.add(new Task(tree, item, beta, Math.min(prefixSupport, support)));
+		}
+		return tasks;
+	}
+
+	/**
+	 * Mines the itemsets starting with a prefix "beta", made of the prefix of an
+	 * RP-Tree and an item of its header table: beta's conditional tree is split
+	 * into new tasks above the split depth, mined by the buffers of the worker
+	 * thread below it. The RP-Tree is only read, by all the tasks of its items.
+	 */
+	private final class Task extends RecursiveTask<PatternBuffer> {
+		private static final long serialVersionUID = 1L;
+
+		private final RPTreeArena tree;
+		private final int item;
+		private final int[] beta;
+		private final int betaSupport;
+
+		Task(RPTreeArena tree, int item, int[] beta, int betaSupport) {
+			this.tree = tree;
+			this.item = item;
+			this.beta = beta;
+			this.betaSupport = betaSupport;
+		}
+
+		@Override
+		protected PatternBuffer compute() {
+			checkCancelled();
+			Miner miner = miners.get();
+			PatternBuffer found = new PatternBuffer();
+			if(beta.length >= minPatternLength){
+				found.accept(toItems(beta, beta.length), betaSupport);
+			}
+			if(beta.length >= maxPatternLength){
+				return found;
+			}
+
+			// Below the split depth, beta's conditional tree is an arena of the
+			// thread, which will not run any other task before this one is done
+			boolean split = beta.length < splitDepth;
+			RPTreeArena treeBeta = split ? new RPTreeArena(item, 64) : miner.conditionalTree(beta.length, item);
+			miner.buildConditionalTree(tree, item, treeBeta);
+			if(treeBeta.isEmpty()){
+				return found;
+			}
+			treeBeta.createHeaderList(treeBeta.supports);
+
+			if(!split || miner.singlePath(treeBeta) >= 0){
+				System.arraycopy(beta, 0, miner.itemsetBuffer, 0, beta.length);
+				miner.found = found;
+				try {
+					miner.rpgrowth(treeBeta, miner.itemsetBuffer, beta.length, betaSupport, treeBeta.supports);
+				} catch (IOException e) {
+					// not thrown: tasks do not write to the output file
+					throw new UncheckedIOException(e);
+				} finally {
+					miner.found = null;
+				}
+				return found;
+			}
+
+			List<Task> tasks = subtasks(treeBeta, beta, betaSupport, treeBeta.supports);
+			invokeAll(tasks);
+			for(Task task : tasks){
+				found.addAll(task.join());
+			}
+			return found;
+		}
+	}
+
+	/**
+	 * Stop the mining if the cancellation checker returns true.
+	 * @throws CancellationException if the mining was cancelled
+	 */
+	private void checkCancelled() {
+		if(cancellationChecker.getAsBoolean()){
+			throw new CancellationException("The run was cancelled");
+		}
+	}
+
+	/**
+	 * Write a rare item set that is found to the output file or
+	 * keep into memory if the user prefer that the result be saved into memory.
+	 */
+	private void saveItemset(int [] itemset, int itemsetLength, int support) throws IOException {
+		if (itemsetLength < minPatternLength) {
+			return;
+		}
+
+		// increase the number of item sets found for statistics purpose
+		itemsetCount++;
+
+		// if the result should be saved to a file
+		if(writer != null){
+			// copy the items of the item set (stored as ranks) in the output buffer and sort items
+			for(int i=0; i< itemsetLength; i++){
+				itemsetOutputBuffer[i] = rankToItem[itemset[i]];
+			}
+			Arrays.sort(itemsetOutputBuffer, 0, itemsetLength);
+
+			StringBuilder buffer = new StringBuilder();
+			for(int i=0; i< itemsetLength; i++){
+				buffer.append(itemsetOutputBuffer[i]);
+				if(i != itemsetLength-1){
+					buffer.append(' ');
+				}
+			}
+			buffer.append(" #SUP: ");
+			buffer.append(support);
+			writer.write(buffer.toString());
+			writer.newLine();
+		}// otherwise the result is kept into memory
+		else{
+			sink.accept(toItems(itemset, itemsetLength), support);
+		}
+	}
+
+	/**
+	 * Save the rare itemsets found by a task of a parallel run, in order.
+	 */
+	private void saveItemsets(PatternBuffer found) throws IOException {
+		itemsetCount += found.size();
+		if(writer == null){
+			found.deliverTo(sink);
+			return;
+		}
+		for(int k = 0; k < found.size(); k++){
+			int[] items = found.getPattern(k);
+			StringBuilder buffer = new StringBuilder();
+			for(int i=0; i< items.length; i++){
+				buffer.append(items[i]);
+				if(i != items.length-1){
+					buffer.append(' ');
+				}
+			}
+			buffer.append(" #SUP: ");
+			buffer.append(found.getSupport(k));
+			writer.write(buffer.toString());
+			writer.newLine();
+		}
+	}
+
+	/**
+	 * Translate an itemset of ranks back to items.
+	 * @return the items, sorted according to lexical ordering before we show them to the user
+	 */
+	private int[] toItems(int[] itemset, int itemsetLength) {
+		int[] itemsetArray = new int[itemsetLength];
+		for(int i=0; i< itemsetLength; i++){
+			itemsetArray[i] = rankToItem[itemset[i]];
+		}
+		Arrays.sort(itemsetArray);
+		return itemsetArray;
+	}
+
+	/**
+	 * Print statistics about the algorithm execution to System.out.
+	 */
+	public void printStats() {
+		System.out.println("=============  RP-GROWTH (ARENA) - STATS =============");
+		long temps = endTime - startTimestamp;
+		System.out.println(" Transactions count from database : " + transactionCount);
+		System.out.print(" Max memory usage: " + MemoryLogger.getInstance().getMaxMemory() + " mb \n");
+		System.out.println(" Rare itemsets count : " + itemsetCount);
+		System.out.println(" Total time ~ " + temps + " ms");
+		System.out.println("===================================================");
+	}
+
+	/**
+	 * Get the number of transactions in the last transaction database read.
+	 * @return the number of transactions.
+	 */
+	public int getDatabaseSize() {
+		return transactionCount;
+	}
+
+	/**
+	 * Set the maximum pattern length
+	 * @param length the maximum length
+	 */
+	public void setMaximumPatternLength(int length) {
+		maxPatternLength = length;
+	}
+
+	/**
+	 * Set the minimum pattern length
+	 * @param minPatternLength the minimum length
+	 */
+	public void setMinimumPatternLength(int minPatternLength) {
+		this.minPatternLength = minPatternLength;
+	}
+
+	/**
+	 * Set the number of threads mining the RP-Tree (1 by default: the tree is
+	 * mined by the calling thread).
+	 * @param parallelism the number of threads
+	 * @throws IllegalArgumentException if parallelism is not positive
+	 */
+	public void setParallelism(int parallelism) {
+		if(parallelism < 1){
+			throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Set the depth down to which the search is split into tasks in a parallel
+	 * run: 1 for one task per rare item of the initial tree, 2 to also split
+	 * the conditional tree of each item.
+	 * @param splitDepth the split depth, at least 1
+	 * @throws IllegalArgumentException if splitDepth is not positive
+	 */
+	public void setSplitDepth(int splitDepth) {
+		if(splitDepth < 1){
+			throw new IllegalArgumentException("splitDepth must be at least 1: " + splitDepth);
+		}
+		this.splitDepth = splitDepth;
+	}
+
+	/**
+	 * Set the check polled while the trees are mined, once per item of each
+	 * header table: once it returns true, the worker threads stop, the pool of
+	 * a parallel run is shut down and runAlgorithm throws a
+	 * CancellationException. The itemsets saved until then are kept.
+	 * @param cancellationChecker returns true if the mining must stop (never, by default)
+	 */
+	public void setCancellationChecker(BooleanSupplier cancellationChecker) {
+		this.cancellationChecker = cancellationChecker;
+	}
+}
@@ -18,8 +18,7 @@ package com.github.cgks.spmf.rpgrowth;
 */
 
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
 
@@ -29,6 +28,11 @@ import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
  * The original "FPNode" was created by Philippe Fournier-Viger and modified by 
  * Blake Johns and Ryan Benton
  * 
+ * The child nodes are indexed by item id without boxing: while a node has few
+ * children, their ids are kept in a small sorted array searched by binary search
+ * (most nodes of an RP-Tree have zero or one child); above MAX_SORTED_CHILDS
+ * children, the node switches to an open-addressing hash table.
+ * 
  * @see FPTree
  * @see RPTree
  * @see Itemset
@@ -36,13 +40,26 @@ import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
  * @author Ryan Benton, Blake Johns
  */
 public class RPNode {
+	// maximum number of children stored in a sorted array
+	static final int MAX_SORTED_CHILDS = 8;
+	// marks an empty slot of the hash table (item ids are never negative)
+	private static final int EMPTY = -1;
+	private static final int[] NO_ITEMS = new int[0];
+	private static final RPNode[] NO_NODES = new RPNode[0];
+
 	int itemID = -1;  // item id
 	int counter = 1;  // frequency counter  (a.k.a. support)
 	
 	// the parent node of that node or null if it is the root
 	RPNode parent = null; 
-	// the child nodes of that node
-	List<RPNode> childs = new ArrayList<RPNode>();
+	// the number of child nodes of that node
+	int childCount = 0;
+	// the item ids of the child nodes: sorted in the first childCount positions,
+	// or the keys of the hash table (EMPTY for a free slot) above MAX_SORTED_CHILDS
+	int[] childItems = NO_ITEMS;
+	// the child nodes, at the same positions as their item ids
+	// (while the node has a single child, it is childs[0])
+	RPNode[] childs = NO_NODES;
 	
 	RPNode nodeLink = null; // link to next node with the same item id (for the header table).
 	
@@ -58,16 +75,89 @@ public class RPNode {
 	 * If there is no such child, return null;
 	 */
 	RPNode getChildWithID(int id) {
-		// for each child node
-		for(RPNode child : childs){
-			// if the id is the one that we are looking for
-			if(child.itemID == id){
-				// return that node
-				return child;
+		if(childCount <= MAX_SORTED_CHILDS){
+			// binary search in the sorted child ids
+			int position = Arrays.binarySearch(childItems, 0, childCount, id);
+			return (position >= 0) ? childs[position] : null;
+		}
+		// linear probing in the hash table
+		int mask = childItems.length - 1;
+		for(int slot = hash(id) & mask; ; slot = (slot + 1) & mask){
+			int key = childItems[slot];
+			if(key == id){
+				return childs[slot];
+			}
+			if(key == EMPTY){
+				// if not found, return null
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Add a child to this node. The node must not already have a child with the same ID.
+	 * @param child the new child node
+	 */
+	void addChild(RPNode child) {
+		if(childCount < MAX_SORTED_CHILDS){
+			// insert the child in the sorted array
+			if(childCount == childItems.length){
+				int capacity = (childCount == 0) ? 1 : childCount * 2;
+				childItems = Arrays.copyOf(childItems, capacity);
+				childs = Arrays.copyOf(childs, capacity);
+			}
+			int position = -Arrays.binarySearch(childItems, 0, childCount, child.itemID) - 1;
+			System.arraycopy(childItems, position, childItems, position + 1, childCount - position);
+			System.arraycopy(childs, position, childs, position + 1, childCount - position);
+			childItems[position] = child.itemID;
+			childs[position] = child;
+		}else{
+			// too many children for a sorted array: use a hash table,
+			// kept at most half full
+			if(childCount == MAX_SORTED_CHILDS || (childCount + 1) * 2 > childItems.length){
+				rehash(Math.max(4 * MAX_SORTED_CHILDS, childItems.length * 2));
 			}
+			insert(child);
 		}
-		// if not found, return null
-		return null;
+		childCount++;
+	}
+
+	/**
+	 * Move the children to a new hash table.
+	 * @param capacity the size of the new table (a power of two)
+	 */
+	private void rehash(int capacity) {
+		RPNode[] oldChilds = childs;
+		childItems = new int[capacity];
+		Arrays.fill(childItems, EMPTY);
+		childs = new RPNode[capacity];
+		for(RPNode child : oldChilds){
+			if(child != null){
+				insert(child);
+			}
+		}
+	}
+
+	/**
+	 * Insert a child in the hash table.
+	 * @param child the child node
+	 */
+	private void insert(RPNode child) {
+		int mask = childItems.length - 1;
+		int slot = hash(child.itemID) & mask;
+		while(childItems[slot] != EMPTY){
+			slot = (slot + 1) & mask;
+		}
+		childItems[slot] = child.itemID;
+		childs[slot] = child;
+	}
+
+	/**
+	 * Spread the bits of an item id, so that consecutive ids do not fill consecutive slots.
+	 */
+	private static int hash(int id) {
+		int h = id * 0x9E3779B9;
+		return h ^ (h >>> 16);
 	}
 
 	/**
@@ -83,7 +173,9 @@ public class RPNode {
 		output.append(")\n");
 		String newIndent = indent + "   ";
 		for (RPNode child : childs) {
-			output.append(newIndent+ child.toString(newIndent));
+			if (child != null) {
+				output.append(newIndent+ child.toString(newIndent));
+			}
 		}
 		return output.toString();
 	}
@@ -18,12 +18,7 @@ package com.github.cgks.spmf.rpgrowth;
 * SPMF. If not, see <http://www.gnu.org/licenses/>.
 */
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
 import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
 
@@ -33,6 +28,10 @@ import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
  * The original "FP-Tree" was created by Philippe Fournier-Viger and modified by 
  * Blake Johns and Ryan Benton
  *
+ * The header table is made of arrays indexed by item id rather than maps, so
+ * item ids are expected to be small non-negative integers: AlgoRPGrowth stores
+ * the rank of each item (by descending support) instead of the item itself.
+ *
  * @see FPTree
  * @see RPNode
  * @see Itemset
@@ -42,14 +41,19 @@ import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
 
 public class RPTree {
 	// List of items in the header table
-		List<Integer> headerList = null;
+		int[] headerList = null;
+		
+		// First node of each item following the node links
+		// index: item   value: an rp tree node (null if the item is not in the tree)
+		RPNode[] itemNodes;
 		
-		// List of pairs (item, frequency) of the header table
-		Map<Integer, RPNode> mapItemNodes = new HashMap<Integer, RPNode>();
+		// Array that indicates the last node for each item using the node links
+		// index: item   value: an rp tree node
+		RPNode[] itemLastNodes;
 		
-		// Map that indicates the last node for each item using the node links
-		// key: item   value: an rp tree node
-		Map<Integer, RPNode> mapItemLastNode = new HashMap<Integer, RPNode>();
+		// The items that have at least one node in the tree, in order of insertion
+		int[] items = new int[16];
+		int itemCount = 0;
 		
 		// root of the tree
 		RPNode root = new RPNode(); // null node
@@ -58,18 +62,30 @@ public class RPTree {
 		 * Constructor
 		 */
 		public RPTree(){	
-			
+			this(16);
+		}
+
+		/**
+		 * Constructor
+		 * @param nbItems an upper bound on the item ids stored in the tree, to size the header table
+		 */
+		public RPTree(int nbItems){	
+			itemNodes = new RPNode[nbItems];
+			itemLastNodes = new RPNode[nbItems];
 		}
 
 		/**
 		 * Method for adding a transaction to the RP-tree (for the initial construction
 		 * of the RP-Tree).
-		 * @param transaction
+		 * @param transaction an array holding the items of the transaction
+		 * @param from the position of the first item of the transaction
+		 * @param to the position after the last item of the transaction
 		 */
-		public void addTransaction(List<Integer> transaction) {
+		public void addTransaction(int[] transaction, int from, int to) {
 			RPNode currentNode = root;
 			// For each item in the transaction
-			for(Integer item : transaction){
+			for(int i = from; i < to; i++){
+				int item = transaction[i];
 				// look if there is a node already in the RP-Tree
 				RPNode child = currentNode.getChildWithID(item);
 				if(child == null){ 
@@ -78,7 +94,7 @@ public class RPTree {
 					newNode.itemID = item;
 					newNode.parent = currentNode;
 					// we link the new node to its parent
-					currentNode.childs.add(newNode);
+					currentNode.addChild(newNode);
 					
 					// we take this node as the current node for the next for loop iteration 
 					currentNode = newNode;
@@ -99,60 +115,74 @@ public class RPTree {
 		 * @param item  the item of the new node
 		 * @param newNode the new node that has been inserted.
 		 */
-		private void fixNodeLinks(Integer item, RPNode newNode) {
+		private void fixNodeLinks(int item, RPNode newNode) {
+			if(item >= itemNodes.length){
+				int capacity = Math.max(item + 1, itemNodes.length * 2);
+				itemNodes = Arrays.copyOf(itemNodes, capacity);
+				itemLastNodes = Arrays.copyOf(itemLastNodes, capacity);
+			}
 			// get the latest node in the tree with this item
-			RPNode lastNode = mapItemLastNode.get(item);
+			RPNode lastNode = itemLastNodes[item];
 			if(lastNode != null) {
 				// if not null, then we add the new node to the node link of the last node
 				lastNode.nodeLink = newNode;
+			}else{
+				// there is no node with this item yet: the new node heads the node links
+				itemNodes[item] = newNode;
+				if(itemCount == items.length){
+					items = Arrays.copyOf(items, itemCount * 2);
+				}
+				items[itemCount++] = item;
 			}
 			// Finally, we set the new node as the last node 
-			mapItemLastNode.put(item, newNode); 
-			
-			RPNode headernode = mapItemNodes.get(item);
-			if(headernode == null){  // there is not
-				mapItemNodes.put(item, newNode);
-			}
+			itemLastNodes[item] = newNode; 
 		}
 		
 		/**
-		 * Method for adding a prefixpath to a rp-tree.
-		 * @param prefixPath  The prefix path
-		 * @param mapSupportBeta  The frequencies of items in the prefixpaths
+		 * Method for adding a prefixpath to a rp-tree: the path from the root of another
+		 * tree to the parent of a node, with the support of the node.
+		 * @param node  The node ending the prefix path (not part of the path)
+		 * @param supportBeta  The frequencies of items in the prefixpaths (index: item)
 		 * @param relativeMinsupp
 		 * @param relativeMinRareSupp
+		 * @param pathBuffer  A buffer large enough to hold the items of the path
 		 */
-		void addPrefixPath(List<RPNode> prefixPath, Map<Integer, Integer> mapSupportBeta, int relativeMinsupp, int relativeMinRareSupp) {
-			// the first element of the prefix path contains the path support
-			int pathCount = prefixPath.get(0).counter;  
+		void addPrefixPath(RPNode node, int[] supportBeta, int relativeMinsupp, int relativeMinRareSupp, int[] pathBuffer) {
+			// the node contains the path support
+			int pathCount = node.counter;
+			
+			// collect the items of the path, from the node up to the root.
+			// if the item is frequent(if the item is below the relative min rare support and
+			// above the relative min support threshold) we skip it.
+			int length = 0;
+			for(RPNode parent = node.parent; parent.itemID != -1; parent = parent.parent){
+				int support = supportBeta[parent.itemID];
+				if(support < relativeMinsupp && support >= relativeMinRareSupp){
+					pathBuffer[length++] = parent.itemID;
+				}
+			}
 			
 			RPNode currentNode = root;
-			// For each item in the transaction  (in backward order)
-			// (and we ignore the first element of the prefix path)
-			for(int i = prefixPath.size() -1; i >=1; i--){ 
-				RPNode pathItem = prefixPath.get(i);
-				// if the item is frequent(if the item is below the relative min rare support and
-				// above the relative min support threshold) we skip it.
-				if(mapSupportBeta.get(pathItem.itemID) < relativeMinsupp && mapSupportBeta.get(pathItem.itemID) >= relativeMinRareSupp){
-		
-					// look if there is a node already in the RP-Tree
-					RPNode child = currentNode.getChildWithID(pathItem.itemID);
-					if(child == null){ 
-						// there is no node, we create a new one
-						RPNode newNode = new RPNode();
-						newNode.itemID = pathItem.itemID;
-						newNode.parent = currentNode;
-						newNode.counter = pathCount;  // set its support
-						currentNode.childs.add(newNode);
-						currentNode = newNode;
-						// We update the header table.
-						// and the node links
-						fixNodeLinks(pathItem.itemID, newNode);		
-					}else{ 
-						// there is a node already, we update it
-						child.counter += pathCount;
-						currentNode = child;
-					}
+			// For each item in the path (in backward order)
+			for(int i = length - 1; i >= 0; i--){ 
+				int pathItem = pathBuffer[i];
+				// look if there is a node already in the RP-Tree
+				RPNode child = currentNode.getChildWithID(pathItem);
+				if(child == null){ 
+					// there is no node, we create a new one
+					RPNode newNode = new RPNode();
+					newNode.itemID = pathItem;
+					newNode.parent = currentNode;
+					newNode.counter = pathCount;  // set its support
+					currentNode.addChild(newNode);
+					currentNode = newNode;
+					// We update the header table.
+					// and the node links
+					fixNodeLinks(pathItem, newNode);		
+				}else{ 
+					// there is a node already, we update it
+					child.counter += pathCount;
+					currentNode = child;
 				}
 			}
 		}
@@ -160,23 +190,22 @@ public class RPTree {
 		/**
 		 * Method for creating the list of items in the header table, 
 		 *  in descending order of support.
-		 * @param mapSupport the frequencies of each item (key: item  value: support)
+		 * @param supports the frequencies of each item (index: item  value: support)
 		 */
-		void createHeaderList(final Map<Integer, Integer> mapSupport) {
-			// create an array to store the header list with
-			// all the items stored in the map received as parameter
-			headerList =  new ArrayList<Integer>(mapItemNodes.keySet());
-			
-			// sort the header table by decreasing order of support
-			Collections.sort(headerList, new Comparator<Integer>(){
-				public int compare(Integer id1, Integer id2){
-					// compare the support
-					int compare = mapSupport.get(id2) - mapSupport.get(id1);
-					// if the same frequency, we check the lexical ordering!
-					// otherwise we use the support
-					return (compare == 0) ? (id1 - id2) : compare;
-				}
-			});
+		void createHeaderList(int[] supports) {
+			// sort the items of the tree by decreasing order of support and,
+			// if the same frequency, by lexical ordering, using a single
+			// primitive sort on keys packing (inverted support, item)
+			long[] keys = new long[itemCount];
+			for(int i = 0; i < itemCount; i++){
+				int item = items[i];
+				keys[i] = ((long) (Integer.MAX_VALUE - supports[item]) << 32) | item;
+			}
+			Arrays.sort(keys);
+			headerList = new int[itemCount];
+			for(int i = 0; i < itemCount; i++){
+				headerList[i] = (int) keys[i];
+			}
 		}
 		
 		@Override
@@ -188,7 +217,7 @@ public class RPTree {
 		public String toString() {
 			String temp = "F";
 			// append header list
-			temp += " HeaderList: "+ headerList + "\n";
+			temp += " HeaderList: "+ Arrays.toString(headerList) + "\n";
 			// append child nodes
 			temp += root.toString("");
 			return temp;
@@ -0,0 +1,251 @@
+package com.github.cgks.spmf.rpgrowth;
+
+import java.util.Arrays;
+
+/**
+ * An RP-Tree stored as a struct of arrays, as used by AlgoRPGrowthArena.
+ *
+ * A node is an index in parallel int arrays (item, count, parent, first child,
+ * next sibling, node link) instead of an RPNode object, and the header table is
+ * made of arrays indexed by item. Item ids are ranks, as in RPTree.
+ *
+ * An arena is meant to be reused: reset() empties the tree but keeps its arrays,
+ * so that once the arrays are large enough, building a tree allocates nothing.
+ *
+ * @see RPTree
+ * @see AlgoRPGrowthArena
+ */
+final class RPTreeArena {
+	// the index of the root node
+	static final int ROOT = 0;
+	// marks the absence of a node
+	static final int NONE = -1;
+
+	// the nodes: item id, frequency counter, parent, first child, next sibling
+	// and link to the next node with the same item id
+	int[] item;
+	int[] count;
+	int[] parent;
+	int[] firstChild;
+	int[] nextSibling;
+	int[] nodeLink;
+	// the number of nodes, including the root
+	int size;
+
+	// First and last node of each item following the node links
+	// index: item   value: a node (NONE if the item is not in the tree)
+	int[] itemNodes;
+	int[] itemLastNodes;
+
+	// The items that have at least one node in the tree, in order of insertion
+	int[] items;
+	int itemCount;
+
+	// List of items in the header table, in the first headerLength positions
+	int[] headerList;
+	int headerLength;
+
+	// The frequencies of the items of a conditional tree (index: item), and the
+	// items for which it is not zero, so that it can be cleared quickly
+	int[] supports;
+	int[] supportItems;
+	int supportItemCount;
+
+	// buffer for sorting the header list
+	private long[] keys;
+
+	/**
+	 * Constructor
+	 * @param nbItems an upper bound on the item ids stored in the tree
+	 * @param nbNodes the initial capacity in nodes
+	 */
+	RPTreeArena(int nbItems, int nbNodes) {
+		nbNodes = Math.max(nbNodes, 16);
+		item = new int[nbNodes];
+		count = new int[nbNodes];
+		parent = new int[nbNodes];
+		firstChild = new int[nbNodes];
+		nextSibling = new int[nbNodes];
+		nodeLink = new int[nbNodes];
+		itemNodes = new int[nbItems];
+		itemLastNodes = new int[nbItems];
+		Arrays.fill(itemNodes, NONE);
+		Arrays.fill(itemLastNodes, NONE);
+		items = new int[16];
+		headerList = new int[16];
+		keys = new long[16];
+		supports = new int[nbItems];
+		supportItems = new int[16];
+		newRoot();
+	}
+
+	/**
+	 * Empty the tree, keeping its arrays.
+	 * @param nbItems an upper bound on the item ids that will be stored in the tree
+	 */
+	void reset(int nbItems) {
+		// clear only the entries that were used
+		for(int i = 0; i < itemCount; i++){
+			itemNodes[items[i]] = NONE;
+			itemLastNodes[items[i]] = NONE;
+		}
+		for(int i = 0; i < supportItemCount; i++){
+			supports[supportItems[i]] = 0;
+		}
+		itemCount = 0;
+		headerLength = 0;
+		supportItemCount = 0;
+		if(nbItems > itemNodes.length){
+			int capacity = Math.max(nbItems, itemNodes.length * 2);
+			itemNodes = new int[capacity];
+			itemLastNodes = new int[capacity];
+			Arrays.fill(itemNodes, NONE);
+			Arrays.fill(itemLastNodes, NONE);
+			supports = new int[capacity];
+		}
+		newRoot();
+	}
+
+	/**
+	 * Create the root node (a null node), as the only node of the tree.
+	 */
+	private void newRoot() {
+		item[ROOT] = NONE;
+		count[ROOT] = 0;
+		parent[ROOT] = NONE;
+		firstChild[ROOT] = NONE;
+		nextSibling[ROOT] = NONE;
+		nodeLink[ROOT] = NONE;
+		size = 1;
+	}
+
+	/**
+	 * Method for adding a transaction to the RP-tree (for the initial construction
+	 * of the RP-Tree).
+	 * @param transaction an array holding the items of the transaction
+	 * @param from the position of the first item of the transaction
+	 * @param to the position after the last item of the transaction
+	 */
+	void addTransaction(int[] transaction, int from, int to) {
+		addPath(transaction, from, to, 1);
+	}
+
+	/**
+	 * Add a path of items from the root, adding a count to each node of the path.
+	 * @param path an array holding the items of the path, from the root
+	 * @param from the position of the first item of the path
+	 * @param to the position after the last item of the path
+	 * @param pathCount the support of the path
+	 */
+	void addPath(int[] path, int from, int to, int pathCount) {
+		int currentNode = ROOT;
+		for(int i = from; i < to; i++){
+			int pathItem = path[i];
+			// look if there is a node already in the RP-Tree
+			int child = firstChild[currentNode];
+			while(child != NONE && item[child] != pathItem){
+				child = nextSibling[child];
+			}
+			if(child == NONE){
+				// there is no node, we create a new one
+				child = newNode(currentNode, pathItem, pathCount);
+			}else{
+				// there is a node already, we update it
+				count[child] += pathCount;
+			}
+			currentNode = child;
+		}
+	}
+
+	/**
+	 * Create a node, link it to its parent and update the header table.
+	 * @return the new node
+	 */
+	private int newNode(int parentNode, int nodeItem, int nodeCount) {
+		if(size == item.length){
+			int capacity = size * 2;
+			item = Arrays.copyOf(item, capacity);
+			count = Arrays.copyOf(count, capacity);
+			parent = Arrays.copyOf(parent, capacity);
+			firstChild = Arrays.copyOf(firstChild, capacity);
+			nextSibling = Arrays.copyOf(nextSibling, capacity);
+			nodeLink = Arrays.copyOf(nodeLink, capacity);
+		}
+		int node = size++;
+		item[node] = nodeItem;
+		count[node] = nodeCount;
+		parent[node] = parentNode;
+		firstChild[node] = NONE;
+		nodeLink[node] = NONE;
+		// the new node becomes the first child of its parent
+		nextSibling[node] = firstChild[parentNode];
+		firstChild[parentNode] = node;
+
+		// fix the node links
+		int lastNode = itemLastNodes[nodeItem];
+		if(lastNode != NONE){
+			nodeLink[lastNode] = node;
+		}else{
+			itemNodes[nodeItem] = node;
+			if(itemCount == items.length){
+				items = Arrays.copyOf(items, itemCount * 2);
+			}
+			items[itemCount++] = nodeItem;
+		}
+		itemLastNodes[nodeItem] = node;
+		return node;
+	}
+
+	/**
+	 * Add a count to the frequency of an item of this conditional tree.
+	 * @param supportItem the item
+	 * @param supportCount the count to add
+	 */
+	void addSupport(int supportItem, int supportCount) {
+		if(supports[supportItem] == 0){
+			if(supportItemCount == supportItems.length){
+				supportItems = Arrays.copyOf(supportItems, supportItemCount * 2);
+			}
+			supportItems[supportItemCount++] = supportItem;
+		}
+		supports[supportItem] += supportCount;
+	}
+
+	/**
+	 * @return true if the tree has no node besides the root
+	 */
+	boolean isEmpty() {
+		return firstChild[ROOT] == NONE;
+	}
+
+	/**
+	 * @param node a node
+	 * @return true if the node has at most one child
+	 */
+	boolean hasAtMostOneChild(int node) {
+		int child = firstChild[node];
+		return child == NONE || nextSibling[child] == NONE;
+	}
+
+	/**
+	 * Method for creating the list of items in the header table,
+	 *  in descending order of support and, if the same support, by lexical ordering.
+	 * @param itemSupports the frequencies of each item (index: item  value: support)
+	 */
+	void createHeaderList(int[] itemSupports) {
+		if(keys.length < itemCount){
+			keys = new long[Math.max(itemCount, keys.length * 2)];
+			headerList = new int[keys.length];
+		}
+		// a single primitive sort on keys packing (inverted support, item)
+		for(int i = 0; i < itemCount; i++){
+			int headerItem = items[i];
+			keys[i] = ((long) (Integer.MAX_VALUE - itemSupports[headerItem]) << 32) | headerItem;
+		}
+		Arrays.sort(keys, 0, itemCount);
+		for(int i = 0; i < itemCount; i++){
+			headerList[i] = (int) keys[i];
+		}
+		headerLength = itemCount;
+	}
+}
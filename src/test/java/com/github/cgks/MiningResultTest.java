@@ -0,0 +1,49 @@
+package com.github.cgks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MiningResult and its JSON serialization.
+ */
+public class MiningResultTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Writes a result with the pattern and freq fields")
+    void testSerialize() throws JsonProcessingException {
+        MiningResult result = new MiningResult(new int[] { 1, 4 }, 3);
+
+        assertEquals("{\"pattern\":[1,4],\"freq\":3}", mapper.writeValueAsString(result));
+    }
+
+    @Test
+    @DisplayName("Writes a list of results, as in the result of a task")
+    void testSerializeList() throws JsonProcessingException {
+        List<MiningResult> results = Arrays.asList(
+                new MiningResult(new int[] { 2 }, 4),
+                new MiningResult(new int[0], 5));
+
+        assertEquals("[{\"pattern\":[2],\"freq\":4},{\"pattern\":[],\"freq\":5}]",
+                mapper.writeValueAsString(results));
+    }
+
+    @Test
+    @DisplayName("Views the items of the pattern as a list")
+    void testPattern() {
+        MiningResult result = new MiningResult(new int[] { 1, 3, 5 }, 2);
+
+        assertEquals(Arrays.asList(1, 3, 5), result.getPattern());
+        assertTrue(result.getPattern().contains(3));
+        assertThrows(UnsupportedOperationException.class, () -> result.getPattern().add(7));
+    }
+}
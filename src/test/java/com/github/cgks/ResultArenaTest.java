@@ -0,0 +1,76 @@
+package com.github.cgks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ResultArena and its JSON serialization.
+ */
+public class ResultArenaTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Stores the patterns and their supports in order")
+    void testAccept() {
+        ResultArena arena = new ResultArena();
+        arena.accept(new int[] { 1, 4 }, 3);
+        arena.accept(new int[0], 5);
+        arena.accept(new int[] { 2 }, 4);
+
+        assertEquals(3, arena.size());
+        assertEquals(3, arena.itemCount());
+        assertArrayEquals(new int[] { 1, 4 }, arena.getPattern(0));
+        assertEquals(0, arena.getLength(1));
+        assertEquals(4, arena.getSupport(2));
+        assertEquals(Arrays.asList(2), arena.get(2).getPattern());
+        assertEquals(4, arena.get(2).getFreq());
+    }
+
+    @Test
+    @DisplayName("Grows past its first chunk, and after being trimmed")
+    void testGrow() {
+        ResultArena arena = new ResultArena();
+        int count = 3 * ResultArena.CHUNK + 7;
+        for (int i = 0; i < count; i++) {
+            arena.accept(new int[] { i, i + 1, i + 2 }, i);
+        }
+        arena.trimToSize();
+        assertEquals(count, arena.getSupports().length);
+        assertEquals(3 * count, arena.getItems().length);
+
+        arena.accept(new int[] { 42 }, 1);
+        assertEquals(count + 1, arena.size());
+        for (int i = 0; i < count; i++) {
+            assertArrayEquals(new int[] { i, i + 1, i + 2 }, arena.getPattern(i));
+            assertEquals(i, arena.getSupport(i));
+        }
+        assertArrayEquals(new int[] { 42 }, arena.getPattern(count));
+    }
+
+    @Test
+    @DisplayName("Writes the same JSON as the list of its mining results")
+    void testSerialize() throws JsonProcessingException {
+        ResultArena arena = new ResultArena();
+        List<MiningResult> results = new ArrayList<>();
+        int[][] patterns = { { 1, 4 }, {}, { 2, 3, 5 } };
+        for (int i = 0; i < patterns.length; i++) {
+            arena.accept(patterns[i], i + 2);
+            results.add(new MiningResult(patterns[i], i + 2));
+        }
+
+        assertEquals("[{\"pattern\":[1,4],\"freq\":2},{\"pattern\":[],\"freq\":3},{\"pattern\":[2,3,5],\"freq\":4}]",
+                mapper.writeValueAsString(arena));
+        assertEquals(mapper.writeValueAsString(results), mapper.writeValueAsString(arena));
+        assertEquals("[]", mapper.writeValueAsString(new ResultArena()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.cgks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ResultIndex, reading the patterns of a store by pages.
+ */
+public class ResultIndexTest {
+
+    private static ResultArena newArena() {
+        ResultArena arena = new ResultArena();
+        arena.accept(new int[] { 1 }, 3);
+        arena.accept(new int[] { 2 }, 4);
+        arena.accept(new int[] { 1, 2 }, 3);
+        arena.accept(new int[] { 3 }, 4);
+        arena.accept(new int[] { 1, 2, 3 }, 2);
+        return arena;
+    }
+
+    private static List<List<Integer>> patterns(List<MiningResult> page) {
+        List<List<Integer>> patterns = new ArrayList<>();
+        for (MiningResult result : page) {
+            patterns.add(result.getPattern());
+        }
+        return patterns;
+    }
+
+    @Test
+    @DisplayName("Reads the patterns in the order they were found, and backwards")
+    void testFoundOrder() {
+        ResultIndex index = new ResultIndex(newArena());
+
+        assertEquals(5, index.size());
+        assertEquals(Arrays.asList(Arrays.asList(2), Arrays.asList(1, 2)),
+                patterns(index.page(1, 2, ResultIndex.Sort.FOUND, false)));
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(3)),
+                patterns(index.page(0, 2, ResultIndex.Sort.FOUND, true)));
+    }
+
+    @Test
+    @DisplayName("Sorts by support and by size, the ties in the order they were found")
+    void testSorted() {
+        ResultIndex index = new ResultIndex(newArena());
+
+        assertEquals(Arrays.asList(Arrays.asList(2), Arrays.asList(3), Arrays.asList(1), Arrays.asList(1, 2),
+                Arrays.asList(1, 2, 3)), patterns(index.page(0, 10, ResultIndex.Sort.SUPPORT, true)));
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(1)),
+                patterns(index.page(0, 2, ResultIndex.Sort.SUPPORT, false)));
+        assertEquals(Arrays.asList(Arrays.asList(3), Arrays.asList(1, 2), Arrays.asList(1, 2, 3)),
+                patterns(index.page(2, 3, ResultIndex.Sort.SIZE, false)));
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(1, 2), Arrays.asList(1)),
+                patterns(index.page(0, 3, ResultIndex.Sort.SIZE, true)));
+    }
+
+    @Test
+    @DisplayName("Splits an order in pages that cover it once")
+    void testPages() {
+        ResultTrie trie = new ResultTrie();
+        for (int i = 0; i < 1000; i++) {
+            trie.accept(new int[] { i % 7, 7 + i % 11, 20 + i }, i % 13);
+        }
+        ResultIndex index = new ResultIndex(trie);
+
+        List<MiningResult> all = new ArrayList<>();
+        for (int offset = 0; offset < index.size(); offset += 64) {
+            all.addAll(index.page(offset, 64, ResultIndex.Sort.SUPPORT, true));
+        }
+        assertEquals(1000, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getFreq() >= all.get(i).getFreq());
+            if (all.get(i - 1).getFreq() == all.get(i).getFreq()) {
+                // the third item gives the order in which the patterns were found
+                assertTrue(all.get(i - 1).getPattern().get(2) < all.get(i).getPattern().get(2));
+            }
+        }
+        assertTrue(index.page(1000, 64, ResultIndex.Sort.SUPPORT, true).isEmpty());
+        assertEquals(1, index.page(999, Integer.MAX_VALUE, ResultIndex.Sort.SIZE, false).size());
+    }
+
+    @Test
+    @DisplayName("Parses the sort keys and rejects the unknown ones")
+    void testSortFromName() {
+        assertEquals(ResultIndex.Sort.FOUND, ResultIndex.Sort.fromName(null));
+        assertEquals(ResultIndex.Sort.SUPPORT, ResultIndex.Sort.fromName("support"));
+        assertEquals(ResultIndex.Sort.SIZE, ResultIndex.Sort.fromName("Size"));
+        assertThrows(IllegalArgumentException.class, () -> ResultIndex.Sort.fromName("freq"));
+    }
+}
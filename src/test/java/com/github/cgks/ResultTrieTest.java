@@ -0,0 +1,133 @@
+package com.github.cgks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.exceptions.DatabaseException;
+import com.github.cgks.spmf.ParallelLCM;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ResultTrie, on small patterns and on the frequent
+ * itemsets of the mushroom dataset.
+ */
+public class ResultTrieTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Shares the prefixes of the patterns and reads them back in order")
+    void testAccept() {
+        ResultTrie trie = new ResultTrie();
+        trie.accept(new int[] { 1 }, 5);
+        trie.accept(new int[] { 1, 2 }, 4);
+        trie.accept(new int[] { 1, 2, 3 }, 3);
+        trie.accept(new int[] { 1, 3 }, 4);
+        trie.accept(new int[] { 2, 3 }, 3);
+
+        assertEquals(5, trie.size());
+        // the root, and one node per pattern but {2, 3}, which needs its prefix {2}
+        assertEquals(7, trie.nodeCount());
+        assertEquals(3, trie.getMaxLength());
+        assertArrayEquals(new int[] { 1, 2, 3 }, trie.getPattern(2));
+        assertEquals(3, trie.getLength(2));
+        assertEquals(4, trie.getSupport(3));
+        assertEquals(Arrays.asList(2, 3), trie.get(4).getPattern());
+    }
+
+    @Test
+    @DisplayName("Keeps the empty pattern and the patterns that are also prefixes")
+    void testEmptyAndPrefixPatterns() {
+        ResultTrie trie = new ResultTrie();
+        trie.accept(new int[] { 4, 7 }, 2);
+        trie.accept(new int[0], 9);
+        trie.accept(new int[] { 4 }, 3);
+
+        assertEquals(3, trie.size());
+        assertArrayEquals(new int[0], trie.getPattern(1));
+        assertEquals(9, trie.getSupport(1));
+        assertArrayEquals(new int[] { 4 }, trie.getPattern(2));
+        assertEquals(3, trie.getSupport(2));
+        assertEquals(2, trie.getSupport(0));
+    }
+
+    @Test
+    @DisplayName("Stores the frequent itemsets of a dataset as an arena does, in fewer bytes")
+    void testSameAsArena() throws DatabaseException, IOException {
+        ResultArena arena = new ResultArena();
+        ResultTrie trie = new ResultTrie();
+        ParallelLCM lcm = new ParallelLCM(2);
+        lcm.mineFrequent(DatasetCache.getInstance().get("/data/mushroom.dat"), 0.2, arena);
+        for (int i = 0; i < arena.size(); i++) {
+            trie.accept(arena.getPattern(i), arena.getSupport(i));
+        }
+        trie.trimToSize();
+
+        assertEquals(arena.size(), trie.size());
+        for (int i = 0; i < arena.size(); i++) {
+            assertArrayEquals(arena.getPattern(i), trie.getPattern(i));
+            assertEquals(arena.getSupport(i), trie.getSupport(i));
+        }
+        assertTrue(trie.nodeCount() < arena.itemCount() / 2,
+                trie.nodeCount() + " nodes for " + arena.itemCount() + " items");
+        assertEquals(mapper.writeValueAsString(arena), mapper.writeValueAsString(trie));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trie.writePrefixDeltas(out);
+        assertTrue(out.size() < 4 * arena.itemCount(), out.size() + " bytes for " + arena.itemCount() + " items");
+        ResultArena read = new ResultArena();
+        ResultTrie.readPrefixDeltas(new ByteArrayInputStream(out.toByteArray()), read);
+        assertEquals(mapper.writeValueAsString(arena), mapper.writeValueAsString(read));
+    }
+
+    @Test
+    @DisplayName("Adds patterns after being trimmed")
+    void testTrimThenAccept() {
+        ResultTrie trie = new ResultTrie();
+        trie.accept(new int[] { 1, 2 }, 2);
+        trie.trimToSize();
+        trie.accept(new int[] { 1, 2, 3 }, 1);
+        trie.accept(new int[] { 1, 2 }, 2);
+
+        assertEquals(3, trie.size());
+        assertEquals(4, trie.nodeCount());
+        assertArrayEquals(new int[] { 1, 2, 3 }, trie.getPattern(1));
+        assertArrayEquals(new int[] { 1, 2 }, trie.getPattern(2));
+    }
+
+    @Test
+    @DisplayName("Writes the same JSON as a result arena")
+    void testSerialize() throws JsonProcessingException {
+        ResultTrie trie = new ResultTrie();
+        trie.accept(new int[] { 1, 4 }, 2);
+        trie.accept(new int[] { 1, 4, 5 }, 1);
+
+        assertEquals("[{\"pattern\":[1,4],\"freq\":2},{\"pattern\":[1,4,5],\"freq\":1}]",
+                mapper.writeValueAsString(trie));
+        assertEquals("[]", mapper.writeValueAsString(new ResultTrie()));
+    }
+
+    @Test
+    @DisplayName("Rejects a truncated prefix-delta stream")
+    void testTruncatedStream() throws IOException {
+        ResultTrie trie = new ResultTrie();
+        trie.accept(new int[] { 300, 70000 }, 1 << 20);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trie.writePrefixDeltas(out);
+        byte[] bytes = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+
+        assertThrows(EOFException.class,
+                () -> ResultTrie.readPrefixDeltas(new ByteArrayInputStream(bytes), (pattern, support) -> { }));
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.cgks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TaskEvents of a task and the bounded buffers of its
+ * subscribers.
+ */
+public class TaskEventsTest {
+
+    private static List<TaskEvent> drain(TaskEventSubscriber subscriber) {
+        List<TaskEvent> events = new ArrayList<>();
+        TaskEvent event;
+        while ((event = subscriber.poll()) != null) {
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static List<String> names(List<TaskEvent> events) {
+        List<String> names = new ArrayList<>();
+        for (TaskEvent event : events) {
+            names.add(event.getName());
+        }
+        return names;
+    }
+
+    @Test
+    @DisplayName("Publishes the transitions, the patterns by batches and the final progress")
+    void testPublish() {
+        TaskEvents events = new TaskEvents("task");
+        TaskEventSubscriber subscriber = events.subscribe(8);
+        ResultArena store = new ResultArena();
+        ResultSink sink = events.publishing(store);
+
+        events.publishStatus(TaskStatus.PROCESSING, null, 0);
+        for (int i = 0; i < TaskEvents.BATCH_SIZE + 10; i++) {
+            sink.accept(new int[] { i }, 1);
+        }
+        events.tick();
+        events.publishStatus(TaskStatus.COMPLETED, null, store.size());
+
+        List<TaskEvent> received = drain(subscriber);
+        assertEquals(List.of("status", "status", "patterns", "patterns", "progress", "status"), names(received));
+        assertEquals(TaskStatus.PENDING, ((TaskEvent.Status) received.get(0).getData()).getStatus());
+        TaskEvent.Patterns second = (TaskEvent.Patterns) received.get(3).getData();
+        assertEquals(TaskEvents.BATCH_SIZE, second.getFrom());
+        assertEquals(10, second.getResults().size());
+        assertEquals(TaskEvents.BATCH_SIZE + 10,
+                ((TaskEvent.Progress) received.get(4).getData()).getPatternsFound());
+        assertTrue(received.get(5).isTerminal());
+        assertTrue(subscriber.isClosed());
+        assertFalse(events.hasSubscribers());
+        assertEquals(TaskEvents.BATCH_SIZE + 10, store.size());
+    }
+
+    @Test
+    @DisplayName("Drops the batches of a full buffer and coalesces the progress")
+    void testBackpressure() {
+        TaskEvents events = new TaskEvents("task");
+        events.publishStatus(TaskStatus.PROCESSING, null, 0);
+        TaskEventSubscriber subscriber = events.subscribe(2);
+        ResultSink sink = events.publishing((pattern, support) -> { });
+
+        for (int i = 0; i < 5 * TaskEvents.BATCH_SIZE; i++) {
+            sink.accept(new int[] { i }, 1);
+        }
+        events.tick();
+        events.tick();
+
+        List<TaskEvent> received = drain(subscriber);
+        // the initial progress and status, two batches, the other three counted
+        // in one dropped event, and the last of the progress events
+        assertEquals(List.of("progress", "status", "patterns", "patterns", "dropped", "progress"), names(received));
+        TaskEvent.Dropped dropped = (TaskEvent.Dropped) received.get(4).getData();
+        assertEquals(3, dropped.getBatches());
+        assertEquals(3 * TaskEvents.BATCH_SIZE, dropped.getPatterns());
+        assertEquals(5 * TaskEvents.BATCH_SIZE,
+                ((TaskEvent.Progress) received.get(5).getData()).getPatternsFound());
+
+        // the buffer has room again once drained
+        sink.accept(new int[] { 0 }, 1);
+        events.tick();
+        assertEquals(List.of("patterns", "progress"), names(drain(subscriber)));
+    }
+
+    @Test
+    @DisplayName("Sends the final progress and status to the subscribers of a terminal task")
+    void testSubscribeAfterEnd() {
+        TaskEvents events = new TaskEvents("task");
+        events.publishStatus(TaskStatus.PROCESSING, null, 0);
+        events.publishStatus(TaskStatus.FAILED, "Unknown dataset", 0);
+        events.publishStatus(TaskStatus.COMPLETED, null, 0);
+
+        TaskEventSubscriber subscriber = events.subscribe(1);
+        List<TaskEvent> received = drain(subscriber);
+        assertEquals(List.of("progress", "status"), names(received));
+        assertEquals(TaskStatus.FAILED, ((TaskEvent.Status) received.get(1).getData()).getStatus());
+        assertFalse(events.hasSubscribers());
+    }
+
+    @Test
+    @DisplayName("Only batches the patterns found while the task has subscribers")
+    void testLateSubscriber() {
+        TaskEvents events = new TaskEvents("task");
+        events.publishStatus(TaskStatus.PROCESSING, null, 0);
+        ResultSink sink = events.publishing((pattern, support) -> { });
+        for (int i = 0; i < 10; i++) {
+            sink.accept(new int[] { i }, 1);
+        }
+        TaskEventSubscriber subscriber = events.subscribe(4);
+        sink.accept(new int[] { 10 }, 1);
+        events.unsubscribe(subscriber);
+        sink.accept(new int[] { 11 }, 1);
+        TaskEventSubscriber other = events.subscribe(4);
+        sink.accept(new int[] { 12 }, 1);
+        events.tick();
+
+        List<TaskEvent> received = drain(other);
+        assertEquals(List.of("progress", "status", "patterns", "patterns", "progress"), names(received));
+        assertEquals(10, ((TaskEvent.Patterns) received.get(2).getData()).getFrom());
+        assertEquals(12, ((TaskEvent.Patterns) received.get(3).getData()).getFrom());
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.cgks.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatParser;
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.lcm.Dataset;
+import ca.pfv.spmf.input.transaction_database_list_integers.TransactionDatabase;
+import io.gitlab.chaver.mining.patterns.io.DatReader;
+import io.gitlab.chaver.mining.patterns.io.TransactionalDatabase;
+
+/**
+ * Compares the memory-mapped {@link DatParser} with the readers of the SPMF
+ * and choco-mining libraries, on every dataset of src/main/resources/data.
+ * <p>
+ * Run with {@code make bench BENCH=DatasetParserBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatasetParserBenchmark {
+
+    @Param({ "anneal", "chess", "contextPasquier99", "eisen", "heart-cleveland", "iris", "mushroom" })
+    public String dataset;
+
+    private File file;
+
+    @Setup
+    public void setup() throws Exception {
+        file = DatasetCache.resolve("/data/" + dataset + ".dat");
+    }
+
+    @Benchmark
+    public TransactionDataset datParser() throws Exception {
+        return DatParser.parse(file);
+    }
+
+    @Benchmark
+    public TransactionDatabase spmfTransactionDatabase() throws Exception {
+        TransactionDatabase database = new TransactionDatabase();
+        database.loadFile(file.getAbsolutePath());
+        return database;
+    }
+
+    @Benchmark
+    public Dataset spmfLcmDataset() throws Exception {
+        return new Dataset(file.getAbsolutePath());
+    }
+
+    @Benchmark
+    public TransactionalDatabase chocoDatReader() throws Exception {
+        return new DatReader(file.getAbsolutePath()).read();
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.dataset.VerticalIndex;
+import com.github.cgks.eclat.ParallelEclat;
+import com.github.cgks.spmf.ParallelFPMax;
+import com.github.cgks.spmf.ParallelLCM;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Compares the vertical {@link ParallelEclat} with the horizontal engines on
+ * the same queries: {@link ParallelLCM} for frequent and closed itemsets, and
+ * {@link ParallelFPMax} for maximal itemsets.
+ * <p>
+ * Run with {@code make bench BENCH=EclatBenchmark}, on a machine with at least
+ * as many cores as the parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EclatBenchmark {
+
+    @Param({ "chess:0.7", "mushroom:0.05", "eisen:0.005" })
+    public String run;
+
+    @Param({ "4" })
+    public int parallelism;
+
+    private TransactionDataset dataset;
+    private VerticalIndex verticalIndex;
+    private double minSupport;
+
+    @Setup
+    public void setup() throws Exception {
+        String[] fields = run.split(":");
+        String path = DatasetCache.resolve("/data/" + fields[0] + ".dat").getAbsolutePath();
+        dataset = DatasetCache.getInstance().get(path);
+        verticalIndex = DatasetCache.getInstance().getVerticalIndex(path);
+        minSupport = Double.parseDouble(fields[1]);
+    }
+
+    @Benchmark
+    public Itemsets lcmFrequent() {
+        return new ParallelLCM(parallelism).mineFrequent(dataset, minSupport);
+    }
+
+    @Benchmark
+    public Itemsets eclatFrequent() {
+        return new ParallelEclat(parallelism).mineFrequent(verticalIndex, minSupport);
+    }
+
+    @Benchmark
+    public Itemsets lcmClosed() {
+        return new ParallelLCM(parallelism).mineClosed(dataset, minSupport);
+    }
+
+    @Benchmark
+    public Itemsets eclatClosed() {
+        return new ParallelEclat(parallelism).mineClosed(verticalIndex, minSupport);
+    }
+
+    @Benchmark
+    public Itemsets fpMaxMaximal() {
+        return new ParallelFPMax(parallelism).mineMaximal(dataset, minSupport);
+    }
+
+    @Benchmark
+    public Itemsets eclatMaximal() {
+        return new ParallelEclat(parallelism).mineMaximal(verticalIndex, minSupport);
+    }
+}
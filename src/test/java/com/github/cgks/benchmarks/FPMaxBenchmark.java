@@ -0,0 +1,67 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.spmf.ParallelFPMax;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.fpgrowth.AlgoFPMax;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Compares maximal itemset mining with SPMF's single-threaded {@link AlgoFPMax},
+ * which reads the dataset file on each run, and with {@link ParallelFPMax} on
+ * the cached dataset, for several numbers of threads.
+ * <p>
+ * Run with {@code make bench BENCH=FPMaxBenchmark}, on a machine with at least
+ * as many cores as the largest parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FPMaxBenchmark {
+
+    @Param({ "chess", "mushroom" })
+    public String dataset;
+
+    @Param({ "0.2" })
+    public double minSupport;
+
+    @Param({ "1", "4", "16", "32" })
+    public int parallelism;
+
+    private String path;
+    private TransactionDataset cachedDataset;
+
+    @Setup
+    public void setup() throws Exception {
+        path = DatasetCache.resolve("/data/" + dataset + ".dat").getAbsolutePath();
+        cachedDataset = DatasetCache.getInstance().get(path);
+    }
+
+    @Benchmark
+    public Itemsets spmfFPMax() throws Exception {
+        return new AlgoFPMax().runAlgorithm(path, null, minSupport);
+    }
+
+    @Benchmark
+    public Itemsets parallelFPMax() {
+        return new ParallelFPMax(parallelism).mineMaximal(cachedDataset, minSupport);
+    }
+}
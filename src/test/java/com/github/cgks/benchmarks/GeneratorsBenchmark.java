@@ -0,0 +1,71 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.VerticalIndex;
+import com.github.cgks.spmf.ConvertToTransactionDatabase;
+import com.github.cgks.spmf.ParallelDefMe;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.zart.AlgoZart;
+import ca.pfv.spmf.algorithms.frequentpatterns.zart.TZTableClosed;
+import ca.pfv.spmf.input.transaction_database_list_integers.TransactionDatabase;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Compares generator mining with SPMF's level-wise {@link AlgoZart} and with
+ * the depth-first {@link ParallelDefMe}, for several numbers of threads.
+ * <p>
+ * Run with {@code make bench BENCH=GeneratorsBenchmark}, on a machine with at
+ * least as many cores as the largest parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorsBenchmark {
+
+    @Param({ "chess", "mushroom" })
+    public String dataset;
+
+    @Param({ "0.5" })
+    public double minSupport;
+
+    @Param({ "1", "4", "16" })
+    public int parallelism;
+
+    private TransactionDatabase spmfDatabase;
+    private VerticalIndex verticalIndex;
+
+    @Setup
+    public void setup() throws Exception {
+        String path = DatasetCache.resolve("/data/" + dataset + ".dat").getAbsolutePath();
+        spmfDatabase = ConvertToTransactionDatabase.convertDatasetToTransactionDatabase(
+                DatasetCache.getInstance().get(path));
+        verticalIndex = DatasetCache.getInstance().getVerticalIndex(path);
+    }
+
+    @Benchmark
+    public TZTableClosed spmfZart() throws Exception {
+        return new AlgoZart().runAlgorithm(spmfDatabase, minSupport);
+    }
+
+    @Benchmark
+    public Itemsets parallelDefMe() {
+        return new ParallelDefMe(parallelism).mineGenerators(verticalIndex, minSupport);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.spmf.ParallelLCM;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.lcm.AlgoLCM;
+import ca.pfv.spmf.algorithms.frequentpatterns.lcm.Dataset;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Compares closed itemset mining with SPMF's single-threaded {@link AlgoLCM}
+ * and with {@link ParallelLCM}, for several numbers of threads.
+ * <p>
+ * Run with {@code make bench BENCH=LCMBenchmark}, on a machine with at least
+ * as many cores as the largest parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LCMBenchmark {
+
+    @Param({ "chess", "mushroom" })
+    public String dataset;
+
+    @Param({ "0.3" })
+    public double minSupport;
+
+    @Param({ "1", "4", "16", "32" })
+    public int parallelism;
+
+    private Dataset spmfDataset;
+    private TransactionDataset cachedDataset;
+
+    @Setup
+    public void setup() throws Exception {
+        String path = DatasetCache.resolve("/data/" + dataset + ".dat").getAbsolutePath();
+        spmfDataset = new Dataset(path);
+        cachedDataset = DatasetCache.getInstance().get(path);
+    }
+
+    @Benchmark
+    public Itemsets spmfLCM() throws Exception {
+        return new AlgoLCM().runAlgorithm(minSupport, spmfDataset, null);
+    }
+
+    @Benchmark
+    public Itemsets parallelLCM() {
+        return new ParallelLCM(parallelism).mineClosed(cachedDataset, minSupport);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.VerticalIndex;
+import com.github.cgks.spmf.WalkyG;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.apriori_rare.AlgoAprioriRare;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Compares minimal rare itemset mining with SPMF's level-wise
+ * {@link AlgoAprioriRare}, which reads the dataset file on each run, and with
+ * the depth-first {@link WalkyG} on the cached vertical index.
+ * <p>
+ * Run with {@code make bench BENCH=MinimalRareBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MinimalRareBenchmark {
+
+    @Param({ "chess", "mushroom" })
+    public String dataset;
+
+    @Param({ "0.6" })
+    public double maxSupport;
+
+    private String path;
+    private VerticalIndex verticalIndex;
+
+    @Setup
+    public void setup() throws Exception {
+        path = DatasetCache.resolve("/data/" + dataset + ".dat").getAbsolutePath();
+        verticalIndex = DatasetCache.getInstance().getVerticalIndex(path);
+    }
+
+    @Benchmark
+    public Itemsets spmfAprioriRare() throws Exception {
+        return new AlgoAprioriRare().runAlgorithm(maxSupport, path, null);
+    }
+
+    @Benchmark
+    public Itemsets walkyG() {
+        return new WalkyG().mineMinimalRare(verticalIndex, maxSupport);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.spmf.rpgrowth.AlgoRPGrowth;
+import com.github.cgks.spmf.rpgrowth.AlgoRPGrowthArena;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Compares RP-Growth on RPNode objects ({@link AlgoRPGrowth}) with RP-Growth
+ * on arena-based trees ({@link AlgoRPGrowthArena}), which reuses the arrays of
+ * its conditional trees instead of allocating nodes.
+ * <p>
+ * The allocation rates are the point of this benchmark: run it with the GC
+ * profiler, {@code make bench BENCH=RPGrowthArenaBenchmark BENCH_OPTS="-prof gc"},
+ * and compare {@code gc.alloc.rate.norm} (bytes allocated per operation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RPGrowthArenaBenchmark {
+
+    @Param({ "chess", "mushroom" })
+    public String dataset;
+
+    @Param({ "0.005" })
+    public double maxSupport;
+
+    @Param({ "3" })
+    public int maxPatternLength;
+
+    private TransactionDataset cachedDataset;
+
+    @Setup
+    public void setup() throws Exception {
+        String path = DatasetCache.resolve("/data/" + dataset + ".dat").getAbsolutePath();
+        cachedDataset = DatasetCache.getInstance().get(path);
+    }
+
+    @Benchmark
+    public Itemsets nodeTree() throws Exception {
+        AlgoRPGrowth algorithm = new AlgoRPGrowth();
+        algorithm.setMaximumPatternLength(maxPatternLength);
+        return algorithm.runAlgorithm(cachedDataset, null, maxSupport, 0);
+    }
+
+    @Benchmark
+    public Itemsets arenaTree() throws Exception {
+        AlgoRPGrowthArena algorithm = new AlgoRPGrowthArena();
+        algorithm.setMaximumPatternLength(maxPatternLength);
+        return algorithm.runAlgorithm(cachedDataset, null, maxSupport, 0);
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.cgks.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.spmf.rpgrowth.AlgoRPGrowth;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Compares the file input of {@link AlgoRPGrowth} (two scans and two parses of
+ * the file) with the in-memory input fed from the dataset cache.
+ * <p>
+ * The pattern length is limited to 1 by default so that the measure focuses
+ * on the input phase: without limit, rare mining on mushroom and eisen
+ * outputs millions of itemsets and the mining time hides the input time.
+ * <p>
+ * Run with {@code make bench BENCH=RPGrowthInputBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RPGrowthInputBenchmark {
+
+    @Param({ "mushroom", "eisen" })
+    public String dataset;
+
+    @Param({ "0.01" })
+    public double maxSupport;
+
+    @Param({ "1" })
+    public int maxPatternLength;
+
+    private File file;
+    private TransactionDataset cachedDataset;
+
+    @Setup
+    public void setup() throws Exception {
+        file = DatasetCache.resolve("/data/" + dataset + ".dat");
+        cachedDataset = DatasetCache.getInstance().get(file.getAbsolutePath());
+    }
+
+    @Benchmark
+    public Itemsets fileInput() throws Exception {
+        AlgoRPGrowth algorithm = new AlgoRPGrowth();
+        algorithm.setMaximumPatternLength(maxPatternLength);
+        return algorithm.runAlgorithm(file.getAbsolutePath(), null, maxSupport, 0);
+    }
+
+    @Benchmark
+    public Itemsets cachedDatasetInput() throws Exception {
+        AlgoRPGrowth algorithm = new AlgoRPGrowth();
+        algorithm.setMaximumPatternLength(maxPatternLength);
+        return algorithm.runAlgorithm(cachedDataset, null, maxSupport, 0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.spmf.rpgrowth.AlgoRPGrowthArena;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Measures how rare itemset mining with {@link AlgoRPGrowthArena} scales with
+ * the number of threads (1 runs the sequential recursion).
+ * <p>
+ * Run with {@code make bench BENCH=RPGrowthParallelBenchmark}, on a machine
+ * with at least as many cores as the largest parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RPGrowthParallelBenchmark {
+
+    @Param({ "mushroom:0.01:3", "eisen:0.001:2" })
+    public String run;
+
+    @Param({ "1", "4", "8", "16" })
+    public int parallelism;
+
+    private TransactionDataset cachedDataset;
+    private double maxSupport;
+    private int maxPatternLength;
+
+    @Setup
+    public void setup() throws Exception {
+        String[] fields = run.split(":");
+        String path = DatasetCache.resolve("/data/" + fields[0] + ".dat").getAbsolutePath();
+        cachedDataset = DatasetCache.getInstance().get(path);
+        maxSupport = Double.parseDouble(fields[1]);
+        maxPatternLength = Integer.parseInt(fields[2]);
+    }
+
+    @Benchmark
+    public Itemsets rpGrowth() throws Exception {
+        AlgoRPGrowthArena algorithm = new AlgoRPGrowthArena();
+        algorithm.setMaximumPatternLength(maxPatternLength);
+        algorithm.setParallelism(parallelism);
+        return algorithm.runAlgorithm(cachedDataset, null, maxSupport, 0);
+    }
+}
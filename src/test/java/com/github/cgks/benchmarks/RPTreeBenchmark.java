@@ -0,0 +1,59 @@
+package com.github.cgks.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.spmf.rpgrowth.AlgoRPGrowth;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+/**
+ * Measures RP-Growth mining from a cached dataset: construction of the initial
+ * RP-Tree and of the conditional trees, child lookups and header tables.
+ * <p>
+ * The thresholds are low enough for the conditional trees to dominate (on
+ * mushroom, millions of rare itemsets) while keeping the run in seconds.
+ * Compare against an older revision to measure a change of the tree.
+ * <p>
+ * Run with {@code make bench BENCH=RPTreeBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RPTreeBenchmark {
+
+    @Param({ "chess", "mushroom" })
+    public String dataset;
+
+    @Param({ "0.0005" })
+    public double maxSupport;
+
+    private TransactionDataset cachedDataset;
+
+    @Setup
+    public void setup() throws Exception {
+        String path = DatasetCache.resolve("/data/" + dataset + ".dat").getAbsolutePath();
+        cachedDataset = DatasetCache.getInstance().get(path);
+    }
+
+    @Benchmark
+    public Itemsets rareItemsets() throws Exception {
+        return new AlgoRPGrowth().runAlgorithm(cachedDataset, null, maxSupport, 0);
+    }
+}
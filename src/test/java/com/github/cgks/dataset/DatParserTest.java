@@ -0,0 +1,66 @@
+package com.github.cgks.dataset;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the memory-mapped DatParser.
+ */
+public class DatParserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TransactionDataset parse(String content) throws IOException, DatabaseException {
+        Path file = tempDir.resolve("test.dat");
+        Files.writeString(file, content);
+        return DatParser.parse(file.toFile());
+    }
+
+    @Test
+    @DisplayName("Builds the CSR layout")
+    void testCsrLayout() throws IOException, DatabaseException {
+        TransactionDataset dataset = parse("1 3 4\n2 3 5\n");
+
+        assertArrayEquals(new int[] { 0, 3, 6 }, dataset.getOffsets());
+        assertArrayEquals(new int[] { 1, 3, 4, 2, 3, 5 }, dataset.getTransactionItems());
+        assertArrayEquals(new int[] { 2, 3, 5 }, dataset.getTransaction(1));
+        assertEquals(6, dataset.getNbItemOccurrences());
+    }
+
+    @Test
+    @DisplayName("Skips comments, metadata and empty lines")
+    void testSkippedLines() throws IOException, DatabaseException {
+        TransactionDataset dataset = parse("@CONVERTED_FROM_TEXT\n# comment\n\n% 1 2\n  \n1 2\n\t3   4 \n5");
+
+        assertEquals(3, dataset.getNbTransactions());
+        assertArrayEquals(new int[] { 3, 4 }, dataset.getTransaction(1));
+        assertArrayEquals(new int[] { 5 }, dataset.getTransaction(2));
+    }
+
+    @Test
+    @DisplayName("Handles Windows line endings")
+    void testCrLf() throws IOException, DatabaseException {
+        TransactionDataset dataset = parse("1 2\r\n3\r\n");
+
+        assertEquals(2, dataset.getNbTransactions());
+        assertArrayEquals(new int[] { 3 }, dataset.getTransaction(1));
+    }
+
+    @Test
+    @DisplayName("Rejects invalid items")
+    void testInvalidItems() {
+        assertThrows(DatabaseException.class, () -> parse("1 a 3\n"));
+        assertThrows(DatabaseException.class, () -> parse("1 -2\n"));
+        assertThrows(DatabaseException.class, () -> parse("99999999999\n"));
+    }
+}
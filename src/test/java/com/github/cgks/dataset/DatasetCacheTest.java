@@ -0,0 +1,92 @@
+package com.github.cgks.dataset;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DatasetCache, using the contextPasquier99.dat dataset and
+ * small temporary files.
+ */
+public class DatasetCacheTest {
+    private static final String DATASET_PATH = "/data/contextPasquier99.dat";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Parses the dataset and computes item supports")
+    void testParse() throws DatabaseException {
+        DatasetCache cache = new DatasetCache(Long.MAX_VALUE);
+        TransactionDataset dataset = cache.get(DATASET_PATH);
+
+        assertEquals(5, dataset.getNbTransactions());
+        assertEquals(5, dataset.getNbItems());
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, dataset.getItems());
+        assertArrayEquals(new int[] { 1, 3, 4 }, dataset.getTransaction(0));
+        assertEquals(3, dataset.getItemSupport(1));
+        assertEquals(4, dataset.getItemSupport(2));
+        assertEquals(1, dataset.getItemSupport(4));
+        assertEquals(0, dataset.getItemSupport(42));
+    }
+
+    @Test
+    @DisplayName("Returns the same instance on a cache hit")
+    void testHit() throws DatabaseException {
+        DatasetCache cache = new DatasetCache(Long.MAX_VALUE);
+        TransactionDataset first = cache.get(DATASET_PATH);
+        TransactionDataset second = cache.get(DATASET_PATH);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Re-reads a file that changed since it was cached")
+    void testInvalidation() throws IOException, DatabaseException {
+        Path file = tempDir.resolve("small.dat");
+        Files.writeString(file, "1 2\n2 3\n");
+        DatasetCache cache = new DatasetCache(Long.MAX_VALUE);
+        assertEquals(2, cache.get(file.toString()).getNbTransactions());
+
+        Files.writeString(file, "1 2\n2 3\n# comment\n\n3 4\n");
+        file.toFile().setLastModified(file.toFile().lastModified() + 2000);
+        assertEquals(3, cache.get(file.toString()).getNbTransactions());
+        assertEquals(2, cache.getStats().getMisses());
+    }
+
+    @Test
+    @DisplayName("Evicts the least recently used dataset when over budget")
+    void testEviction() throws IOException, DatabaseException {
+        Path a = tempDir.resolve("a.dat");
+        Path b = tempDir.resolve("b.dat");
+        Files.writeString(a, "1 2 3\n");
+        Files.writeString(b, "4 5 6\n");
+        DatasetCache cache = new DatasetCache(Long.MAX_VALUE);
+        long weight = cache.get(a.toString()).estimateBytes();
+
+        cache.setMaxBytes(weight + weight / 2);
+        cache.get(b.toString());
+
+        assertEquals(1, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getEvictions());
+        assertTrue(cache.getStats().getBytes() <= cache.getStats().getMaxBytes());
+    }
+
+    @Test
+    @DisplayName("Throws DatabaseException for a missing dataset")
+    void testMissing() {
+        DatasetCache cache = new DatasetCache(Long.MAX_VALUE);
+        assertThrows(DatabaseException.class, () -> cache.get("/data/non_existent_file.dat"));
+        assertThrows(DatabaseException.class, () -> cache.get(""));
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.cgks.dataset;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary sidecar index files.
+ */
+public class DatasetIndexFileTest {
+    private static final String CONTENT = "1 3 4\n2 3 5\n1 2 3 5\n2 5\n1 2 3 5\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Reads back the same dataset from the index file")
+    void testRoundTrip() throws IOException, DatabaseException {
+        File datFile = tempDir.resolve("context.dat").toFile();
+        Files.writeString(datFile.toPath(), CONTENT);
+        TransactionDataset parsed = DatParser.parse(datFile);
+
+        File sidecar = DatasetIndexFile.write(datFile, true);
+        TransactionDataset indexed = DatasetIndexFile.read(sidecar, datFile);
+
+        assertNotNull(indexed);
+        assertArrayEquals(parsed.getOffsets(), indexed.getOffsets());
+        assertArrayEquals(parsed.getTransactionItems(), indexed.getTransactionItems());
+        assertArrayEquals(parsed.getItems(), indexed.getItems());
+        assertArrayEquals(parsed.getItemSupports(), indexed.getItemSupports());
+        assertArrayEquals(parsed.getTidOffsets(), indexed.getTidOffsets());
+        assertArrayEquals(parsed.getTids(), indexed.getTids());
+    }
+
+    @Test
+    @DisplayName("Ignores an index file built from another version of the dataset")
+    void testStaleIndex() throws IOException, DatabaseException {
+        File datFile = tempDir.resolve("context.dat").toFile();
+        Files.writeString(datFile.toPath(), CONTENT);
+        File sidecar = DatasetIndexFile.write(datFile, false);
+
+        Files.writeString(datFile.toPath(), CONTENT + "4\n");
+        sidecar.setLastModified(datFile.lastModified() + 2000);
+
+        assertNull(DatasetIndexFile.read(sidecar, datFile));
+        assertEquals(6, DatasetIndexFile.load(datFile).getNbTransactions());
+    }
+}
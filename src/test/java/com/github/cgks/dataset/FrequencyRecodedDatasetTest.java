@@ -0,0 +1,65 @@
+package com.github.cgks.dataset;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FrequencyRecodedDataset, with the contextPasquier99.dat dataset:
+ * 1 3 4 / 2 3 5 / 1 2 3 5 / 2 5 / 1 2 3 5
+ * Supports: 2, 3 and 5 appear 4 times, 1 appears 3 times and 4 once.
+ */
+public class FrequencyRecodedDatasetTest {
+    private TransactionDataset dataset;
+    private FrequencyRecodedDataset recoded;
+
+    @BeforeEach
+    void setUp() throws DatabaseException {
+        dataset = new DatasetCache(Long.MAX_VALUE).get("/data/contextPasquier99.dat");
+        recoded = dataset.getFrequencyRecoded();
+    }
+
+    @Test
+    @DisplayName("Numbers items by descending support, then by increasing value")
+    void testRanks() {
+        assertArrayEquals(new int[] { 2, 3, 5, 1, 4 }, recoded.getRankToItem());
+        assertEquals(0, recoded.getRank(2));
+        assertEquals(4, recoded.getRank(4));
+        assertEquals(-1, recoded.getRank(0));
+        assertEquals(-1, recoded.getRank(42));
+        assertEquals(3, recoded.getItem(1));
+        assertEquals(1, recoded.getItem(3));
+    }
+
+    @Test
+    @DisplayName("Recodes and sorts every transaction")
+    void testRecodedDataset() {
+        TransactionDataset ranks = recoded.getDataset();
+
+        assertEquals(5, ranks.getNbTransactions());
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, ranks.getItems());
+        assertArrayEquals(new int[] { 4, 4, 4, 3, 1 }, ranks.getItemSupports());
+        assertArrayEquals(new int[] { 1, 3, 4 }, ranks.getTransaction(0));
+        assertArrayEquals(new int[] { 0, 1, 2 }, ranks.getTransaction(1));
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, ranks.getTransaction(2));
+        assertArrayEquals(new int[] { 0, 2 }, ranks.getTransaction(3));
+    }
+
+    @Test
+    @DisplayName("Decodes ranks back to sorted items")
+    void testDecode() {
+        assertArrayEquals(new int[] { 1, 3, 4 }, recoded.decode(new int[] { 4, 1, 3, 0 }, 3));
+        assertArrayEquals(new int[0], recoded.decode(new int[0], 0));
+    }
+
+    @Test
+    @DisplayName("Is built once per dataset")
+    void testShared() {
+        assertSame(recoded, dataset.getFrequencyRecoded());
+        assertSame(dataset, recoded.getOriginal());
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.cgks.dataset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RoaringTidset containers, checked against BitsetTidset.
+ */
+public class RoaringTidsetTest {
+    private static final int NB_TRANSACTIONS = 200_000;
+
+    /**
+     * Draws a sorted set of tids mixing sparse values (array containers), dense
+     * chunks (bitmap containers) and long ranges (run containers).
+     */
+    private static int[] randomTids(Random random) {
+        return IntStream.range(0, NB_TRANSACTIONS).filter(tid -> {
+            int chunk = tid >>> 16;
+            if (chunk == 0) {
+                return random.nextInt(100) == 0;
+            } else if (chunk == 1) {
+                return random.nextInt(3) == 0;
+            } else {
+                return (tid / 5000) % 2 == 0;
+            }
+        }).toArray();
+    }
+
+    @Test
+    @DisplayName("Intersections and differences match the bitset representation")
+    void testAgainstBitsets() {
+        Random random = new Random(42);
+        for (int round = 0; round < 5; round++) {
+            int[] a = randomTids(random);
+            int[] b = randomTids(random);
+            RoaringTidset roaringA = RoaringTidset.of(a, 0, a.length);
+            RoaringTidset roaringB = RoaringTidset.of(b, 0, b.length);
+            BitsetTidset bitsetA = BitsetTidset.of(a, 0, a.length, NB_TRANSACTIONS);
+            BitsetTidset bitsetB = BitsetTidset.of(b, 0, b.length, NB_TRANSACTIONS);
+
+            assertArrayEquals(a, roaringA.toArray());
+            assertEquals(bitsetA.andCardinality(bitsetB), roaringA.andCardinality(roaringB));
+            assertArrayEquals(bitsetA.and(bitsetB).toArray(), roaringA.and(roaringB).toArray());
+            assertEquals(roaringA.and(roaringB).cardinality(), roaringA.andCardinality(roaringB));
+            assertTrue(roaringA.and(roaringB).isSubsetOf(roaringA));
+            assertArrayEquals(bitsetA.andNot(bitsetB).toArray(), roaringA.andNot(roaringB).toArray());
+            assertEquals(0, roaringA.andNot(roaringB).andCardinality(roaringB));
+        }
+    }
+
+    @Test
+    @DisplayName("Answers membership queries in every container type")
+    void testContains() {
+        int[] tids = randomTids(new Random(7));
+        RoaringTidset roaring = RoaringTidset.of(tids, 0, tids.length);
+        BitsetTidset bitset = BitsetTidset.of(tids, 0, tids.length, NB_TRANSACTIONS);
+        for (int tid = 0; tid < NB_TRANSACTIONS; tid += 7) {
+            assertEquals(bitset.contains(tid), roaring.contains(tid));
+        }
+        assertFalse(roaring.contains(-1));
+        assertFalse(roaring.contains(NB_TRANSACTIONS + 70_000));
+    }
+
+    @Test
+    @DisplayName("Stores consecutive ranges compactly")
+    void testRange() {
+        RoaringTidset all = RoaringTidset.range(NB_TRANSACTIONS);
+        assertEquals(NB_TRANSACTIONS, all.cardinality());
+        assertTrue(all.contains(NB_TRANSACTIONS - 1));
+        assertFalse(all.contains(NB_TRANSACTIONS));
+        assertTrue(all.estimateBytes() < 1024);
+        assertEquals(0, RoaringTidset.empty().andCardinality(all));
+    }
+}
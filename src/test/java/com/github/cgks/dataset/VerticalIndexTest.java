@@ -0,0 +1,67 @@
+package com.github.cgks.dataset;
+
+import com.github.cgks.exceptions.DatabaseException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the VerticalIndex, with the contextPasquier99.dat dataset:
+ * 1 3 4 / 2 3 5 / 1 2 3 5 / 2 5 / 1 2 3 5
+ */
+public class VerticalIndexTest {
+    private DatasetCache cache;
+    private VerticalIndex index;
+
+    @BeforeEach
+    void setUp() throws DatabaseException {
+        cache = new DatasetCache(Long.MAX_VALUE);
+        index = cache.getVerticalIndex("/data/contextPasquier99.dat");
+    }
+
+    @Test
+    @DisplayName("Computes item and itemset supports")
+    void testSupports() {
+        assertEquals(5, index.getNbTransactions());
+        assertEquals(3, index.getSupport(1));
+        assertEquals(1, index.getSupport(4));
+        assertEquals(0, index.getSupport(42));
+        assertFalse(index.contains(42));
+        assertEquals(3, index.support(2, 3));
+        assertEquals(2, index.support(1, 2, 3, 5));
+        assertEquals(0, index.support(4, 5));
+        assertEquals(5, index.support());
+    }
+
+    @Test
+    @DisplayName("Computes closures of tidsets")
+    void testClosure() {
+        assertArrayEquals(new int[] { 2, 5 }, index.closure(index.tidsetOf(2)));
+        assertArrayEquals(new int[] { 1, 3 }, index.closure(index.tidsetOf(1)));
+        assertArrayEquals(new int[0], index.closure(index.allTransactions()));
+    }
+
+    @Test
+    @DisplayName("Gives the same answers with compressed tidsets")
+    void testCompressed() throws DatabaseException {
+        VerticalIndex compressed = VerticalIndex.build(cache.get("/data/contextPasquier99.dat"), true);
+
+        assertTrue(compressed.isCompressed());
+        assertEquals(3, compressed.support(2, 3));
+        assertEquals(2, compressed.support(1, 2, 3, 5));
+        assertEquals(0, compressed.support(4, 5));
+        assertArrayEquals(new int[] { 2, 5 }, compressed.closure(compressed.tidsetOf(2)));
+        assertArrayEquals(new int[] { 0, 2, 4 }, compressed.getTidset(1).toArray());
+    }
+
+    @Test
+    @DisplayName("Is cached alongside its dataset")
+    void testCached() throws DatabaseException {
+        assertSame(index, cache.getVerticalIndex("/data/contextPasquier99.dat"));
+        long datasetBytes = cache.get("/data/contextPasquier99.dat").estimateBytes();
+        assertEquals(datasetBytes + index.estimateBytes(), cache.getStats().getBytes());
+    }
+}
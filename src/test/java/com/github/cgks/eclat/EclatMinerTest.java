@@ -0,0 +1,11 @@
+package com.github.cgks.eclat;
+
+import com.github.cgks.MinerTest;
+
+public class EclatMinerTest extends MinerTest {
+
+    @Override
+    protected EclatMiner createMiner() {
+        return new EclatMiner();
+    }
+}
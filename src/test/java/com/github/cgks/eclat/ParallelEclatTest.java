@@ -0,0 +1,217 @@
+package com.github.cgks.eclat;
+
+import com.github.cgks.dataset.VerticalIndex;
+import com.github.cgks.spmf.ParallelFPMax;
+import com.github.cgks.spmf.ParallelLCM;
+import com.github.cgks.spmf.rpgrowth.AlgoRPGrowthArena;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.cgks.spmf.ItemsetFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the parallel Eclat finds exactly the itemsets of the other
+ * engines (LCM, FPMax and RP-Growth), on the bundled datasets.
+ */
+public class ParallelEclatTest {
+    @Test
+    @DisplayName("Finds the closed itemsets of contextPasquier99")
+    void testClosedItemsets() throws Exception {
+        Set<String> expected = new HashSet<>(Arrays.asList(
+                "[3] #SUP: 4", "[2, 5] #SUP: 4", "[1, 3] #SUP: 3",
+                "[2, 3, 5] #SUP: 3", "[1, 2, 3, 5] #SUP: 2", "[1, 3, 4] #SUP: 1"));
+        assertEquals(expected, itemsets(new ParallelEclat(2).mineClosed(index("contextPasquier99"), 0.2)));
+    }
+
+    @Test
+    @DisplayName("Finds the same frequent itemsets as LCM")
+    void testSameFrequentItemsets() throws Exception {
+        assertSameItemsets("contextPasquier99", 0.2, false);
+        assertSameItemsets("iris", 0.05, false);
+        assertSameItemsets("heart-cleveland", 0.5, false);
+        assertSameItemsets("anneal", 0.85, false);
+        assertSameItemsets("chess", 0.85, false);
+        assertSameItemsets("mushroom", 0.3, false);
+        assertSameItemsets("eisen", 0.02, false);
+    }
+
+    @Test
+    @DisplayName("Finds the same closed itemsets as LCM")
+    void testSameClosedItemsets() throws Exception {
+        assertSameItemsets("contextPasquier99", 0.2, true);
+        assertSameItemsets("iris", 0.01, true);
+        assertSameItemsets("heart-cleveland", 0.2, true);
+        assertSameItemsets("anneal", 0.4, true);
+        assertSameItemsets("chess", 0.7, true);
+        assertSameItemsets("mushroom", 0.02, true);
+        assertSameItemsets("eisen", 0.005, true);
+    }
+
+    @Test
+    @DisplayName("Finds the same maximal itemsets as FPMax")
+    void testSameMaximalItemsets() throws Exception {
+        assertSameMaximalItemsets("contextPasquier99", 0.2);
+        assertSameMaximalItemsets("iris", 0.01);
+        assertSameMaximalItemsets("heart-cleveland", 0.2);
+        assertSameMaximalItemsets("anneal", 0.4);
+        assertSameMaximalItemsets("chess", 0.6);
+        assertSameMaximalItemsets("mushroom", 0.02);
+        assertSameMaximalItemsets("eisen", 0.005);
+    }
+
+    @Test
+    @DisplayName("Finds the same rare itemsets as RP-Growth")
+    void testSameRareItemsets() throws Exception {
+        assertSameRareItemsets("contextPasquier99", 0.4, 1000);
+        assertSameRareItemsets("contextPasquier99", 0.7, 1000);
+        assertSameRareItemsets("iris", 0.32, 1000);
+        assertSameRareItemsets("heart-cleveland", 0.05, 3);
+        assertSameRareItemsets("anneal", 0.02, 2);
+        assertSameRareItemsets("chess", 0.001, 3);
+        assertSameRareItemsets("mushroom", 0.0005, 3);
+        assertSameRareItemsets("mushroom", 0.002, 2);
+        assertSameRareItemsets("eisen", 0.001, 2);
+    }
+
+    @Test
+    @DisplayName("Finds the same closed itemsets as LCM with required items")
+    void testRequiredItems() throws Exception {
+        assertSameConstrained("contextPasquier99", 0.2, new int[] { 1, 3 }, new int[0]);
+        assertSameConstrained("contextPasquier99", 0.2, new int[] { 4 }, new int[0]);
+        assertSameConstrained("heart-cleveland", 0.3, new int[] { 36, 82 }, new int[0]);
+        assertSameConstrained("chess", 0.7, new int[] { 58 }, new int[0]);
+        assertSameConstrained("mushroom", 0.05, new int[] { 34 }, new int[0]);
+        assertSameConstrained("eisen", 0.005, new int[] { 123, 44 }, new int[0]);
+    }
+
+    @Test
+    @DisplayName("Finds the same closed itemsets as LCM without the excluded items")
+    void testExcludedItems() throws Exception {
+        assertSameConstrained("contextPasquier99", 0.2, new int[0], new int[] { 3 });
+        assertSameConstrained("contextPasquier99", 0.2, new int[0], new int[] { 2, 4, 42 });
+        assertSameConstrained("heart-cleveland", 0.3, new int[0], new int[] { 1, 82 });
+        assertSameConstrained("chess", 0.7, new int[0], new int[] { 7, 58, 52, 29 });
+        assertSameConstrained("mushroom", 0.05, new int[0], new int[] { 34, 86 });
+        assertSameConstrained("eisen", 0.005, new int[0], new int[] { 123 });
+    }
+
+    @Test
+    @DisplayName("Finds no itemset when a required item is excluded")
+    void testRequiredItemExcluded() throws Exception {
+        ParallelEclat algorithm = new ParallelEclat(2);
+        algorithm.setRequiredItems(new int[] { 1, 3 });
+        algorithm.setExcludedItems(new int[] { 3 });
+        assertTrue(itemsets(algorithm.mineClosed(index("contextPasquier99"), 0.2)).isEmpty());
+        assertTrue(itemsets(algorithm.mineFrequent(index("contextPasquier99"), 0.2)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Finds the same itemsets as LCM within size bounds")
+    void testSizeBounds() throws Exception {
+        assertSameSizeBounded("contextPasquier99", 0.2, 2, 3);
+        assertSameSizeBounded("contextPasquier99", 0.4, 4, 5);
+        assertSameSizeBounded("heart-cleveland", 0.5, 3, 5);
+        assertSameSizeBounded("chess", 0.8, 1, 4);
+        assertSameSizeBounded("mushroom", 0.1, 6, 6);
+        assertSameSizeBounded("anneal", 0.85, 7, 9);
+    }
+
+    @Test
+    @DisplayName("Rejects constraints when mining maximal itemsets")
+    void testConstrainedMaximal() {
+        ParallelEclat algorithm = new ParallelEclat(2);
+        algorithm.setSizeBounds(2, 3);
+        assertThrows(IllegalStateException.class, () -> algorithm.mineMaximal(index("contextPasquier99"), 0.2));
+    }
+
+    @Test
+    @DisplayName("Returns the itemsets in the same order whatever the parallelism")
+    void testDeterministicOrder() throws Exception {
+        VerticalIndex index = index("mushroom");
+        List<String> frequent = list(new ParallelEclat(1).mineFrequent(index, 0.1));
+        List<String> closed = list(new ParallelEclat(1).mineClosed(index, 0.05));
+
+        assertFalse(frequent.isEmpty());
+        assertFalse(closed.isEmpty());
+        for (int parallelism : new int[] { 3, 8 }) {
+            assertEquals(frequent, list(new ParallelEclat(parallelism).mineFrequent(index, 0.1)));
+            assertEquals(closed, list(new ParallelEclat(parallelism).mineClosed(index, 0.05)));
+        }
+    }
+
+    @Test
+    @DisplayName("Returns no itemset when no item is frequent")
+    void testNoFrequentItem() throws Exception {
+        ParallelEclat algorithm = new ParallelEclat(2);
+        assertTrue(itemsets(algorithm.mineFrequent(index("contextPasquier99"), 1.0)).isEmpty());
+        assertEquals(0, algorithm.getPatternCount());
+    }
+
+    @Test
+    @DisplayName("Rejects a parallelism below 1 and invalid size bounds")
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelEclat(0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelEclat(2).setSizeBounds(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelEclat(2).setSizeBounds(3, 2));
+    }
+
+    private void assertSameItemsets(String name, double minSupport, boolean closed) throws Exception {
+        ParallelLCM lcm = new ParallelLCM(4);
+        ParallelEclat eclat = new ParallelEclat(4);
+        Set<String> expected = itemsets(closed ? lcm.mineClosed(dataset(name), minSupport)
+                : lcm.mineFrequent(dataset(name), minSupport));
+        Set<String> actual = itemsets(closed ? eclat.mineClosed(index(name), minSupport)
+                : eclat.mineFrequent(index(name), minSupport));
+        assertEquals(expected, actual, name + " at " + minSupport + (closed ? " (closed)" : " (frequent)"));
+    }
+
+    private void assertSameMaximalItemsets(String name, double minSupport) throws Exception {
+        Set<String> expected = itemsets(new ParallelFPMax(4).mineMaximal(dataset(name), minSupport));
+        Set<String> actual = itemsets(new ParallelEclat(4).mineMaximal(index(name), minSupport));
+        assertEquals(expected, actual, name + " at " + minSupport);
+    }
+
+    private void assertSameRareItemsets(String name, double maxSupport, int maxSize) throws Exception {
+        AlgoRPGrowthArena rpGrowth = new AlgoRPGrowthArena();
+        rpGrowth.setMaximumPatternLength(maxSize);
+        ParallelEclat eclat = new ParallelEclat(4);
+        eclat.setSizeBounds(1, maxSize);
+        Set<String> expected = itemsets(rpGrowth.runAlgorithm(dataset(name), null, maxSupport, 0));
+        Set<String> actual = itemsets(eclat.mineRare(index(name), maxSupport));
+        assertFalse(actual.isEmpty(), name);
+        assertEquals(expected, actual, name + " at " + maxSupport + " up to size " + maxSize);
+    }
+
+    private void assertSameConstrained(String name, double minSupport, int[] requiredItems, int[] excludedItems)
+            throws Exception {
+        ParallelLCM lcm = new ParallelLCM(4);
+        lcm.setRequiredItems(requiredItems);
+        lcm.setExcludedItems(excludedItems);
+        ParallelEclat eclat = new ParallelEclat(4);
+        eclat.setRequiredItems(requiredItems);
+        eclat.setExcludedItems(excludedItems);
+        assertEquals(itemsets(lcm.mineClosed(dataset(name), minSupport)),
+                itemsets(eclat.mineClosed(index(name), minSupport)), name + " at " + minSupport + " with "
+                        + Arrays.toString(requiredItems) + " without " + Arrays.toString(excludedItems));
+    }
+
+    private void assertSameSizeBounded(String name, double minSupport, int minSize, int maxSize) throws Exception {
+        ParallelLCM lcm = new ParallelLCM(4);
+        lcm.setSizeBounds(minSize, maxSize);
+        ParallelEclat eclat = new ParallelEclat(4);
+        eclat.setSizeBounds(minSize, maxSize);
+        String label = name + " at " + minSupport + " with sizes " + minSize + " to " + maxSize;
+        Set<String> closed = itemsets(eclat.mineClosed(index(name), minSupport));
+        assertFalse(closed.isEmpty(), name);
+        assertEquals(itemsets(lcm.mineClosed(dataset(name), minSupport)), closed, label + " (closed)");
+        assertEquals(itemsets(lcm.mineFrequent(dataset(name), minSupport)),
+                itemsets(eclat.mineFrequent(index(name), minSupport)), label + " (frequent)");
+    }
+}
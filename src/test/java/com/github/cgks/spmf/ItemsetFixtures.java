@@ -0,0 +1,83 @@
+package com.github.cgks.spmf;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+import com.github.cgks.dataset.VerticalIndex;
+import com.github.cgks.exceptions.DatabaseException;
+
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The bundled datasets and the itemset comparisons shared by the tests of the
+ * mining engines. The datasets are loaded once, in a cache shared by all the
+ * tests.
+ */
+public final class ItemsetFixtures {
+    private static final DatasetCache CACHE = new DatasetCache(Long.MAX_VALUE);
+
+    private ItemsetFixtures() {
+    }
+
+    /**
+     * @param name The name of a bundled dataset, without its extension
+     * @return The path of the dataset
+     */
+    public static String path(String name) {
+        return "/data/" + name + ".dat";
+    }
+
+    /**
+     * @param name The name of a bundled dataset, without its extension
+     * @return The dataset
+     * @throws DatabaseException If the dataset cannot be read
+     */
+    public static TransactionDataset dataset(String name) throws DatabaseException {
+        return CACHE.get(path(name));
+    }
+
+    /**
+     * @param name The name of a bundled dataset, without its extension
+     * @return The vertical index of the dataset
+     * @throws DatabaseException If the dataset cannot be read
+     */
+    public static VerticalIndex index(String name) throws DatabaseException {
+        return CACHE.getVerticalIndex(path(name));
+    }
+
+    /**
+     * @return The itemsets, formatted by {@link #format(Itemset)}
+     */
+    public static Set<String> itemsets(Itemsets itemsets) {
+        return new HashSet<>(list(itemsets));
+    }
+
+    /**
+     * @return The itemsets in the order of their levels, formatted by {@link #format(Itemset)}
+     */
+    public static List<String> list(Itemsets itemsets) {
+        List<String> result = new ArrayList<>();
+        for (List<Itemset> level : itemsets.getLevels()) {
+            for (Itemset itemset : level) {
+                result.add(format(itemset));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The items of an itemset, sorted, and its support
+     */
+    public static String format(Itemset itemset) {
+        // compare the items whatever their order in the itemset
+        int[] items = itemset.getItems().clone();
+        Arrays.sort(items);
+        return Arrays.toString(items) + " #SUP: " + itemset.getAbsoluteSupport();
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.cgks.spmf;
+
+import com.github.cgks.dataset.VerticalIndex;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.zart.AlgoZart;
+import ca.pfv.spmf.algorithms.frequentpatterns.zart.TZTableClosed;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.cgks.spmf.ItemsetFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the parallel DefMe finds exactly the generators that SPMF's
+ * Zart associates with the closed itemsets, on the bundled datasets.
+ */
+public class ParallelDefMeTest {
+    @Test
+    @DisplayName("Finds the generators of contextPasquier99")
+    void testGenerators() throws Exception {
+        Set<String> expected = new HashSet<>(Arrays.asList(
+                "[1] #SUP: 3", "[2] #SUP: 4", "[3] #SUP: 4", "[5] #SUP: 4", "[2, 3] #SUP: 3", "[3, 5] #SUP: 3"));
+        assertEquals(expected, itemsets(new ParallelDefMe(2).mineGenerators(index("contextPasquier99"), 0.6)));
+    }
+
+    @Test
+    @DisplayName("Finds the same generators as AlgoZart")
+    void testSameGenerators() throws Exception {
+        assertSameGenerators("contextPasquier99", 0.2);
+        assertSameGenerators("iris", 0.01);
+        assertSameGenerators("heart-cleveland", 0.4);
+        assertSameGenerators("chess", 0.85);
+        assertSameGenerators("eisen", 0.02);
+    }
+
+    @Test
+    @DisplayName("Returns the itemsets in the same order whatever the parallelism")
+    void testDeterministicOrder() throws Exception {
+        VerticalIndex index = index("mushroom");
+        List<String> sequential = list(new ParallelDefMe(1).mineGenerators(index, 0.1));
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, list(new ParallelDefMe(3).mineGenerators(index, 0.1)));
+        assertEquals(sequential, list(new ParallelDefMe(8).mineGenerators(index, 0.1)));
+    }
+
+    @Test
+    @DisplayName("Returns no itemset when no item is frequent")
+    void testNoFrequentItem() throws Exception {
+        ParallelDefMe algorithm = new ParallelDefMe(2);
+        assertTrue(itemsets(algorithm.mineGenerators(index("contextPasquier99"), 1.0)).isEmpty());
+        assertEquals(0, algorithm.getPatternCount());
+    }
+
+    @Test
+    @DisplayName("Rejects a parallelism below 1")
+    void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelDefMe(0));
+    }
+
+    private void assertSameGenerators(String name, double minSupport) throws Exception {
+        TZTableClosed table = new AlgoZart().runAlgorithm(
+                ConvertToTransactionDatabase.convertDatasetToTransactionDatabase(dataset(name)), minSupport);
+        Set<String> expected = new HashSet<>();
+        for (int level = 1; level < table.levels.size(); level++) {
+            for (Itemset closed : table.levels.get(level)) {
+                List<Itemset> generators = table.mapGenerators.get(closed);
+                for (Itemset generator : generators.isEmpty() ? Arrays.asList(closed) : generators) {
+                    expected.add(format(generator));
+                }
+            }
+        }
+        Set<String> actual = itemsets(new ParallelDefMe(4).mineGenerators(index(name), minSupport));
+        assertEquals(expected, actual, name + " at " + minSupport);
+    }
+}
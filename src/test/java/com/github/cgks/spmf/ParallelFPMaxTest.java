@@ -0,0 +1,74 @@
+package com.github.cgks.spmf;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.fpgrowth.AlgoFPMax;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.cgks.spmf.ItemsetFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the parallel FPMax finds exactly the itemsets of SPMF's FPMax,
+ * on the bundled datasets.
+ */
+public class ParallelFPMaxTest {
+    @Test
+    @DisplayName("Finds the maximal itemsets of contextPasquier99")
+    void testMaximalItemsets() throws Exception {
+        Set<String> expected = new HashSet<>(Arrays.asList("[1, 3] #SUP: 3", "[2, 3, 5] #SUP: 3"));
+        assertEquals(expected, itemsets(new ParallelFPMax(2).mineMaximal(dataset("contextPasquier99"), 0.6)));
+    }
+
+    @Test
+    @DisplayName("Finds the same maximal itemsets as AlgoFPMax")
+    void testSameMaximalItemsets() throws Exception {
+        assertSameMaximalItemsets("contextPasquier99", 0.2);
+        assertSameMaximalItemsets("iris", 0.01);
+        assertSameMaximalItemsets("heart-cleveland", 0.2);
+        assertSameMaximalItemsets("anneal", 0.4);
+        assertSameMaximalItemsets("chess", 0.6);
+        assertSameMaximalItemsets("mushroom", 0.02);
+        assertSameMaximalItemsets("eisen", 0.005);
+    }
+
+    @Test
+    @DisplayName("Returns the itemsets in the same order whatever the parallelism")
+    void testDeterministicOrder() throws Exception {
+        TransactionDataset dataset = dataset("mushroom");
+        List<String> sequential = list(new ParallelFPMax(1).mineMaximal(dataset, 0.05));
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, list(new ParallelFPMax(3).mineMaximal(dataset, 0.05)));
+        assertEquals(sequential, list(new ParallelFPMax(8).mineMaximal(dataset, 0.05)));
+    }
+
+    @Test
+    @DisplayName("Returns no itemset when no item is frequent")
+    void testNoFrequentItem() throws Exception {
+        ParallelFPMax algorithm = new ParallelFPMax(2);
+        assertTrue(itemsets(algorithm.mineMaximal(dataset("contextPasquier99"), 1.0)).isEmpty());
+        assertEquals(0, algorithm.getPatternCount());
+    }
+
+    @Test
+    @DisplayName("Rejects a parallelism below 1")
+    void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFPMax(0));
+    }
+
+    private void assertSameMaximalItemsets(String name, double minSupport) throws Exception {
+        String path = DatasetCache.resolve("/data/" + name + ".dat").getAbsolutePath();
+        Set<String> expected = itemsets(new AlgoFPMax().runAlgorithm(path, null, minSupport));
+        Set<String> actual = itemsets(new ParallelFPMax(4).mineMaximal(dataset(name), minSupport));
+        assertEquals(expected, actual, name + " at " + minSupport);
+    }
+}
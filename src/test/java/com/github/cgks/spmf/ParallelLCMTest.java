@@ -0,0 +1,239 @@
+package com.github.cgks.spmf;
+
+import com.github.cgks.dataset.DatasetCache;
+import com.github.cgks.dataset.TransactionDataset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.lcm.AlgoLCM;
+import ca.pfv.spmf.algorithms.frequentpatterns.lcm.AlgoLCMFreq;
+import ca.pfv.spmf.algorithms.frequentpatterns.lcm.Dataset;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemset;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.cgks.spmf.ItemsetFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the parallel LCM finds exactly the itemsets of SPMF's LCM, on
+ * the bundled datasets.
+ */
+public class ParallelLCMTest {
+    @Test
+    @DisplayName("Finds the closed itemsets of contextPasquier99")
+    void testClosedItemsets() throws Exception {
+        Set<String> expected = new HashSet<>(Arrays.asList(
+                "[3] #SUP: 4", "[2, 5] #SUP: 4", "[1, 3] #SUP: 3",
+                "[2, 3, 5] #SUP: 3", "[1, 2, 3, 5] #SUP: 2", "[1, 3, 4] #SUP: 1"));
+        assertEquals(expected, itemsets(new ParallelLCM(2).mineClosed(dataset("contextPasquier99"), 0.2)));
+    }
+
+    @Test
+    @DisplayName("Finds the same frequent itemsets as AlgoLCMFreq")
+    void testSameFrequentItemsets() throws Exception {
+        assertSameFrequentItemsets("contextPasquier99", 0.2);
+        assertSameFrequentItemsets("iris", 0.05);
+        assertSameFrequentItemsets("heart-cleveland", 0.5);
+        assertSameFrequentItemsets("anneal", 0.85);
+        assertSameFrequentItemsets("chess", 0.85);
+        assertSameFrequentItemsets("mushroom", 0.3);
+        assertSameFrequentItemsets("eisen", 0.02);
+    }
+
+    @Test
+    @DisplayName("Finds the same closed itemsets as AlgoLCM")
+    void testSameClosedItemsets() throws Exception {
+        assertSameClosedItemsets("contextPasquier99", 0.2);
+        assertSameClosedItemsets("iris", 0.01);
+        assertSameClosedItemsets("heart-cleveland", 0.3);
+        assertSameClosedItemsets("anneal", 0.5);
+        assertSameClosedItemsets("chess", 0.7);
+        assertSameClosedItemsets("mushroom", 0.05);
+        assertSameClosedItemsets("eisen", 0.005);
+    }
+
+    @Test
+    @DisplayName("Finds the closed itemsets containing the required items, as filtering all of them")
+    void testRequiredItems() throws Exception {
+        assertSameAsFiltered("contextPasquier99", 0.2, 1, 3);
+        assertSameAsFiltered("contextPasquier99", 0.2, 4);
+        assertSameAsFiltered("heart-cleveland", 0.3, 36, 82);
+        assertSameAsFiltered("chess", 0.7, 58);
+        assertSameAsFiltered("mushroom", 0.05, 34);
+        assertSameAsFiltered("eisen", 0.005, 123, 44);
+    }
+
+    @Test
+    @DisplayName("Finds no itemset when a required item is missing or infrequent")
+    void testMissingRequiredItem() throws Exception {
+        ParallelLCM algorithm = new ParallelLCM(2);
+        algorithm.setRequiredItems(new int[] { 1, 42 });
+        assertTrue(itemsets(algorithm.mineClosed(dataset("contextPasquier99"), 0.2)).isEmpty());
+        algorithm.setRequiredItems(new int[] { 4 });
+        assertTrue(itemsets(algorithm.mineClosed(dataset("contextPasquier99"), 0.4)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Finds the closed itemsets without the excluded items, as filtering all of them")
+    void testExcludedItems() throws Exception {
+        assertSameAsFilteredOut("contextPasquier99", 0.2, 3);
+        assertSameAsFilteredOut("contextPasquier99", 0.2, 2, 4, 42);
+        assertSameAsFilteredOut("heart-cleveland", 0.3, 1, 82);
+        assertSameAsFilteredOut("chess", 0.7, 7, 58, 52, 29);
+        assertSameAsFilteredOut("mushroom", 0.05, 34, 86);
+        assertSameAsFilteredOut("eisen", 0.005, 123);
+    }
+
+    @Test
+    @DisplayName("Finds no itemset when a required item is excluded")
+    void testRequiredItemExcluded() throws Exception {
+        ParallelLCM algorithm = new ParallelLCM(2);
+        algorithm.setRequiredItems(new int[] { 1, 3 });
+        algorithm.setExcludedItems(new int[] { 3 });
+        assertTrue(itemsets(algorithm.mineClosed(dataset("contextPasquier99"), 0.2)).isEmpty());
+        assertTrue(itemsets(algorithm.mineFrequent(dataset("contextPasquier99"), 0.2)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Finds the itemsets within the size bounds, as filtering all of them")
+    void testSizeBounds() throws Exception {
+        assertSameSizeBounded("contextPasquier99", 0.2, 2, 3);
+        assertSameSizeBounded("contextPasquier99", 0.4, 4, 5);
+        assertSameSizeBounded("heart-cleveland", 0.5, 3, 5);
+        assertSameSizeBounded("chess", 0.8, 1, 4);
+        assertSameSizeBounded("mushroom", 0.1, 6, 6);
+        assertSameSizeBounded("anneal", 0.85, 7, 9);
+    }
+
+    @Test
+    @DisplayName("Rejects invalid size bounds")
+    void testInvalidSizeBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelLCM(2).setSizeBounds(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelLCM(2).setSizeBounds(3, 2));
+    }
+
+    @Test
+    @DisplayName("Returns the itemsets in the same order whatever the parallelism")
+    void testDeterministicOrder() throws Exception {
+        TransactionDataset dataset = dataset("mushroom");
+        List<String> sequential = list(new ParallelLCM(1).mineClosed(dataset, 0.1));
+
+        ParallelLCM firstLevel = new ParallelLCM(4);
+        firstLevel.setSplitDepth(1);
+        ParallelLCM deeper = new ParallelLCM(3);
+        deeper.setSplitDepth(4);
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, list(new ParallelLCM(4).mineClosed(dataset, 0.1)));
+        assertEquals(sequential, list(firstLevel.mineClosed(dataset, 0.1)));
+        assertEquals(sequential, list(deeper.mineClosed(dataset, 0.1)));
+    }
+
+    @Test
+    @DisplayName("Returns no itemset when no item is frequent")
+    void testNoFrequentItem() throws Exception {
+        ParallelLCM algorithm = new ParallelLCM(2);
+        assertTrue(itemsets(algorithm.mineClosed(dataset("contextPasquier99"), 1.0)).isEmpty());
+        assertEquals(0, algorithm.getPatternCount());
+    }
+
+    @Test
+    @DisplayName("Stops the search once the cancellation checker returns true")
+    void testCancellation() throws Exception {
+        TransactionDataset dataset = dataset("mushroom");
+        ParallelLCM complete = new ParallelLCM(1);
+        complete.mineClosed(dataset, 0.05, (pattern, support) -> { });
+        int total = complete.getPatternCount();
+        for (int parallelism : new int[] { 1, 4 }) {
+            ParallelLCM algorithm = new ParallelLCM(parallelism);
+            AtomicInteger polls = new AtomicInteger();
+            algorithm.setCancellationChecker(() -> polls.incrementAndGet() > 1000);
+            AtomicInteger delivered = new AtomicInteger();
+            assertThrows(CancellationException.class,
+                    () -> algorithm.mineClosed(dataset, 0.05, (pattern, support) -> delivered.incrementAndGet()));
+            assertTrue(delivered.get() < total, "parallelism " + parallelism);
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects a parallelism below 1")
+    void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelLCM(0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelLCM(2).setSplitDepth(0));
+    }
+
+    private void assertSameFrequentItemsets(String name, double minSupport) throws Exception {
+        Dataset spmfDataset = new Dataset(DatasetCache.resolve("/data/" + name + ".dat").getAbsolutePath());
+        Set<String> expected = itemsets(new AlgoLCMFreq().runAlgorithm(minSupport, spmfDataset, null));
+        Set<String> actual = itemsets(new ParallelLCM(4).mineFrequent(dataset(name), minSupport));
+        assertEquals(expected, actual, name + " at " + minSupport);
+    }
+
+    private void assertSameClosedItemsets(String name, double minSupport) throws Exception {
+        Dataset spmfDataset = new Dataset(DatasetCache.resolve("/data/" + name + ".dat").getAbsolutePath());
+        Set<String> expected = itemsets(new AlgoLCM().runAlgorithm(minSupport, spmfDataset, null));
+        Set<String> actual = itemsets(new ParallelLCM(4).mineClosed(dataset(name), minSupport));
+        assertEquals(expected, actual, name + " at " + minSupport);
+    }
+
+    private void assertSameAsFiltered(String name, double minSupport, int... requiredItems) throws Exception {
+        Set<String> expected = new HashSet<>();
+        for (List<Itemset> level : new ParallelLCM(4).mineClosed(dataset(name), minSupport).getLevels()) {
+            for (Itemset itemset : level) {
+                if (Arrays.stream(requiredItems).allMatch(item -> itemset.contains(item))) {
+                    expected.add(format(itemset));
+                }
+            }
+        }
+        ParallelLCM algorithm = new ParallelLCM(4);
+        algorithm.setRequiredItems(requiredItems);
+        Set<String> actual = itemsets(algorithm.mineClosed(dataset(name), minSupport));
+        assertFalse(actual.isEmpty(), name);
+        assertEquals(expected, actual, name + " at " + minSupport + " with " + Arrays.toString(requiredItems));
+    }
+
+    private void assertSameAsFilteredOut(String name, double minSupport, int... excludedItems) throws Exception {
+        Set<String> expected = new HashSet<>();
+        for (List<Itemset> level : new ParallelLCM(4).mineClosed(dataset(name), minSupport).getLevels()) {
+            for (Itemset itemset : level) {
+                if (Arrays.stream(excludedItems).noneMatch(item -> itemset.contains(item))) {
+                    expected.add(format(itemset));
+                }
+            }
+        }
+        ParallelLCM algorithm = new ParallelLCM(4);
+        algorithm.setExcludedItems(excludedItems);
+        Set<String> actual = itemsets(algorithm.mineClosed(dataset(name), minSupport));
+        assertEquals(expected, actual, name + " at " + minSupport + " without " + Arrays.toString(excludedItems));
+    }
+
+    private void assertSameSizeBounded(String name, double minSupport, int minSize, int maxSize) throws Exception {
+        ParallelLCM bounded = new ParallelLCM(4);
+        bounded.setSizeBounds(minSize, maxSize);
+        for (boolean closed : new boolean[] { true, false }) {
+            Itemsets all = closed ? new ParallelLCM(4).mineClosed(dataset(name), minSupport)
+                    : new ParallelLCM(4).mineFrequent(dataset(name), minSupport);
+            Set<String> expected = new HashSet<>();
+            for (List<Itemset> level : all.getLevels()) {
+                for (Itemset itemset : level) {
+                    if (itemset.size() >= minSize && itemset.size() <= maxSize) {
+                        expected.add(format(itemset));
+                    }
+                }
+            }
+            Set<String> actual = itemsets(closed ? bounded.mineClosed(dataset(name), minSupport)
+                    : bounded.mineFrequent(dataset(name), minSupport));
+            assertFalse(actual.isEmpty(), name);
+            assertEquals(expected, actual, name + " at " + minSupport + " with sizes " + minSize + " to " + maxSize
+                    + (closed ? " (closed)" : " (frequent)"));
+        }
+    }
+}
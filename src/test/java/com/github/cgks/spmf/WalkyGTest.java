@@ -0,0 +1,58 @@
+package com.github.cgks.spmf;
+
+import com.github.cgks.dataset.DatasetCache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ca.pfv.spmf.algorithms.frequentpatterns.apriori_rare.AlgoAprioriRare;
+import ca.pfv.spmf.patterns.itemset_array_integers_with_count.Itemsets;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.github.cgks.spmf.ItemsetFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that Walky-G finds exactly the minimal rare itemsets that SPMF's
+ * AprioriRare finds, on the bundled datasets.
+ */
+public class WalkyGTest {
+    @Test
+    @DisplayName("Finds the minimal rare itemsets of contextPasquier99")
+    void testMinimalRare() throws Exception {
+        Set<String> expected = new HashSet<>(Arrays.asList(
+                "[1] #SUP: 3", "[4] #SUP: 1", "[2, 3] #SUP: 3", "[3, 5] #SUP: 3"));
+        assertEquals(expected, itemsets(new WalkyG().mineMinimalRare(index("contextPasquier99"), 0.7)));
+    }
+
+    @Test
+    @DisplayName("Finds the same minimal rare itemsets as AlgoAprioriRare")
+    void testSameMinimalRare() throws Exception {
+        assertSameMinimalRare("contextPasquier99", 0.4);
+        assertSameMinimalRare("iris", 0.05);
+        assertSameMinimalRare("heart-cleveland", 0.4);
+        assertSameMinimalRare("mushroom", 0.3);
+        assertSameMinimalRare("chess", 0.85);
+        assertSameMinimalRare("eisen", 0.02);
+    }
+
+    @Test
+    @DisplayName("Returns only the rare items when no item is frequent")
+    void testNoFrequentItem() throws Exception {
+        WalkyG algorithm = new WalkyG();
+        Set<String> expected = new HashSet<>(Arrays.asList(
+                "[1] #SUP: 3", "[2] #SUP: 4", "[3] #SUP: 4", "[4] #SUP: 1", "[5] #SUP: 4"));
+        assertEquals(expected, itemsets(algorithm.mineMinimalRare(index("contextPasquier99"), 1.0)));
+        assertEquals(0, algorithm.getGeneratorCount());
+    }
+
+    private void assertSameMinimalRare(String name, double maxSupport) throws Exception {
+        Itemsets aprioriRare = new AlgoAprioriRare().runAlgorithm(maxSupport,
+                DatasetCache.resolve(path(name)).getAbsolutePath(), null);
+        Set<String> actual = itemsets(new WalkyG().mineMinimalRare(index(name), maxSupport));
+        assertEquals(itemsets(aprioriRare), actual, name + " at " + maxSupport);
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.cgks.spmf.rpgrowth;
+
+import com.github.cgks.dataset.TransactionDataset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.cgks.spmf.ItemsetFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the arena-based RP-Growth finds exactly the rare itemsets of
+ * AlgoRPGrowth, on the bundled datasets whose transactions have fewer than 32
+ * items: AlgoRPGrowth enumerates the subsets of a single path as the bits of
+ * an int, so it drops some subsets of longer paths.
+ */
+public class AlgoRPGrowthArenaTest {
+    @Test
+    @DisplayName("Finds the same rare itemsets as AlgoRPGrowth")
+    void testSameItemsets() throws Exception {
+        assertSameItemsets("contextPasquier99", 0.4, 1000);
+        assertSameItemsets("contextPasquier99", 0.7, 1000);
+        assertSameItemsets("iris", 0.32, 1000);
+    }
+
+    @Test
+    @DisplayName("Finds the same rare itemsets as AlgoRPGrowth with a maximum pattern length")
+    void testSameItemsetsWithMaximumLength() throws Exception {
+        assertSameItemsets("contextPasquier99", 0.7, 2);
+        assertSameItemsets("iris", 0.32, 2);
+        assertSameItemsets("mushroom", 0.002, 2);
+        assertSameItemsets("mushroom", 0.0005, 3);
+    }
+
+    @Test
+    @DisplayName("Finds the subsets of a single path longer than 32 nodes with a maximum pattern length")
+    void testLongSinglePath() throws Exception {
+        assertSinglePathItemsets(39, 3);
+        assertSinglePathItemsets(70, 2);
+    }
+
+    @Test
+    @DisplayName("Finds the same itemsets on repeated runs of an instance")
+    void testRepeatedRuns() throws Exception {
+        TransactionDataset dataset = dataset("heart-cleveland");
+        AlgoRPGrowthArena algorithm = new AlgoRPGrowthArena();
+        algorithm.setMaximumPatternLength(3);
+
+        Set<String> first = itemsets(algorithm.runAlgorithm(dataset, null, 0.05, 0));
+        AlgoRPGrowthArena other = new AlgoRPGrowthArena();
+        other.setMaximumPatternLength(3);
+        other.runAlgorithm(dataset("anneal"), null, 0.005, 0);
+        Set<String> second = itemsets(algorithm.runAlgorithm(dataset, null, 0.05, 0));
+
+        assertFalse(first.isEmpty());
+        assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Returns the itemsets in the same order whatever the parallelism")
+    void testParallelRuns() throws Exception {
+        assertSameAsSequential("contextPasquier99", 0.7, 1000);
+        assertSameAsSequential("heart-cleveland", 0.05, 4);
+        assertSameAsSequential("anneal", 0.005, 3);
+        assertSameAsSequential("mushroom", 0.01, 3);
+        assertSameAsSequential("eisen", 0.001, 2);
+    }
+
+    @Test
+    @DisplayName("Rejects a parallelism or a split depth below 1")
+    void testInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new AlgoRPGrowthArena().setParallelism(0));
+        assertThrows(IllegalArgumentException.class, () -> new AlgoRPGrowthArena().setSplitDepth(0));
+    }
+
+    /**
+     * Mines a dataset whose only rare item 1 occurs in a single transaction,
+     * with the pathLength frequent items from 2: the conditional tree of item 1
+     * is a single path of pathLength nodes.
+     */
+    private void assertSinglePathItemsets(int pathLength, int maxPatternLength) throws Exception {
+        int nbTransactions = 10;
+        int[] offsets = new int[nbTransactions + 1];
+        int[] transactionItems = new int[nbTransactions * pathLength + 1];
+        int length = 0;
+        for (int t = 0; t < nbTransactions; t++) {
+            offsets[t] = length;
+            for (int item = t == 0 ? 1 : 2; item <= pathLength + 1; item++) {
+                transactionItems[length++] = item;
+            }
+        }
+        offsets[nbTransactions] = length;
+        TransactionDataset dataset = new TransactionDataset("single-path", offsets, transactionItems);
+
+        // item 1 with every subset of the path having at most maxPatternLength - 1 items
+        Set<String> expected = new HashSet<>();
+        expected.add("[1] #SUP: 1");
+        for (int x = 2; x <= pathLength + 1; x++) {
+            expected.add("[1, " + x + "] #SUP: 1");
+            for (int y = x + 1; y <= pathLength + 1 && maxPatternLength > 2; y++) {
+                expected.add("[1, " + x + ", " + y + "] #SUP: 1");
+            }
+        }
+
+        AlgoRPGrowthArena algorithm = new AlgoRPGrowthArena();
+        algorithm.setMaximumPatternLength(maxPatternLength);
+        assertEquals(expected, itemsets(algorithm.runAlgorithm(dataset, null, 0.5, 0)),
+                "path of " + pathLength + " nodes");
+    }
+
+    private void assertSameAsSequential(String name, double maxSupport, int maxPatternLength) throws Exception {
+        TransactionDataset dataset = dataset(name);
+        AlgoRPGrowthArena sequential = new AlgoRPGrowthArena();
+        sequential.setMaximumPatternLength(maxPatternLength);
+        List<String> expected = list(sequential.runAlgorithm(dataset, null, maxSupport, 0));
+        assertFalse(expected.isEmpty(), name);
+
+        for (int splitDepth = 1; splitDepth <= 3; splitDepth++) {
+            AlgoRPGrowthArena parallel = new AlgoRPGrowthArena();
+            parallel.setMaximumPatternLength(maxPatternLength);
+            parallel.setParallelism(4);
+            parallel.setSplitDepth(splitDepth);
+            assertEquals(expected, list(parallel.runAlgorithm(dataset, null, maxSupport, 0)),
+                    name + " at " + maxSupport + " split at depth " + splitDepth);
+        }
+    }
+
+    private void assertSameItemsets(String name, double maxSupport, int maxPatternLength) throws Exception {
+        TransactionDataset dataset = dataset(name);
+
+        AlgoRPGrowth reference = new AlgoRPGrowth();
+        reference.setMaximumPatternLength(maxPatternLength);
+        AlgoRPGrowthArena arena = new AlgoRPGrowthArena();
+        arena.setMaximumPatternLength(maxPatternLength);
+
+        Set<String> expected = itemsets(reference.runAlgorithm(dataset, null, maxSupport, 0));
+        Set<String> actual = itemsets(arena.runAlgorithm(dataset, null, maxSupport, 0));
+        assertEquals(expected, actual, name + " at " + maxSupport);
+    }
+}